@@ -1,8 +1,11 @@
 
 package com.krishhortus;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -23,20 +26,23 @@ import org.springframework.web.bind.annotation.RestController;
  * @author Krish Hortus Development Team
  * @version 1.0.0
  */
-@SpringBootApplication
+// Authentication is by JWT; no generated in-memory user
+@SpringBootApplication(exclude = UserDetailsServiceAutoConfiguration.class)
 @RestController
 @CrossOrigin(origins = {"http://localhost:5173", "https://*.lovable.app"})
 public class Application {
 
+    private static final Logger log = LoggerFactory.getLogger(Application.class);
+
     /**
      * Main method to start the Spring Boot application
      * 
      * @param args Command line arguments passed to the application
      */
     public static void main(String[] args) {
-        System.out.println("Starting Krish Hortus API Server...");
+        log.info("Starting Krish Hortus API Server...");
         SpringApplication.run(Application.class, args);
-        System.out.println("Krish Hortus API Server started successfully!");
+        log.info("Krish Hortus API Server started successfully!");
     }
 
     /**
@@ -0,0 +1,171 @@
+package com.krishhortus.ai;
+
+import com.krishhortus.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-batching in front of the {@link TreeIdentifier}
+ *
+ * Photos to identify are queued and sent to the backend in batches:
+ * - A worker takes the first waiting photo, then collects more for at most
+ *   {@code max-wait} or until the batch is full, and identifies them in one
+ *   backend call; under load batches fill up at once, when idle a photo
+ *   waits no longer than {@code max-wait}
+ * - A few workers call the backend concurrently, which bounds the number
+ *   of backend requests in flight
+ * - The queue is bounded; when it is full the request is rejected at once
+ *   with 503 and {@code Retry-After}, as are requests of a failed batch
+ *
+ * Published metrics: {@code krishhortus.ai.batch.size},
+ * {@code krishhortus.ai.backend} (time per backend call),
+ * {@code krishhortus.ai.queue.depth} and {@code krishhortus.ai.rejected}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class IdentificationBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(IdentificationBatcher.class);
+
+    private final TreeIdentifier identifier;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final long maxWaitNanos;
+    private final Duration retryAfter;
+    private final List<Thread> workers = new ArrayList<>();
+    private final DistributionSummary batchSizes;
+    private final Timer backendTimer;
+    private final Counter rejected;
+
+    public IdentificationBatcher(TreeIdentifier identifier,
+                                 @Value("${krishhortus.ai.batch.size:8}") int batchSize,
+                                 @Value("${krishhortus.ai.batch.max-wait:20ms}") Duration maxWait,
+                                 @Value("${krishhortus.ai.batch.workers:2}") int workerCount,
+                                 @Value("${krishhortus.ai.batch.queue-capacity:64}") int queueCapacity,
+                                 @Value("${krishhortus.ai.batch.retry-after:2s}") Duration retryAfter,
+                                 MeterRegistry meterRegistry) {
+        this.identifier = identifier;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, Math.min(batchSize, identifier.maxBatchSize()));
+        this.maxWaitNanos = maxWait.toNanos();
+        this.retryAfter = retryAfter;
+
+        this.batchSizes = DistributionSummary.builder("krishhortus.ai.batch.size")
+            .description("Photos per identification backend call")
+            .register(meterRegistry);
+        this.backendTimer = Timer.builder("krishhortus.ai.backend")
+            .description("Time per identification backend call")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejected = Counter.builder("krishhortus.ai.rejected")
+            .description("Identifications rejected because the queue was full")
+            .register(meterRegistry);
+        Gauge.builder("krishhortus.ai.queue.depth", queue, BlockingQueue::size)
+            .description("Photos waiting for identification")
+            .register(meterRegistry);
+
+        for (int i = 1; i <= workerCount; i++) {
+            Thread worker = new Thread(this::run, "identification-batcher-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Queue a photo for identification
+     *
+     * @param image Photo to identify
+     * @return Future of the identification
+     * @throws ServiceUnavailableException if the queue is full
+     */
+    public CompletableFuture<TreeIdentification> submit(TreeIdentifier.Image image) {
+        Pending pending = new Pending(image, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many identifications in progress, please retry shortly",
+                retryAfter);
+        }
+        return pending.result();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    // Take what is already waiting without blocking
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    Pending more = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (more == null) {
+                        break;
+                    }
+                    batch.add(more);
+                }
+                identify(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void identify(List<Pending> batch) {
+        List<TreeIdentifier.Image> images = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            images.add(pending.image());
+        }
+        batchSizes.record(batch.size());
+        long start = System.nanoTime();
+        try {
+            List<TreeIdentification> results = identifier.identify(images);
+            if (results.size() != batch.size()) {
+                throw new IllegalStateException("Identifier returned " + results.size()
+                    + " results for " + batch.size() + " photos");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Tree identification failed for a batch of {}", batch.size(), e);
+            ServiceUnavailableException failure =
+                new ServiceUnavailableException("Tree identification is unavailable, please retry shortly", retryAfter);
+            for (Pending pending : batch) {
+                pending.result().completeExceptionally(failure);
+            }
+        } finally {
+            backendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private record Pending(TreeIdentifier.Image image, CompletableFuture<TreeIdentification> result) {
+    }
+}
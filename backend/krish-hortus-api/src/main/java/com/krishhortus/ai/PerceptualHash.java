@@ -0,0 +1,75 @@
+package com.krishhortus.ai;
+
+import com.krishhortus.storage.ImageResizer;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * 64-bit difference hash (dHash) of an image
+ *
+ * The image is reduced to a 9x8 grayscale thumbnail and each bit records
+ * whether a pixel is brighter than its right neighbour. Re-encoding,
+ * resizing, small crops and exposure changes flip only a few bits, so
+ * photos of the same scene taken moments apart hash to nearby values;
+ * {@link #distance(long, long)} counts the differing bits.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public final class PerceptualHash {
+
+    private static final int WIDTH = 9;
+    private static final int HEIGHT = 8;
+    // Intermediate size: downscaled in halving steps first to avoid aliasing
+    private static final int PREVIEW_SIZE = 64;
+
+    private PerceptualHash() {
+    }
+
+    /**
+     * @param content Encoded image
+     * @return Difference hash, or null if the format cannot be decoded
+     * @throws IOException if the image is corrupt
+     */
+    public static Long of(byte[] content) throws IOException {
+        ImageResizer.Decoded decoded = ImageResizer.read(content, PREVIEW_SIZE);
+        return decoded != null ? of(decoded.image()) : null;
+    }
+
+    /**
+     * @param image Decoded image
+     * @return Difference hash
+     */
+    public static long of(BufferedImage image) {
+        BufferedImage preview = ImageResizer.scale(image, PREVIEW_SIZE);
+        BufferedImage gray = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = gray.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(preview, 0, 0, WIDTH, HEIGHT, null);
+        g.dispose();
+
+        int[] pixels = gray.getRaster().getPixels(0, 0, WIDTH, HEIGHT, (int[]) null);
+        long hash = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH - 1; x++) {
+                hash <<= 1;
+                if (pixels[y * WIDTH + x] > pixels[y * WIDTH + x + 1]) {
+                    hash |= 1;
+                }
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @param a First hash
+     * @param b Second hash
+     * @return Number of differing bits (0-64)
+     */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
@@ -0,0 +1,92 @@
+package com.krishhortus.ai;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bounded lookup of identifications by perceptual hash
+ *
+ * Finds the identification of the most similar recent photo, i.e. the one
+ * whose {@link PerceptualHash} differs in the fewest bits. Entries are kept
+ * in a ring of primitive arrays; when it is full the oldest entry is
+ * replaced. A lookup compares against every entry, which for the few
+ * thousand entries kept is a tight loop of XOR and popcount over one
+ * {@code long[]} and costs microseconds.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class SimilarImageIndex {
+
+    private final long[] hashes;
+    private final TreeIdentification[] results;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int size;
+    private int next;
+
+    /**
+     * @param capacity Maximum number of entries
+     */
+    public SimilarImageIndex(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.hashes = new long[capacity];
+        this.results = new TreeIdentification[capacity];
+    }
+
+    /**
+     * Add an entry, replacing the oldest one if the index is full
+     *
+     * @param hash Perceptual hash of the photo
+     * @param result Identification of the photo
+     */
+    public void add(long hash, TreeIdentification result) {
+        lock.writeLock().lock();
+        try {
+            hashes[next] = hash;
+            results[next] = result;
+            next = (next + 1) % hashes.length;
+            size = Math.min(size + 1, hashes.length);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the identification of the most similar photo
+     *
+     * @param hash Perceptual hash of the photo to look up
+     * @param maxDistance Largest accepted number of differing bits
+     * @return Identification of the closest entry within {@code maxDistance}, or null
+     */
+    public TreeIdentification findSimilar(long hash, int maxDistance) {
+        lock.readLock().lock();
+        try {
+            int best = -1;
+            int bestDistance = maxDistance + 1;
+            for (int i = 0; i < size; i++) {
+                int distance = Long.bitCount(hashes[i] ^ hash);
+                if (distance < bestDistance) {
+                    best = i;
+                    bestDistance = distance;
+                }
+            }
+            return best >= 0 ? results[best] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of entries
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.krishhortus.ai;
+
+import com.krishhortus.ai.TreeIdentification.Taxonomy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local stand-in for a tree identification model
+ *
+ * Picks a species from a small catalog of common Indian trees, derived from
+ * the photo's content hash, so the same photo always gets the same answer.
+ * Each call waits for a configurable latency to behave like a remote model
+ * whose cost is per request rather than per photo. Meant for development
+ * and load tests; answers are not real identifications.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "krishhortus.ai", name = "identifier", havingValue = "stub", matchIfMissing = true)
+public class StubTreeIdentifier implements TreeIdentifier {
+
+    private static final List<TreeIdentification> CATALOG = List.of(
+        new TreeIdentification("Neem", "Azadirachta indica", "नीम", 0,
+            List.of("medicinal", "timber", "shade"),
+            new Taxonomy("Plantae", "Meliaceae", "Azadirachta", "A. indica"),
+            List.of("Antibacterial leaf extracts", "Traditional skin remedies"),
+            "Drought tolerant shade tree; flowers feed bees in the dry season",
+            "Fast-growing evergreen tree of the mahogany family, native to the Indian subcontinent."),
+        new TreeIdentification("Banyan", "Ficus benghalensis", "बरगद", 0,
+            List.of("shade", "sacred", "fodder"),
+            new Taxonomy("Plantae", "Moraceae", "Ficus", "F. benghalensis"),
+            List.of("Bark decoctions used in traditional medicine"),
+            "Figs feed birds and bats year round; aerial roots shelter many species",
+            "Large fig tree whose aerial prop roots grow into additional trunks; the national tree of India."),
+        new TreeIdentification("Mango", "Mangifera indica", "आम", 0,
+            List.of("fruit", "shade", "timber"),
+            new Taxonomy("Plantae", "Anacardiaceae", "Mangifera", "M. indica"),
+            List.of("Leaves used in traditional remedies for diabetes"),
+            "Flowers support pollinators; fruit feeds birds and mammals",
+            "Evergreen fruit tree cultivated across India for its fruit."),
+        new TreeIdentification("Peepal", "Ficus religiosa", "पीपल", 0,
+            List.of("sacred", "shade", "medicinal"),
+            new Taxonomy("Plantae", "Moraceae", "Ficus", "F. religiosa"),
+            List.of("Bark and leaves used in traditional medicine"),
+            "Keystone fig species for frugivorous birds",
+            "Sacred fig with heart-shaped leaves ending in a long drip tip."),
+        new TreeIdentification("Tamarind", "Tamarindus indica", "इमली", 0,
+            List.of("fruit", "timber", "shade"),
+            new Taxonomy("Plantae", "Fabaceae", "Tamarindus", "T. indica"),
+            List.of("Fruit pulp used as a mild laxative"),
+            "Nitrogen-fixing legume that improves poor soils",
+            "Long-lived leguminous tree grown for its sour fruit pulp."),
+        new TreeIdentification("Jamun", "Syzygium cumini", "जामुन", 0,
+            List.of("fruit", "medicinal", "shade"),
+            new Taxonomy("Plantae", "Myrtaceae", "Syzygium", "S. cumini"),
+            List.of("Seeds used in traditional remedies for diabetes"),
+            "Fruit is eaten by birds, bats and primates",
+            "Evergreen tree bearing dark purple berries in the monsoon."));
+
+    private final Duration latency;
+
+    public StubTreeIdentifier(@Value("${krishhortus.ai.stub.latency:150ms}") Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public List<TreeIdentification> identify(List<Image> images) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Identification interrupted", e);
+            }
+        }
+
+        List<TreeIdentification> results = new ArrayList<>(images.size());
+        for (Image image : images) {
+            int bits = Integer.parseUnsignedInt(image.contentHash().substring(0, 8), 16);
+            TreeIdentification species = CATALOG.get(Integer.remainderUnsigned(bits, CATALOG.size()));
+            double confidence = 0.60 + (bits >>> 24) / 255.0 * 0.35;
+            results.add(new TreeIdentification(species.commonName(), species.scientificName(), species.localName(),
+                Math.round(confidence * 100) / 100.0, species.uses(), species.taxonomy(),
+                species.medicinalBenefits(), species.ecologicalRelevance(), species.description()));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,40 @@
+package com.krishhortus.ai;
+
+import java.util.List;
+
+/**
+ * Result of identifying a tree from a photo
+ *
+ * Serialized as the {@code TreeIdentificationResult} the frontend's tree
+ * form expects.
+ *
+ * @param commonName English name
+ * @param scientificName Botanical name
+ * @param localName Hindi or regional name, or null
+ * @param confidence Confidence of the identification between 0 and 1
+ * @param uses Typical uses, e.g. medicinal, timber, fruit, shade
+ * @param taxonomy Taxonomic classification, or null
+ * @param medicinalBenefits Known medicinal uses
+ * @param ecologicalRelevance Role in the local ecosystem, or null
+ * @param description Short description, or null
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record TreeIdentification(
+        String commonName,
+        String scientificName,
+        String localName,
+        double confidence,
+        List<String> uses,
+        Taxonomy taxonomy,
+        List<String> medicinalBenefits,
+        String ecologicalRelevance,
+        String description) {
+
+    /**
+     * Taxonomic classification of an identified tree
+     */
+    public record Taxonomy(String kingdom, String family, String genus, String species) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.krishhortus.ai;
+
+import com.krishhortus.storage.ImageType;
+
+import java.util.List;
+
+/**
+ * Backend that identifies trees from photos, e.g. a vision model
+ *
+ * Called by {@link IdentificationBatcher} with batches of photos, so
+ * implementations can send one request per batch instead of one per photo.
+ * The implementation is selected with {@code krishhortus.ai.identifier};
+ * {@code stub} selects {@link StubTreeIdentifier}.
+ *
+ * Implementations are called from several batcher threads at once and must
+ * be thread safe. Caching and deduplication happen before the backend is
+ * called; every photo passed in is distinct.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public interface TreeIdentifier {
+
+    /**
+     * Identify the trees in a batch of photos
+     *
+     * @param images Photos to identify, at most {@link #maxBatchSize()}
+     * @return One identification per photo, in the same order
+     */
+    List<TreeIdentification> identify(List<Image> images);
+
+    /**
+     * @return Largest number of photos accepted per call
+     */
+    default int maxBatchSize() {
+        return 16;
+    }
+
+    /**
+     * A photo to identify
+     *
+     * @param content Encoded image
+     * @param type Image format detected from the content
+     * @param contentHash Hex SHA-256 of the content
+     */
+    record Image(byte[] content, ImageType type, String contentHash) {
+    }
+}
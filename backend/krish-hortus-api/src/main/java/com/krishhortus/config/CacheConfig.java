@@ -0,0 +1,61 @@
+package com.krishhortus.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.krishhortus.ai.TreeIdentification;
+import com.krishhortus.model.Tree;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-memory cache configuration for Krish Hortus API
+ *
+ * Defines the tree-by-id cache in front of the database. Caffeine's
+ * W-TinyLFU admission keeps frequently tapped trees resident while one-off
+ * lookups are evicted first. The cache is bounded in size and entries expire
+ * after a fixed time as a safety net; writes invalidate entries explicitly.
+ *
+ * Also defines the cache of tree identifications by photo content hash.
+ * Identifications never change for a given photo; they expire only so a
+ * better identification backend eventually replaces old answers.
+ *
+ * Hit, miss and eviction counts are published as {@code cache.gets},
+ * {@code cache.evictions} and related meters tagged {@code cache=trees} and
+ * {@code cache=identifications} on the Actuator metrics endpoint.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public Cache<String, Tree> treeCache(MeterRegistry meterRegistry,
+                                         @Value("${krishhortus.cache.trees.maximum-size:10000}") long maximumSize,
+                                         @Value("${krishhortus.cache.trees.expire-after-write:10m}") Duration expireAfterWrite) {
+        Cache<String, Tree> cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "trees");
+    }
+
+    @Bean
+    public Cache<String, TreeIdentification> identificationCache(
+            MeterRegistry meterRegistry,
+            @Value("${krishhortus.ai.cache.maximum-size:10000}") long maximumSize,
+            @Value("${krishhortus.ai.cache.expire-after-write:7d}") Duration expireAfterWrite) {
+        Cache<String, TreeIdentification> cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterWrite)
+            .recordStats()
+            .build();
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "identifications");
+    }
+}
@@ -0,0 +1,174 @@
+package com.krishhortus.config;
+
+import com.krishhortus.exception.ServiceUnavailableException;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Data source admitting a bounded number of connection holders
+ *
+ * Wraps the connection pool with a semaphore of {@code permits}, normally
+ * the pool size: a caller takes a permit before it asks the pool for a
+ * connection and returns it when it closes the connection. With request
+ * handlers on virtual threads there is no worker pool limiting how many
+ * requests reach the database at once, so this is where they queue:
+ * - Up to {@code maxWaiting} callers wait, in arrival order, at most
+ *   {@code timeout} for a permit
+ * - Further callers, and callers still waiting after {@code timeout}, are
+ *   rejected with {@link ServiceUnavailableException} (503 with
+ *   {@code Retry-After}) instead of piling up behind the pool
+ * - The pool itself never has waiters, and no more threads than it has
+ *   connections are ever inside the JDBC driver, whose locks would pin
+ *   the carriers of virtual threads
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class ConnectionAdmission extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final int permitCount;
+    private final int maxWaiting;
+    private final long timeoutNanos;
+    private final Duration retryAfter;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public ConnectionAdmission(DataSource pool, int permits, int maxWaiting, Duration timeout, Duration retryAfter) {
+        super(pool);
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Connection admission permits must be positive");
+        }
+        this.permits = new Semaphore(permits, true);
+        this.permitCount = permits;
+        this.maxWaiting = maxWaiting;
+        this.timeoutNanos = timeout.toNanos();
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return admitted(super.getConnection());
+        } catch (SQLException | RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return admitted(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException | Error e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Number of permits, the most connections held at once
+     */
+    public int getPermits() {
+        return permitCount;
+    }
+
+    /**
+     * @return Permits currently taken
+     */
+    public int getActive() {
+        return permitCount - permits.availablePermits();
+    }
+
+    /**
+     * @return Callers waiting for a permit
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * @return Callers rejected since startup
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            throw reject("Too many requests waiting for the database, please retry later");
+        }
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw reject("Database busy, please retry later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private ServiceUnavailableException reject(String message) {
+        rejected.incrementAndGet();
+        return new ServiceUnavailableException(message, retryAfter);
+    }
+
+    /**
+     * Wrap a pooled connection so closing it also returns the permit, once
+     */
+    private Connection admitted(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (isClose(method)) {
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    if (released.compareAndSet(false, true)) {
+                        permits.release();
+                    }
+                }
+            }
+            if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                return System.identityHashCode(proxy);
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, handler);
+    }
+
+    private static boolean isClose(Method method) {
+        return method.getName().equals("close") && method.getParameterCount() == 0;
+    }
+}
@@ -0,0 +1,124 @@
+package com.krishhortus.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.krishhortus.geo.PartitionedTreeIndex;
+import com.krishhortus.security.RateLimiter;
+import com.krishhortus.security.RateLimiter.EndpointClass;
+import com.krishhortus.security.TokenRevocationService;
+import com.krishhortus.service.ChangeSequence;
+import com.krishhortus.service.TreeEventFeed;
+import com.krishhortus.service.TreeIngestService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Gauges for the in-memory state of Krish Hortus API
+ *
+ * Exposes the size of the structures that grow with the data and with
+ * client load, sampled only when metrics are scraped:
+ * - Trees held by the spatial index
+ * - Open change feed connections, and those dropped for stalled writes
+ * - Stable change sequence number
+ * - Batch ingest chunks waiting for a writer
+ * - Revoked tokens and sessions, and how often the revocation filter
+ *   had to fall back to the store
+ * - Log lines waiting for the background log writer
+ * - Clients with a rate limit bucket and rejected requests, per endpoint
+ *   class
+ * - Trees per partition of the spatial index and partition cell splits
+ *
+ * Tree cache size, hits and evictions are published by {@link CacheConfig}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder treeStateGauges(PartitionedTreeIndex spatialIndex,
+                                       TreeEventFeed treeEventFeed,
+                                       ChangeSequence changeSequence,
+                                       TreeIngestService treeIngestService,
+                                       TokenRevocationService tokenRevocationService) {
+        return registry -> {
+            Gauge.builder("krishhortus.index.trees", spatialIndex, PartitionedTreeIndex::size)
+                .description("Trees held by the in-memory spatial index")
+                .register(registry);
+            Gauge.builder("krishhortus.stream.subscribers", treeEventFeed, TreeEventFeed::subscriberCount)
+                .description("Open live change feed connections")
+                .register(registry);
+            FunctionCounter.builder("krishhortus.stream.evicted", treeEventFeed, TreeEventFeed::evictedCount)
+                .description("Change feed connections dropped because a write to them stalled")
+                .register(registry);
+            Gauge.builder("krishhortus.changes.stable.sequence", changeSequence, ChangeSequence::stableSequence)
+                .description("Highest change sequence number visible to delta sync")
+                .register(registry);
+            Gauge.builder("krishhortus.ingest.queued.chunks", treeIngestService, TreeIngestService::queuedChunks)
+                .description("Batch ingest chunks waiting for a writer thread")
+                .register(registry);
+            Gauge.builder("krishhortus.revocation.active", tokenRevocationService,
+                    TokenRevocationService::activeRevocations)
+                .description("Revoked tokens and sessions that have not expired")
+                .register(registry);
+            FunctionCounter.builder("krishhortus.revocation.store.lookups", tokenRevocationService,
+                    TokenRevocationService::storeLookups)
+                .description("Revocation checks the in-memory filter could not answer alone")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder rateLimitMeters(RateLimiter rateLimiter) {
+        return registry -> {
+            for (EndpointClass endpointClass : EndpointClass.values()) {
+                Gauge.builder("krishhortus.ratelimit.clients", rateLimiter, limiter -> limiter.clients(endpointClass))
+                    .description("Clients with a rate limit bucket that is not full")
+                    .tag("class", endpointClass.key())
+                    .register(registry);
+                FunctionCounter.builder("krishhortus.ratelimit.rejected", rateLimiter,
+                        limiter -> limiter.rejected(endpointClass))
+                    .description("Requests answered 429 by the rate limiter")
+                    .tag("class", endpointClass.key())
+                    .register(registry);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder partitionMeters(PartitionedTreeIndex spatialIndex) {
+        return registry -> {
+            for (int i = 0; i < spatialIndex.partitionCount(); i++) {
+                int partition = i;
+                Gauge.builder("krishhortus.partition.trees", spatialIndex, index -> index.partitionSize(partition))
+                    .description("Trees held by a partition of the spatial index")
+                    .tag("partition", Integer.toString(partition))
+                    .register(registry);
+            }
+            FunctionCounter.builder("krishhortus.partition.splits", spatialIndex, PartitionedTreeIndex::splitCount)
+                .description("Partition cells split by the rebalancer")
+                .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder logQueueGauges() {
+        return registry -> {
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+                return;
+            }
+            Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+            if (root.getAppender("ASYNC_CONSOLE") instanceof AsyncAppender appender) {
+                Gauge.builder("krishhortus.logging.queue.depth", appender, AsyncAppender::getNumberOfElementsInQueue)
+                    .description("Log lines waiting for the background log writer")
+                    .register(registry);
+            }
+        };
+    }
+}
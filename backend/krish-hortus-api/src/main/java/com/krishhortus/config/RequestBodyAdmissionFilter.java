@@ -0,0 +1,147 @@
+package com.krishhortus.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krishhortus.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds how many requests read their body at once
+ *
+ * Tomcat's blocking request body read waits inside a monitor, which pins
+ * a virtual thread to its carrier until the client has sent the data. A
+ * few thousand slow uploads would take every carrier the virtual thread
+ * scheduler may start and leave none for other requests, whose latency
+ * then grows with the slowest uploads. Requests with a body therefore
+ * take one of {@code permits} permits before the handler runs:
+ * - Requests without a body never wait, so reads stay responsive while
+ *   uploads queue
+ * - Waiting for a permit parks the virtual thread without pinning it, in
+ *   arrival order, at most {@code timeout}
+ * - Beyond {@code maxWaiting} waiters, and after {@code timeout}, the
+ *   request is answered 503 with {@code Retry-After}
+ *
+ * The permit is held until the response is written; only registered in
+ * the {@code virtual-threads} profile, since with platform threads the
+ * worker pool already bounds this.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RequestBodyAdmissionFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final int permitCount;
+    private final int maxWaiting;
+    private final long timeoutNanos;
+    private final Duration retryAfter;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public RequestBodyAdmissionFilter(int permits, int maxWaiting, Duration timeout, Duration retryAfter,
+                                      ObjectMapper objectMapper) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Request body admission permits must be positive");
+        }
+        this.permits = new Semaphore(permits, true);
+        this.permitCount = permits;
+        this.maxWaiting = maxWaiting;
+        this.timeoutNanos = timeout.toNanos();
+        this.retryAfter = retryAfter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!hasBody(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String rejection = acquire();
+        if (rejection != null) {
+            rejected.incrementAndGet();
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfter.toSeconds())));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(rejection));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * @return Number of permits, the most requests reading a body at once
+     */
+    public int getPermits() {
+        return permitCount;
+    }
+
+    /**
+     * @return Permits currently taken
+     */
+    public int getActive() {
+        return permitCount - permits.availablePermits();
+    }
+
+    /**
+     * @return Requests waiting for a permit
+     */
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    /**
+     * @return Requests rejected since startup
+     */
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    /**
+     * @return Null once a permit is taken, otherwise the rejection message
+     */
+    private String acquire() throws ServletException {
+        if (permits.tryAcquire()) {
+            return null;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            return "Too many uploads in progress, please retry later";
+        }
+        try {
+            return permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)
+                ? null
+                : "Uploads are queued, please retry later";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while waiting to read the request body", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    private static boolean hasBody(HttpServletRequest request) {
+        return request.getContentLengthLong() > 0 || request.getHeader(HttpHeaders.TRANSFER_ENCODING) != null;
+    }
+}
@@ -0,0 +1,139 @@
+package com.krishhortus.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Puts request correlation ids into the logging context
+ *
+ * Runs first for every request and sets these MDC keys, which the log
+ * pattern prints with each line written while the request is handled:
+ * - {@code requestId}: the client's {@code X-Request-Id} if it is a short
+ *   token, otherwise a random 16-digit hex id; echoed as response header
+ * - {@code traceId}: the trace id of a W3C {@code traceparent} header, so
+ *   log lines can be matched with traces of the calling service
+ * - {@code userId}: added by the JWT filter once the caller is known
+ *
+ * Async and error dispatches of the same request, e.g. when a future
+ * completes, reuse the ids of the original dispatch. A dispatch that fails
+ * leaves the ids in place: the container logs the exception after this
+ * filter returns and then forwards to the error page, and both should
+ * carry the request id. They are removed when the error dispatch ends.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    /** MDC key of the request id */
+    public static final String REQUEST_ID = "requestId";
+    /** MDC key of the W3C trace id */
+    public static final String TRACE_ID = "traceId";
+    /** MDC key of the authenticated user's id */
+    public static final String USER_ID = "userId";
+
+    private static final String REQUEST_ID_HEADER = "X-Request-Id";
+    private static final String TRACEPARENT_HEADER = "traceparent";
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+    private static final String REQUEST_ID_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".requestId";
+    private static final String TRACE_ID_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".traceId";
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = (String) request.getAttribute(REQUEST_ID_ATTRIBUTE);
+        String traceId = (String) request.getAttribute(TRACE_ID_ATTRIBUTE);
+        if (requestId == null) {
+            // Ids of an earlier failed request on this thread whose error dispatch never came
+            clearContext();
+            requestId = request.getHeader(REQUEST_ID_HEADER);
+            if (!isValidRequestId(requestId)) {
+                requestId = newRequestId();
+            }
+            traceId = traceIdOf(request.getHeader(TRACEPARENT_HEADER));
+            request.setAttribute(REQUEST_ID_ATTRIBUTE, requestId);
+            if (traceId != null) {
+                request.setAttribute(TRACE_ID_ATTRIBUTE, traceId);
+            }
+            response.setHeader(REQUEST_ID_HEADER, requestId);
+        }
+
+        MDC.put(REQUEST_ID, requestId);
+        if (traceId != null) {
+            MDC.put(TRACE_ID, traceId);
+        }
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (completed || request.getDispatcherType() == DispatcherType.ERROR) {
+                clearContext();
+            }
+        }
+    }
+
+    private static void clearContext() {
+        MDC.remove(REQUEST_ID);
+        MDC.remove(TRACE_ID);
+        MDC.remove(USER_ID);
+    }
+
+    private static boolean isValidRequestId(String value) {
+        if (value == null || value.isEmpty() || value.length() > MAX_REQUEST_ID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (!(Character.isLetterOrDigit(c) && c < 128) && c != '-' && c != '_' && c != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String newRequestId() {
+        String hex = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        return hex.length() == 16 ? hex : "0".repeat(16 - hex.length()) + hex;
+    }
+
+    /**
+     * @param traceparent Header value like {@code 00-<32 hex trace id>-<16 hex span id>-<2 hex flags>}
+     * @return Trace id, or null if the header is missing or malformed
+     */
+    private static String traceIdOf(String traceparent) {
+        if (traceparent == null || traceparent.length() < 55 || traceparent.charAt(2) != '-'
+                || traceparent.charAt(35) != '-') {
+            return null;
+        }
+        for (int i = 3; i < 35; i++) {
+            if (Character.digit(traceparent.charAt(i), 16) < 0) {
+                return null;
+            }
+        }
+        return traceparent.substring(3, 35);
+    }
+}
@@ -0,0 +1,79 @@
+package com.krishhortus.config;
+
+import com.krishhortus.model.Tree;
+import com.krishhortus.repository.TreeRepository;
+import com.krishhortus.service.TreeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Seeds sample trees for development
+ *
+ * Inserts a handful of trees around Aurangabad, Maharashtra when the tree
+ * store is empty, so the frontend has data to display against the
+ * in-memory H2 database. Enabled with {@code krishhortus.sample-data.enabled}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "krishhortus.sample-data", name = "enabled", havingValue = "true")
+public class SampleDataLoader implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SampleDataLoader.class);
+
+    private final TreeRepository treeRepository;
+    private final TreeService treeService;
+
+    public SampleDataLoader(TreeRepository treeRepository, TreeService treeService) {
+        this.treeRepository = treeRepository;
+        this.treeService = treeService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (treeRepository.count() > 0) {
+            return;
+        }
+
+        log.info("Seeding sample trees...");
+        // Create sample trees with different categories
+        treeService.create(sampleTree("Oak Tree", "FARM", 19.7515, 75.7139));
+        treeService.create(sampleTree("Banyan Tree", "COMMUNITY", 19.7520, 75.7145));
+        treeService.create(sampleTree("Mango Tree", "NURSERY", 19.7510, 75.7135));
+        treeService.create(sampleTree("Neem Tree", "FARM", 19.7525, 75.7150));
+        treeService.create(sampleTree("Peepal Tree", "COMMUNITY", 19.7505, 75.7130));
+    }
+
+    /**
+     * Helper method to create a sample tree with specific parameters
+     *
+     * @param name Tree name
+     * @param category Tree category
+     * @param lat Latitude
+     * @param lng Longitude
+     * @return Unsaved sample tree
+     */
+    private Tree sampleTree(String name, String category, double lat, double lng) {
+        Tree tree = new Tree();
+        tree.setName(name);
+        tree.setScientificName("Quercus species");
+        tree.setLocalName("Local " + name);
+        tree.setCategory(category);
+        tree.setLat(lat);
+        tree.setLng(lng);
+        tree.setAddress("Sample Address, Maharashtra, India");
+        tree.setHeight(15.5);
+        tree.setTrunkWidth(2.3);
+        tree.setCanopySpread(8.7);
+        tree.setTaggedBy("user-123");
+        tree.setTaggedAt(Instant.now().minusSeconds(3600));
+        return tree;
+    }
+}
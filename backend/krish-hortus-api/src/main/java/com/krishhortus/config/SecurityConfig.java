@@ -0,0 +1,99 @@
+package com.krishhortus.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krishhortus.dto.ApiResponse;
+import com.krishhortus.security.JwtAuthenticationFilter;
+import com.krishhortus.security.JwtService;
+import com.krishhortus.security.RateLimitFilter;
+import com.krishhortus.security.RateLimiter;
+import com.krishhortus.security.TokenRevocationService;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
+
+/**
+ * Security configuration for Krish Hortus API
+ *
+ * Stateless bearer token authentication:
+ * - No HTTP session, CSRF token, form login or basic auth
+ * - {@link JwtAuthenticationFilter} authenticates requests carrying an
+ *   access token issued by {@code /api/auth/login}
+ * - Tree endpoints, photo uploads, tree identification and the profile
+ *   require authentication; registration, login, refresh, photos, health,
+ *   info and actuator endpoints are open
+ * - Unauthenticated access to a protected endpoint is answered with 401 in
+ *   the standard response envelope; an invalid token sent to an open
+ *   endpoint is ignored
+ * - {@link RateLimitFilter} limits tree and auth requests per user or IP
+ *   address, unless {@code krishhortus.rate-limit.enabled} is false
+ *
+ * CORS preflight requests are handled with the {@code @CrossOrigin}
+ * settings of the controllers.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Configuration
+@EnableWebSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class SecurityConfig {
+
+    /** Endpoints that require authentication; everything else is open */
+    private static final RequestMatcher PROTECTED_PATHS = new OrRequestMatcher(
+        antMatcher("/api/trees/**"), antMatcher("/api/upload/**"),
+        antMatcher("/api/ai/**"), antMatcher("/api/analytics/**"),
+        antMatcher("/api/auth/profile"));
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   JwtService jwtService,
+                                                   TokenRevocationService tokenRevocationService,
+                                                   RateLimiter rateLimiter,
+                                                   ObjectMapper objectMapper,
+                                                   @Value("${krishhortus.rate-limit.enabled:true}") boolean rateLimited)
+            throws Exception {
+        http
+            .csrf(AbstractHttpConfigurer::disable)
+            .cors(Customizer.withDefaults())
+            .httpBasic(AbstractHttpConfigurer::disable)
+            .formLogin(AbstractHttpConfigurer::disable)
+            .logout(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            // H2 console renders in frames
+            .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.sameOrigin()))
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint((request, response, e) -> {
+                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+                response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Authentication required"));
+            }))
+            .authorizeHttpRequests(auth -> auth
+                // Streaming responses complete on an async dispatch of an already authorized request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                .requestMatchers(PROTECTED_PATHS).authenticated()
+                .anyRequest().permitAll())
+            .addFilterBefore(
+                new JwtAuthenticationFilter(jwtService, tokenRevocationService, objectMapper, PROTECTED_PATHS),
+                UsernamePasswordAuthenticationFilter.class);
+        if (rateLimited) {
+            http.addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper), JwtAuthenticationFilter.class);
+        }
+        return http.build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.krishhortus.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krishhortus.dto.ApiResponse;
+import com.krishhortus.dto.TreeJsonWriter;
+import com.krishhortus.dto.TreeRequest;
+import com.krishhortus.dto.TreeResponse;
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.model.Tree;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+/**
+ * Warms up what the first requests would otherwise pay for
+ *
+ * Once the application has started, and so already serves requests, a
+ * background thread:
+ * - Loads the H3 native library
+ * - Reads a tree request and writes a tree response with Jackson and with
+ *   the streaming {@link TreeJsonWriter}, so their serializers and classes
+ *   are ready
+ *
+ * Reported as the {@code startupWarmup} health component, which is out of
+ * service until the warm-up finished and down if it failed. The
+ * {@code fast-startup} profile adds it to the readiness group, so an
+ * instance only receives traffic from the load balancer once warm.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class StartupWarmup implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    private static final String SAMPLE_REQUEST = """
+        {"name":"Warm-up","category":"PARK","scientificName":"Azadirachta indica","localName":"Neem",
+         "location":{"lat":19.7515,"lng":75.7139,"address":"Aurangabad"},
+         "measurements":{"height":5.0,"trunkWidth":0.4,"canopySpread":3.0}}
+        """;
+
+    private final H3Service h3Service;
+    private final ObjectMapper objectMapper;
+    private volatile Health health = Health.outOfService().withDetail("warmup", "pending").build();
+
+    public StartupWarmup(H3Service h3Service, ObjectMapper objectMapper) {
+        this.h3Service = h3Service;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Thread thread = new Thread(this::warmUp, "startup-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    private void warmUp() {
+        long start = System.nanoTime();
+        try {
+            h3Service.warmUp();
+            warmUpJson();
+            long tookMs = (System.nanoTime() - start) / 1_000_000;
+            health = Health.up().withDetail("tookMs", tookMs).build();
+            log.info("Warm-up finished in {} ms", tookMs);
+        } catch (IOException | RuntimeException | LinkageError e) {
+            health = Health.down().withException(e).build();
+            log.error("Warm-up failed", e);
+        }
+    }
+
+    private void warmUpJson() throws IOException {
+        Tree tree = objectMapper.readValue(SAMPLE_REQUEST, TreeRequest.class).toNewTree();
+        tree.setId("warm-up");
+        tree.setH3Index(h3Service.toAddress(h3Service.cellFor(tree.getLat(), tree.getLng())));
+        tree.setCreatedAt(Instant.now());
+        objectMapper.writeValue(OutputStream.nullOutputStream(), ApiResponse.ok("Warm-up", TreeResponse.from(tree)));
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream())) {
+            TreeJsonWriter.writeTree(gen, tree, 0);
+        }
+    }
+}
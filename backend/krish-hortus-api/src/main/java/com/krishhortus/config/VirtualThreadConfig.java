@@ -0,0 +1,137 @@
+package com.krishhortus.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Request execution mode of Krish Hortus API
+ *
+ * By default requests are handled by Tomcat's pool of platform threads.
+ * The {@code virtual-threads} profile, on a Java 21 build and runtime
+ * ({@code mvn -Pjava21}), sets {@code spring.threads.virtual.enabled},
+ * which makes Spring Boot run every request handler on its own virtual
+ * thread: a handler blocked on a slow client upload or on the database
+ * then holds no platform thread. This configuration adds what that mode
+ * needs:
+ * - {@link RequestBodyAdmissionFilter} when
+ *   {@code krishhortus.server.body-admission.enabled} is set. Tomcat waits
+ *   for request body data in {@code Object.wait()} inside a monitor, which
+ *   on Java 21 pins the virtual thread to its carrier; with thousands of
+ *   slow uploads the scheduler runs out of carriers and every other request
+ *   waits behind them
+ * - {@link ConnectionAdmission} in front of the connection pool when
+ *   {@code krishhortus.datasource.admission.enabled} is set, since nothing
+ *   else bounds how many requests reach the database
+ * - Gauges for both admission queues
+ * - A startup warning when virtual threads are requested on a runtime
+ *   older than Java 21, where Spring Boot keeps platform threads
+ *
+ * Background work (exports, ingest writers, photo variants, rollup
+ * rebuilds) keeps its own bounded pools of platform threads in either mode.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "krishhortus.datasource.admission.enabled", havingValue = "true")
+    public static BeanPostProcessor connectionAdmissionPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource pool) || bean instanceof ConnectionAdmission) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                int permits = environment.getProperty("krishhortus.datasource.admission.permits", Integer.class, 0);
+                ConnectionAdmission admission = new ConnectionAdmission(pool,
+                    permits > 0 ? permits : poolSize,
+                    environment.getProperty("krishhortus.datasource.admission.max-waiting", Integer.class, 1000),
+                    environment.getProperty("krishhortus.datasource.admission.timeout", Duration.class,
+                        Duration.ofSeconds(2)),
+                    environment.getProperty("krishhortus.datasource.admission.retry-after", Duration.class,
+                        Duration.ofSeconds(1)));
+                log.info("Database connections admitted {} at a time", admission.getPermits());
+                return admission;
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "krishhortus.server.body-admission.enabled", havingValue = "true")
+    public RequestBodyAdmissionFilter requestBodyAdmissionFilter(
+            @Value("${krishhortus.server.body-admission.permits:192}") int permits,
+            @Value("${krishhortus.server.body-admission.max-waiting:10000}") int maxWaiting,
+            @Value("${krishhortus.server.body-admission.timeout:30s}") Duration timeout,
+            @Value("${krishhortus.server.body-admission.retry-after:1s}") Duration retryAfter,
+            ObjectMapper objectMapper) {
+        log.info("Request bodies read {} at a time", permits);
+        return new RequestBodyAdmissionFilter(permits, maxWaiting, timeout, retryAfter, objectMapper);
+    }
+
+    @Bean
+    public MeterBinder admissionGauges(DataSource dataSource,
+                                       ObjectProvider<RequestBodyAdmissionFilter> bodyAdmission) {
+        return registry -> {
+            bodyAdmission.ifAvailable(filter -> {
+                Gauge.builder("krishhortus.http.body.admission.active", filter, RequestBodyAdmissionFilter::getActive)
+                    .description("Requests reading their body")
+                    .register(registry);
+                Gauge.builder("krishhortus.http.body.admission.waiting", filter,
+                        RequestBodyAdmissionFilter::getWaiting)
+                    .description("Requests waiting to read their body")
+                    .register(registry);
+                FunctionCounter.builder("krishhortus.http.body.admission.rejected", filter,
+                        RequestBodyAdmissionFilter::getRejected)
+                    .description("Requests with a body turned away because too many were queued")
+                    .register(registry);
+            });
+            if (!(dataSource instanceof ConnectionAdmission admission)) {
+                return;
+            }
+            Gauge.builder("krishhortus.db.admission.active", admission, ConnectionAdmission::getActive)
+                .description("Database connections held by admitted callers")
+                .register(registry);
+            Gauge.builder("krishhortus.db.admission.waiting", admission, ConnectionAdmission::getWaiting)
+                .description("Callers waiting to be admitted to the database")
+                .register(registry);
+            FunctionCounter.builder("krishhortus.db.admission.rejected", admission, ConnectionAdmission::getRejected)
+                .description("Callers turned away because the database was saturated")
+                .register(registry);
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logExecutionMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        boolean virtual = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (!virtual) {
+            log.info("Request handlers run on platform threads");
+        } else if (Runtime.version().feature() < 21) {
+            log.warn("Virtual threads need Java 21; request handlers run on platform threads on Java {}",
+                Runtime.version().feature());
+        } else {
+            log.info("Request handlers run on virtual threads");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.krishhortus.controller;
+
+import com.krishhortus.ai.TreeIdentification;
+import com.krishhortus.dto.ApiResponse;
+import com.krishhortus.service.TreeIdentificationService;
+import com.krishhortus.service.TreeIdentificationService.Source;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AI Controller for Krish Hortus API
+ *
+ * Identifies trees from photos taken while tagging a tree. Answers for
+ * photos seen before, or nearly identical to one, come from a cache; new
+ * photos are identified in batches by the configured identification
+ * backend. The {@code X-Identification-Source} response header tells which
+ * step answered: {@code exact}, {@code similar}, {@code coalesced} or
+ * {@code identified}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/ai")
+@CrossOrigin(origins = {"http://localhost:5173", "https://*.lovable.app"})
+public class AiController {
+
+    private static final Logger log = LoggerFactory.getLogger(AiController.class);
+
+    private static final String SOURCE_HEADER = "X-Identification-Source";
+
+    private final TreeIdentificationService treeIdentificationService;
+
+    public AiController(TreeIdentificationService treeIdentificationService) {
+        this.treeIdentificationService = treeIdentificationService;
+    }
+
+    /**
+     * Identify the tree in a photo
+     *
+     * Expects {@code multipart/form-data} with the photo in a file field
+     * named {@code image}. Answers 503 with {@code Retry-After} when the
+     * identification queue is full.
+     *
+     * @param request HTTP request whose body holds the photo
+     * @return Future of the ResponseEntity with the identification
+     * @throws IOException if the upload cannot be read
+     */
+    @PostMapping(path = "/identify", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public CompletableFuture<ResponseEntity<ApiResponse<TreeIdentification>>> identify(HttpServletRequest request)
+            throws IOException {
+        log.debug("Tree identification requested");
+
+        return treeIdentificationService.identify(request.getInputStream(), request.getContentType())
+            .thenApply(identification -> {
+                TreeIdentification result = identification.result();
+                log.debug("Tree identified as {} ({})", result.scientificName(), identification.source().tag());
+                String message = identification.source() == Source.IDENTIFIED || identification.source() == Source.COALESCED
+                    ? "Tree identified successfully"
+                    : "Tree identified from a previous scan";
+                return ResponseEntity.ok()
+                    .header(SOURCE_HEADER, identification.source().tag())
+                    .body(ApiResponse.ok(message, result));
+            });
+    }
+}
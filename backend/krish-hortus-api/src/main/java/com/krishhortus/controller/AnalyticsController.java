@@ -0,0 +1,85 @@
+package com.krishhortus.controller;
+
+import com.krishhortus.dto.ApiResponse;
+import com.krishhortus.dto.RegionalAnalyticsResponse;
+import com.krishhortus.dto.SpeciesAnalyticsResponse;
+import com.krishhortus.geo.BoundingBox;
+import com.krishhortus.service.AnalyticsService;
+import com.krishhortus.service.AnalyticsService.RegionalResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Analytics Controller for Krish Hortus API
+ *
+ * Serves the dashboard statistics: tree counts, verified ratio, mean
+ * measurements and species diversity per H3 cell and per category. All
+ * figures come from rollups maintained on every write, so the cost of a
+ * request does not grow with the number of trees.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = {"http://localhost:5173", "https://*.lovable.app"})
+public class AnalyticsController {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsController.class);
+
+    private final AnalyticsService analyticsService;
+
+    public AnalyticsController(AnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    /**
+     * Get tree statistics per H3 cell
+     *
+     * Returns the given cells, the cells covering a bounding box, or every
+     * occupied cell at the resolution, most trees first.
+     *
+     * @param resolution H3 resolution (default: coarsest available, or that of {@code cells})
+     * @param bbox Optional bounding box as minLng,minLat,maxLng,maxLat
+     * @param cells Optional comma-separated H3 cells
+     * @param limit Maximum number of cells to return
+     * @return ResponseEntity with statistics per occupied cell
+     */
+    @GetMapping("/regional")
+    public ResponseEntity<ApiResponse<RegionalAnalyticsResponse>> getRegional(
+            @RequestParam(required = false) Integer resolution,
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) List<String> cells,
+            @RequestParam(defaultValue = "100") int limit) {
+
+        log.debug("Fetching regional analytics - Resolution: {}, BBox: {}, Cells: {}", resolution, bbox, cells);
+
+        RegionalResult result = analyticsService.regional(resolution,
+            bbox != null ? BoundingBox.parse(bbox) : null, cells, limit);
+
+        return ResponseEntity.ok(ApiResponse.ok("Regional analytics retrieved successfully",
+            RegionalAnalyticsResponse.from(result)));
+    }
+
+    /**
+     * Get tree statistics per category with the most common species
+     *
+     * @param category Optional category to restrict the result to
+     * @param top Most common species to list per category
+     * @return ResponseEntity with overall and per-category statistics
+     */
+    @GetMapping("/species")
+    public ResponseEntity<ApiResponse<SpeciesAnalyticsResponse>> getSpecies(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "5") int top) {
+
+        log.debug("Fetching species analytics - Category: {}", category);
+
+        return ResponseEntity.ok(ApiResponse.ok("Species analytics retrieved successfully",
+            SpeciesAnalyticsResponse.from(analyticsService.species(category, top))));
+    }
+}
@@ -1,11 +1,20 @@
 
 package com.krishhortus.controller;
 
+import com.krishhortus.dto.ApiResponse;
+import com.krishhortus.dto.AuthResponse;
+import com.krishhortus.dto.UserResponse;
+import com.krishhortus.security.AuthenticatedUser;
+import com.krishhortus.security.JwtService;
+import com.krishhortus.security.TokenRevocationService;
+import com.krishhortus.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpStatus;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Authentication Controller for Krish Hortus API
@@ -18,7 +27,10 @@ import java.util.Map;
  * - Logout functionality
  * 
  * This controller provides the authentication endpoints that the React frontend
- * will communicate with for user management operations.
+ * will communicate with for user management operations. Tokens are signed
+ * JWTs issued by {@link JwtService}; the profile is answered from the claims
+ * of the caller's access token. Refresh tokens are single use and logout
+ * ends the whole session through {@link TokenRevocationService}.
  * 
  * @author Krish Hortus Development Team
  * @version 1.0.0
@@ -28,52 +40,45 @@ import java.util.Map;
 @CrossOrigin(origins = {"http://localhost:5173", "https://*.lovable.app"})
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
+    private final UserService userService;
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+
+    public AuthController(UserService userService,
+                          JwtService jwtService,
+                          TokenRevocationService tokenRevocationService) {
+        this.userService = userService;
+        this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
     /**
      * User registration endpoint
      * 
      * Handles new user account creation with email, password, and name.
      * Returns user data and authentication tokens upon successful registration.
+     * The password is hashed on the bounded hashing pool; the request answers
+     * 503 right away when that pool is saturated.
      * 
      * @param requestBody Map containing user registration data (email, password, name)
-     * @return ResponseEntity with user data and authentication tokens
+     * @return Future of the ResponseEntity with user data and authentication tokens
      */
     @PostMapping("/register")
-    public ResponseEntity<Map<String, Object>> register(@RequestBody Map<String, String> requestBody) {
-        System.out.println("Registration attempt for email: " + requestBody.get("email"));
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> register(@RequestBody Map<String, String> requestBody) {
+        log.debug("Registration attempt for email: {}", requestBody.get("email"));
         
         // Extract user data from request
         String email = requestBody.get("email");
         String password = requestBody.get("password");
         String name = requestBody.get("name");
         
-        // Create response with user data and tokens
-        Map<String, Object> response = new HashMap<>();
-        Map<String, Object> user = new HashMap<>();
-        
-        // Generate mock user data (replace with actual user creation logic)
-        user.put("id", java.util.UUID.randomUUID().toString());
-        user.put("email", email);
-        user.put("name", name);
-        user.put("role", "USER");
-        user.put("isVerified", true);
-        user.put("createdAt", java.time.Instant.now().toString());
-        
-        // Generate mock tokens (replace with actual JWT token generation)
-        String token = "mock-jwt-token-" + System.currentTimeMillis();
-        String refreshToken = "mock-refresh-token-" + System.currentTimeMillis();
-        
-        // Build response object
-        response.put("success", true);
-        response.put("message", "User registered successfully");
-        response.put("data", Map.of(
-            "user", user,
-            "token", token,
-            "refreshToken", refreshToken,
-            "expiresIn", 86400 // 24 hours
-        ));
-        
-        System.out.println("User registered successfully: " + email);
-        return ResponseEntity.ok(response);
+        return userService.register(email, password, name).thenApply(created -> {
+            log.info("User registered successfully: {}", created.getId());
+            return ResponseEntity.ok(ApiResponse.ok("User registered successfully",
+                jwtService.issueTokens(UserResponse.from(created))));
+        });
     }
 
     /**
@@ -81,147 +86,95 @@ public class AuthController {
      * 
      * Authenticates existing users with email and password.
      * Returns user data and fresh authentication tokens upon successful login.
+     * The password check runs on the bounded hashing pool; the request answers
+     * 503 right away when that pool is saturated.
      * 
      * @param requestBody Map containing login credentials (email, password)
-     * @return ResponseEntity with user data and authentication tokens
+     * @return Future of the ResponseEntity with user data and authentication tokens
      */
     @PostMapping("/login")
-    public ResponseEntity<Map<String, Object>> login(@RequestBody Map<String, String> requestBody) {
-        System.out.println("Login attempt for email: " + requestBody.get("email"));
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> login(@RequestBody Map<String, String> requestBody) {
+        log.debug("Login attempt for email: {}", requestBody.get("email"));
         
         // Extract login credentials
         String email = requestBody.get("email");
         String password = requestBody.get("password");
         
-        // Create response with user data and tokens
-        Map<String, Object> response = new HashMap<>();
-        Map<String, Object> user = new HashMap<>();
-        
-        // Generate mock user data (replace with actual user authentication logic)
-        user.put("id", java.util.UUID.randomUUID().toString());
-        user.put("email", email);
-        user.put("name", email.split("@")[0]); // Use email prefix as name
-        user.put("role", "USER");
-        user.put("isVerified", true);
-        user.put("createdAt", java.time.Instant.now().minusSeconds(86400).toString()); // Yesterday
-        
-        // Generate mock tokens (replace with actual JWT token generation)
-        String token = "mock-jwt-token-" + System.currentTimeMillis();
-        String refreshToken = "mock-refresh-token-" + System.currentTimeMillis();
-        
-        // Build response object
-        response.put("success", true);
-        response.put("message", "Login successful");
-        response.put("data", Map.of(
-            "user", user,
-            "token", token,
-            "refreshToken", refreshToken,
-            "expiresIn", 86400 // 24 hours
-        ));
-        
-        System.out.println("User logged in successfully: " + email);
-        return ResponseEntity.ok(response);
+        return userService.authenticate(email, password).thenApply(user -> {
+            log.info("User logged in successfully: {}", user.getId());
+            return ResponseEntity.ok(ApiResponse.ok("Login successful",
+                jwtService.issueTokens(UserResponse.from(user))));
+        });
     }
 
     /**
      * Token refresh endpoint
      * 
      * Refreshes authentication tokens using a valid refresh token.
-     * Extends user session without requiring re-authentication.
+     * Extends user session without requiring re-authentication. Each refresh
+     * token can be used once; reusing one revokes the session.
      * 
      * @param requestBody Map containing refresh token
      * @return ResponseEntity with new authentication tokens
      */
     @PostMapping("/refresh")
-    public ResponseEntity<Map<String, Object>> refresh(@RequestBody Map<String, String> requestBody) {
-        System.out.println("Token refresh requested");
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@RequestBody Map<String, String> requestBody) {
+        log.debug("Token refresh requested");
         
         String refreshToken = requestBody.get("refreshToken");
         
-        // Create response with new tokens
-        Map<String, Object> response = new HashMap<>();
-        Map<String, Object> user = new HashMap<>();
-        
-        // Generate mock user data (replace with actual token validation and user lookup)
-        user.put("id", java.util.UUID.randomUUID().toString());
-        user.put("email", "user@example.com");
-        user.put("name", "Demo User");
-        user.put("role", "USER");
-        user.put("isVerified", true);
-        user.put("createdAt", java.time.Instant.now().minusSeconds(86400).toString());
-        
-        // Generate new mock tokens
-        String newToken = "mock-jwt-token-" + System.currentTimeMillis();
-        String newRefreshToken = "mock-refresh-token-" + System.currentTimeMillis();
-        
-        // Build response object
-        response.put("success", true);
-        response.put("message", "Token refreshed successfully");
-        response.put("data", Map.of(
-            "user", user,
-            "token", newToken,
-            "refreshToken", newRefreshToken,
-            "expiresIn", 86400 // 24 hours
-        ));
+        // The refresh token carries the user, so no lookup is needed
+        AuthenticatedUser user = jwtService.verifyRefreshToken(refreshToken);
+        tokenRevocationService.consumeRefreshToken(user);
         
-        System.out.println("Token refreshed successfully");
-        return ResponseEntity.ok(response);
+        log.debug("Token refreshed successfully");
+        return ResponseEntity.ok(ApiResponse.ok("Token refreshed successfully",
+            jwtService.issueTokens(user.toUserResponse(), user.familyId())));
     }
 
     /**
      * User profile endpoint
      * 
-     * Retrieves current user profile information based on authentication token.
-     * Requires valid authentication header.
+     * Retrieves current user profile information from the claims of the
+     * access token, without a user lookup. Requires valid authentication header.
      * 
-     * @param authHeader Authorization header containing JWT token
+     * @param user User authenticated by the access token
      * @return ResponseEntity with user profile data
      */
     @GetMapping("/profile")
-    public ResponseEntity<Map<String, Object>> getProfile(@RequestHeader("Authorization") String authHeader) {
-        System.out.println("Profile request with token: " + authHeader);
+    public ResponseEntity<ApiResponse<UserResponse>> getProfile(@AuthenticationPrincipal AuthenticatedUser user) {
+        log.debug("Profile request for user: {}", user.id());
         
-        // Create response with user profile data
-        Map<String, Object> response = new HashMap<>();
-        Map<String, Object> user = new HashMap<>();
-        
-        // Generate mock user profile (replace with actual user lookup from token)
-        user.put("id", java.util.UUID.randomUUID().toString());
-        user.put("email", "user@example.com");
-        user.put("name", "Demo User");
-        user.put("role", "USER");
-        user.put("isVerified", true);
-        user.put("createdAt", java.time.Instant.now().minusSeconds(86400).toString());
-        user.put("profilePicture", null);
-        
-        // Build response object
-        response.put("success", true);
-        response.put("message", "Profile retrieved successfully");
-        response.put("data", user);
-        
-        System.out.println("Profile retrieved successfully");
-        return ResponseEntity.ok(response);
+        log.debug("Profile retrieved successfully");
+        return ResponseEntity.ok(ApiResponse.ok("Profile retrieved successfully", user.toUserResponse()));
     }
 
     /**
      * User logout endpoint
      * 
      * Handles user logout by invalidating tokens (server-side logout).
-     * Client should also clear tokens from local storage.
+     * Revokes the session of the access token, or of the refresh token in
+     * the body if no access token is sent. Client should also clear tokens
+     * from local storage.
      * 
+     * @param user User authenticated by the access token, if any
+     * @param requestBody Optional map containing the refresh token
      * @return ResponseEntity confirming successful logout
      */
     @PostMapping("/logout")
-    public ResponseEntity<Map<String, Object>> logout() {
-        System.out.println("User logout requested");
-        
-        // Create logout response
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Logout successful");
-        response.put("data", "");
-        
-        System.out.println("User logged out successfully");
-        return ResponseEntity.ok(response);
+    public ResponseEntity<ApiResponse<Void>> logout(@AuthenticationPrincipal AuthenticatedUser user,
+                                                    @RequestBody(required = false) Map<String, String> requestBody) {
+        log.debug("User logout requested");
+        
+        AuthenticatedUser session = user;
+        if (session == null && requestBody != null && requestBody.get("refreshToken") != null) {
+            session = jwtService.verifyRefreshToken(requestBody.get("refreshToken"));
+        }
+        if (session != null) {
+            tokenRevocationService.revokeSession(session);
+        }
+        
+        log.info("User logged out successfully");
+        return ResponseEntity.ok(ApiResponse.ok("Logout successful"));
     }
 }
@@ -0,0 +1,196 @@
+package com.krishhortus.controller;
+
+import com.krishhortus.dto.ApiResponse;
+import com.krishhortus.dto.TreeResponse;
+import com.krishhortus.model.Tree;
+import com.krishhortus.service.PhotoService;
+import com.krishhortus.storage.ImageType;
+import com.krishhortus.storage.PhotoStore;
+import com.krishhortus.storage.PhotoVariant;
+import com.krishhortus.storage.PhotoVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tree Photo Controller for Krish Hortus API
+ *
+ * Handles photo upload and delivery:
+ * - Uploads are streamed part by part to disk, never buffered in memory or
+ *   by the servlet container, and linked to the photo slots of a tree
+ * - Photos are served by content-addressed URL with a year-long immutable
+ *   cache lifetime and single byte range support
+ * - Resized variants are selected with the {@code size} parameter; until a
+ *   variant is generated the original is served, without long-term caching
+ * - On Tomcat, photo bodies are handed to the connector's sendfile support,
+ *   so the file is copied to the socket by the kernel; elsewhere they are
+ *   written with {@link FileChannel#transferTo}
+ *
+ * Uploading requires authentication; photo URLs are public so they can be
+ * used directly as image sources.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = {"http://localhost:5173", "https://*.lovable.app"})
+public class PhotoController {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoController.class);
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS)
+        .cachePublic().immutable().getHeaderValue();
+    private static final String CACHE_CONTROL_PENDING = CacheControl.noCache().cachePublic().getHeaderValue();
+
+    private final PhotoService photoService;
+    private final PhotoStore photoStore;
+    private final PhotoVariantService photoVariantService;
+
+    public PhotoController(PhotoService photoService, PhotoStore photoStore, PhotoVariantService photoVariantService) {
+        this.photoService = photoService;
+        this.photoStore = photoStore;
+        this.photoVariantService = photoVariantService;
+    }
+
+    /**
+     * Upload photos of a tree
+     *
+     * Expects {@code multipart/form-data} with the {@code treeId} field
+     * (or query parameter) first, followed by one file per photo slot named
+     * {@code tree}, {@code leaves}, {@code bark}, {@code fruit} or
+     * {@code flower}. Uploaded photos replace the photos in their slots.
+     * Files are recognized by their content; the declared type is ignored.
+     *
+     * @param request HTTP request whose body holds the upload
+     * @param treeId Optional tree identifier, instead of the form field
+     * @return ResponseEntity with the photo URLs of the tree
+     * @throws IOException if the upload cannot be read or stored
+     */
+    @PostMapping(path = "/upload/photos", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<TreeResponse.Photos>> uploadPhotos(HttpServletRequest request,
+                                                                         @RequestParam(required = false) String treeId)
+            throws IOException {
+        log.debug("Photo upload started for tree {}", treeId);
+
+        Tree tree = photoService.upload(request.getInputStream(), request.getContentType(), treeId);
+
+        log.info("Photos uploaded for tree {}", tree.getId());
+        return ResponseEntity.ok(ApiResponse.ok("Photos uploaded successfully", TreeResponse.Photos.from(tree)));
+    }
+
+    /**
+     * Retrieve a photo
+     *
+     * Answers {@code If-None-Match} with 304 and a single {@code Range}
+     * with 206; requests for several ranges receive the whole photo.
+     * A variant that is not generated yet is scheduled, and the original is
+     * sent in its place with {@code Cache-Control: no-cache}, so clients
+     * pick up the variant on their next request.
+     *
+     * @param photoId Photo id as found in a tree's photo URLs
+     * @param size Variant: thumb, small, medium or original (default)
+     * @param request HTTP request
+     * @param response HTTP response the photo is written to
+     * @throws IOException if the photo cannot be read or sent
+     */
+    @GetMapping("/photos/{photoId}")
+    public void getPhoto(@PathVariable String photoId,
+                         @RequestParam(defaultValue = "original") String size,
+                         HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        PhotoVariant variant = PhotoVariant.fromParameter(size);
+        Path original = photoStore.locate(photoId);
+        // Photo ids are content hashes, so the id is a strong validator
+        if (variant != null) {
+            Path file = photoVariantService.locate(photoId, variant);
+            if (file != null) {
+                String fileName = file.getFileName().toString();
+                ImageType type = ImageType.fromExtension(fileName.substring(fileName.indexOf('.') + 1));
+                send(file, type, "\"" + photoId + "-" + variant.parameter() + "\"", CACHE_CONTROL, request, response);
+                return;
+            }
+            photoVariantService.schedule(photoId);
+            send(original, PhotoStore.typeOf(photoId), "\"" + photoId + "\"", CACHE_CONTROL_PENDING, request, response);
+            return;
+        }
+        send(original, PhotoStore.typeOf(photoId), "\"" + photoId + "\"", CACHE_CONTROL, request, response);
+    }
+
+    private void send(Path file, ImageType type, String eTag, String cacheControl,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = Files.size(file);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(eTag)) {
+            return;
+        }
+        response.setContentType(type.mimeType());
+
+        long start = 0;
+        long end = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(eTag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length) + 1;
+                    if (start >= length) {
+                        throw new IllegalArgumentException("Range starts after the end of the photo");
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            if (ranges.size() == 1) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+        response.setContentLengthLong(end - start);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // The connector writes the file region after this method returns
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+}
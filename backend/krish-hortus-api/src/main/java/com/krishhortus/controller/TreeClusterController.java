@@ -0,0 +1,60 @@
+package com.krishhortus.controller;
+
+import com.krishhortus.dto.ApiResponse;
+import com.krishhortus.dto.TreeClustersResponse;
+import com.krishhortus.geo.BoundingBox;
+import com.krishhortus.service.ClusterService;
+import com.krishhortus.service.ClusterService.ClusterResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Tree Clustering Controller for Krish Hortus API
+ *
+ * Serves aggregated tree clusters for the map view so clients can render
+ * one marker per H3 cell instead of one marker per tree. Counts, category
+ * breakdowns and centroids come from rollups maintained on every write.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@RestController
+@RequestMapping("/api/trees/clusters")
+@CrossOrigin(origins = {"http://localhost:5173", "https://*.lovable.app"})
+public class TreeClusterController {
+
+    private static final Logger log = LoggerFactory.getLogger(TreeClusterController.class);
+
+    private final ClusterService clusterService;
+
+    public TreeClusterController(ClusterService clusterService) {
+        this.clusterService = clusterService;
+    }
+
+    /**
+     * Get tree clusters for a map viewport
+     *
+     * @param bbox Visible bounding box as minLng,minLat,maxLng,maxLat
+     * @param zoom Web map zoom level (0-22)
+     * @return ResponseEntity with one cluster per occupied H3 cell
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<TreeClustersResponse>> getClusters(
+            @RequestParam String bbox,
+            @RequestParam int zoom) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching tree clusters - BBox: {}, Zoom: {}", bbox, zoom);
+        }
+
+        ClusterResult result = clusterService.getClusters(BoundingBox.parse(bbox), zoom);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Returned {} clusters", result.clusters().size());
+        }
+        return ResponseEntity.ok(ApiResponse.ok("Tree clusters retrieved successfully",
+            TreeClustersResponse.from(result, zoom)));
+    }
+}
@@ -1,24 +1,65 @@
 
 package com.krishhortus.controller;
 
+import com.krishhortus.dto.ApiResponse;
+import com.krishhortus.dto.TreeJsonWriter;
+import com.krishhortus.dto.TreeRequest;
+import com.krishhortus.dto.TreeResponse;
+import com.krishhortus.export.TreeExportFormat;
+import com.krishhortus.geo.BoundingBox;
+import com.krishhortus.metrics.TreeMetrics;
+import com.krishhortus.metrics.TreeMetrics.Stage;
+import com.krishhortus.model.Tree;
+import com.krishhortus.repository.TreeFilter;
+import com.krishhortus.repository.TreeSort;
+import com.krishhortus.security.AuthenticatedUser;
+import com.krishhortus.service.TreeEventFeed;
+import com.krishhortus.service.TreeExportService;
+import com.krishhortus.service.TreeIngestService;
+import com.krishhortus.service.TreeIngestService.IngestResult;
+import com.krishhortus.service.TreeService;
+import com.krishhortus.service.TreeService.ChangeSet;
+import com.krishhortus.service.TreeService.CountMode;
+import com.krishhortus.service.TreeService.TreePage;
+import com.krishhortus.service.TreeService.NearbyTree;
+import com.krishhortus.service.TreeService.SearchResult;
+import com.krishhortus.storage.PhotoVariant;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
 import java.util.*;
 
 /**
  * Tree Management Controller for Krish Hortus API
  * 
  * Handles all tree-related operations including:
- * - Tree creation and registration
+ * - Tree creation and registration (single and batch)
  * - Tree information retrieval
  * - Tree data updates
  * - Tree deletion
  * - Geospatial queries for nearby trees
+ * - Typo-tolerant search by name, scientific name or local name
+ * - Delta sync of changes for offline clients
+ * - Bulk export as GeoJSON, CSV or FlatGeobuf
+ * - Live change feed over Server-Sent Events
  * - Tree verification and moderation
  * 
  * This controller integrates with H3 geospatial indexing for efficient
- * location-based queries and supports various tree categories.
+ * location-based queries and supports various tree categories. List and
+ * nearby and search responses are streamed by {@link TreeJsonWriter}; single trees are
+ * returned as {@link TreeResponse} records.
  * 
  * @author Krish Hortus Development Team
  * @version 1.0.0
@@ -28,25 +69,55 @@ import java.util.*;
 @CrossOrigin(origins = {"http://localhost:5173", "https://*.lovable.app"})
 public class TreeController {
 
+    private static final Logger log = LoggerFactory.getLogger(TreeController.class);
+
+    private final TreeService treeService;
+    private final TreeIngestService treeIngestService;
+    private final TreeJsonWriter treeJsonWriter;
+    private final TreeEventFeed treeEventFeed;
+    private final TreeExportService treeExportService;
+    private final TreeMetrics treeMetrics;
+
+    public TreeController(TreeService treeService,
+                          TreeIngestService treeIngestService,
+                          TreeJsonWriter treeJsonWriter,
+                          TreeEventFeed treeEventFeed,
+                          TreeExportService treeExportService,
+                          TreeMetrics treeMetrics) {
+        this.treeService = treeService;
+        this.treeIngestService = treeIngestService;
+        this.treeJsonWriter = treeJsonWriter;
+        this.treeEventFeed = treeEventFeed;
+        this.treeExportService = treeExportService;
+        this.treeMetrics = treeMetrics;
+    }
+
     /**
      * Retrieve all trees with optional filtering
      * 
      * Supports filtering by category, species, location, and verification status.
-     * Implements pagination for efficient data handling.
+     * All filters are evaluated by the database. Pagination works either by page
+     * number or, for deep pages, by passing the {@code nextCursor} of the previous
+     * response as {@code after}, which costs the same on every page.
      * 
      * @param category Optional tree category filter (FARM, COMMUNITY, NURSERY, etc.)
-     * @param species Optional species name filter
+     * @param species Optional scientific name prefix filter (case-insensitive)
      * @param lat Optional latitude for location-based filtering
      * @param lng Optional longitude for location-based filtering
      * @param radius Optional radius in meters for location-based filtering
-     * @param h3Index Optional H3 index for geospatial filtering
+     * @param h3Index Optional H3 index for geospatial filtering (any resolution)
      * @param verified Optional verification status filter
-     * @param page Page number for pagination (default: 0)
+     * @param page Page number for pagination (default: 0, ignored with a cursor)
      * @param size Page size for pagination (default: 20)
+     * @param after Optional cursor from a previous page's {@code nextCursor}
+     * @param sort Ordering: updatedAt (newest first, default) or h3Index
+     * @param count Total count mode: exact, estimated or none
+     *              (default: exact for page numbers, none for cursors)
+     * @param photoSize Size the photo URLs point at: thumb, small (default), medium or original
      * @return ResponseEntity with paginated tree data
      */
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllTrees(
+    public ResponseEntity<StreamingResponseBody> getAllTrees(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) String species,
             @RequestParam(required = false) Double lat,
@@ -55,36 +126,30 @@ public class TreeController {
             @RequestParam(required = false) String h3Index,
             @RequestParam(required = false) Boolean verified,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
-        
-        System.out.println("Fetching trees with filters - Category: " + category + ", Species: " + species);
-        
-        // Create mock tree data (replace with actual database queries)
-        List<Map<String, Object>> trees = createMockTrees();
-        
-        // Apply filters if provided
-        if (category != null) {
-            trees = trees.stream()
-                .filter(tree -> category.equals(tree.get("category")))
-                .collect(java.util.stream.Collectors.toList());
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String count,
+            @RequestParam(defaultValue = "small") String photoSize) {
+        
+        log.debug("Fetching trees with filters - Category: {}, Species: {}", category, species);
+        
+        TreeFilter filter = treeService.buildFilter(category, species, lat, lng, radius, h3Index, verified);
+        CountMode countMode = count != null
+            ? CountMode.fromParameter(count)
+            : (after != null ? CountMode.NONE : CountMode.EXACT);
+        TreePage treePage = treeService.findTrees(filter, TreeSort.fromParameter(sort), after, page, size, countMode);
+        
+        if (log.isDebugEnabled()) {
+            log.debug("Retrieved {} trees", treePage.trees().size());
         }
         
-        // Create paginated response
-        Map<String, Object> response = new HashMap<>();
-        Map<String, Object> data = new HashMap<>();
-        
-        data.put("trees", trees);
-        data.put("totalElements", trees.size());
-        data.put("totalPages", (trees.size() + size - 1) / size);
-        data.put("currentPage", page);
-        data.put("pageSize", size);
-        
-        response.put("success", true);
-        response.put("message", "Trees retrieved successfully");
-        response.put("data", data);
-        
-        System.out.println("Retrieved " + trees.size() + " trees");
-        return ResponseEntity.ok(response);
+        // Stream the paginated response
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(treeMetrics.timed(Stage.LIST_SERIALIZATION,
+                treeJsonWriter.page("Trees retrieved successfully", treePage, after == null ? page : null, size,
+                    PhotoVariant.fromParameter(photoSize))));
     }
 
     /**
@@ -93,50 +158,49 @@ public class TreeController {
      * Registers a new tree in the system with location data, measurements,
      * and metadata. Automatically generates H3 index for geospatial queries.
      * 
-     * @param requestBody Map containing tree data (name, location, category, etc.)
+     * @param requestBody Tree data (name, location, category, etc.)
+     * @param user Authenticated user tagging the tree
      * @return ResponseEntity with created tree data
      */
     @PostMapping
-    public ResponseEntity<Map<String, Object>> createTree(@RequestBody Map<String, Object> requestBody) {
-        System.out.println("Creating new tree: " + requestBody.get("name"));
+    public ResponseEntity<ApiResponse<TreeResponse>> createTree(@RequestBody TreeRequest requestBody,
+                                                                @AuthenticationPrincipal AuthenticatedUser user) {
+        log.debug("Creating new tree: {}", requestBody.name());
         
-        // Extract tree data from request
-        String name = (String) requestBody.get("name");
-        String category = (String) requestBody.get("category");
-        Map<String, Object> location = (Map<String, Object>) requestBody.get("location");
+        // Create new tree object from the request
+        Tree tree = requestBody.toNewTree();
+        tree.setTaggedBy(user.id());
         
-        // Create new tree object
-        Map<String, Object> tree = new HashMap<>();
-        tree.put("id", java.util.UUID.randomUUID().toString());
-        tree.put("name", name);
-        tree.put("category", category);
-        tree.put("location", location);
-        tree.put("scientificName", requestBody.get("scientificName"));
-        tree.put("localName", requestBody.get("localName"));
-        tree.put("measurements", requestBody.get("measurements"));
-        tree.put("taggedBy", "current-user-id"); // Replace with actual user ID from token
-        tree.put("taggedAt", java.time.Instant.now().toString());
-        tree.put("isAIGenerated", false);
-        tree.put("isVerified", false);
-        tree.put("createdAt", java.time.Instant.now().toString());
-        tree.put("updatedAt", java.time.Instant.now().toString());
+        // Persist tree; the service generates the H3 index for its location
+        Tree created = treeService.create(tree);
         
-        // Generate H3 index for location (mock implementation)
-        if (location != null) {
-            double lat = ((Number) location.get("lat")).doubleValue();
-            double lng = ((Number) location.get("lng")).doubleValue();
-            String h3Index = generateMockH3Index(lat, lng);
-            ((Map<String, Object>) tree.get("location")).put("h3Index", h3Index);
-        }
+        log.info("Tree created successfully with ID: {}", created.getId());
+        return ResponseEntity.ok(ApiResponse.ok("Tree created successfully", TreeResponse.from(created)));
+    }
+
+    /**
+     * Create many trees in one upload
+     * 
+     * Accepts a JSON array or newline-delimited JSON (one tree per line) and
+     * streams it from the request body. Trees are stored in batches; invalid
+     * items are reported individually without affecting the others, so an
+     * offline survey can be replayed in a single request.
+     * 
+     * @param request HTTP request whose body holds the trees
+     * @param user Authenticated user tagging the trees
+     * @return ResponseEntity with per-item results in upload order
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ApiResponse<IngestResult>> createTreesBatch(HttpServletRequest request,
+                                                                      @AuthenticationPrincipal AuthenticatedUser user)
+            throws IOException {
+        log.debug("Batch tree upload started");
         
-        // Create response
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Tree created successfully");
-        response.put("data", tree);
+        IngestResult result = treeIngestService.ingest(request.getInputStream(), user.id());
         
-        System.out.println("Tree created successfully with ID: " + tree.get("id"));
-        return ResponseEntity.ok(response);
+        log.info("Batch tree upload finished - Created: {}, Failed: {}", result.created(), result.failed());
+        return ResponseEntity.ok(ApiResponse.ok("Batch upload processed", result));
     }
 
     /**
@@ -144,24 +208,34 @@ public class TreeController {
      * 
      * Returns detailed information about a single tree including
      * location data, measurements, photos, and verification status.
+     * Trees are served from the tree cache. The response carries an ETag
+     * derived from {@code updatedAt}; a request whose {@code If-None-Match}
+     * still matches gets 304 Not Modified without a body.
      * 
      * @param id Unique tree identifier
-     * @return ResponseEntity with tree data or 404 if not found
+     * @param photoSize Size the photo URLs point at: thumb, small, medium or original (default)
+     * @param webRequest Current request, used for the conditional request check
+     * @return ResponseEntity with tree data, 304 if unchanged or 404 if not found
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getTreeById(@PathVariable String id) {
-        System.out.println("Fetching tree with ID: " + id);
-        
-        // Create mock tree data (replace with actual database lookup)
-        Map<String, Object> tree = createMockTree(id);
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Tree retrieved successfully");
-        response.put("data", tree);
+    public ResponseEntity<ApiResponse<TreeResponse>> getTreeById(@PathVariable String id,
+                                                                 @RequestParam(defaultValue = "original") String photoSize,
+                                                                 WebRequest webRequest) {
+        log.debug("Fetching tree with ID: {}", id);
+        PhotoVariant variant = PhotoVariant.fromParameter(photoSize);
+        
+        Tree tree = treeService.getById(id);
+        String eTag = eTagOf(tree);
+        if (webRequest.checkNotModified(eTag)) {
+            // Status 304 and the ETag header are already set
+            return null;
+        }
         
-        System.out.println("Tree retrieved: " + tree.get("name"));
-        return ResponseEntity.ok(response);
+        log.debug("Tree retrieved: {}", tree.getName());
+        return ResponseEntity.ok()
+            .eTag(eTag)
+            .cacheControl(CacheControl.noCache())
+            .body(ApiResponse.ok("Tree retrieved successfully", TreeResponse.from(tree, null, variant)));
     }
 
     /**
@@ -171,46 +245,24 @@ public class TreeController {
      * and metadata. Updates the modification timestamp automatically.
      * 
      * @param id Unique tree identifier
-     * @param requestBody Map containing updated tree data
+     * @param requestBody Updated tree data; absent fields are left unchanged
      * @return ResponseEntity with updated tree data
      */
     @PutMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> updateTree(@PathVariable String id, @RequestBody Map<String, Object> requestBody) {
-        System.out.println("Updating tree with ID: " + id);
+    public ResponseEntity<ApiResponse<TreeResponse>> updateTree(@PathVariable String id, @RequestBody TreeRequest requestBody) {
+        log.debug("Updating tree with ID: {}", id);
         
-        // Get existing tree (mock implementation)
-        Map<String, Object> tree = createMockTree(id);
+        // Load a private copy of the existing tree
+        Tree tree = treeService.loadForUpdate(id);
         
-        // Update tree fields
-        if (requestBody.containsKey("name")) {
-            tree.put("name", requestBody.get("name"));
-        }
-        if (requestBody.containsKey("location")) {
-            tree.put("location", requestBody.get("location"));
-            
-            // Regenerate H3 index if location changed
-            Map<String, Object> location = (Map<String, Object>) requestBody.get("location");
-            if (location.containsKey("lat") && location.containsKey("lng")) {
-                double lat = ((Number) location.get("lat")).doubleValue();
-                double lng = ((Number) location.get("lng")).doubleValue();
-                String h3Index = generateMockH3Index(lat, lng);
-                location.put("h3Index", h3Index);
-            }
-        }
-        if (requestBody.containsKey("measurements")) {
-            tree.put("measurements", requestBody.get("measurements"));
-        }
-        
-        // Update timestamp
-        tree.put("updatedAt", java.time.Instant.now().toString());
+        // Update the submitted fields; the service regenerates the H3 index
+        // and re-indexes the tree if the location changed
+        requestBody.applyTo(tree);
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Tree updated successfully");
-        response.put("data", tree);
+        Tree updated = treeService.update(tree);
         
-        System.out.println("Tree updated successfully: " + tree.get("name"));
-        return ResponseEntity.ok(response);
+        log.info("Tree updated successfully: {}", updated.getName());
+        return ResponseEntity.ok(ApiResponse.ok("Tree updated successfully", TreeResponse.from(updated)));
     }
 
     /**
@@ -223,166 +275,239 @@ public class TreeController {
      * @return ResponseEntity confirming deletion
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> deleteTree(@PathVariable String id) {
-        System.out.println("Deleting tree with ID: " + id);
+    public ResponseEntity<ApiResponse<Void>> deleteTree(@PathVariable String id) {
+        log.debug("Deleting tree with ID: {}", id);
         
-        // Delete tree from database (mock implementation)
+        treeService.delete(id);
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Tree deleted successfully");
-        response.put("data", "");
-        
-        System.out.println("Tree deleted successfully");
-        return ResponseEntity.ok(response);
+        log.info("Tree deleted successfully");
+        return ResponseEntity.ok(ApiResponse.ok("Tree deleted successfully"));
     }
 
     /**
      * Find nearby trees based on location and radius
      * 
      * Uses geospatial queries to find trees within a specified radius
-     * of a given location. Optimized with H3 indexing for performance.
+     * of a given location. Candidates come from the in-memory H3 cell index
+     * and are filtered by exact distance; results are ordered nearest first.
      * 
      * @param lat Latitude of search center
      * @param lng Longitude of search center
      * @param radius Search radius in meters
-     * @param limit Maximum number of results to return
+     * @param limit Maximum number of results to return (default: 50, at most 500)
+     * @param photoSize Size the photo URLs point at: thumb, small (default), medium or original
      * @return ResponseEntity with nearby trees data
      */
     @GetMapping("/nearby")
-    public ResponseEntity<Map<String, Object>> getNearbyTrees(
+    public ResponseEntity<StreamingResponseBody> getNearbyTrees(
             @RequestParam Double lat,
             @RequestParam Double lng,
             @RequestParam Double radius,
-            @RequestParam(defaultValue = "50") Integer limit) {
-        
-        System.out.println("Finding nearby trees - Lat: " + lat + ", Lng: " + lng + ", Radius: " + radius + "m");
+            @RequestParam(defaultValue = "50") Integer limit,
+            @RequestParam(defaultValue = "small") String photoSize) {
+        PhotoVariant variant = PhotoVariant.fromParameter(photoSize);
         
-        // Create mock nearby trees (replace with actual geospatial query)
-        List<Map<String, Object>> nearbyTrees = createMockTrees().subList(0, Math.min(limit, 5));
+        log.debug("Finding nearby trees - Lat: {}, Lng: {}, Radius: {}m", lat, lng, radius);
         
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Nearby trees retrieved successfully");
-        response.put("data", nearbyTrees);
+        List<NearbyTree> nearbyTrees = treeService.findNearby(lat, lng, radius, limit);
         
-        System.out.println("Found " + nearbyTrees.size() + " nearby trees");
-        return ResponseEntity.ok(response);
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} nearby trees", nearbyTrees.size());
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(treeMetrics.timed(Stage.NEARBY_SERIALIZATION,
+                treeJsonWriter.nearby("Nearby trees retrieved successfully", nearbyTrees, variant)));
     }
 
     /**
-     * Verify a tree record
+     * Search trees by name
      * 
-     * Marks a tree as verified by an administrator or expert.
-     * Updates verification status and timestamp.
+     * Matches the query against each tree's name, scientific name and local
+     * name. Every word must match a name word exactly, as a prefix or with
+     * a typo or two, so partly typed and misspelled queries find their trees.
+     * Results are answered from an in-memory index and ordered by relevance.
      * 
-     * @param id Unique tree identifier
-     * @return ResponseEntity with updated tree data
+     * @param q Search text
+     * @param cell Optional H3 cell restricting the results to trees inside it
+     * @param limit Maximum number of results to return
+     * @param photoSize Size the photo URLs point at: thumb, small (default), medium or original
+     * @return ResponseEntity with matching trees
      */
-    @PostMapping("/{id}/verify")
-    public ResponseEntity<Map<String, Object>> verifyTree(@PathVariable String id) {
-        System.out.println("Verifying tree with ID: " + id);
-        
-        // Get and update tree (mock implementation)
-        Map<String, Object> tree = createMockTree(id);
-        tree.put("isVerified", true);
-        tree.put("verifiedBy", "current-admin-id"); // Replace with actual admin ID
-        tree.put("verifiedAt", java.time.Instant.now().toString());
-        tree.put("updatedAt", java.time.Instant.now().toString());
-        
-        Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("message", "Tree verified successfully");
-        response.put("data", tree);
-        
-        System.out.println("Tree verified successfully");
-        return ResponseEntity.ok(response);
+    @GetMapping("/search")
+    public ResponseEntity<StreamingResponseBody> searchTrees(
+            @RequestParam String q,
+            @RequestParam(required = false) String cell,
+            @RequestParam(defaultValue = "20") Integer limit,
+            @RequestParam(defaultValue = "small") String photoSize) {
+        PhotoVariant variant = PhotoVariant.fromParameter(photoSize);
+
+        log.debug("Searching trees - Query: {}, Cell: {}", q, cell);
+
+        SearchResult result = treeService.search(q, cell, limit);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} trees for query {}", result.trees().size(), q);
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(treeMetrics.timed(Stage.SEARCH_SERIALIZATION,
+                treeJsonWriter.search("Search results retrieved successfully", result, variant)));
     }
 
     /**
-     * Helper method to create mock tree data for development
+     * Fetch tree changes since a sync position
      * 
-     * @return List of mock tree objects
+     * Offline clients keep the {@code nextSince} value of their last sync and
+     * pass it back as {@code since}, receiving only trees created, updated or
+     * verified since then and the ids of deleted trees. With {@code cell},
+     * trees that moved out of the cell are reported as deleted. While
+     * {@code hasMore} is true the client should call again right away with
+     * the new position.
+     * 
+     * @param since Last synced change sequence number (default: 0 for everything)
+     * @param cell Optional H3 cell restricting changes to trees inside it
+     * @param limit Maximum number of changes to return (default: 1000)
+     * @return ResponseEntity with the changes in sequence order
      */
-    private List<Map<String, Object>> createMockTrees() {
-        List<Map<String, Object>> trees = new ArrayList<>();
+    @GetMapping("/changes")
+    public ResponseEntity<StreamingResponseBody> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) String cell,
+            @RequestParam(defaultValue = "1000") int limit) {
+        
+        if (log.isDebugEnabled()) {
+            log.debug("Fetching tree changes since {} in cell {}", since, cell);
+        }
         
-        // Create sample trees with different categories
-        trees.add(createMockTree("1", "Oak Tree", "FARM", 19.7515, 75.7139));
-        trees.add(createMockTree("2", "Banyan Tree", "COMMUNITY", 19.7520, 75.7145));
-        trees.add(createMockTree("3", "Mango Tree", "NURSERY", 19.7510, 75.7135));
-        trees.add(createMockTree("4", "Neem Tree", "FARM", 19.7525, 75.7150));
-        trees.add(createMockTree("5", "Peepal Tree", "COMMUNITY", 19.7505, 75.7130));
+        ChangeSet changeSet = treeService.findChanges(since, cell, limit);
         
-        return trees;
+        if (log.isDebugEnabled()) {
+            log.debug("Found {} changes up to {}", changeSet.changes().size(), changeSet.nextSince());
+        }
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(treeMetrics.timed(Stage.CHANGES_SERIALIZATION,
+                treeJsonWriter.changes("Tree changes retrieved successfully", changeSet)));
     }
 
     /**
-     * Helper method to create a single mock tree
+     * Subscribe to live tree changes in a set of H3 cells
+     * 
+     * Opens a Server-Sent Events stream of {@code created}, {@code updated},
+     * {@code verified} and {@code deleted} events for trees inside the given
+     * cells. Each event's data has the same form as a delta sync entry and
+     * its id is the change sequence number. The stream starts with a
+     * {@code ready} event carrying the current sync position; a
+     * {@code resync} event means events were dropped and the client should
+     * catch up through {@code /changes}.
      * 
-     * @param id Tree identifier
-     * @return Mock tree object
+     * @param cells Comma-separated H3 cells to watch (any resolution)
+     * @return Event stream
      */
-    private Map<String, Object> createMockTree(String id) {
-        return createMockTree(id, "Sample Tree", "FARM", 19.7515, 75.7139);
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam List<String> cells) {
+        log.info("Opening tree change stream for {} cells", cells.size());
+        return treeEventFeed.subscribe(cells);
     }
 
     /**
-     * Helper method to create a mock tree with specific parameters
+     * Export all matching trees as a file download
+     * 
+     * Streams every tree matching the filters (ordered by H3 index when only
+     * {@code h3Index} filters) in the requested format: {@code geojson} (FeatureCollection of points),
+     * {@code csv} (header row, {@code lat}/{@code lng} columns) or {@code fgb}
+     * (FlatGeobuf without spatial index). Rows are written while they are
+     * read from the database, gzip-compressed when the client accepts it,
+     * so the download starts at once and exports of any size are served.
+     * Answers 503 with {@code Retry-After} while too many exports are running.
      * 
-     * @param id Tree identifier
-     * @param name Tree name
-     * @param category Tree category
-     * @param lat Latitude
-     * @param lng Longitude
-     * @return Mock tree object
+     * @param format Output format: geojson (default), csv or fgb
+     * @param bbox Optional bounding box {@code minLng,minLat,maxLng,maxLat}
+     * @param category Optional tree category filter
+     * @param species Optional scientific name prefix filter (case-insensitive)
+     * @param h3Index Optional H3 index for geospatial filtering (any resolution)
+     * @param verified Optional verification status filter
+     * @param acceptEncoding Client's {@code Accept-Encoding} header
+     * @return Streamed export
      */
-    private Map<String, Object> createMockTree(String id, String name, String category, double lat, double lng) {
-        Map<String, Object> tree = new HashMap<>();
-        Map<String, Object> location = new HashMap<>();
-        Map<String, Object> measurements = new HashMap<>();
-        
-        // Basic tree information
-        tree.put("id", id);
-        tree.put("name", name);
-        tree.put("scientificName", "Quercus species");
-        tree.put("localName", "Local " + name);
-        tree.put("category", category);
-        
-        // Location data with H3 index
-        location.put("lat", lat);
-        location.put("lng", lng);
-        location.put("h3Index", generateMockH3Index(lat, lng));
-        location.put("address", "Sample Address, Maharashtra, India");
-        tree.put("location", location);
-        
-        // Measurements
-        measurements.put("height", 15.5);
-        measurements.put("trunkWidth", 2.3);
-        measurements.put("canopySpread", 8.7);
-        tree.put("measurements", measurements);
+    @GetMapping("/export")
+    public ResponseEntity<ResponseBodyEmitter> exportTrees(
+            @RequestParam(defaultValue = "geojson") String format,
+            @RequestParam(required = false) String bbox,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String species,
+            @RequestParam(required = false) String h3Index,
+            @RequestParam(required = false) Boolean verified,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        TreeExportFormat exportFormat = TreeExportFormat.fromParameter(format);
+        BoundingBox box = bbox != null ? BoundingBox.parse(bbox) : null;
+        TreeFilter filter = treeService.buildFilter(category, species, null, null, null, h3Index, verified);
+        boolean gzip = acceptsGzip(acceptEncoding);
+
+        log.info("Exporting trees as {} (bbox {}, category {}, gzip {})", exportFormat.extension(), bbox, category, gzip);
+        ResponseBodyEmitter emitter = treeExportService.export(filter, box, exportFormat, gzip);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(exportFormat.mediaType())
+            .cacheControl(CacheControl.noStore())
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("trees." + exportFormat.extension()).build().toString())
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(emitter);
+    }
+
+    /**
+     * Verify a tree record
+     * 
+     * Marks a tree as verified by an administrator or expert.
+     * Updates verification status and timestamp.
+     * 
+     * @param id Unique tree identifier
+     * @param user Authenticated user verifying the tree
+     * @return ResponseEntity with updated tree data
+     */
+    @PostMapping("/{id}/verify")
+    public ResponseEntity<ApiResponse<TreeResponse>> verifyTree(@PathVariable String id,
+                                                                @AuthenticationPrincipal AuthenticatedUser user) {
+        log.debug("Verifying tree with ID: {}", id);
         
-        // Metadata
-        tree.put("taggedBy", "user-123");
-        tree.put("taggedAt", java.time.Instant.now().minusSeconds(3600).toString());
-        tree.put("isAIGenerated", false);
-        tree.put("isVerified", Math.random() > 0.5); // Random verification status
-        tree.put("createdAt", java.time.Instant.now().minusSeconds(7200).toString());
-        tree.put("updatedAt", java.time.Instant.now().minusSeconds(1800).toString());
-        tree.put("photos", new ArrayList<>());
+        Tree tree = treeService.verify(id, user.id());
         
-        return tree;
+        log.info("Tree verified successfully");
+        return ResponseEntity.ok(ApiResponse.ok("Tree verified successfully", TreeResponse.from(tree)));
     }
 
     /**
-     * Helper method to generate a mock H3 index
-     * 
-     * @param lat Latitude
-     * @param lng Longitude
-     * @return Mock H3 index string
+     * Entity tag of a tree, changing with every write since each write sets updatedAt
      */
-    private String generateMockH3Index(double lat, double lng) {
-        // This is a mock implementation. In production, use actual H3 library
-        return "8f3969a9ab83240";
+    private static String eTagOf(Tree tree) {
+        return "\"" + tree.getUpdatedAt().getEpochSecond() + "." + tree.getUpdatedAt().getNano() + "\"";
+    }
+
+    /**
+     * @param acceptEncoding {@code Accept-Encoding} header value, or null
+     * @return Whether gzip is listed and not refused with {@code q=0}
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim().replace(" ", "");
+                    if (parameter.matches("[qQ]=0(\\.0*)?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,42 @@
+package com.krishhortus.dto;
+
+/**
+ * Standard response envelope for Krish Hortus API
+ *
+ * Every endpoint wraps its payload in the same {@code success}/{@code message}/
+ * {@code data} structure that the frontend's {@code apiClient} expects.
+ *
+ * @param success Whether the request succeeded
+ * @param message Human readable status message
+ * @param data Response payload (may be null)
+ * @param <T> Payload type
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record ApiResponse<T>(boolean success, String message, T data) {
+
+    /**
+     * @param message Status message
+     * @param data Payload
+     * @return Successful response
+     */
+    public static <T> ApiResponse<T> ok(String message, T data) {
+        return new ApiResponse<>(true, message, data);
+    }
+
+    /**
+     * @param message Status message
+     * @return Successful response without payload
+     */
+    public static ApiResponse<Void> ok(String message) {
+        return new ApiResponse<>(true, message, null);
+    }
+
+    /**
+     * @param message Error message
+     * @return Failed response without payload
+     */
+    public static ApiResponse<Void> error(String message) {
+        return new ApiResponse<>(false, message, null);
+    }
+}
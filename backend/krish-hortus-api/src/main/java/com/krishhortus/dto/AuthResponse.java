@@ -0,0 +1,14 @@
+package com.krishhortus.dto;
+
+/**
+ * Authentication result returned by register, login and refresh
+ *
+ * @param user Authenticated user
+ * @param token Access token
+ * @param refreshToken Refresh token
+ * @param expiresIn Access token lifetime in seconds
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record AuthResponse(UserResponse user, String token, String refreshToken, long expiresIn) {
+}
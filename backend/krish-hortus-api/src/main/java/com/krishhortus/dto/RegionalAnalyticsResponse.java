@@ -0,0 +1,38 @@
+package com.krishhortus.dto;
+
+import com.krishhortus.service.AnalyticsRollups.CellStats;
+import com.krishhortus.service.AnalyticsRollups.Stats;
+import com.krishhortus.service.AnalyticsService.RegionalResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tree statistics per H3 cell
+ *
+ * @param resolution H3 resolution of the cells
+ * @param occupiedCells Number of occupied cells matching the request, including those cut off by the limit
+ * @param cells Occupied cells, most trees first
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record RegionalAnalyticsResponse(int resolution, int occupiedCells, List<Region> cells) {
+
+    /**
+     * @param result Statistics computed by the service
+     * @return API representation of the statistics
+     */
+    public static RegionalAnalyticsResponse from(RegionalResult result) {
+        List<Region> cells = new ArrayList<>(result.cells().size());
+        for (CellStats cell : result.cells()) {
+            cells.add(new Region(cell.h3Index(), cell.stats()));
+        }
+        return new RegionalAnalyticsResponse(result.resolution(), result.occupiedCells(), cells);
+    }
+
+    /**
+     * Statistics of one H3 cell
+     */
+    public record Region(String h3Index, Stats stats) {
+    }
+}
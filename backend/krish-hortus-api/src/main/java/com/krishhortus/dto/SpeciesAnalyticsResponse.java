@@ -0,0 +1,38 @@
+package com.krishhortus.dto;
+
+import com.krishhortus.service.AnalyticsRollups.CategoryStats;
+import com.krishhortus.service.AnalyticsRollups.SpeciesCount;
+import com.krishhortus.service.AnalyticsRollups.Stats;
+import com.krishhortus.service.AnalyticsService.SpeciesResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tree statistics per category with the most common species
+ *
+ * @param total Statistics of all trees
+ * @param categories Statistics per category, most trees first
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record SpeciesAnalyticsResponse(Stats total, List<Category> categories) {
+
+    /**
+     * @param result Statistics computed by the service
+     * @return API representation of the statistics
+     */
+    public static SpeciesAnalyticsResponse from(SpeciesResult result) {
+        List<Category> categories = new ArrayList<>(result.categories().size());
+        for (CategoryStats category : result.categories()) {
+            categories.add(new Category(category.category(), category.stats(), category.topSpecies()));
+        }
+        return new SpeciesAnalyticsResponse(result.total(), categories);
+    }
+
+    /**
+     * Statistics of one category
+     */
+    public record Category(String category, Stats stats, List<SpeciesCount> topSpecies) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.krishhortus.dto;
+
+import com.krishhortus.geo.ClusterRollups.ClusterCell;
+import com.krishhortus.service.ClusterService.ClusterResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tree clusters for a map viewport
+ *
+ * @param resolution H3 resolution of the clusters
+ * @param zoom Requested zoom level
+ * @param totalCount Number of trees across all clusters
+ * @param clusters One entry per occupied H3 cell
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record TreeClustersResponse(int resolution, int zoom, int totalCount, List<Cluster> clusters) {
+
+    /**
+     * @param result Clusters computed by the service
+     * @param zoom Requested zoom level
+     * @return API representation of the clusters
+     */
+    public static TreeClustersResponse from(ClusterResult result, int zoom) {
+        List<Cluster> clusters = new ArrayList<>(result.clusters().size());
+        for (ClusterCell cell : result.clusters()) {
+            clusters.add(new Cluster(cell.h3Index(), cell.count(),
+                new Centroid(cell.centroidLat(), cell.centroidLng()), cell.categories()));
+        }
+        return new TreeClustersResponse(result.resolution(), zoom, result.totalCount(), clusters);
+    }
+
+    /**
+     * Rollup of one H3 cell
+     */
+    public record Cluster(String h3Index, int count, Centroid centroid, Map<String, Integer> categories) {
+    }
+
+    /**
+     * Mean position of the trees in a cell
+     */
+    public record Centroid(double lat, double lng) {
+    }
+}
@@ -0,0 +1,275 @@
+package com.krishhortus.dto;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krishhortus.model.PhotoSlot;
+import com.krishhortus.model.Tree;
+import com.krishhortus.service.TreeService.ChangeSet;
+import com.krishhortus.service.TreeService.NearbyTree;
+import com.krishhortus.service.TreeService.SearchResult;
+import com.krishhortus.service.TreeService.TreeChange;
+import com.krishhortus.service.TreeService.TreePage;
+import com.krishhortus.storage.PhotoVariant;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Streaming JSON writer for tree lists
+ *
+ * Writes list, nearby, search and change responses token by token straight to the response
+ * stream, reading fields from the {@link Tree} entities directly. No
+ * intermediate DTOs, maps or boxed numbers are created per tree and the
+ * response is never buffered as a whole. The JSON produced for each tree is
+ * identical to the serialized form of {@link TreeResponse}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class TreeJsonWriter {
+
+    private final JsonFactory jsonFactory;
+
+    public TreeJsonWriter(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Stream a page of trees inside the standard response envelope
+     *
+     * @param message Status message
+     * @param page Page of trees
+     * @param currentPage Page number in offset mode, or null in cursor mode
+     * @param pageSize Requested page size
+     * @param photoSize Photo variant the photo URLs point at, or null for the originals
+     * @return Response body writing the page
+     */
+    public StreamingResponseBody page(String message, TreePage page, Integer currentPage, int pageSize,
+                                      PhotoVariant photoSize) {
+        return out -> {
+            try (JsonGenerator gen = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+                writeEnvelopeStart(gen, message);
+                gen.writeStartObject();
+                gen.writeArrayFieldStart("trees");
+                for (Tree tree : page.trees()) {
+                    writeTree(gen, tree, Double.NaN, photoSize);
+                }
+                gen.writeEndArray();
+                if (page.totalElements() != null) {
+                    gen.writeNumberField("totalElements", page.totalElements());
+                    gen.writeNumberField("totalPages", (page.totalElements() + pageSize - 1) / pageSize);
+                    gen.writeBooleanField("countEstimated", page.countEstimated());
+                }
+                if (currentPage != null) {
+                    gen.writeNumberField("currentPage", currentPage);
+                }
+                gen.writeNumberField("pageSize", pageSize);
+                gen.writeStringField("nextCursor", page.nextCursor());
+                gen.writeEndObject();
+                gen.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * Stream nearby trees, nearest first, inside the standard response envelope
+     *
+     * @param message Status message
+     * @param trees Nearby trees with their distances
+     * @param photoSize Photo variant the photo URLs point at, or null for the originals
+     * @return Response body writing the trees
+     */
+    public StreamingResponseBody nearby(String message, List<NearbyTree> trees, PhotoVariant photoSize) {
+        return out -> {
+            try (JsonGenerator gen = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+                writeEnvelopeStart(gen, message);
+                gen.writeStartArray();
+                for (NearbyTree nearby : trees) {
+                    writeTree(gen, nearby.tree(), nearby.distanceMeters(), photoSize);
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * Stream search results, most relevant first, inside the standard response envelope
+     *
+     * @param message Status message
+     * @param result Search result
+     * @param photoSize Photo variant the photo URLs point at, or null for the originals
+     * @return Response body writing the results
+     */
+    public StreamingResponseBody search(String message, SearchResult result, PhotoVariant photoSize) {
+        return out -> {
+            try (JsonGenerator gen = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+                writeEnvelopeStart(gen, message);
+                gen.writeStartObject();
+                gen.writeStringField("query", result.query());
+                gen.writeArrayFieldStart("trees");
+                for (Tree tree : result.trees()) {
+                    writeTree(gen, tree, Double.NaN, photoSize);
+                }
+                gen.writeEndArray();
+                gen.writeBooleanField("hasMore", result.hasMore());
+                gen.writeEndObject();
+                gen.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * Stream a delta sync response inside the standard response envelope
+     *
+     * Created and updated trees are written in full as {@code upsert}
+     * entries; deleted trees, and trees that left the synced cell, are
+     * written as {@code delete} entries carrying only their id.
+     *
+     * @param message Status message
+     * @param changeSet Changes to write
+     * @return Response body writing the changes
+     */
+    public StreamingResponseBody changes(String message, ChangeSet changeSet) {
+        return out -> {
+            try (JsonGenerator gen = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+                writeEnvelopeStart(gen, message);
+                gen.writeStartObject();
+                gen.writeNumberField("since", changeSet.since());
+                gen.writeNumberField("nextSince", changeSet.nextSince());
+                gen.writeBooleanField("hasMore", changeSet.hasMore());
+                gen.writeArrayFieldStart("changes");
+                for (TreeChange change : changeSet.changes()) {
+                    writeChange(gen, change);
+                }
+                gen.writeEndArray();
+                gen.writeEndObject();
+                gen.writeEndObject();
+            }
+        };
+    }
+
+    /**
+     * Serialize a single change, in the same form as a delta sync entry
+     *
+     * Used by the live change feed, which serializes each event once and
+     * sends the same text to every subscriber.
+     *
+     * @param change Change to serialize
+     * @return JSON text of the change
+     */
+    public String change(TreeChange change) {
+        StringWriter out = new StringWriter(512);
+        try (JsonGenerator gen = jsonFactory.createGenerator(out)) {
+            writeChange(gen, change);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Write a single tree object with the URLs of the original photos
+     *
+     * @param gen Target generator
+     * @param tree Tree entity
+     * @param distance Distance in meters, or NaN to omit the field
+     * @throws IOException if writing fails
+     */
+    public static void writeTree(JsonGenerator gen, Tree tree, double distance) throws IOException {
+        writeTree(gen, tree, distance, null);
+    }
+
+    /**
+     * Write a single tree object
+     *
+     * @param gen Target generator
+     * @param tree Tree entity
+     * @param distance Distance in meters, or NaN to omit the field
+     * @param photoSize Photo variant the photo URLs point at, or null for the originals
+     * @throws IOException if writing fails
+     */
+    public static void writeTree(JsonGenerator gen, Tree tree, double distance, PhotoVariant photoSize)
+            throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("id", tree.getId());
+        gen.writeStringField("name", tree.getName());
+        gen.writeStringField("scientificName", tree.getScientificName());
+        gen.writeStringField("localName", tree.getLocalName());
+        gen.writeStringField("category", tree.getCategory());
+
+        gen.writeObjectFieldStart("location");
+        gen.writeNumberField("lat", tree.getLat());
+        gen.writeNumberField("lng", tree.getLng());
+        gen.writeStringField("h3Index", tree.getH3Index());
+        gen.writeStringField("address", tree.getAddress());
+        gen.writeEndObject();
+
+        gen.writeObjectFieldStart("measurements");
+        writeNullableNumber(gen, "height", tree.getHeight());
+        writeNullableNumber(gen, "trunkWidth", tree.getTrunkWidth());
+        writeNullableNumber(gen, "canopySpread", tree.getCanopySpread());
+        gen.writeEndObject();
+
+        gen.writeStringField("taggedBy", tree.getTaggedBy());
+        writeInstant(gen, "taggedAt", tree.getTaggedAt());
+        gen.writeBooleanField("isAIGenerated", tree.isAiGenerated());
+        gen.writeBooleanField("isVerified", tree.isVerified());
+        gen.writeStringField("verifiedBy", tree.getVerifiedBy());
+        writeInstant(gen, "verifiedAt", tree.getVerifiedAt());
+        writeInstant(gen, "createdAt", tree.getCreatedAt());
+        writeInstant(gen, "updatedAt", tree.getUpdatedAt());
+        gen.writeObjectFieldStart("photos");
+        for (PhotoSlot slot : PhotoSlot.values()) {
+            String photoId = tree.getPhoto(slot);
+            if (photoId != null) {
+                gen.writeStringField(slot.fieldName(), TreeResponse.Photos.url(photoId, photoSize));
+            }
+        }
+        gen.writeEndObject();
+        if (!Double.isNaN(distance)) {
+            gen.writeNumberField("distance", distance);
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeChange(JsonGenerator gen, TreeChange change) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("seq", change.seq());
+        gen.writeStringField("op", change.isDeleted() ? "delete" : "upsert");
+        gen.writeStringField("id", change.id());
+        if (!change.isDeleted()) {
+            gen.writeFieldName("tree");
+            writeTree(gen, change.tree(), Double.NaN);
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeEnvelopeStart(JsonGenerator gen, String message) throws IOException {
+        gen.writeStartObject();
+        gen.writeBooleanField("success", true);
+        gen.writeStringField("message", message);
+        gen.writeFieldName("data");
+    }
+
+    private static void writeNullableNumber(JsonGenerator gen, String field, Double value) throws IOException {
+        if (value != null) {
+            gen.writeNumberField(field, value.doubleValue());
+        } else {
+            gen.writeNullField(field);
+        }
+    }
+
+    private static void writeInstant(JsonGenerator gen, String field, Instant value) throws IOException {
+        // Matches Jackson's ISO-8601 Instant serialization used for TreeResponse
+        gen.writeStringField(field, value != null ? value.toString() : null);
+    }
+}
@@ -0,0 +1,107 @@
+package com.krishhortus.dto;
+
+import com.krishhortus.model.Tree;
+
+/**
+ * Tree data submitted by clients on create, update and batch ingest
+ *
+ * All fields are optional at this level; creating a tree additionally
+ * requires a location with {@code lat} and {@code lng}. Unknown properties
+ * sent by the frontend form (photos, notes, ...) are ignored.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record TreeRequest(
+        String name,
+        String category,
+        String scientificName,
+        String localName,
+        Location location,
+        Measurements measurements) {
+
+    /**
+     * Submitted tree location
+     */
+    public record Location(Double lat, Double lng, String address) {
+    }
+
+    /**
+     * Submitted tree measurements in meters
+     */
+    public record Measurements(Double height, Double trunkWidth, Double canopySpread) {
+    }
+
+    /**
+     * Build a new tree from this request
+     *
+     * @return Unsaved tree
+     * @throws IllegalArgumentException if the location is missing
+     */
+    public Tree toNewTree() {
+        if (location == null || location.lat() == null || location.lng() == null) {
+            throw new IllegalArgumentException("Tree location with lat and lng is required");
+        }
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Tree name is required");
+        }
+        Tree tree = new Tree();
+        tree.setName(name);
+        tree.setCategory(category);
+        tree.setScientificName(scientificName);
+        tree.setLocalName(localName);
+        applyLocation(tree);
+        applyMeasurements(tree);
+        return tree;
+    }
+
+    /**
+     * Copy the fields present in this request onto an existing tree
+     *
+     * @param tree Tree to update
+     */
+    public void applyTo(Tree tree) {
+        if (name != null) {
+            tree.setName(name);
+        }
+        if (category != null) {
+            tree.setCategory(category);
+        }
+        if (scientificName != null) {
+            tree.setScientificName(scientificName);
+        }
+        if (localName != null) {
+            tree.setLocalName(localName);
+        }
+        applyLocation(tree);
+        applyMeasurements(tree);
+    }
+
+    private void applyLocation(Tree tree) {
+        if (location == null) {
+            return;
+        }
+        if (location.lat() != null && location.lng() != null) {
+            tree.setLat(location.lat());
+            tree.setLng(location.lng());
+        }
+        if (location.address() != null) {
+            tree.setAddress(location.address());
+        }
+    }
+
+    private void applyMeasurements(Tree tree) {
+        if (measurements == null) {
+            return;
+        }
+        if (measurements.height() != null) {
+            tree.setHeight(measurements.height());
+        }
+        if (measurements.trunkWidth() != null) {
+            tree.setTrunkWidth(measurements.trunkWidth());
+        }
+        if (measurements.canopySpread() != null) {
+            tree.setCanopySpread(measurements.canopySpread());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.krishhortus.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.krishhortus.model.PhotoSlot;
+import com.krishhortus.model.Tree;
+import com.krishhortus.storage.PhotoVariant;
+
+import java.time.Instant;
+
+/**
+ * API representation of a tree
+ *
+ * Large lists are not serialized through this record but streamed by
+ * {@link TreeJsonWriter}, which writes the same JSON structure with the
+ * fields in the same order. Jackson would put the renamed {@code is...}
+ * flags first, so the order is fixed explicitly.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@JsonPropertyOrder({"id", "name", "scientificName", "localName", "category", "location", "measurements",
+    "taggedBy", "taggedAt", "isAIGenerated", "isVerified", "verifiedBy", "verifiedAt", "createdAt", "updatedAt",
+    "photos", "distance"})
+public record TreeResponse(
+        String id,
+        String name,
+        String scientificName,
+        String localName,
+        String category,
+        Location location,
+        Measurements measurements,
+        String taggedBy,
+        Instant taggedAt,
+        @JsonProperty("isAIGenerated") boolean isAIGenerated,
+        @JsonProperty("isVerified") boolean isVerified,
+        String verifiedBy,
+        Instant verifiedAt,
+        Instant createdAt,
+        Instant updatedAt,
+        Photos photos,
+        @JsonInclude(JsonInclude.Include.NON_NULL) Double distance) {
+
+    /**
+     * @param tree Tree entity
+     * @return API representation of the tree
+     */
+    public static TreeResponse from(Tree tree) {
+        return from(tree, null, null);
+    }
+
+    /**
+     * @param tree Tree entity
+     * @param distance Distance from a query point in meters (nearby queries only)
+     * @return API representation of the tree
+     */
+    public static TreeResponse from(Tree tree, Double distance) {
+        return from(tree, distance, null);
+    }
+
+    /**
+     * @param tree Tree entity
+     * @param distance Distance from a query point in meters (nearby queries only)
+     * @param photoSize Photo variant the photo URLs point at, or null for the originals
+     * @return API representation of the tree
+     */
+    public static TreeResponse from(Tree tree, Double distance, PhotoVariant photoSize) {
+        return new TreeResponse(
+            tree.getId(),
+            tree.getName(),
+            tree.getScientificName(),
+            tree.getLocalName(),
+            tree.getCategory(),
+            new Location(tree.getLat(), tree.getLng(), tree.getH3Index(), tree.getAddress()),
+            new Measurements(tree.getHeight(), tree.getTrunkWidth(), tree.getCanopySpread()),
+            tree.getTaggedBy(),
+            tree.getTaggedAt(),
+            tree.isAiGenerated(),
+            tree.isVerified(),
+            tree.getVerifiedBy(),
+            tree.getVerifiedAt(),
+            tree.getCreatedAt(),
+            tree.getUpdatedAt(),
+            Photos.from(tree, photoSize),
+            distance);
+    }
+
+    /**
+     * Tree location with H3 index
+     */
+    public record Location(double lat, double lng, String h3Index, String address) {
+    }
+
+    /**
+     * Tree measurements in meters
+     */
+    public record Measurements(Double height, Double trunkWidth, Double canopySpread) {
+    }
+
+    /**
+     * Photo URLs per slot; empty slots are omitted
+     *
+     * URLs are relative to the API origin and never change for a given
+     * photo, so they can be cached indefinitely. URLs of a resized variant
+     * carry a {@code size} parameter.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Photos(String tree, String leaves, String bark, String fruit, String flower) {
+
+        /** Path under which photos are served, followed by the photo id */
+        public static final String PATH = "/api/photos/";
+
+        /**
+         * @param tree Tree entity
+         * @return URLs of the tree's photos
+         */
+        public static Photos from(Tree tree) {
+            return from(tree, null);
+        }
+
+        /**
+         * @param tree Tree entity
+         * @param size Photo variant, or null for the originals
+         * @return URLs of the tree's photos in the given size
+         */
+        public static Photos from(Tree tree, PhotoVariant size) {
+            return new Photos(
+                url(tree.getPhoto(PhotoSlot.TREE), size),
+                url(tree.getPhoto(PhotoSlot.LEAVES), size),
+                url(tree.getPhoto(PhotoSlot.BARK), size),
+                url(tree.getPhoto(PhotoSlot.FRUIT), size),
+                url(tree.getPhoto(PhotoSlot.FLOWER), size));
+        }
+
+        /**
+         * @param photoId Photo id, or null
+         * @return URL of the photo, or null
+         */
+        public static String url(String photoId) {
+            return url(photoId, null);
+        }
+
+        /**
+         * @param photoId Photo id, or null
+         * @param size Photo variant, or null for the original
+         * @return URL of the photo in the given size, or null
+         */
+        public static String url(String photoId, PhotoVariant size) {
+            if (photoId == null) {
+                return null;
+            }
+            return size != null ? PATH + photoId + "?size=" + size.parameter() : PATH + photoId;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.krishhortus.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.krishhortus.model.User;
+
+import java.time.Instant;
+
+/**
+ * API representation of a user
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record UserResponse(
+        String id,
+        String email,
+        String name,
+        String role,
+        @JsonProperty("isVerified") boolean isVerified,
+        Instant createdAt,
+        String profilePicture) {
+
+    /**
+     * @param user Stored account
+     * @return API representation without the password hash
+     */
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId(), user.getEmail(), user.getName(), user.getRole(),
+            user.isVerified(), user.getCreatedAt(), user.getProfilePicture());
+    }
+}
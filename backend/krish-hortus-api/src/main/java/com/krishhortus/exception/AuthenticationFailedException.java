@@ -0,0 +1,17 @@
+package com.krishhortus.exception;
+
+/**
+ * Thrown when login credentials do not match a registered account
+ *
+ * Translated into an HTTP 401 response by {@link GlobalExceptionHandler}.
+ * The message never tells whether the email or the password was wrong.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class AuthenticationFailedException extends RuntimeException {
+
+    public AuthenticationFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,105 @@
+package com.krishhortus.exception;
+
+import com.krishhortus.dto.ApiResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Global exception handler for Krish Hortus API
+ *
+ * Converts exceptions thrown by controllers and services into the same
+ * {@code success}/{@code message}/{@code data} envelope used by successful
+ * responses, so the frontend can handle errors uniformly.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    /**
+     * Handle missing resources
+     *
+     * @param ex Exception describing the missing resource
+     * @return 404 response with error message
+     */
+    @ExceptionHandler(ResourceNotFoundException.class)
+    public ResponseEntity<ApiResponse<Void>> handleNotFound(ResourceNotFoundException ex) {
+        return error(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+
+    /**
+     * Handle invalid request parameters
+     *
+     * @param ex Exception describing the invalid input
+     * @return 400 response with error message
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBadRequest(IllegalArgumentException ex) {
+        return error(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    /**
+     * Handle invalid or expired tokens
+     *
+     * @param ex Exception describing why the token was rejected
+     * @return 401 response with error message
+     */
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<ApiResponse<Void>> handleInvalidToken(InvalidTokenException ex) {
+        return error(HttpStatus.UNAUTHORIZED, ex.getMessage());
+    }
+
+    /**
+     * Handle wrong login credentials
+     *
+     * @param ex Exception describing the failed login
+     * @return 401 response with error message
+     */
+    @ExceptionHandler(AuthenticationFailedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleAuthenticationFailed(AuthenticationFailedException ex) {
+        return error(HttpStatus.UNAUTHORIZED, ex.getMessage());
+    }
+
+    /**
+     * Handle uploads above the size limit
+     *
+     * @param ex Exception describing the limit
+     * @return 413 response with error message
+     */
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public ResponseEntity<ApiResponse<Void>> handlePayloadTooLarge(PayloadTooLargeException ex) {
+        return error(HttpStatus.PAYLOAD_TOO_LARGE, ex.getMessage());
+    }
+
+    /**
+     * Handle uploads of an unaccepted type
+     *
+     * @param ex Exception describing the accepted types
+     * @return 415 response with error message
+     */
+    @ExceptionHandler(UnsupportedMediaTypeException.class)
+    public ResponseEntity<ApiResponse<Void>> handleUnsupportedMediaType(UnsupportedMediaTypeException ex) {
+        return error(HttpStatus.UNSUPPORTED_MEDIA_TYPE, ex.getMessage());
+    }
+
+    /**
+     * Handle requests shed by a saturated resource
+     *
+     * @param ex Exception describing the saturated resource
+     * @return 503 response with {@code Retry-After} and error message
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ex.getRetryAfter().toSeconds())))
+            .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    private ResponseEntity<ApiResponse<Void>> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(ApiResponse.error(message));
+    }
+}
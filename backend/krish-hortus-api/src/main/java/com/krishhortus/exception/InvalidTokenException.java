@@ -0,0 +1,17 @@
+package com.krishhortus.exception;
+
+/**
+ * Thrown when a token is malformed, expired, of the wrong type or carries
+ * an invalid signature
+ *
+ * Translated into an HTTP 401 response by {@link GlobalExceptionHandler}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.krishhortus.exception;
+
+/**
+ * Thrown when an uploaded file exceeds the configured size limit
+ *
+ * Translated into an HTTP 413 response by {@link GlobalExceptionHandler}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class PayloadTooLargeException extends RuntimeException {
+
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
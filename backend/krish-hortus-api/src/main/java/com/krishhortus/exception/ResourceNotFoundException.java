@@ -0,0 +1,16 @@
+package com.krishhortus.exception;
+
+/**
+ * Thrown when a requested resource (tree, user, ...) does not exist
+ *
+ * Translated into an HTTP 404 response by {@link GlobalExceptionHandler}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
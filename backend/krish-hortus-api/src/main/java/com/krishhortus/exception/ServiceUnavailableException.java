@@ -0,0 +1,30 @@
+package com.krishhortus.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a bounded resource is saturated and the request is shed
+ * instead of queued
+ *
+ * Translated into an HTTP 503 response with a {@code Retry-After} header
+ * by {@link GlobalExceptionHandler}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * @return How long the client should wait before retrying
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
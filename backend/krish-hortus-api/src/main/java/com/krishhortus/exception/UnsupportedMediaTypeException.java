@@ -0,0 +1,16 @@
+package com.krishhortus.exception;
+
+/**
+ * Thrown when an uploaded file is not of an accepted type
+ *
+ * Translated into an HTTP 415 response by {@link GlobalExceptionHandler}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class UnsupportedMediaTypeException extends RuntimeException {
+
+    public UnsupportedMediaTypeException(String message) {
+        super(message);
+    }
+}
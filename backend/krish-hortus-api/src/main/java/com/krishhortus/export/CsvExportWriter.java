@@ -0,0 +1,122 @@
+package com.krishhortus.export;
+
+import com.krishhortus.model.Tree;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Writes trees as CSV
+ *
+ * RFC 4180: comma separated, CRLF line ends, a header row with the
+ * {@link TreeExportColumn} names followed by {@code lat} and {@code lng}.
+ * Fields containing a comma, quote or line break are quoted; unset
+ * attributes are empty. Text starting with {@code = + - @} or a control
+ * character is prefixed with {@code '} so spreadsheets do not evaluate
+ * user-entered names and addresses as formulas.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class CsvExportWriter implements TreeExportWriter, TreeExportColumn.ValueSink {
+
+    private static final String LINE_END = "\r\n";
+
+    private final Writer writer;
+
+    CsvExportWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void begin() throws IOException {
+        for (TreeExportColumn column : TreeExportColumn.values()) {
+            writer.write(column.fieldName());
+            writer.write(',');
+        }
+        writer.write("lat,lng");
+        writer.write(LINE_END);
+    }
+
+    @Override
+    public void write(Tree tree) throws IOException {
+        TreeExportColumn.writeAll(tree, this);
+        writer.write(Double.toString(tree.getLat()));
+        writer.write(',');
+        writer.write(Double.toString(tree.getLng()));
+        writer.write(LINE_END);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void end() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void string(TreeExportColumn column, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            writeText(value);
+        }
+        writer.write(',');
+    }
+
+    @Override
+    public void number(TreeExportColumn column, Double value) throws IOException {
+        if (value != null) {
+            writer.write(Double.toString(value));
+        }
+        writer.write(',');
+    }
+
+    @Override
+    public void bool(TreeExportColumn column, boolean value) throws IOException {
+        writer.write(value ? "true," : "false,");
+    }
+
+    @Override
+    public void timestamp(TreeExportColumn column, Instant value) throws IOException {
+        if (value != null) {
+            writer.write(value.toString());
+        }
+        writer.write(',');
+    }
+
+    private void writeText(String value) throws IOException {
+        char first = value.charAt(0);
+        boolean formula = first == '=' || first == '+' || first == '-' || first == '@' || first < ' ';
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            if (formula) {
+                writer.write('\'');
+            }
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formula) {
+            writer.write('\'');
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
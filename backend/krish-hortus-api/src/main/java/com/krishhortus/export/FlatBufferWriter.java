@@ -0,0 +1,256 @@
+package com.krishhortus.export;
+
+import java.util.Arrays;
+
+/**
+ * Minimal FlatBuffers encoder for FlatGeobuf headers and features
+ *
+ * Supports only what FlatGeobuf needs: tables with scalar and offset
+ * fields, strings, byte, double and table vectors. Unlike the reference
+ * builder, which fills its buffer back to front, objects are laid out
+ * front to back in the order they are written:
+ * - The root offset comes first, then the root table
+ * - A table is written before the strings, vectors and tables it refers
+ *   to; its offset fields are placeholders, patched with
+ *   {@link #patch(int, int)} once the target is written, so every offset
+ *   points forward as the format requires
+ * - Each table is preceded by its vtable
+ *
+ * The buffer is reused between messages; {@link #reset()} starts the next.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+final class FlatBufferWriter {
+
+    private byte[] buffer = new byte[512];
+    private int size;
+
+    void reset() {
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    byte[] array() {
+        return buffer;
+    }
+
+    /**
+     * Reserve a 32-bit offset, such as the root offset at position 0
+     *
+     * @return Position of the offset, for {@link #patch(int, int)}
+     */
+    int reserveOffset() {
+        align(4);
+        int position = size;
+        putInt(0);
+        return position;
+    }
+
+    /**
+     * Point a reserved offset at an object written after it
+     *
+     * @param offsetPosition Position of the offset
+     * @param target Position of the string, vector or table
+     */
+    void patch(int offsetPosition, int target) {
+        setInt(offsetPosition, target - offsetPosition);
+    }
+
+    /**
+     * @return Position of the string
+     */
+    int string(byte[] utf8) {
+        align(4);
+        int position = size;
+        putInt(utf8.length);
+        putBytes(utf8, 0, utf8.length);
+        putByte(0);
+        return position;
+    }
+
+    /**
+     * @return Position of the vector
+     */
+    int bytes(byte[] values, int offset, int length) {
+        align(4);
+        int position = size;
+        putInt(length);
+        putBytes(values, offset, length);
+        return position;
+    }
+
+    /**
+     * @return Position of the vector
+     */
+    int doubles(double first, double second) {
+        align(4);
+        // The elements, which follow the 4-byte length, must be 8-byte aligned
+        if ((size & 7) == 0) {
+            putInt(0);
+        }
+        int position = size;
+        putInt(2);
+        putLong(Double.doubleToRawLongBits(first));
+        putLong(Double.doubleToRawLongBits(second));
+        return position;
+    }
+
+    /**
+     * Write a vector of offsets to be patched later
+     *
+     * @param length Number of elements
+     * @return Position of the vector; element {@code i} is at
+     *         {@code position + 4 + 4 * i}
+     */
+    int offsetVector(int length) {
+        align(4);
+        int position = size;
+        putInt(length);
+        ensureCapacity(4 * length);
+        size += 4 * length;
+        Arrays.fill(buffer, position + 4, size, (byte) 0);
+        return position;
+    }
+
+    /**
+     * Collects the fields of one table; {@link #write(FlatBufferWriter)} lays it out
+     */
+    static final class Table {
+        private static final int MAX_FIELDS = 16;
+
+        private final int[] sizes = new int[MAX_FIELDS];
+        private final long[] values = new long[MAX_FIELDS];
+        private final int[] positions = new int[MAX_FIELDS];
+        private int fieldCount;
+
+        /**
+         * Add a scalar field, written even if it equals the schema default
+         *
+         * @param slot Field index in the schema
+         * @param width Size in bytes: 1, 2, 4 or 8
+         * @param value Value, little-endian in its low {@code width} bytes
+         */
+        Table scalar(int slot, int width, long value) {
+            sizes[slot] = width;
+            values[slot] = value;
+            fieldCount = Math.max(fieldCount, slot + 1);
+            return this;
+        }
+
+        /**
+         * Add an offset field to be patched once its target is written
+         *
+         * @param slot Field index in the schema
+         */
+        Table offset(int slot) {
+            return scalar(slot, 4, 0);
+        }
+
+        /**
+         * @return Position of an offset field, for {@link FlatBufferWriter#patch(int, int)}
+         */
+        int position(int slot) {
+            return positions[slot];
+        }
+
+        /**
+         * Write the vtable and the table
+         *
+         * @return Position of the table
+         */
+        int write(FlatBufferWriter out) {
+            // Largest fields first, so each is aligned without padding in between
+            int[] fieldOffsets = new int[fieldCount];
+            int cursor = 4;
+            int alignment = 4;
+            for (int width = 8; width >= 1; width >>= 1) {
+                for (int slot = 0; slot < fieldCount; slot++) {
+                    if (sizes[slot] == width) {
+                        cursor = (cursor + width - 1) & -width;
+                        fieldOffsets[slot] = cursor;
+                        cursor += width;
+                        alignment = Math.max(alignment, width);
+                    }
+                }
+            }
+            int tableSize = cursor;
+            int vtableSize = 4 + 2 * fieldCount;
+
+            out.align(2);
+            int vtable = out.size;
+            out.putShort(vtableSize);
+            out.putShort(tableSize);
+            for (int slot = 0; slot < fieldCount; slot++) {
+                out.putShort(fieldOffsets[slot]);
+            }
+            out.align(alignment);
+            int table = out.size;
+            out.ensureCapacity(tableSize);
+            Arrays.fill(out.buffer, table, table + tableSize, (byte) 0);
+            out.setInt(table, table - vtable);
+            for (int slot = 0; slot < fieldCount; slot++) {
+                if (sizes[slot] != 0) {
+                    positions[slot] = table + fieldOffsets[slot];
+                    out.setLittleEndian(positions[slot], sizes[slot], values[slot]);
+                }
+            }
+            out.size = table + tableSize;
+            return table;
+        }
+    }
+
+    private void align(int alignment) {
+        while ((size & (alignment - 1)) != 0) {
+            putByte(0);
+        }
+    }
+
+    private void putByte(int value) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) value;
+    }
+
+    private void putShort(int value) {
+        ensureCapacity(2);
+        setLittleEndian(size, 2, value);
+        size += 2;
+    }
+
+    private void putInt(int value) {
+        ensureCapacity(4);
+        setInt(size, value);
+        size += 4;
+    }
+
+    private void putLong(long value) {
+        ensureCapacity(8);
+        setLittleEndian(size, 8, value);
+        size += 8;
+    }
+
+    private void putBytes(byte[] values, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(values, offset, buffer, size, length);
+        size += length;
+    }
+
+    private void setInt(int position, int value) {
+        setLittleEndian(position, 4, value);
+    }
+
+    private void setLittleEndian(int position, int width, long value) {
+        for (int i = 0; i < width; i++) {
+            buffer[position + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private void ensureCapacity(int additional) {
+        if (size + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + additional));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.krishhortus.export;
+
+import com.krishhortus.model.Tree;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Writes trees as FlatGeobuf (version 3)
+ *
+ * The file is the magic bytes, a size-prefixed Header and one size-prefixed
+ * Feature per tree, each a FlatBuffer encoded by {@link FlatBufferWriter}:
+ * - Header: Point geometry, EPSG:4326, one column per
+ *   {@link TreeExportColumn}, and no spatial index ({@code index_node_size}
+ *   0) because an index can only be written once all features are known;
+ *   the feature count and extent are left unset for the same reason
+ * - Feature: a Point geometry {@code [lng, lat]} and the properties in
+ *   FlatGeobuf's binary layout: per set value the column index (uint16)
+ *   followed by the value; numbers as float64, booleans as one byte, text
+ *   and ISO-8601 timestamps as length-prefixed UTF-8. Unset values are
+ *   omitted
+ *
+ * All numbers are little-endian.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class FlatGeobufExportWriter implements TreeExportWriter, TreeExportColumn.ValueSink {
+
+    private static final byte[] MAGIC = {0x66, 0x67, 0x62, 0x03, 0x66, 0x67, 0x62, 0x00};
+
+    private static final int GEOMETRY_TYPE_POINT = 1;
+    private static final int COLUMN_TYPE_BOOL = 2;
+    private static final int COLUMN_TYPE_DOUBLE = 10;
+    private static final int COLUMN_TYPE_STRING = 11;
+    private static final int COLUMN_TYPE_DATETIME = 13;
+
+    // Field slots of the FlatGeobuf schema tables
+    private static final int HEADER_NAME = 0;
+    private static final int HEADER_GEOMETRY_TYPE = 2;
+    private static final int HEADER_COLUMNS = 7;
+    private static final int HEADER_INDEX_NODE_SIZE = 9;
+    private static final int HEADER_CRS = 10;
+    private static final int CRS_ORG = 0;
+    private static final int CRS_CODE = 1;
+    private static final int COLUMN_NAME = 0;
+    private static final int COLUMN_TYPE = 1;
+    private static final int FEATURE_GEOMETRY = 0;
+    private static final int FEATURE_PROPERTIES = 1;
+    private static final int GEOMETRY_XY = 1;
+
+    private final OutputStream out;
+    private final FlatBufferWriter buffer = new FlatBufferWriter();
+    private final byte[] prefix = new byte[4];
+    private byte[] properties = new byte[256];
+    private int propertiesSize;
+
+    FlatGeobufExportWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void begin() throws IOException {
+        TreeExportColumn[] columns = TreeExportColumn.values();
+        buffer.reset();
+        int root = buffer.reserveOffset();
+        FlatBufferWriter.Table header = new FlatBufferWriter.Table()
+            .offset(HEADER_NAME)
+            .scalar(HEADER_GEOMETRY_TYPE, 1, GEOMETRY_TYPE_POINT)
+            .offset(HEADER_COLUMNS)
+            .scalar(HEADER_INDEX_NODE_SIZE, 2, 0)
+            .offset(HEADER_CRS);
+        buffer.patch(root, header.write(buffer));
+        buffer.patch(header.position(HEADER_NAME), buffer.string(utf8("trees")));
+
+        int columnVector = buffer.offsetVector(columns.length);
+        buffer.patch(header.position(HEADER_COLUMNS), columnVector);
+        for (int i = 0; i < columns.length; i++) {
+            FlatBufferWriter.Table column = new FlatBufferWriter.Table()
+                .offset(COLUMN_NAME)
+                .scalar(COLUMN_TYPE, 1, columnType(columns[i]));
+            buffer.patch(columnVector + 4 + 4 * i, column.write(buffer));
+            buffer.patch(column.position(COLUMN_NAME), buffer.string(utf8(columns[i].fieldName())));
+        }
+
+        FlatBufferWriter.Table crs = new FlatBufferWriter.Table()
+            .offset(CRS_ORG)
+            .scalar(CRS_CODE, 4, 4326);
+        buffer.patch(header.position(HEADER_CRS), crs.write(buffer));
+        buffer.patch(crs.position(CRS_ORG), buffer.string(utf8("EPSG")));
+
+        out.write(MAGIC);
+        writeSizePrefixed();
+    }
+
+    @Override
+    public void write(Tree tree) throws IOException {
+        propertiesSize = 0;
+        TreeExportColumn.writeAll(tree, this);
+
+        buffer.reset();
+        int root = buffer.reserveOffset();
+        FlatBufferWriter.Table feature = new FlatBufferWriter.Table()
+            .offset(FEATURE_GEOMETRY)
+            .offset(FEATURE_PROPERTIES);
+        buffer.patch(root, feature.write(buffer));
+        FlatBufferWriter.Table geometry = new FlatBufferWriter.Table().offset(GEOMETRY_XY);
+        buffer.patch(feature.position(FEATURE_GEOMETRY), geometry.write(buffer));
+        buffer.patch(geometry.position(GEOMETRY_XY), buffer.doubles(tree.getLng(), tree.getLat()));
+        buffer.patch(feature.position(FEATURE_PROPERTIES), buffer.bytes(properties, 0, propertiesSize));
+        writeSizePrefixed();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void end() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void string(TreeExportColumn column, String value) {
+        if (value != null) {
+            putText(column, value);
+        }
+    }
+
+    @Override
+    public void number(TreeExportColumn column, Double value) {
+        if (value != null) {
+            putColumn(column);
+            putLittleEndian(8, Double.doubleToRawLongBits(value));
+        }
+    }
+
+    @Override
+    public void bool(TreeExportColumn column, boolean value) {
+        putColumn(column);
+        putLittleEndian(1, value ? 1 : 0);
+    }
+
+    @Override
+    public void timestamp(TreeExportColumn column, Instant value) {
+        if (value != null) {
+            putText(column, value.toString());
+        }
+    }
+
+    private void putText(TreeExportColumn column, String value) {
+        byte[] bytes = utf8(value);
+        putColumn(column);
+        putLittleEndian(4, bytes.length);
+        ensureProperties(bytes.length);
+        System.arraycopy(bytes, 0, properties, propertiesSize, bytes.length);
+        propertiesSize += bytes.length;
+    }
+
+    private void putColumn(TreeExportColumn column) {
+        putLittleEndian(2, column.ordinal());
+    }
+
+    private void putLittleEndian(int width, long value) {
+        ensureProperties(width);
+        for (int i = 0; i < width; i++) {
+            properties[propertiesSize++] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    private void ensureProperties(int additional) {
+        if (propertiesSize + additional > properties.length) {
+            properties = Arrays.copyOf(properties, Math.max(properties.length * 2, propertiesSize + additional));
+        }
+    }
+
+    private void writeSizePrefixed() throws IOException {
+        int size = buffer.size();
+        for (int i = 0; i < 4; i++) {
+            prefix[i] = (byte) (size >>> (8 * i));
+        }
+        out.write(prefix);
+        out.write(buffer.array(), 0, size);
+    }
+
+    private static int columnType(TreeExportColumn column) {
+        return switch (column.type()) {
+            case STRING -> COLUMN_TYPE_STRING;
+            case NUMBER -> COLUMN_TYPE_DOUBLE;
+            case BOOLEAN -> COLUMN_TYPE_BOOL;
+            case TIMESTAMP -> COLUMN_TYPE_DATETIME;
+        };
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,90 @@
+package com.krishhortus.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.krishhortus.model.Tree;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Writes trees as a GeoJSON FeatureCollection
+ *
+ * Each tree is a Point feature with {@code [lng, lat]} coordinates (WGS 84,
+ * as RFC 7946 requires), its id as feature id and the
+ * {@link TreeExportColumn}s as properties; unset attributes are null.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class GeoJsonExportWriter implements TreeExportWriter, TreeExportColumn.ValueSink {
+
+    private final JsonGenerator generator;
+
+    GeoJsonExportWriter(JsonGenerator generator) {
+        this.generator = generator;
+        // The servlet stream is completed by the caller, not by the generator
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    @Override
+    public void begin() throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "FeatureCollection");
+        generator.writeArrayFieldStart("features");
+    }
+
+    @Override
+    public void write(Tree tree) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "Feature");
+        generator.writeStringField("id", tree.getId());
+        generator.writeObjectFieldStart("geometry");
+        generator.writeStringField("type", "Point");
+        generator.writeArrayFieldStart("coordinates");
+        generator.writeNumber(tree.getLng());
+        generator.writeNumber(tree.getLat());
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeObjectFieldStart("properties");
+        TreeExportColumn.writeAll(tree, this);
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void end() throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.flush();
+    }
+
+    @Override
+    public void string(TreeExportColumn column, String value) throws IOException {
+        generator.writeStringField(column.fieldName(), value);
+    }
+
+    @Override
+    public void number(TreeExportColumn column, Double value) throws IOException {
+        generator.writeFieldName(column.fieldName());
+        if (value != null) {
+            generator.writeNumber(value.doubleValue());
+        } else {
+            generator.writeNull();
+        }
+    }
+
+    @Override
+    public void bool(TreeExportColumn column, boolean value) throws IOException {
+        generator.writeBooleanField(column.fieldName(), value);
+    }
+
+    @Override
+    public void timestamp(TreeExportColumn column, Instant value) throws IOException {
+        generator.writeStringField(column.fieldName(), value != null ? value.toString() : null);
+    }
+}
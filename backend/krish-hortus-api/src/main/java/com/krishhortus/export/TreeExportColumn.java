@@ -0,0 +1,105 @@
+package com.krishhortus.export;
+
+import com.krishhortus.model.Tree;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Attribute columns of an exported tree, in output order
+ *
+ * Shared by all export formats so a CSV header, a GeoJSON feature's
+ * properties and a FlatGeobuf column list always agree. The location is
+ * not a column; each format writes it as its own geometry. Values are
+ * handed to a {@link ValueSink} by type, so numbers are never boxed.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public enum TreeExportColumn {
+
+    ID("id", Type.STRING),
+    NAME("name", Type.STRING),
+    SCIENTIFIC_NAME("scientificName", Type.STRING),
+    LOCAL_NAME("localName", Type.STRING),
+    CATEGORY("category", Type.STRING),
+    H3_INDEX("h3Index", Type.STRING),
+    ADDRESS("address", Type.STRING),
+    HEIGHT("height", Type.NUMBER),
+    TRUNK_WIDTH("trunkWidth", Type.NUMBER),
+    CANOPY_SPREAD("canopySpread", Type.NUMBER),
+    TAGGED_AT("taggedAt", Type.TIMESTAMP),
+    VERIFIED("verified", Type.BOOLEAN),
+    AI_GENERATED("aiGenerated", Type.BOOLEAN),
+    UPDATED_AT("updatedAt", Type.TIMESTAMP);
+
+    /** Value types of the columns */
+    public enum Type { STRING, NUMBER, BOOLEAN, TIMESTAMP }
+
+    /**
+     * Receives the values of one tree, column by column
+     *
+     * A null value means the attribute is not set.
+     */
+    public interface ValueSink {
+        void string(TreeExportColumn column, String value) throws IOException;
+
+        void number(TreeExportColumn column, Double value) throws IOException;
+
+        void bool(TreeExportColumn column, boolean value) throws IOException;
+
+        void timestamp(TreeExportColumn column, Instant value) throws IOException;
+    }
+
+    private static final TreeExportColumn[] COLUMNS = values();
+
+    private final String fieldName;
+    private final Type type;
+
+    TreeExportColumn(String fieldName, Type type) {
+        this.fieldName = fieldName;
+        this.type = type;
+    }
+
+    /**
+     * @return Name of the column in every export format
+     */
+    public String fieldName() {
+        return fieldName;
+    }
+
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Hand every column value of a tree to a sink, in column order
+     *
+     * @param tree Tree to export
+     * @param sink Receiver of the values
+     */
+    public static void writeAll(Tree tree, ValueSink sink) throws IOException {
+        for (TreeExportColumn column : COLUMNS) {
+            column.write(tree, sink);
+        }
+    }
+
+    private void write(Tree tree, ValueSink sink) throws IOException {
+        switch (this) {
+            case ID -> sink.string(this, tree.getId());
+            case NAME -> sink.string(this, tree.getName());
+            case SCIENTIFIC_NAME -> sink.string(this, tree.getScientificName());
+            case LOCAL_NAME -> sink.string(this, tree.getLocalName());
+            case CATEGORY -> sink.string(this, tree.getCategory());
+            case H3_INDEX -> sink.string(this, tree.getH3Index());
+            case ADDRESS -> sink.string(this, tree.getAddress());
+            case HEIGHT -> sink.number(this, tree.getHeight());
+            case TRUNK_WIDTH -> sink.number(this, tree.getTrunkWidth());
+            case CANOPY_SPREAD -> sink.number(this, tree.getCanopySpread());
+            case TAGGED_AT -> sink.timestamp(this, tree.getTaggedAt());
+            case VERIFIED -> sink.bool(this, tree.isVerified());
+            case AI_GENERATED -> sink.bool(this, tree.isAiGenerated());
+            case UPDATED_AT -> sink.timestamp(this, tree.getUpdatedAt());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.krishhortus.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Export formats of the tree registry
+ *
+ * - {@code geojson}: RFC 7946 FeatureCollection of points
+ * - {@code csv}: RFC 4180 with a header row; {@code lat}/{@code lng} columns
+ * - {@code fgb}: FlatGeobuf, a binary format GIS tools read feature by
+ *   feature; written without a spatial index so it can be streamed
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public enum TreeExportFormat {
+
+    GEOJSON("geojson", new MediaType("application", "geo+json"), "geojson"),
+    CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+    FGB("fgb", new MediaType("application", "flatgeobuf"), "fgb");
+
+    private final String parameter;
+    private final MediaType mediaType;
+    private final String extension;
+
+    TreeExportFormat(String parameter, MediaType mediaType, String extension) {
+        this.parameter = parameter;
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * @param value Request parameter value (geojson, csv or fgb)
+     * @return Matching format
+     * @throws IllegalArgumentException if no format matches
+     */
+    public static TreeExportFormat fromParameter(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (TreeExportFormat format : values()) {
+            if (format.parameter.equals(normalized)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown export format: " + value + " (use geojson, csv or fgb)");
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * @return File name extension for the download
+     */
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Create a writer of this format
+     *
+     * @param out Stream the export is written to
+     * @param jsonFactory Factory for the GeoJSON generator
+     * @return Writer encoding trees into {@code out}
+     */
+    public TreeExportWriter newWriter(OutputStream out, JsonFactory jsonFactory) throws IOException {
+        return switch (this) {
+            case GEOJSON -> new GeoJsonExportWriter(jsonFactory.createGenerator(out));
+            case CSV -> new CsvExportWriter(out);
+            case FGB -> new FlatGeobufExportWriter(out);
+        };
+    }
+}
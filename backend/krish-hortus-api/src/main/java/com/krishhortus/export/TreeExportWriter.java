@@ -0,0 +1,41 @@
+package com.krishhortus.export;
+
+import com.krishhortus.model.Tree;
+
+import java.io.IOException;
+
+/**
+ * Encodes a stream of trees in one export format
+ *
+ * Writers hold no rows: each tree is encoded into the underlying stream as
+ * it arrives, so an export of any size needs the same memory. Call
+ * {@link #begin()} once, {@link #write(Tree)} per tree and {@link #end()}
+ * once; the underlying stream is not closed.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public interface TreeExportWriter {
+
+    /**
+     * Write everything that precedes the first tree (header, column list)
+     */
+    void begin() throws IOException;
+
+    /**
+     * Write one tree
+     *
+     * @param tree Tree to export
+     */
+    void write(Tree tree) throws IOException;
+
+    /**
+     * Pass everything written so far on to the underlying stream and flush it
+     */
+    void flush() throws IOException;
+
+    /**
+     * Write everything that follows the last tree and flush
+     */
+    void end() throws IOException;
+}
@@ -0,0 +1,83 @@
+package com.krishhortus.geo;
+
+/**
+ * Geographic bounding box in degrees
+ *
+ * Boxes crossing the antimeridian are not supported.
+ *
+ * @param minLat Southern edge
+ * @param minLng Western edge
+ * @param maxLat Northern edge
+ * @param maxLng Eastern edge
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record BoundingBox(double minLat, double minLng, double maxLat, double maxLng) {
+
+    public BoundingBox {
+        // Written so that NaN edges fail as well
+        if (!(minLat >= -90 && maxLat <= 90 && minLng >= -180 && maxLng <= 180
+            && minLat <= maxLat && minLng <= maxLng)) {
+            throw new IllegalArgumentException("Invalid bounding box: "
+                + minLng + "," + minLat + "," + maxLng + "," + maxLat);
+        }
+    }
+
+    /**
+     * Parse a bounding box in GeoJSON order: {@code minLng,minLat,maxLng,maxLat}
+     *
+     * @param value Comma separated coordinates
+     * @return Parsed bounding box
+     * @throws IllegalArgumentException if the value is malformed
+     */
+    public static BoundingBox parse(String value) {
+        String[] parts = value.split(",");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("bbox must be minLng,minLat,maxLng,maxLat");
+        }
+        try {
+            return new BoundingBox(
+                Double.parseDouble(parts[1].trim()),
+                Double.parseDouble(parts[0].trim()),
+                Double.parseDouble(parts[3].trim()),
+                Double.parseDouble(parts[2].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bbox must be minLng,minLat,maxLng,maxLat");
+        }
+    }
+
+    /**
+     * @param lat Latitude in degrees
+     * @param lng Longitude in degrees
+     * @return Whether the point lies inside the box (edges included)
+     */
+    public boolean contains(double lat, double lng) {
+        return lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng;
+    }
+
+    /**
+     * Grow the box by a margin on every side, clamped to valid coordinates
+     *
+     * @param meters Margin in meters
+     * @return Expanded bounding box
+     */
+    public BoundingBox expand(double meters) {
+        double dLat = Math.toDegrees(meters / GeoMath.EARTH_RADIUS_M);
+        double maxAbsLat = Math.min(89.0, Math.max(Math.abs(minLat), Math.abs(maxLat)));
+        double dLng = dLat / Math.cos(Math.toRadians(maxAbsLat));
+        return new BoundingBox(
+            Math.max(-90, minLat - dLat),
+            Math.max(-180, minLng - dLng),
+            Math.min(90, maxLat + dLat),
+            Math.min(180, maxLng + dLng));
+    }
+
+    /**
+     * @return Approximate area of the box in square meters
+     */
+    public double areaSquareMeters() {
+        double r = GeoMath.EARTH_RADIUS_M;
+        return r * r * Math.toRadians(maxLng - minLng)
+            * Math.abs(Math.sin(Math.toRadians(maxLat)) - Math.sin(Math.toRadians(minLat)));
+    }
+}
@@ -0,0 +1,235 @@
+package com.krishhortus.geo;
+
+import com.krishhortus.util.LongObjectHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Incrementally maintained per-cell tree rollups for map clustering
+ *
+ * For every H3 resolution between {@code krishhortus.h3.min-resolution} and
+ * {@code krishhortus.h3.max-resolution} this keeps, per occupied cell, the
+ * tree count, the count per category and the coordinate sums needed for the
+ * centroid. Writes adjust one cell per resolution; reads only touch the
+ * cells they ask for, so a cluster query never looks at individual trees.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class ClusterRollups {
+
+    private final H3Service h3Service;
+    private final int minResolution;
+    private final int maxResolution;
+    private final LongObjectHashMap<CellAggregate>[] levels;
+    private final Map<String, Contribution> contributions = new HashMap<>();
+    private final Map<String, Integer> categoryIds = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private final StampedLock lock = new StampedLock();
+
+    @SuppressWarnings("unchecked")
+    public ClusterRollups(H3Service h3Service,
+                          @Value("${krishhortus.h3.min-resolution:2}") int minResolution,
+                          @Value("${krishhortus.h3.max-resolution:10}") int maxResolution) {
+        if (minResolution < 0 || maxResolution > 15 || minResolution > maxResolution) {
+            throw new IllegalArgumentException(
+                "Invalid H3 rollup resolution range: " + minResolution + "-" + maxResolution);
+        }
+        this.h3Service = h3Service;
+        this.minResolution = minResolution;
+        this.maxResolution = maxResolution;
+        this.levels = new LongObjectHashMap[maxResolution - minResolution + 1];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = new LongObjectHashMap<>(1 << 8);
+        }
+    }
+
+    public int getMinResolution() {
+        return minResolution;
+    }
+
+    public int getMaxResolution() {
+        return maxResolution;
+    }
+
+    /**
+     * Add a tree to the rollups or move it to its new position/category
+     *
+     * @param id Tree identifier
+     * @param lat Latitude in degrees
+     * @param lng Longitude in degrees
+     * @param category Tree category (may be null)
+     */
+    public void put(String id, double lat, double lng, String category) {
+        // Native H3 work happens outside the lock
+        long fineCell = h3Service.cellFor(lat, lng, maxResolution);
+        long[] cells = cellsOf(fineCell);
+
+        long stamp = lock.writeLock();
+        try {
+            Contribution previous = contributions.get(id);
+            if (previous != null) {
+                apply(previous, previous.cells, -1);
+            }
+            Contribution current = new Contribution(cells, lat, lng, categoryId(category));
+            contributions.put(id, current);
+            apply(current, cells, 1);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove a tree from the rollups (no-op if it is not present)
+     *
+     * @param id Tree identifier
+     */
+    public void remove(String id) {
+        long stamp = lock.writeLock();
+        try {
+            Contribution previous = contributions.remove(id);
+            if (previous != null) {
+                apply(previous, previous.cells, -1);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Drop every rollup
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            contributions.clear();
+            for (LongObjectHashMap<CellAggregate> level : levels) {
+                level.clear();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Read the rollups of the given cells
+     *
+     * @param cells Cells at a single resolution within the rollup range
+     * @param resolution Resolution of the cells
+     * @return One cluster per occupied cell; empty cells are omitted
+     */
+    public List<ClusterCell> lookup(List<Long> cells, int resolution) {
+        if (resolution < minResolution || resolution > maxResolution) {
+            throw new IllegalArgumentException("Resolution " + resolution + " is outside the rollup range "
+                + minResolution + "-" + maxResolution);
+        }
+        LongObjectHashMap<CellAggregate> level = levels[resolution - minResolution];
+        List<ClusterCell> clusters = new ArrayList<>();
+
+        long stamp = lock.readLock();
+        try {
+            for (int i = 0, n = cells.size(); i < n; i++) {
+                long cell = cells.get(i);
+                CellAggregate aggregate = level.get(cell);
+                if (aggregate != null) {
+                    clusters.add(aggregate.snapshot(cell, categoryNames));
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return clusters;
+    }
+
+    private void apply(Contribution contribution, long[] cells, int delta) {
+        for (int i = 0; i < cells.length; i++) {
+            LongObjectHashMap<CellAggregate> level = levels[i];
+            CellAggregate aggregate = level.get(cells[i]);
+            if (aggregate == null) {
+                aggregate = new CellAggregate();
+                level.put(cells[i], aggregate);
+            }
+            aggregate.add(contribution, delta);
+            if (aggregate.count == 0) {
+                level.remove(cells[i]);
+            }
+        }
+    }
+
+    private long[] cellsOf(long fineCell) {
+        long[] cells = new long[levels.length];
+        for (int i = 0; i < cells.length - 1; i++) {
+            cells[i] = h3Service.parent(fineCell, minResolution + i);
+        }
+        cells[cells.length - 1] = fineCell;
+        return cells;
+    }
+
+    private int categoryId(String category) {
+        String key = category != null ? category : "UNKNOWN";
+        Integer id = categoryIds.get(key);
+        if (id == null) {
+            id = categoryNames.size();
+            categoryIds.put(key, id);
+            categoryNames.add(key);
+        }
+        return id;
+    }
+
+    /**
+     * Aggregated rollup of one H3 cell
+     *
+     * @param h3Index H3 cell address
+     * @param count Number of trees in the cell
+     * @param centroidLat Mean latitude of the trees in the cell
+     * @param centroidLng Mean longitude of the trees in the cell
+     * @param categories Tree count per category
+     */
+    public record ClusterCell(String h3Index, int count, double centroidLat, double centroidLng,
+                              Map<String, Integer> categories) {
+    }
+
+    /**
+     * What a single tree contributed to the rollups, kept so it can be
+     * subtracted again on update or delete
+     */
+    private record Contribution(long[] cells, double lat, double lng, int category) {
+    }
+
+    private final class CellAggregate {
+        int count;
+        double sumLat;
+        double sumLng;
+        int[] categoryCounts = new int[4];
+
+        void add(Contribution contribution, int delta) {
+            count += delta;
+            sumLat += delta * contribution.lat();
+            sumLng += delta * contribution.lng();
+            if (contribution.category() >= categoryCounts.length) {
+                categoryCounts = Arrays.copyOf(categoryCounts, Math.max(contribution.category() + 1,
+                    categoryCounts.length << 1));
+            }
+            categoryCounts[contribution.category()] += delta;
+        }
+
+        ClusterCell snapshot(long cell, List<String> names) {
+            Map<String, Integer> categories = new LinkedHashMap<>();
+            for (int i = 0; i < categoryCounts.length; i++) {
+                if (categoryCounts[i] > 0) {
+                    categories.put(names.get(i), categoryCounts[i]);
+                }
+            }
+            return new ClusterCell(h3Service.toAddress(cell), count, sumLat / count, sumLng / count, categories);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.krishhortus.geo;
+
+/**
+ * Spherical geometry helpers
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public final class GeoMath {
+
+    /** Mean Earth radius in meters (IUGG) */
+    public static final double EARTH_RADIUS_M = 6_371_008.8;
+
+    private GeoMath() {
+    }
+
+    /**
+     * Great-circle distance between two points using the haversine formula
+     *
+     * @param lat1 Latitude of the first point in degrees
+     * @param lng1 Longitude of the first point in degrees
+     * @param lat2 Latitude of the second point in degrees
+     * @param lng2 Longitude of the second point in degrees
+     * @return Distance in meters
+     */
+    public static double haversineMeters(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double dPhi = phi2 - phi1;
+        double dLambda = Math.toRadians(lng2 - lng1);
+        double sinPhi = Math.sin(dPhi * 0.5);
+        double sinLambda = Math.sin(dLambda * 0.5);
+        double a = sinPhi * sinPhi + Math.cos(phi1) * Math.cos(phi2) * sinLambda * sinLambda;
+        return 2.0 * EARTH_RADIUS_M * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,213 @@
+package com.krishhortus.geo;
+
+import com.uber.h3core.AreaUnit;
+import com.uber.h3core.H3Core;
+import com.uber.h3core.LengthUnit;
+import com.uber.h3core.util.LatLng;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * H3 geospatial indexing service
+ *
+ * Thin wrapper around the Uber H3 native library. Keeps a single
+ * {@link H3Core} instance for the application and precomputes the average
+ * hexagon edge length per resolution, which is used to size grid-disk
+ * searches from a radius in meters.
+ *
+ * The native library is extracted and loaded on first use rather than
+ * when the bean is created, so startup does not wait for it;
+ * {@link #warmUp()} loads it ahead of the first request.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class H3Service {
+
+    private static final int MAX_RESOLUTION = 15;
+
+    private final int defaultResolution;
+
+    public H3Service(@Value("${krishhortus.h3.default-resolution:15}") int defaultResolution) {
+        this.defaultResolution = defaultResolution;
+    }
+
+    /**
+     * Native library and per-resolution averages, initialized by the JVM on
+     * first access
+     */
+    private static final class Native {
+        static final H3Core H3;
+        static final double[] EDGE_LENGTH_METERS = new double[MAX_RESOLUTION + 1];
+        static final double[] CELL_AREA_SQUARE_METERS = new double[MAX_RESOLUTION + 1];
+
+        static {
+            try {
+                H3 = H3Core.newInstance();
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to load H3 native library", e);
+            }
+            for (int res = 0; res <= MAX_RESOLUTION; res++) {
+                EDGE_LENGTH_METERS[res] = H3.getHexagonEdgeLengthAvg(res, LengthUnit.m);
+                CELL_AREA_SQUARE_METERS[res] = H3.getHexagonAreaAvg(res, AreaUnit.m2);
+            }
+        }
+
+        private Native() {
+        }
+    }
+
+    /**
+     * Load the native library now instead of on the first request using it
+     */
+    public void warmUp() {
+        cellFor(0, 0);
+    }
+
+    /**
+     * @return Resolution used for the H3 index stored on each tree
+     */
+    public int getDefaultResolution() {
+        return defaultResolution;
+    }
+
+    /**
+     * Compute the H3 cell containing a point at the default resolution
+     *
+     * @param lat Latitude in degrees
+     * @param lng Longitude in degrees
+     * @return H3 cell index
+     */
+    public long cellFor(double lat, double lng) {
+        return Native.H3.latLngToCell(lat, lng, defaultResolution);
+    }
+
+    /**
+     * Compute the H3 cell containing a point at a specific resolution
+     *
+     * @param lat Latitude in degrees
+     * @param lng Longitude in degrees
+     * @param resolution H3 resolution (0-15)
+     * @return H3 cell index
+     */
+    public long cellFor(double lat, double lng, int resolution) {
+        return Native.H3.latLngToCell(lat, lng, resolution);
+    }
+
+    /**
+     * @param cell H3 cell index
+     * @param resolution Coarser target resolution
+     * @return Parent cell at the given resolution
+     */
+    public long parent(long cell, int resolution) {
+        return Native.H3.cellToParent(cell, resolution);
+    }
+
+    /**
+     * @param origin Center cell
+     * @param k Ring distance
+     * @return All cells within {@code k} grid steps of the origin
+     */
+    public List<Long> gridDisk(long origin, int k) {
+        return Native.H3.gridDisk(origin, k);
+    }
+
+    /**
+     * @param cell H3 cell index
+     * @return Hexadecimal H3 address as used in API payloads
+     */
+    public String toAddress(long cell) {
+        return Native.H3.h3ToString(cell);
+    }
+
+    /**
+     * @param address Hexadecimal H3 address
+     * @return H3 cell index
+     * @throws IllegalArgumentException if the address is not a valid H3 cell
+     */
+    public long toCell(String address) {
+        long cell;
+        try {
+            cell = Native.H3.stringToH3(address);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid H3 index: " + address);
+        }
+        if (!Native.H3.isValidCell(cell)) {
+            throw new IllegalArgumentException("Invalid H3 index: " + address);
+        }
+        return cell;
+    }
+
+    /**
+     * @param cell H3 cell index
+     * @return Resolution of the cell
+     */
+    public int resolutionOf(long cell) {
+        return Native.H3.getResolution(cell);
+    }
+
+    /**
+     * @param resolution H3 resolution (0-15)
+     * @return Average hexagon edge length in meters
+     */
+    public double edgeLengthMeters(int resolution) {
+        return Native.EDGE_LENGTH_METERS[resolution];
+    }
+
+    /**
+     * @param resolution H3 resolution (0-15)
+     * @return Average hexagon area in square meters
+     */
+    public double cellAreaSquareMeters(int resolution) {
+        return Native.CELL_AREA_SQUARE_METERS[resolution];
+    }
+
+    /**
+     * Cells whose centers fall inside a bounding box
+     *
+     * @param box Bounding box
+     * @param resolution H3 resolution (0-15)
+     * @return Covering cells
+     */
+    public List<Long> cover(BoundingBox box, int resolution) {
+        List<LatLng> outline = List.of(
+            new LatLng(box.minLat(), box.minLng()),
+            new LatLng(box.minLat(), box.maxLng()),
+            new LatLng(box.maxLat(), box.maxLng()),
+            new LatLng(box.maxLat(), box.minLng()));
+        return Native.H3.polygonToCells(outline, List.of(), resolution);
+    }
+
+    /**
+     * Numeric range spanned by all descendants of a cell at a finer resolution
+     *
+     * H3 indexes store the resolution in bits 52-55 followed by one 3-bit
+     * digit per resolution. Every descendant shares the ancestor's leading
+     * digits, so setting the finer digits to 0 and 6 yields the smallest and
+     * largest possible descendant. Because the addresses at one resolution
+     * have equal length, the range also holds for their hex strings.
+     *
+     * @param cell Ancestor cell
+     * @param resolution Finer resolution of the descendants
+     * @return Two-element array with the smallest and largest descendant
+     */
+    public long[] descendantRange(long cell, int resolution) {
+        int cellResolution = Native.H3.getResolution(cell);
+        if (resolution < cellResolution) {
+            throw new IllegalArgumentException("Resolution " + resolution
+                + " is coarser than the cell resolution " + cellResolution);
+        }
+        long min = (cell & ~(0xFL << 52)) | ((long) resolution << 52);
+        long max = min;
+        for (int digit = cellResolution + 1; digit <= resolution; digit++) {
+            int offset = (MAX_RESOLUTION - digit) * 3;
+            min &= ~(0x7L << offset);
+            max = (max & ~(0x7L << offset)) | (0x6L << offset);
+        }
+        return new long[] {min, max};
+    }
+}
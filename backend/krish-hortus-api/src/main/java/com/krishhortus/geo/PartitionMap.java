@@ -0,0 +1,142 @@
+package com.krishhortus.geo;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Assignment of H3 cells to tree partitions
+ *
+ * The unit of assignment is a partition cell: a cell at the base partition
+ * resolution, or a descendant of one that was split because it held too
+ * many trees. Every point belongs to exactly one partition cell:
+ * - Start from its ancestor at the base resolution
+ * - While that cell has been split, step down to the child containing the point
+ *
+ * A partition cell is owned by the partition it was explicitly assigned to
+ * when its parent split, and otherwise by a hash of the cell, so a map
+ * without splits needs no state per cell.
+ *
+ * Instances are immutable; a split produces a new map that is published as
+ * a whole, so a query routes with one consistent snapshot.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public final class PartitionMap {
+
+    private final H3Service h3Service;
+    private final int partitionCount;
+    private final int baseResolution;
+    private final long version;
+    private final Set<Long> splitCells;
+    private final Map<Long, Integer> owners;
+
+    private PartitionMap(H3Service h3Service, int partitionCount, int baseResolution, long version,
+                         Set<Long> splitCells, Map<Long, Integer> owners) {
+        this.h3Service = h3Service;
+        this.partitionCount = partitionCount;
+        this.baseResolution = baseResolution;
+        this.version = version;
+        this.splitCells = splitCells;
+        this.owners = owners;
+    }
+
+    /**
+     * Create a map without splits
+     *
+     * @param h3Service H3 service
+     * @param partitionCount Number of partitions
+     * @param baseResolution Resolution of the unsplit partition cells (0-15)
+     * @return Initial map
+     */
+    public static PartitionMap initial(H3Service h3Service, int partitionCount, int baseResolution) {
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("At least one partition is required");
+        }
+        if (baseResolution < 0 || baseResolution > 15) {
+            throw new IllegalArgumentException("Invalid partition resolution: " + baseResolution);
+        }
+        return new PartitionMap(h3Service, partitionCount, baseResolution, 0, Set.of(), Map.of());
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public int getBaseResolution() {
+        return baseResolution;
+    }
+
+    /**
+     * @return Number of splits applied since the initial map
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Number of partition cells that have been split
+     */
+    public int splitCount() {
+        return splitCells.size();
+    }
+
+    /**
+     * Find the partition cell containing a cell
+     *
+     * @param cell H3 cell, at least as fine as every split partition cell
+     * @return Partition cell that is the cell or one of its ancestors
+     */
+    public long partitionCellOf(long cell) {
+        long partitionCell = h3Service.parent(cell, baseResolution);
+        int resolution = baseResolution;
+        while (splitCells.contains(partitionCell)) {
+            partitionCell = h3Service.parent(cell, ++resolution);
+        }
+        return partitionCell;
+    }
+
+    /**
+     * @param partitionCell Partition cell
+     * @return Index of the partition owning the cell
+     */
+    public int ownerOf(long partitionCell) {
+        Integer owner = owners.get(partitionCell);
+        if (owner != null) {
+            return owner;
+        }
+        // Cells of one resolution share their unused trailing digits and differ in a
+        // few high bits only, so every bit is mixed into the low ones (MurmurHash3 finalizer)
+        long hash = partitionCell;
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB93FE53A7ED5L;
+        return (int) Math.floorMod(hash ^ (hash >>> 33), (long) partitionCount);
+    }
+
+    /**
+     * @param partitionCell Partition cell
+     * @return Whether the cell has been split into its children
+     */
+    public boolean isSplit(long partitionCell) {
+        return splitCells.contains(partitionCell);
+    }
+
+    /**
+     * Split a partition cell into its children
+     *
+     * @param partitionCell Cell to split
+     * @param childOwners Owner of each child that is not owned by its hash
+     * @return New map; this one is unchanged
+     */
+    public PartitionMap withSplit(long partitionCell, Map<Long, Integer> childOwners) {
+        Set<Long> splits = new HashSet<>(splitCells);
+        splits.add(partitionCell);
+        Map<Long, Integer> assigned = new HashMap<>(owners);
+        assigned.remove(partitionCell);
+        assigned.putAll(childOwners);
+        return new PartitionMap(h3Service, partitionCount, baseResolution, version + 1,
+            Set.copyOf(splits), Map.copyOf(assigned));
+    }
+}
@@ -0,0 +1,503 @@
+package com.krishhortus.geo;
+
+import com.krishhortus.geo.TreeSpatialIndex.NearbyCover;
+import com.krishhortus.geo.TreeSpatialIndex.NearbyHit;
+import com.krishhortus.util.SortedMerge;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Tree positions partitioned by coarse H3 cell
+ *
+ * Holds one {@link TreeSpatialIndex} per partition and places every tree
+ * in the partition owning its cell in the {@link PartitionMap}. The cell
+ * is the ancestor of the tree's stored H3 index, not the cell of its
+ * coordinates: an H3 parent does not exactly cover its children, so only
+ * the stored index places a tree in the partition cell whose descendant
+ * range the database queries of that partition select. With
+ * {@code krishhortus.partitions.count} above 1 the partitions live in this
+ * process, which exercises routing, merging and rebalancing on one
+ * machine; with the default of 1 every call goes straight to a single
+ * index.
+ *
+ * A nearby query:
+ * 1. Covers the search circle with a small grid disk at a resolution at
+ *    least as fine as every partition cell
+ * 2. Maps the disk onto partition cells and those onto their owners
+ * 3. Queries only the owning partitions
+ * 4. Merges their distance-ordered hits into the closest {@code limit}
+ *
+ * The H3 work of a query, the routing disk and the grid disk every
+ * queried partition walks, is computed once by
+ * {@link #plan(double, double, double)} before any partition is read.
+ *
+ * Rebalancing runs every {@code rebalance-interval}: a partition cell
+ * holding more than {@code split-threshold} trees is split into its
+ * children, which go to the least loaded partitions, and the trees of the
+ * children that changed owner are moved. Reads go on during a split: a
+ * moved tree is added to its new partition before the new map is
+ * published and removed from the old one after, merges skip the copy, and
+ * a read that overlapped the publication is repeated. Writes wait for the
+ * split.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class PartitionedTreeIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PartitionedTreeIndex.class);
+
+    private static final Comparator<NearbyHit> BY_DISTANCE = Comparator.comparingDouble(NearbyHit::distanceMeters);
+
+    private final H3Service h3Service;
+    private final TreeSpatialIndex[] partitions;
+    private final boolean partitioned;
+    private final int maxSplitResolution;
+    private final int splitThreshold;
+    private final Duration rebalanceInterval;
+    private final Map<String, Placement> placements = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> cellCounts = new ConcurrentHashMap<>();
+    /** Shared by writes and reads that overlapped a split, exclusive for a split */
+    private final StampedLock routingLock = new StampedLock();
+    private volatile PartitionMap map;
+    private ScheduledExecutorService maintenance;
+
+    public PartitionedTreeIndex(H3Service h3Service,
+                                @Value("${krishhortus.h3.index-resolutions:5,7,9,11}") int[] indexResolutions,
+                                @Value("${krishhortus.partitions.count:1}") int partitionCount,
+                                @Value("${krishhortus.partitions.resolution:3}") int resolution,
+                                @Value("${krishhortus.partitions.max-split-resolution:5}") int maxSplitResolution,
+                                @Value("${krishhortus.partitions.split-threshold:200000}") int splitThreshold,
+                                @Value("${krishhortus.partitions.rebalance-interval:30s}") Duration rebalanceInterval) {
+        if (maxSplitResolution < resolution || maxSplitResolution > 15) {
+            throw new IllegalArgumentException("Partition max-split-resolution must be between the partition resolution and 15");
+        }
+        if (splitThreshold < 1) {
+            throw new IllegalArgumentException("Partition split-threshold must be positive");
+        }
+        this.h3Service = h3Service;
+        this.map = PartitionMap.initial(h3Service, partitionCount, resolution);
+        this.partitions = new TreeSpatialIndex[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new TreeSpatialIndex(h3Service, indexResolutions);
+        }
+        this.partitioned = partitionCount > 1;
+        this.maxSplitResolution = maxSplitResolution;
+        this.splitThreshold = splitThreshold;
+        this.rebalanceInterval = rebalanceInterval;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        if (!partitioned) {
+            return;
+        }
+        maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "partition-rebalancer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = rebalanceInterval.toMillis();
+        maintenance.scheduleWithFixedDelay(() -> {
+            try {
+                rebalance();
+            } catch (RuntimeException e) {
+                log.error("Partition rebalance failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("Tree index split into {} in-process partitions by H3 resolution {} cells",
+            partitions.length, map.getBaseResolution());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (maintenance != null) {
+            maintenance.shutdownNow();
+        }
+    }
+
+    /**
+     * @return Number of partitions
+     */
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    /**
+     * @param partition Partition index
+     * @return Trees held by the partition
+     */
+    public int partitionSize(int partition) {
+        return partitions[partition].size();
+    }
+
+    /**
+     * @return Partition cells split since startup
+     */
+    public long splitCount() {
+        return map.getVersion();
+    }
+
+    /**
+     * @return Current partition map
+     */
+    public PartitionMap getPartitionMap() {
+        return map;
+    }
+
+    /**
+     * Insert a tree or move it to a new position, and to another partition
+     * if the new position belongs to one
+     *
+     * @param id Tree identifier
+     * @param h3Index Stored H3 address of the tree, which decides its partition
+     * @param lat Latitude in degrees
+     * @param lng Longitude in degrees
+     */
+    public void put(String id, String h3Index, double lat, double lng) {
+        if (!partitioned) {
+            partitions[0].put(id, lat, lng);
+            return;
+        }
+        long cell = h3Service.parent(h3Service.toCell(h3Index), maxSplitResolution);
+        long stamp = routingLock.readLock();
+        try {
+            PartitionMap current = map;
+            long partitionCell = current.partitionCellOf(cell);
+            int owner = current.ownerOf(partitionCell);
+            placements.compute(id, (key, previous) -> {
+                // Add before removing, so a concurrent read finds the tree in one of them
+                partitions[owner].put(id, lat, lng);
+                if (previous != null && previous.partition() != owner) {
+                    partitions[previous.partition()].remove(id);
+                }
+                if (previous == null || previous.partitionCell() != partitionCell) {
+                    if (previous != null) {
+                        uncount(previous.partitionCell());
+                    }
+                    cellCounts.merge(partitionCell, 1, Integer::sum);
+                }
+                return new Placement(cell, partitionCell, owner, lat, lng);
+            });
+        } finally {
+            routingLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Remove a tree (no-op if it is not indexed)
+     *
+     * @param id Tree identifier
+     */
+    public void remove(String id) {
+        if (!partitioned) {
+            partitions[0].remove(id);
+            return;
+        }
+        long stamp = routingLock.readLock();
+        try {
+            placements.computeIfPresent(id, (key, previous) -> {
+                partitions[previous.partition()].remove(id);
+                uncount(previous.partitionCell());
+                return null;
+            });
+        } finally {
+            routingLock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Drop every indexed tree; splits already made are kept
+     */
+    public void clear() {
+        long stamp = routingLock.writeLock();
+        try {
+            for (TreeSpatialIndex partition : partitions) {
+                partition.clear();
+            }
+            placements.clear();
+            cellCounts.clear();
+        } finally {
+            routingLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return Number of indexed trees
+     */
+    public int size() {
+        return partitioned ? placements.size() : partitions[0].size();
+    }
+
+    /**
+     * Find the trees closest to a point within a radius, asking only the
+     * partitions that own part of the search circle
+     *
+     * @param lat Latitude of the search center
+     * @param lng Longitude of the search center
+     * @param radiusMeters Search radius in meters
+     * @param limit Maximum number of hits
+     * @return Hits ordered by ascending distance
+     */
+    public List<NearbyHit> nearby(double lat, double lng, double radiusMeters, int limit) {
+        return nearby(plan(lat, lng, radiusMeters), limit);
+    }
+
+    /**
+     * Compute the H3 cells of a nearby query
+     *
+     * @param lat Latitude of the search center
+     * @param lng Longitude of the search center
+     * @param radiusMeters Search radius in meters
+     * @return Query to pass to {@link #nearby(NearbyQuery, int)}
+     */
+    public NearbyQuery plan(double lat, double lng, double radiusMeters) {
+        // Every partition has the same resolutions, so one cover serves them all
+        NearbyCover cover = partitions[0].cover(lat, lng, radiusMeters);
+        return new NearbyQuery(cover, partitioned ? routingDisk(lat, lng, radiusMeters) : null);
+    }
+
+    /**
+     * Find the trees closest to a point within a radius, asking only the
+     * partitions that own part of the search circle
+     *
+     * @param query Cells of the query from {@link #plan(double, double, double)}
+     * @param limit Maximum number of hits
+     * @return Hits ordered by ascending distance
+     */
+    public List<NearbyHit> nearby(NearbyQuery query, int limit) {
+        if (!partitioned) {
+            return partitions[0].nearby(query.cover(), limit);
+        }
+        long stamp = routingLock.tryOptimisticRead();
+        List<NearbyHit> hits = stamp != 0 ? nearby(map, query, limit) : null;
+        if (hits != null && routingLock.validate(stamp)) {
+            return hits;
+        }
+        // A split moved trees while the partitions were read
+        stamp = routingLock.readLock();
+        try {
+            return nearby(map, query, limit);
+        } finally {
+            routingLock.unlockRead(stamp);
+        }
+    }
+
+    private List<NearbyHit> nearby(PartitionMap current, NearbyQuery query, int limit) {
+        boolean[] owners = new boolean[partitions.length];
+        for (long cell : partitionCells(current, query.routingDisk())) {
+            owners[current.ownerOf(cell)] = true;
+        }
+        List<List<NearbyHit>> results = new ArrayList<>();
+        for (int i = 0; i < partitions.length; i++) {
+            if (owners[i]) {
+                results.add(partitions[i].nearby(query.cover(), limit));
+            }
+        }
+        return SortedMerge.topN(results, BY_DISTANCE, NearbyHit::id, limit);
+    }
+
+    /**
+     * Partition cells that may hold trees within a radius of a point, with
+     * their owners
+     *
+     * @param lat Latitude of the circle center
+     * @param lng Longitude of the circle center
+     * @param radiusMeters Circle radius in meters
+     * @return Distinct partition cells overlapping the circle
+     */
+    public List<Route> route(double lat, double lng, double radiusMeters) {
+        PartitionMap current = map;
+        long[] cells = partitionCells(current, routingDisk(lat, lng, radiusMeters));
+        List<Route> routes = new ArrayList<>(cells.length);
+        for (long cell : cells) {
+            routes.add(new Route(cell, current.ownerOf(cell)));
+        }
+        return routes;
+    }
+
+    /**
+     * Split every partition cell above the split threshold, coarsest first
+     *
+     * Runs on the rebalance schedule; a child that is still too large is
+     * split on the next run.
+     */
+    public void rebalance() {
+        List<Long> hot = new ArrayList<>();
+        cellCounts.forEach((cell, count) -> {
+            if (count > splitThreshold && h3Service.resolutionOf(cell) < maxSplitResolution) {
+                hot.add(cell);
+            }
+        });
+        hot.sort(Comparator.comparingInt(h3Service::resolutionOf));
+        for (long cell : hot) {
+            split(cell);
+        }
+    }
+
+    /**
+     * Split a partition cell into its occupied children and hand those to
+     * the least loaded partitions, largest child first
+     */
+    private void split(long partitionCell) {
+        long start = System.nanoTime();
+        long stamp = routingLock.writeLock();
+        try {
+            PartitionMap current = map;
+            if (current.isSplit(partitionCell)) {
+                return;
+            }
+            int childResolution = h3Service.resolutionOf(partitionCell) + 1;
+            int previousOwner = current.ownerOf(partitionCell);
+            Map<Long, List<String>> children = new HashMap<>();
+            placements.forEach((id, placement) -> {
+                if (placement.partitionCell() == partitionCell) {
+                    children.computeIfAbsent(h3Service.parent(placement.cell(), childResolution),
+                        child -> new ArrayList<>()).add(id);
+                }
+            });
+
+            long[] loads = new long[partitions.length];
+            for (int i = 0; i < partitions.length; i++) {
+                loads[i] = partitions[i].size();
+            }
+            List<Map.Entry<Long, List<String>>> bySize = new ArrayList<>(children.entrySet());
+            bySize.sort((a, b) -> Integer.compare(b.getValue().size(), a.getValue().size()));
+            for (Map.Entry<Long, List<String>> child : bySize) {
+                loads[previousOwner] -= child.getValue().size();
+            }
+
+            Map<Long, Integer> childOwners = new HashMap<>();
+            List<String> moved = new ArrayList<>();
+            for (Map.Entry<Long, List<String>> child : bySize) {
+                int owner = leastLoaded(loads);
+                loads[owner] += child.getValue().size();
+                childOwners.put(child.getKey(), owner);
+                for (String id : child.getValue()) {
+                    Placement placement = placements.get(id);
+                    if (owner != previousOwner) {
+                        partitions[owner].put(id, placement.lat(), placement.lng());
+                        moved.add(id);
+                    }
+                    placements.put(id, new Placement(placement.cell(), child.getKey(), owner,
+                        placement.lat(), placement.lng()));
+                }
+                cellCounts.put(child.getKey(), child.getValue().size());
+            }
+            cellCounts.remove(partitionCell);
+            map = current.withSplit(partitionCell, childOwners);
+            for (String id : moved) {
+                partitions[previousOwner].remove(id);
+            }
+            log.info("Split partition cell {} into {} cells, moved {} trees out of partition {} in {} ms",
+                h3Service.toAddress(partitionCell), childOwners.size(), moved.size(), previousOwner,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            routingLock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Grid disk covering the circle at the finest resolution (no coarser
+     * than any partition cell) that keeps it within
+     * {@value TreeSpatialIndex#MAX_RINGS} rings
+     */
+    private List<Long> routingDisk(double lat, double lng, double radiusMeters) {
+        int resolution = maxSplitResolution;
+        for (int candidate = 15; candidate > maxSplitResolution; candidate--) {
+            if (ringsFor(radiusMeters, candidate) <= TreeSpatialIndex.MAX_RINGS) {
+                resolution = candidate;
+                break;
+            }
+        }
+        return h3Service.gridDisk(h3Service.cellFor(lat, lng, resolution), ringsFor(radiusMeters, resolution));
+    }
+
+    /**
+     * Distinct partition cells under a routing disk
+     */
+    private static long[] partitionCells(PartitionMap current, List<Long> disk) {
+        long[] cells = new long[disk.size()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = current.partitionCellOf(disk.get(i));
+        }
+        Arrays.sort(cells);
+        int distinct = 0;
+        for (int i = 0; i < cells.length; i++) {
+            if (i == 0 || cells[i] != cells[i - 1]) {
+                cells[distinct++] = cells[i];
+            }
+        }
+        return Arrays.copyOf(cells, distinct);
+    }
+
+    /**
+     * Same ring count rule as {@link TreeSpatialIndex}
+     */
+    private int ringsFor(double radiusMeters, int resolution) {
+        return (int) Math.ceil(radiusMeters / h3Service.edgeLengthMeters(resolution)) + 1;
+    }
+
+    private void uncount(long partitionCell) {
+        cellCounts.computeIfPresent(partitionCell, (cell, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private static int leastLoaded(long[] loads) {
+        int least = 0;
+        for (int i = 1; i < loads.length; i++) {
+            if (loads[i] < loads[least]) {
+                least = i;
+            }
+        }
+        return least;
+    }
+
+    /**
+     * A partition cell and the partition owning it
+     *
+     * @param cell Partition cell
+     * @param partition Index of the owning partition
+     */
+    public record Route(long cell, int partition) {
+    }
+
+    /**
+     * H3 cells of a nearby query
+     *
+     * @param cover Grid disk the queried partitions walk
+     * @param routingDisk Disk mapped onto partition cells to find the
+     *                    partitions to query; null with a single partition
+     */
+    public record NearbyQuery(NearbyCover cover, List<Long> routingDisk) {
+    }
+
+    /**
+     * Where a tree is indexed
+     *
+     * @param cell Ancestor of the tree's stored H3 index at the max split resolution
+     * @param partitionCell Partition cell containing the tree
+     * @param partition Index of the partition holding the tree
+     * @param lat Latitude in degrees
+     * @param lng Longitude in degrees
+     */
+    private record Placement(long cell, long partitionCell, int partition, double lat, double lng) {
+    }
+}
@@ -0,0 +1,467 @@
+package com.krishhortus.geo;
+
+import com.krishhortus.util.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory H3 cell index over tree positions
+ *
+ * Tree ids and coordinates are bucketed by their H3 cell at the finest
+ * configured index resolution. Every coarser index resolution keeps, per
+ * cell, the list of occupied fine cells underneath it, so a query can pick
+ * whichever resolution gives a small grid disk for its radius without
+ * storing the points more than once.
+ *
+ * A nearby query:
+ * 1. Picks the finest index resolution whose grid disk covers the radius
+ *    within {@value #MAX_RINGS} rings
+ * 2. Walks the occupied fine cells of that disk
+ * 3. Filters candidates with an exact haversine distance
+ * 4. Keeps the closest {@code limit} hits in a bounded max-heap
+ *
+ * Steps 1 and 2 are split into {@link #cover(double, double, double)},
+ * the H3 work of a query, so callers can time it on its own and
+ * partitions with the same resolutions can share one cover.
+ *
+ * Reads take a shared lock and never touch persistence. Each partition of
+ * the {@link PartitionedTreeIndex} is one instance, which receives the
+ * writes {@code TreeService} makes on create, update and delete.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class TreeSpatialIndex {
+
+    /** Largest grid disk (in rings) preferred before falling back to a coarser resolution */
+    static final int MAX_RINGS = 3;
+
+    private final H3Service h3Service;
+    private final int[] resolutions;
+    private final int fineResolution;
+    private final LongObjectHashMap<CellBucket> buckets = new LongObjectHashMap<>(1 << 12);
+    private final LongObjectHashMap<LongList>[] occupiedByLevel;
+    private final Map<String, IndexedPoint> points = new HashMap<>();
+    private final StampedLock lock = new StampedLock();
+
+    @SuppressWarnings("unchecked")
+    public TreeSpatialIndex(H3Service h3Service, int[] resolutions) {
+        if (resolutions.length == 0) {
+            throw new IllegalArgumentException("At least one H3 index resolution is required");
+        }
+        this.h3Service = h3Service;
+        this.resolutions = Arrays.stream(resolutions).sorted().distinct().toArray();
+        this.fineResolution = this.resolutions[this.resolutions.length - 1];
+        this.occupiedByLevel = new LongObjectHashMap[this.resolutions.length - 1];
+        for (int i = 0; i < occupiedByLevel.length; i++) {
+            occupiedByLevel[i] = new LongObjectHashMap<>(1 << 10);
+        }
+    }
+
+    /**
+     * @return Index resolutions in ascending order (coarse to fine)
+     */
+    public int[] getResolutions() {
+        return resolutions.clone();
+    }
+
+    /**
+     * Insert a tree or move it to a new position
+     *
+     * @param id Tree identifier
+     * @param lat Latitude in degrees
+     * @param lng Longitude in degrees
+     */
+    public void put(String id, double lat, double lng) {
+        // Native H3 work happens outside the lock
+        long cell = h3Service.cellFor(lat, lng, fineResolution);
+        long[] parents = parentsOf(cell);
+
+        long stamp = lock.writeLock();
+        try {
+            IndexedPoint previous = points.put(id, new IndexedPoint(cell, lat, lng));
+            if (previous != null) {
+                if (previous.cell == cell) {
+                    buckets.get(cell).update(id, lat, lng);
+                    return;
+                }
+                removeFromBucket(id, previous.cell, parentsOf(previous.cell));
+            }
+            CellBucket bucket = buckets.get(cell);
+            if (bucket == null) {
+                bucket = new CellBucket();
+                buckets.put(cell, bucket);
+                for (int level = 0; level < parents.length; level++) {
+                    LongList occupied = occupiedByLevel[level].get(parents[level]);
+                    if (occupied == null) {
+                        occupied = new LongList();
+                        occupiedByLevel[level].put(parents[level], occupied);
+                    }
+                    occupied.add(cell);
+                }
+            }
+            bucket.add(id, lat, lng);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove a tree from the index (no-op if it is not indexed)
+     *
+     * @param id Tree identifier
+     */
+    public void remove(String id) {
+        long stamp = lock.writeLock();
+        try {
+            IndexedPoint previous = points.remove(id);
+            if (previous != null) {
+                removeFromBucket(id, previous.cell, parentsOf(previous.cell));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Drop every indexed tree
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            points.clear();
+            buckets.clear();
+            for (LongObjectHashMap<LongList> level : occupiedByLevel) {
+                level.clear();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return Number of indexed trees
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return points.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Find the trees closest to a point within a radius
+     *
+     * @param lat Latitude of the search center
+     * @param lng Longitude of the search center
+     * @param radiusMeters Search radius in meters
+     * @param limit Maximum number of hits
+     * @return Hits ordered by ascending distance
+     */
+    public List<NearbyHit> nearby(double lat, double lng, double radiusMeters, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        return nearby(cover(lat, lng, radiusMeters), limit);
+    }
+
+    /**
+     * Compute the grid disk a nearby query walks
+     *
+     * @param lat Latitude of the search center
+     * @param lng Longitude of the search center
+     * @param radiusMeters Search radius in meters
+     * @return Cover to pass to {@link #nearby(NearbyCover, int)} of any
+     *         index with the same resolutions
+     */
+    public NearbyCover cover(double lat, double lng, double radiusMeters) {
+        int level = pickLevel(radiusMeters);
+        int resolution = resolutions[level];
+        List<Long> disk = h3Service.gridDisk(h3Service.cellFor(lat, lng, resolution), ringsFor(radiusMeters, resolution));
+        return new NearbyCover(lat, lng, radiusMeters, level, disk);
+    }
+
+    /**
+     * Find the trees closest to a point within a radius, walking a cover
+     * computed beforehand
+     *
+     * @param cover Grid disk of the query from {@link #cover(double, double, double)}
+     * @param limit Maximum number of hits
+     * @return Hits ordered by ascending distance
+     */
+    public List<NearbyHit> nearby(NearbyCover cover, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        double lat = cover.lat();
+        double lng = cover.lng();
+        double radiusMeters = cover.radiusMeters();
+        int level = cover.level();
+        List<Long> disk = cover.cells();
+
+        NearestHeap heap = new NearestHeap(limit);
+        long stamp = lock.readLock();
+        try {
+            boolean fine = level == resolutions.length - 1;
+            for (int i = 0, n = disk.size(); i < n; i++) {
+                long cell = disk.get(i);
+                if (fine) {
+                    scan(buckets.get(cell), lat, lng, radiusMeters, heap);
+                } else {
+                    LongList occupied = occupiedByLevel[level].get(cell);
+                    if (occupied != null) {
+                        for (int j = 0; j < occupied.size; j++) {
+                            scan(buckets.get(occupied.values[j]), lat, lng, radiusMeters, heap);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return heap.drainSorted();
+    }
+
+    /**
+     * Pick the finest index level whose grid disk covers the radius in at most
+     * {@link #MAX_RINGS} rings, falling back to the coarsest level
+     */
+    int pickLevel(double radiusMeters) {
+        for (int level = resolutions.length - 1; level > 0; level--) {
+            if (ringsFor(radiusMeters, resolutions[level]) <= MAX_RINGS) {
+                return level;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Number of grid-disk rings needed to cover a radius from anywhere inside
+     * the origin cell. Each ring adds roughly one edge length of guaranteed
+     * coverage; the extra ring absorbs the offset of the query point within
+     * the origin cell and per-cell size distortion.
+     */
+    int ringsFor(double radiusMeters, int resolution) {
+        return (int) Math.ceil(radiusMeters / h3Service.edgeLengthMeters(resolution)) + 1;
+    }
+
+    private void scan(CellBucket bucket, double lat, double lng, double radiusMeters, NearestHeap heap) {
+        if (bucket == null) {
+            return;
+        }
+        for (int i = 0; i < bucket.size; i++) {
+            double distance = GeoMath.haversineMeters(lat, lng, bucket.lats[i], bucket.lngs[i]);
+            if (distance <= radiusMeters) {
+                heap.offer(bucket.ids[i], distance);
+            }
+        }
+    }
+
+    private void removeFromBucket(String id, long cell, long[] parents) {
+        CellBucket bucket = buckets.get(cell);
+        if (bucket == null || !bucket.remove(id) || bucket.size > 0) {
+            return;
+        }
+        buckets.remove(cell);
+        for (int level = 0; level < parents.length; level++) {
+            LongList occupied = occupiedByLevel[level].get(parents[level]);
+            if (occupied != null) {
+                occupied.remove(cell);
+                if (occupied.size == 0) {
+                    occupiedByLevel[level].remove(parents[level]);
+                }
+            }
+        }
+    }
+
+    private long[] parentsOf(long cell) {
+        long[] parents = new long[resolutions.length - 1];
+        for (int level = 0; level < parents.length; level++) {
+            parents[level] = h3Service.parent(cell, resolutions[level]);
+        }
+        return parents;
+    }
+
+    /**
+     * A tree hit from a nearby query
+     *
+     * @param id Tree identifier
+     * @param distanceMeters Great-circle distance from the query point
+     */
+    public record NearbyHit(String id, double distanceMeters) {
+    }
+
+    /**
+     * Grid disk of a nearby query
+     *
+     * @param lat Latitude of the search center
+     * @param lng Longitude of the search center
+     * @param radiusMeters Search radius in meters
+     * @param level Index level (position in the sorted resolutions) of the cells
+     * @param cells Cells of the disk at that level
+     */
+    public record NearbyCover(double lat, double lng, double radiusMeters, int level, List<Long> cells) {
+    }
+
+    private record IndexedPoint(long cell, double lat, double lng) {
+    }
+
+    /**
+     * Trees located in a single fine cell, stored as parallel arrays
+     */
+    private static final class CellBucket {
+        String[] ids = new String[4];
+        double[] lats = new double[4];
+        double[] lngs = new double[4];
+        int size;
+
+        void add(String id, double lat, double lng) {
+            if (size == ids.length) {
+                int capacity = size << 1;
+                ids = Arrays.copyOf(ids, capacity);
+                lats = Arrays.copyOf(lats, capacity);
+                lngs = Arrays.copyOf(lngs, capacity);
+            }
+            ids[size] = id;
+            lats[size] = lat;
+            lngs[size] = lng;
+            size++;
+        }
+
+        void update(String id, double lat, double lng) {
+            int i = indexOf(id);
+            if (i >= 0) {
+                lats[i] = lat;
+                lngs[i] = lng;
+            }
+        }
+
+        boolean remove(String id) {
+            int i = indexOf(id);
+            if (i < 0) {
+                return false;
+            }
+            // Swap-remove; order inside a bucket is irrelevant
+            int last = --size;
+            ids[i] = ids[last];
+            lats[i] = lats[last];
+            lngs[i] = lngs[last];
+            ids[last] = null;
+            return true;
+        }
+
+        private int indexOf(String id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i].equals(id)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Growable list of primitive cell ids
+     */
+    private static final class LongList {
+        long[] values = new long[4];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        void remove(long value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fixed-capacity max-heap on distance that retains the closest hits
+     */
+    private static final class NearestHeap {
+        private final String[] ids;
+        private final double[] distances;
+        private int size;
+
+        NearestHeap(int capacity) {
+            ids = new String[capacity];
+            distances = new double[capacity];
+        }
+
+        void offer(String id, double distance) {
+            if (size < ids.length) {
+                ids[size] = id;
+                distances[size] = distance;
+                siftUp(size++);
+            } else if (distance < distances[0]) {
+                ids[0] = id;
+                distances[0] = distance;
+                siftDown(0);
+            }
+        }
+
+        List<NearbyHit> drainSorted() {
+            NearbyHit[] sorted = new NearbyHit[size];
+            for (int i = size - 1; i >= 0; i--) {
+                sorted[i] = new NearbyHit(ids[0], distances[0]);
+                size--;
+                ids[0] = ids[size];
+                distances[0] = distances[size];
+                siftDown(0);
+            }
+            return new ArrayList<>(Arrays.asList(sorted));
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (distances[parent] >= distances[i]) {
+                    break;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int left = (i << 1) + 1;
+                if (left >= size) {
+                    break;
+                }
+                int largest = left + 1 < size && distances[left + 1] > distances[left] ? left + 1 : left;
+                if (distances[i] >= distances[largest]) {
+                    break;
+                }
+                swap(i, largest);
+                i = largest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            String id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+            double distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.krishhortus.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage timers and result size distributions for the API hot paths
+ *
+ * Complements the per-endpoint {@code http.server.requests} histograms with
+ * the time spent in each internal stage of a request, published as
+ * {@code krishhortus.stage} tagged with {@code operation} and {@code stage}.
+ * All meters are registered up front, so recording a stage costs two
+ * {@link System#nanoTime()} calls and an array lookup:
+ *
+ * <pre>
+ * long start = System.nanoTime();
+ * ...
+ * start = treeMetrics.record(Stage.NEARBY_H3, start);
+ * ...
+ * start = treeMetrics.record(Stage.NEARBY_INDEX_LOOKUP, start);
+ * ...
+ * treeMetrics.record(Stage.NEARBY_DB_FETCH, start);
+ * </pre>
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class TreeMetrics {
+
+    public static final String STAGE_TIMER = "krishhortus.stage";
+    public static final String RESULT_SIZE = "krishhortus.result.size";
+
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Map<Operation, DistributionSummary> resultSizes = new EnumMap<>(Operation.class);
+
+    public TreeMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder(STAGE_TIMER)
+                .description("Time spent in one stage of an API operation")
+                .tag("operation", stage.operation.tagValue())
+                .tag("stage", stage.tagValue())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(meterRegistry));
+        }
+        for (Operation operation : Operation.values()) {
+            resultSizes.put(operation, DistributionSummary.builder(RESULT_SIZE)
+                .description("Number of items returned or processed by one API operation")
+                .tag("operation", operation.tagValue())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(1_000_000.0)
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Record a stage that started at {@code startNanos} and ends now
+     *
+     * @param stage Completed stage
+     * @param startNanos {@link System#nanoTime()} at the start of the stage
+     * @return Current {@link System#nanoTime()}, usable as the start of the next stage
+     */
+    public long record(Stage stage, long startNanos) {
+        long now = System.nanoTime();
+        timers.get(stage).record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    /**
+     * Record the number of items an operation returned or processed
+     *
+     * @param operation Operation
+     * @param size Number of items
+     */
+    public void recordResultSize(Operation operation, int size) {
+        resultSizes.get(operation).record(size);
+    }
+
+    /**
+     * Wrap a streamed response body so writing it is recorded as a stage
+     *
+     * @param stage Serialization stage to record
+     * @param body Response body
+     * @return Response body that times itself
+     */
+    public StreamingResponseBody timed(Stage stage, StreamingResponseBody body) {
+        return out -> {
+            long start = System.nanoTime();
+            try {
+                body.writeTo(out);
+            } finally {
+                record(stage, start);
+            }
+        };
+    }
+
+    /**
+     * API operations with stage timing
+     */
+    public enum Operation {
+        NEARBY,
+        LIST,
+        CREATE,
+        UPDATE,
+        CHANGES,
+        SEARCH,
+        INGEST,
+        AUTH,
+        PHOTO_UPLOAD;
+
+        String tagValue() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Timed stages, each belonging to one operation
+     */
+    public enum Stage {
+        NEARBY_H3(Operation.NEARBY, "h3"),
+        NEARBY_INDEX_LOOKUP(Operation.NEARBY, "index_lookup"),
+        NEARBY_DB_FETCH(Operation.NEARBY, "db_fetch"),
+        NEARBY_SERIALIZATION(Operation.NEARBY, "serialization"),
+        LIST_DB_FETCH(Operation.LIST, "db_fetch"),
+        LIST_COUNT(Operation.LIST, "count"),
+        LIST_SERIALIZATION(Operation.LIST, "serialization"),
+        CREATE_H3(Operation.CREATE, "h3"),
+        CREATE_DB_WRITE(Operation.CREATE, "db_write"),
+        CREATE_INDEX_UPDATE(Operation.CREATE, "index_update"),
+        UPDATE_H3(Operation.UPDATE, "h3"),
+        UPDATE_DB_WRITE(Operation.UPDATE, "db_write"),
+        UPDATE_INDEX_UPDATE(Operation.UPDATE, "index_update"),
+        CHANGES_DB_FETCH(Operation.CHANGES, "db_fetch"),
+        CHANGES_SERIALIZATION(Operation.CHANGES, "serialization"),
+        SEARCH_INDEX_LOOKUP(Operation.SEARCH, "index_lookup"),
+        SEARCH_DB_FETCH(Operation.SEARCH, "db_fetch"),
+        SEARCH_SERIALIZATION(Operation.SEARCH, "serialization"),
+        INGEST_PREPARE(Operation.INGEST, "prepare"),
+        INGEST_PERSIST(Operation.INGEST, "persist"),
+        AUTH_TOKEN_ISSUE(Operation.AUTH, "token_issue"),
+        AUTH_TOKEN_VERIFY(Operation.AUTH, "token_verify"),
+        PHOTO_UPLOAD_STORE(Operation.PHOTO_UPLOAD, "store"),
+        PHOTO_UPLOAD_LINK(Operation.PHOTO_UPLOAD, "link");
+
+        private final Operation operation;
+        private final String stage;
+
+        Stage(Operation operation, String stage) {
+            this.operation = operation;
+            this.stage = stage;
+        }
+
+        public Operation operation() {
+            return operation;
+        }
+
+        String tagValue() {
+            return stage;
+        }
+    }
+}
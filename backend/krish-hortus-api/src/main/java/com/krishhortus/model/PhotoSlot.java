@@ -0,0 +1,43 @@
+package com.krishhortus.model;
+
+import java.util.Locale;
+
+/**
+ * Photo slots of a tree
+ *
+ * Each tree holds at most one photo per slot; uploading to an occupied slot
+ * replaces the photo. The lower-case slot name is used as multipart field
+ * name on upload and as key of the {@code photos} object in responses.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public enum PhotoSlot {
+    TREE,
+    LEAVES,
+    BARK,
+    FRUIT,
+    FLOWER;
+
+    private final String fieldName = name().toLowerCase(Locale.ROOT);
+
+    /**
+     * @return Slot name as used in requests and responses
+     */
+    public String fieldName() {
+        return fieldName;
+    }
+
+    /**
+     * @param fieldName Multipart field name
+     * @return Matching slot, or null if the name is not a slot
+     */
+    public static PhotoSlot fromFieldName(String fieldName) {
+        for (PhotoSlot slot : values()) {
+            if (slot.fieldName().equals(fieldName)) {
+                return slot;
+            }
+        }
+        return null;
+    }
+}
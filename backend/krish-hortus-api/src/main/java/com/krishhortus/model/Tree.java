@@ -0,0 +1,363 @@
+package com.krishhortus.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Tree entity for Krish Hortus API
+ *
+ * Persistent representation of a tagged tree. Location is stored as plain
+ * latitude/longitude columns together with the H3 cell address computed at
+ * the configured default resolution, so geospatial lookups never need to
+ * parse nested location objects.
+ *
+ * The composite indexes back the filters and keyset orderings used by
+ * {@code TreeQueryRepository}: every list query ends in {@code id} so a
+ * cursor position is always unique.
+ *
+ * Every write stamps the tree with the next value of the change sequence,
+ * which lets offline clients fetch only what changed since their last sync.
+ *
+ * Ids are assigned before the first save, so the tree tells Spring Data
+ * whether it is new instead of leaving it to the id: a tree marked by
+ * {@link #markNew()} is inserted directly rather than merged, which would
+ * select it first.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "trees", indexes = {
+    @Index(name = "idx_trees_updated_at_id", columnList = "updated_at, id"),
+    @Index(name = "idx_trees_h3_index_id", columnList = "h3_index, id"),
+    @Index(name = "idx_trees_category_updated_at_id", columnList = "category, updated_at, id"),
+    @Index(name = "idx_trees_verified_updated_at_id", columnList = "verified, updated_at, id"),
+    @Index(name = "idx_trees_species_key_id", columnList = "species_key, id"),
+    @Index(name = "idx_trees_lat_lng", columnList = "lat, lng"),
+    @Index(name = "idx_trees_change_seq", columnList = "change_seq")
+})
+public class Tree implements Persistable<String> {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private String name;
+
+    private String scientificName;
+
+    // Lower-cased scientific name, maintained for index-friendly prefix filtering
+    @Column(name = "species_key")
+    private String speciesKey;
+
+    private String localName;
+
+    @Column(length = 32)
+    private String category;
+
+    // Location data
+    @Column(nullable = false)
+    private double lat;
+
+    @Column(nullable = false)
+    private double lng;
+
+    @Column(name = "h3_index", length = 16)
+    private String h3Index;
+
+    private String address;
+
+    // Measurements (all optional, in meters)
+    private Double height;
+
+    private Double trunkWidth;
+
+    private Double canopySpread;
+
+    // Tagging and verification metadata
+    private String taggedBy;
+
+    private Instant taggedAt;
+
+    private boolean aiGenerated;
+
+    private boolean verified;
+
+    private String verifiedBy;
+
+    private Instant verifiedAt;
+
+    // Photo ids per slot, see PhotoSlot and PhotoStore
+    @Column(name = "photo_tree", length = 72)
+    private String photoTree;
+
+    @Column(name = "photo_leaves", length = 72)
+    private String photoLeaves;
+
+    @Column(name = "photo_bark", length = 72)
+    private String photoBark;
+
+    @Column(name = "photo_fruit", length = 72)
+    private String photoFruit;
+
+    @Column(name = "photo_flower", length = 72)
+    private String photoFlower;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    // Change sequence number of the last write, see ChangeSequence
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    // Set for a tree that has not been inserted yet, see isNew()
+    @Transient
+    private boolean newTree;
+
+    @PrePersist
+    @PreUpdate
+    public void deriveSpeciesKey() {
+        speciesKey = scientificName != null ? scientificName.toLowerCase(Locale.ROOT) : null;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return Whether the tree still has to be inserted
+     */
+    @Override
+    public boolean isNew() {
+        return newTree;
+    }
+
+    /**
+     * Mark a tree with a freshly assigned id as not yet stored
+     */
+    public void markNew() {
+        newTree = true;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markStored() {
+        newTree = false;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getScientificName() {
+        return scientificName;
+    }
+
+    public void setScientificName(String scientificName) {
+        this.scientificName = scientificName;
+    }
+
+    public String getSpeciesKey() {
+        return speciesKey;
+    }
+
+    public void setSpeciesKey(String speciesKey) {
+        this.speciesKey = speciesKey;
+    }
+
+    public String getLocalName() {
+        return localName;
+    }
+
+    public void setLocalName(String localName) {
+        this.localName = localName;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public void setLat(double lat) {
+        this.lat = lat;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    public void setLng(double lng) {
+        this.lng = lng;
+    }
+
+    public String getH3Index() {
+        return h3Index;
+    }
+
+    public void setH3Index(String h3Index) {
+        this.h3Index = h3Index;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public Double getHeight() {
+        return height;
+    }
+
+    public void setHeight(Double height) {
+        this.height = height;
+    }
+
+    public Double getTrunkWidth() {
+        return trunkWidth;
+    }
+
+    public void setTrunkWidth(Double trunkWidth) {
+        this.trunkWidth = trunkWidth;
+    }
+
+    public Double getCanopySpread() {
+        return canopySpread;
+    }
+
+    public void setCanopySpread(Double canopySpread) {
+        this.canopySpread = canopySpread;
+    }
+
+    public String getTaggedBy() {
+        return taggedBy;
+    }
+
+    public void setTaggedBy(String taggedBy) {
+        this.taggedBy = taggedBy;
+    }
+
+    public Instant getTaggedAt() {
+        return taggedAt;
+    }
+
+    public void setTaggedAt(Instant taggedAt) {
+        this.taggedAt = taggedAt;
+    }
+
+    public boolean isAiGenerated() {
+        return aiGenerated;
+    }
+
+    public void setAiGenerated(boolean aiGenerated) {
+        this.aiGenerated = aiGenerated;
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    public void setVerified(boolean verified) {
+        this.verified = verified;
+    }
+
+    public String getVerifiedBy() {
+        return verifiedBy;
+    }
+
+    public void setVerifiedBy(String verifiedBy) {
+        this.verifiedBy = verifiedBy;
+    }
+
+    public Instant getVerifiedAt() {
+        return verifiedAt;
+    }
+
+    public void setVerifiedAt(Instant verifiedAt) {
+        this.verifiedAt = verifiedAt;
+    }
+
+    /**
+     * @param slot Photo slot
+     * @return Id of the photo in the slot, or null if the slot is empty
+     */
+    public String getPhoto(PhotoSlot slot) {
+        return switch (slot) {
+            case TREE -> photoTree;
+            case LEAVES -> photoLeaves;
+            case BARK -> photoBark;
+            case FRUIT -> photoFruit;
+            case FLOWER -> photoFlower;
+        };
+    }
+
+    /**
+     * @param slot Photo slot
+     * @param photoId Id of the stored photo, or null to empty the slot
+     */
+    public void setPhoto(PhotoSlot slot, String photoId) {
+        switch (slot) {
+            case TREE -> photoTree = photoId;
+            case LEAVES -> photoLeaves = photoId;
+            case BARK -> photoBark = photoId;
+            case FRUIT -> photoFruit = photoId;
+            case FLOWER -> photoFlower = photoId;
+        }
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+}
@@ -0,0 +1,71 @@
+package com.krishhortus.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Record of a tree leaving its H3 cell
+ *
+ * Written whenever an update changes the H3 index of a tree, under the
+ * sequence number of that update. Delta sync restricted to a cell matches
+ * live trees by their current H3 index only, so without this record a
+ * client syncing the cell the tree moved out of would keep it forever.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "tree_moves", indexes = {
+    @Index(name = "idx_tree_moves_from_h3_index", columnList = "from_h3_index")
+})
+public class TreeMove {
+
+    @Id
+    @Column(name = "change_seq")
+    private long changeSeq;
+
+    @Column(name = "tree_id", length = 36, nullable = false)
+    private String treeId;
+
+    @Column(name = "from_h3_index", length = 16, nullable = false)
+    private String fromH3Index;
+
+    @Column(name = "moved_at", nullable = false)
+    private Instant movedAt;
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public String getTreeId() {
+        return treeId;
+    }
+
+    public void setTreeId(String treeId) {
+        this.treeId = treeId;
+    }
+
+    public String getFromH3Index() {
+        return fromH3Index;
+    }
+
+    public void setFromH3Index(String fromH3Index) {
+        this.fromH3Index = fromH3Index;
+    }
+
+    public Instant getMovedAt() {
+        return movedAt;
+    }
+
+    public void setMovedAt(Instant movedAt) {
+        this.movedAt = movedAt;
+    }
+}
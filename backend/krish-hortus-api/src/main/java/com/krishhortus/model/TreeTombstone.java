@@ -0,0 +1,70 @@
+package com.krishhortus.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Record of a deleted tree
+ *
+ * Kept so that delta sync can tell offline clients which trees to drop.
+ * The H3 index of the deleted tree is retained so tombstones can be
+ * filtered by cell like live trees.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Entity
+@Table(name = "tree_tombstones", indexes = {
+    @Index(name = "idx_tree_tombstones_change_seq", columnList = "change_seq")
+})
+public class TreeTombstone {
+
+    @Id
+    @Column(name = "tree_id", length = 36)
+    private String treeId;
+
+    @Column(name = "h3_index", length = 16)
+    private String h3Index;
+
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    public String getTreeId() {
+        return treeId;
+    }
+
+    public void setTreeId(String treeId) {
+        this.treeId = treeId;
+    }
+
+    public String getH3Index() {
+        return h3Index;
+    }
+
+    public void setH3Index(String h3Index) {
+        this.h3Index = h3Index;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public void setChangeSeq(long changeSeq) {
+        this.changeSeq = changeSeq;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
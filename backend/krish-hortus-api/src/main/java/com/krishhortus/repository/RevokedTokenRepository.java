@@ -0,0 +1,104 @@
+package com.krishhortus.repository;
+
+import com.krishhortus.model.RevokedToken;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.function.Consumer;
+
+/**
+ * Store of revoked token and token family ids
+ *
+ * The exact source of truth behind the in-memory revocation filter. It is
+ * read in full only when the filter is rebuilt, and per id only when the
+ * filter reports a possible hit.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Repository
+public class RevokedTokenRepository {
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public RevokedTokenRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Record a revocation
+     *
+     * @param token Revoked id with its expiry
+     * @return {@code true} if the id was newly revoked, {@code false} if it already was
+     */
+    public boolean insert(RevokedToken token) {
+        try {
+            jdbc.update("INSERT INTO revoked_tokens (token_id, expires_at, revoked_at, reason) "
+                    + "VALUES (:tokenId, :expiresAt, :revokedAt, :reason)",
+                new MapSqlParameterSource()
+                    .addValue("tokenId", token.getTokenId())
+                    .addValue("expiresAt", utc(token.getExpiresAt()))
+                    .addValue("revokedAt", utc(token.getRevokedAt()))
+                    .addValue("reason", token.getReason()));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param tokenId Token or family id
+     * @param now Current time; expired revocations no longer count
+     * @return Whether the id is revoked
+     */
+    public boolean isRevoked(String tokenId, Instant now) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM revoked_tokens "
+                + "WHERE token_id = :tokenId AND expires_at > :now",
+            new MapSqlParameterSource()
+                .addValue("tokenId", tokenId)
+                .addValue("now", utc(now)),
+            Integer.class);
+        return count != null && count > 0;
+    }
+
+    /**
+     * @param now Current time
+     * @return Number of revocations that have not expired yet
+     */
+    public long countActive(Instant now) {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM revoked_tokens WHERE expires_at > :now",
+            new MapSqlParameterSource("now", utc(now)), Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Stream the ids of all revocations that have not expired yet
+     *
+     * @param now Current time
+     * @param consumer Receives each id
+     */
+    public void forEachActive(Instant now, Consumer<String> consumer) {
+        jdbc.query("SELECT token_id FROM revoked_tokens WHERE expires_at > :now",
+            new MapSqlParameterSource("now", utc(now)),
+            (RowCallbackHandler) rs -> consumer.accept(rs.getString(1)));
+    }
+
+    /**
+     * @param now Current time
+     * @return Number of expired revocations removed
+     */
+    public int deleteExpired(Instant now) {
+        return jdbc.update("DELETE FROM revoked_tokens WHERE expires_at <= :now",
+            new MapSqlParameterSource("now", utc(now)));
+    }
+
+    private static OffsetDateTime utc(Instant instant) {
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,100 @@
+package com.krishhortus.repository;
+
+import com.krishhortus.model.PhotoSlot;
+import com.krishhortus.model.Tree;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * JDBC batch writes for trees
+ *
+ * Bypasses the JPA persistence context so bulk ingest does not pay for
+ * dirty checking and per-entity flushes. On PostgreSQL, add
+ * {@code reWriteBatchedInserts=true} to the JDBC URL so the driver folds each
+ * batch into multi-row inserts.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Repository
+public class TreeBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO trees (" + TreeQueryRepository.COLUMNS + ") VALUES ("
+        + ":id, :name, :scientificName, :speciesKey, :localName, :category, :lat, :lng, :h3Index, :address, "
+        + ":height, :trunkWidth, :canopySpread, :taggedBy, :taggedAt, :aiGenerated, :verified, :verifiedBy, "
+        + ":verifiedAt, :photoTree, :photoLeaves, :photoBark, :photoFruit, :photoFlower, :createdAt, :updatedAt, "
+        + ":changeSeq)";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public TreeBatchRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Insert trees as one JDBC batch
+     *
+     * Callers decide the transaction boundary; without one each statement
+     * commits on its own.
+     *
+     * @param trees Fully prepared trees (id, timestamps, H3 index and change sequence set)
+     */
+    public void insertAll(List<Tree> trees) {
+        SqlParameterSource[] batch = new SqlParameterSource[trees.size()];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = parameters(trees.get(i));
+        }
+        jdbc.batchUpdate(INSERT_SQL, batch);
+    }
+
+    /**
+     * Insert a single tree
+     *
+     * @param tree Fully prepared tree
+     */
+    public void insert(Tree tree) {
+        jdbc.update(INSERT_SQL, parameters(tree));
+    }
+
+    private static SqlParameterSource parameters(Tree tree) {
+        return new MapSqlParameterSource()
+            .addValue("id", tree.getId())
+            .addValue("name", tree.getName())
+            .addValue("scientificName", tree.getScientificName())
+            .addValue("speciesKey", tree.getSpeciesKey())
+            .addValue("localName", tree.getLocalName())
+            .addValue("category", tree.getCategory())
+            .addValue("lat", tree.getLat())
+            .addValue("lng", tree.getLng())
+            .addValue("h3Index", tree.getH3Index())
+            .addValue("address", tree.getAddress())
+            .addValue("height", tree.getHeight())
+            .addValue("trunkWidth", tree.getTrunkWidth())
+            .addValue("canopySpread", tree.getCanopySpread())
+            .addValue("taggedBy", tree.getTaggedBy())
+            .addValue("taggedAt", toOffsetDateTime(tree.getTaggedAt()))
+            .addValue("aiGenerated", tree.isAiGenerated())
+            .addValue("verified", tree.isVerified())
+            .addValue("verifiedBy", tree.getVerifiedBy())
+            .addValue("verifiedAt", toOffsetDateTime(tree.getVerifiedAt()))
+            .addValue("photoTree", tree.getPhoto(PhotoSlot.TREE))
+            .addValue("photoLeaves", tree.getPhoto(PhotoSlot.LEAVES))
+            .addValue("photoBark", tree.getPhoto(PhotoSlot.BARK))
+            .addValue("photoFruit", tree.getPhoto(PhotoSlot.FRUIT))
+            .addValue("photoFlower", tree.getPhoto(PhotoSlot.FLOWER))
+            .addValue("createdAt", toOffsetDateTime(tree.getCreatedAt()))
+            .addValue("updatedAt", toOffsetDateTime(tree.getUpdatedAt()))
+            .addValue("changeSeq", tree.getChangeSeq());
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant != null ? OffsetDateTime.ofInstant(instant, ZoneOffset.UTC) : null;
+    }
+}
@@ -0,0 +1,163 @@
+package com.krishhortus.repository;
+
+import com.krishhortus.model.Tree;
+import com.krishhortus.model.TreeMove;
+import com.krishhortus.model.TreeTombstone;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Change log queries for delta sync
+ *
+ * Live trees carry the sequence number of their last write in
+ * {@code change_seq}; deleted trees leave a row in {@code tree_tombstones}.
+ * Both are read in sequence order through their {@code change_seq} indexes,
+ * optionally restricted to an H3 index range. Trees that moved to another
+ * H3 cell leave a row in {@code tree_moves}, so a sync restricted to the
+ * cell they left can drop them.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Repository
+public class TreeChangeRepository {
+
+    private static final RowMapper<TreeTombstone> TOMBSTONE_ROW_MAPPER = (rs, rowNum) -> {
+        TreeTombstone tombstone = new TreeTombstone();
+        tombstone.setTreeId(rs.getString("tree_id"));
+        tombstone.setH3Index(rs.getString("h3_index"));
+        tombstone.setChangeSeq(rs.getLong("change_seq"));
+        tombstone.setDeletedAt(rs.getObject("deleted_at", OffsetDateTime.class).toInstant());
+        return tombstone;
+    };
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public TreeChangeRepository(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * @return Highest change sequence number stored so far, or 0 if none
+     */
+    public long maxSequence() {
+        Long max = jdbc.queryForObject("SELECT GREATEST("
+            + "(SELECT COALESCE(MAX(change_seq), 0) FROM trees), "
+            + "(SELECT COALESCE(MAX(change_seq), 0) FROM tree_tombstones))",
+            new MapSqlParameterSource(), Long.class);
+        return max != null ? max : 0L;
+    }
+
+    /**
+     * Record the deletion of a tree
+     *
+     * @param tombstone Deleted tree id, its last H3 index and the deletion sequence number
+     */
+    public void insertTombstone(TreeTombstone tombstone) {
+        jdbc.update("INSERT INTO tree_tombstones (tree_id, h3_index, change_seq, deleted_at) "
+                + "VALUES (:treeId, :h3Index, :changeSeq, :deletedAt)",
+            new MapSqlParameterSource()
+                .addValue("treeId", tombstone.getTreeId())
+                .addValue("h3Index", tombstone.getH3Index())
+                .addValue("changeSeq", tombstone.getChangeSeq())
+                .addValue("deletedAt", OffsetDateTime.ofInstant(tombstone.getDeletedAt(), ZoneOffset.UTC)));
+    }
+
+    /**
+     * Record that a tree left its H3 cell
+     *
+     * @param move Tree id, its previous H3 index and the sequence number of the moving update
+     */
+    public void insertMove(TreeMove move) {
+        jdbc.update("INSERT INTO tree_moves (change_seq, tree_id, from_h3_index, moved_at) "
+                + "VALUES (:changeSeq, :treeId, :fromH3Index, :movedAt)",
+            new MapSqlParameterSource()
+                .addValue("changeSeq", move.getChangeSeq())
+                .addValue("treeId", move.getTreeId())
+                .addValue("fromH3Index", move.getFromH3Index())
+                .addValue("movedAt", OffsetDateTime.ofInstant(move.getMovedAt(), ZoneOffset.UTC)));
+    }
+
+    /**
+     * Trees written in the sequence range {@code (since, upTo]}
+     *
+     * @param since Exclusive lower sequence bound
+     * @param upTo Inclusive upper sequence bound
+     * @param h3Min Lowest H3 index to include, or null for all cells
+     * @param h3Max Highest H3 index to include
+     * @param limit Maximum number of rows
+     * @return Trees in ascending sequence order
+     */
+    public List<Tree> findChangedTrees(long since, long upTo, String h3Min, String h3Max, int limit) {
+        MapSqlParameterSource params = rangeParameters(since, upTo, h3Min, h3Max, limit);
+        String sql = "SELECT " + TreeQueryRepository.COLUMNS + " FROM trees"
+            + rangeCondition(h3Min) + " ORDER BY change_seq LIMIT :limit";
+        return jdbc.query(sql, params, TreeQueryRepository.TREE_ROW_MAPPER);
+    }
+
+    /**
+     * Trees deleted in the sequence range {@code (since, upTo]}
+     *
+     * @param since Exclusive lower sequence bound
+     * @param upTo Inclusive upper sequence bound
+     * @param h3Min Lowest H3 index to include, or null for all cells
+     * @param h3Max Highest H3 index to include
+     * @param limit Maximum number of rows
+     * @return Tombstones in ascending sequence order
+     */
+    public List<TreeTombstone> findTombstones(long since, long upTo, String h3Min, String h3Max, int limit) {
+        MapSqlParameterSource params = rangeParameters(since, upTo, h3Min, h3Max, limit);
+        String sql = "SELECT tree_id, h3_index, change_seq, deleted_at FROM tree_tombstones"
+            + rangeCondition(h3Min) + " ORDER BY change_seq LIMIT :limit";
+        return jdbc.query(sql, params, TOMBSTONE_ROW_MAPPER);
+    }
+
+    /**
+     * Moves out of an H3 index range in the sequence range {@code (since, upTo]}
+     *
+     * Moves of trees that are back inside the range, or moved within it,
+     * are left out: those trees are returned by
+     * {@link #findChangedTrees} with a later or equal sequence number.
+     *
+     * @param since Exclusive lower sequence bound
+     * @param upTo Inclusive upper sequence bound
+     * @param h3Min Lowest H3 index of the range
+     * @param h3Max Highest H3 index of the range
+     * @param limit Maximum number of rows
+     * @return Moves in ascending sequence order, with tree id and sequence number set
+     */
+    public List<TreeMove> findMovesOut(long since, long upTo, String h3Min, String h3Max, int limit) {
+        MapSqlParameterSource params = rangeParameters(since, upTo, h3Min, h3Max, limit);
+        String sql = "SELECT m.change_seq, m.tree_id FROM tree_moves m LEFT JOIN trees t ON t.id = m.tree_id"
+            + " WHERE m.change_seq > :since AND m.change_seq <= :upTo"
+            + " AND m.from_h3_index BETWEEN :h3Min AND :h3Max"
+            + " AND (t.h3_index IS NULL OR t.h3_index NOT BETWEEN :h3Min AND :h3Max)"
+            + " ORDER BY m.change_seq LIMIT :limit";
+        return jdbc.query(sql, params, (rs, rowNum) -> {
+            TreeMove move = new TreeMove();
+            move.setChangeSeq(rs.getLong("change_seq"));
+            move.setTreeId(rs.getString("tree_id"));
+            return move;
+        });
+    }
+
+    private static String rangeCondition(String h3Min) {
+        String condition = " WHERE change_seq > :since AND change_seq <= :upTo";
+        return h3Min != null ? condition + " AND h3_index BETWEEN :h3Min AND :h3Max" : condition;
+    }
+
+    private static MapSqlParameterSource rangeParameters(long since, long upTo, String h3Min, String h3Max, int limit) {
+        return new MapSqlParameterSource()
+            .addValue("since", since)
+            .addValue("upTo", upTo)
+            .addValue("h3Min", h3Min)
+            .addValue("h3Max", h3Max)
+            .addValue("limit", limit);
+    }
+}
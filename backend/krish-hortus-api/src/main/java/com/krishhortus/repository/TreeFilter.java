@@ -0,0 +1,43 @@
+package com.krishhortus.repository;
+
+/**
+ * Filter criteria for tree list queries
+ *
+ * All fields are optional. The location filter needs {@code lat}, {@code lng}
+ * and {@code radius} together; the H3 filter is expressed as the inclusive
+ * range of stored H3 addresses that descend from the requested cell.
+ *
+ * @param category Exact category
+ * @param speciesPrefix Lower-cased scientific name prefix
+ * @param lat Latitude of the location filter center
+ * @param lng Longitude of the location filter center
+ * @param radius Location filter radius in meters
+ * @param h3Min Smallest matching H3 address
+ * @param h3Max Largest matching H3 address
+ * @param verified Verification status
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record TreeFilter(String category,
+                         String speciesPrefix,
+                         Double lat,
+                         Double lng,
+                         Double radius,
+                         String h3Min,
+                         String h3Max,
+                         Boolean verified) {
+
+    /**
+     * @return Whether the location filter is present
+     */
+    public boolean hasLocation() {
+        return lat != null && lng != null && radius != null;
+    }
+
+    /**
+     * @return Whether any criterion is set
+     */
+    public boolean isEmpty() {
+        return category == null && speciesPrefix == null && !hasLocation() && h3Min == null && verified == null;
+    }
+}
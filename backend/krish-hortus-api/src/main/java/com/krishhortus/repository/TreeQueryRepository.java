@@ -0,0 +1,324 @@
+package com.krishhortus.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krishhortus.geo.BoundingBox;
+import com.krishhortus.geo.GeoMath;
+import com.krishhortus.model.PhotoSlot;
+import com.krishhortus.model.Tree;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Filtered and paginated tree queries
+ *
+ * Builds plain SQL so every filter is evaluated by the database against the
+ * composite indexes declared on {@link Tree}, rather than on materialized
+ * entities. Supports two pagination modes:
+ * - Offset: {@code LIMIT/OFFSET}, kept for backwards compatibility
+ * - Keyset: a row-value comparison on the sort key and id, so the cost of a
+ *   page does not depend on how deep it is
+ *
+ * Counts can be exact or, on PostgreSQL, taken from the planner's row
+ * estimate to avoid a full {@code COUNT(*)} scan. Exports stream every
+ * matching row instead, fetched from a server-side cursor.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Repository
+public class TreeQueryRepository {
+
+    static final String COLUMNS = "id, name, scientific_name, species_key, local_name, category, lat, lng, "
+        + "h3_index, address, height, trunk_width, canopy_spread, tagged_by, tagged_at, ai_generated, "
+        + "verified, verified_by, verified_at, photo_tree, photo_leaves, photo_bark, photo_fruit, photo_flower, "
+        + "created_at, updated_at, change_seq";
+
+    /** Maps a {@code trees} row onto a detached {@link Tree} */
+    static final RowMapper<Tree> TREE_ROW_MAPPER = TreeQueryRepository::mapTree;
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate streamingJdbc;
+    private final ObjectMapper objectMapper;
+    private final boolean postgres;
+    private final boolean h2;
+
+    public TreeQueryRepository(NamedParameterJdbcTemplate jdbc, DataSource dataSource, ObjectMapper objectMapper,
+                               @Value("${krishhortus.export.fetch-size:1000}") int exportFetchSize) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        String product = databaseProduct(dataSource);
+        this.postgres = "PostgreSQL".equalsIgnoreCase(product);
+        this.h2 = "H2".equalsIgnoreCase(product);
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(exportFetchSize);
+        this.streamingJdbc = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    /**
+     * Fetch one page of trees
+     *
+     * @param filter Filter criteria
+     * @param sort Ordering
+     * @param afterKey Sort key of the last row of the previous page (keyset mode), or null
+     * @param afterId Id of the last row of the previous page (keyset mode), or null
+     * @param offset Rows to skip (offset mode; ignored when a keyset position is given)
+     * @param limit Maximum number of rows
+     * @return Matching trees in sort order
+     */
+    public List<Tree> find(TreeFilter filter, TreeSort sort, String afterKey, String afterId, long offset, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM trees");
+        StringBuilder where = where(filter, params);
+
+        if (afterId != null) {
+            appendCondition(where, sort == TreeSort.UPDATED_AT
+                ? "(updated_at, id) < (:afterKey, :afterId)"
+                : "(h3_index, id) > (:afterKey, :afterId)");
+            params.addValue("afterKey", sort == TreeSort.UPDATED_AT
+                ? OffsetDateTime.ofInstant(Instant.parse(afterKey), ZoneOffset.UTC)
+                : afterKey);
+            params.addValue("afterId", afterId);
+        }
+        sql.append(where);
+        sql.append(sort == TreeSort.UPDATED_AT
+            ? " ORDER BY updated_at DESC, id DESC"
+            : " ORDER BY h3_index ASC, id ASC");
+        sql.append(" LIMIT :limit");
+        params.addValue("limit", limit);
+        if (afterId == null && offset > 0) {
+            sql.append(" OFFSET :offset");
+            params.addValue("offset", offset);
+        }
+        return jdbc.query(sql.toString(), params, TREE_ROW_MAPPER);
+    }
+
+    /**
+     * @param filter Filter criteria
+     * @return Exact number of matching trees
+     */
+    public long count(TreeFilter filter) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "SELECT COUNT(*) FROM trees" + where(filter, params);
+        Long count = jdbc.queryForObject(sql, params, Long.class);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * Estimate the number of matching trees
+     *
+     * On PostgreSQL this asks the planner for its row estimate, which costs a
+     * plan rather than a scan. Other databases (H2 in development) fall back
+     * to an exact count.
+     *
+     * @param filter Filter criteria
+     * @return Estimated number of matching trees
+     */
+    public long estimateCount(TreeFilter filter) {
+        if (!postgres) {
+            return count(filter);
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM trees" + where(filter, params);
+        String plan = jdbc.queryForObject(sql, params, String.class);
+        try {
+            JsonNode root = objectMapper.readTree(plan);
+            return root.path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (Exception e) {
+            return count(filter);
+        }
+    }
+
+    /**
+     * Stream every matching tree
+     *
+     * Trees come in (h3_index, id) order when no filter but an H3 cell is
+     * given, which the index on those columns delivers without sorting.
+     * With other filters the database would have to sort every match
+     * before returning the first one, so trees come in the order they are
+     * read instead.
+     *
+     * Rows are fetched {@code krishhortus.export.fetch-size} at a time and
+     * handed over one by one, so memory does not depend on the number of
+     * rows. PostgreSQL only honours the fetch size, rather than reading the
+     * whole result, inside a transaction; call this in a read-only one. H2
+     * buffers complete results unless lazy execution is switched on, which
+     * is done for this query only. An exception thrown by the consumer
+     * stops the query.
+     *
+     * @param filter Filter criteria
+     * @param box Optional bounding box the trees must lie in
+     * @param consumer Receives each tree; the instance is not reused
+     */
+    public void stream(TreeFilter filter, BoundingBox box, Consumer<Tree> consumer) {
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        StringBuilder sql = new StringBuilder("SELECT ").append(COLUMNS).append(" FROM trees");
+        StringBuilder where = where(filter, params);
+        if (box != null) {
+            appendCondition(where, "lat BETWEEN :boxMinLat AND :boxMaxLat");
+            appendCondition(where, "lng BETWEEN :boxMinLng AND :boxMaxLng");
+            params.addValue("boxMinLat", box.minLat());
+            params.addValue("boxMaxLat", box.maxLat());
+            params.addValue("boxMinLng", box.minLng());
+            params.addValue("boxMaxLng", box.maxLng());
+        }
+        sql.append(where);
+        if (filter.category() == null && filter.speciesPrefix() == null && filter.verified() == null
+                && !filter.hasLocation() && box == null) {
+            sql.append(" ORDER BY h3_index ASC, id ASC");
+        }
+        if (h2) {
+            streamingJdbc.getJdbcOperations().execute("SET LAZY_QUERY_EXECUTION TRUE");
+        }
+        try {
+            streamingJdbc.query(sql.toString(), params, (RowCallbackHandler) rs -> consumer.accept(mapTree(rs, 0)));
+        } finally {
+            if (h2) {
+                streamingJdbc.getJdbcOperations().execute("SET LAZY_QUERY_EXECUTION FALSE");
+            }
+        }
+    }
+
+    private StringBuilder where(TreeFilter filter, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder();
+        if (filter.category() != null) {
+            appendCondition(where, "category = :category");
+            params.addValue("category", filter.category());
+        }
+        if (filter.speciesPrefix() != null) {
+            String[] range = prefixRange(filter.speciesPrefix());
+            if (range != null) {
+                // A range any btree index can serve, whatever the collation; LIKE alone
+                // needs a C collation or pattern operator class on PostgreSQL
+                appendCondition(where, "species_key >= :speciesFrom AND species_key < :speciesTo");
+                params.addValue("speciesFrom", range[0]);
+                params.addValue("speciesTo", range[1]);
+            }
+            appendCondition(where, "species_key LIKE :speciesPrefix ESCAPE '\\'");
+            params.addValue("speciesPrefix", escapeLike(filter.speciesPrefix()) + "%");
+        }
+        if (filter.verified() != null) {
+            appendCondition(where, "verified = :verified");
+            params.addValue("verified", filter.verified());
+        }
+        if (filter.h3Min() != null) {
+            appendCondition(where, "h3_index BETWEEN :h3Min AND :h3Max");
+            params.addValue("h3Min", filter.h3Min());
+            params.addValue("h3Max", filter.h3Max());
+        }
+        if (filter.hasLocation()) {
+            // Bounding box prefilter on (lat, lng), then the exact haversine distance
+            double dLat = Math.toDegrees(filter.radius() / GeoMath.EARTH_RADIUS_M);
+            double cosLat = Math.cos(Math.toRadians(filter.lat()));
+            double dLng = cosLat > 1e-6 ? dLat / cosLat : 180.0;
+            appendCondition(where, "lat BETWEEN :minLat AND :maxLat");
+            appendCondition(where, "lng BETWEEN :minLng AND :maxLng");
+            appendCondition(where, "2 * " + GeoMath.EARTH_RADIUS_M + " * ASIN(SQRT("
+                + "POWER(SIN(RADIANS(lat - :lat) / 2), 2) + "
+                + ":cosLat * COS(RADIANS(lat)) * POWER(SIN(RADIANS(lng - :lng) / 2), 2))) <= :radius");
+            params.addValue("minLat", filter.lat() - dLat);
+            params.addValue("maxLat", filter.lat() + dLat);
+            params.addValue("minLng", filter.lng() - dLng);
+            params.addValue("maxLng", filter.lng() + dLng);
+            params.addValue("lat", filter.lat());
+            params.addValue("lng", filter.lng());
+            params.addValue("cosLat", cosLat);
+            params.addValue("radius", filter.radius());
+        }
+        return where;
+    }
+
+    private static void appendCondition(StringBuilder where, String condition) {
+        where.append(where.length() == 0 ? " WHERE " : " AND ").append(condition);
+    }
+
+    /**
+     * Bounds of the values starting with a prefix, for an index range scan
+     *
+     * The prefix is cut after its last letter or digit and that character
+     * is incremented for the upper bound: linguistic collations ignore
+     * spaces and punctuation when ordering, so bounds ending in them could
+     * exclude matches. The range may include a few values without the
+     * prefix; the LIKE condition removes them.
+     *
+     * @return Inclusive lower and exclusive upper bound, or null if the prefix has no letter or digit
+     */
+    static String[] prefixRange(String prefix) {
+        int end = prefix.length();
+        while (end > 0 && !Character.isLetterOrDigit(prefix.charAt(end - 1))) {
+            end--;
+        }
+        if (end == 0) {
+            return null;
+        }
+        String lower = prefix.substring(0, end);
+        String upper = lower.substring(0, end - 1) + (char) (lower.charAt(end - 1) + 1);
+        return new String[] {lower, upper};
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String databaseProduct(DataSource dataSource) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            return null;
+        }
+    }
+
+    private static Tree mapTree(ResultSet rs, int rowNum) throws SQLException {
+        Tree tree = new Tree();
+        tree.setId(rs.getString("id"));
+        tree.setName(rs.getString("name"));
+        tree.setScientificName(rs.getString("scientific_name"));
+        tree.setSpeciesKey(rs.getString("species_key"));
+        tree.setLocalName(rs.getString("local_name"));
+        tree.setCategory(rs.getString("category"));
+        tree.setLat(rs.getDouble("lat"));
+        tree.setLng(rs.getDouble("lng"));
+        tree.setH3Index(rs.getString("h3_index"));
+        tree.setAddress(rs.getString("address"));
+        tree.setHeight(rs.getObject("height", Double.class));
+        tree.setTrunkWidth(rs.getObject("trunk_width", Double.class));
+        tree.setCanopySpread(rs.getObject("canopy_spread", Double.class));
+        tree.setTaggedBy(rs.getString("tagged_by"));
+        tree.setTaggedAt(toInstant(rs, "tagged_at"));
+        tree.setAiGenerated(rs.getBoolean("ai_generated"));
+        tree.setVerified(rs.getBoolean("verified"));
+        tree.setVerifiedBy(rs.getString("verified_by"));
+        tree.setVerifiedAt(toInstant(rs, "verified_at"));
+        tree.setPhoto(PhotoSlot.TREE, rs.getString("photo_tree"));
+        tree.setPhoto(PhotoSlot.LEAVES, rs.getString("photo_leaves"));
+        tree.setPhoto(PhotoSlot.BARK, rs.getString("photo_bark"));
+        tree.setPhoto(PhotoSlot.FRUIT, rs.getString("photo_fruit"));
+        tree.setPhoto(PhotoSlot.FLOWER, rs.getString("photo_flower"));
+        tree.setCreatedAt(toInstant(rs, "created_at"));
+        tree.setUpdatedAt(toInstant(rs, "updated_at"));
+        tree.setChangeSeq(rs.getLong("change_seq"));
+        return tree;
+    }
+
+    private static Instant toInstant(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value != null ? value.toInstant() : null;
+    }
+}
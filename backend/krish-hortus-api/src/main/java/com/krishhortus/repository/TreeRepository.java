@@ -0,0 +1,99 @@
+package com.krishhortus.repository;
+
+import com.krishhortus.model.Tree;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Data access layer for {@link Tree} entities
+ *
+ * Besides the standard CRUD operations this repository exposes lightweight
+ * projections used to (re)build the in-memory spatial index, cluster
+ * rollups, search index and analytics rollups without
+ * materializing full tree entities.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Repository
+public interface TreeRepository extends JpaRepository<Tree, String> {
+
+    /**
+     * Fetch the next slice of tree locations and names ordered by id
+     *
+     * Uses keyset pagination on the primary key so loading millions of rows
+     * at startup costs the same per slice regardless of how far along it is.
+     *
+     * @param afterId Exclusive lower bound for the tree id ("" for the first slice)
+     * @param pageable Slice size (sort is fixed by the query)
+     * @return Location projections for the next slice
+     */
+    @Query("select t.id as id, t.lat as lat, t.lng as lng, t.category as category, t.h3Index as h3Index,"
+        + " t.name as name, t.scientificName as scientificName, t.localName as localName"
+        + " from Tree t where t.id > :afterId order by t.id")
+    List<TreeLocationView> findLocationsAfter(@Param("afterId") String afterId, Pageable pageable);
+
+    /**
+     * Fetch the next slice of the tree attributes aggregated by the analytics
+     * rollups, ordered by id
+     *
+     * @param afterId Exclusive lower bound for the tree id ("" for the first slice)
+     * @param pageable Slice size (sort is fixed by the query)
+     * @return Analytics projections for the next slice
+     */
+    @Query("select t.id as id, t.lat as lat, t.lng as lng, t.category as category,"
+        + " t.scientificName as scientificName, t.verified as verified, t.height as height,"
+        + " t.trunkWidth as trunkWidth, t.canopySpread as canopySpread"
+        + " from Tree t where t.id > :afterId order by t.id")
+    List<TreeAnalyticsView> findAnalyticsAfter(@Param("afterId") String afterId, Pageable pageable);
+
+    /**
+     * Minimal projection of a tree's position, category and names, the
+     * attributes kept by the spatial index, cluster rollups and search index
+     */
+    interface TreeLocationView {
+        String getId();
+
+        double getLat();
+
+        double getLng();
+
+        String getCategory();
+
+        String getH3Index();
+
+        String getName();
+
+        String getScientificName();
+
+        String getLocalName();
+    }
+
+    /**
+     * Projection of the tree attributes aggregated by the analytics rollups
+     */
+    interface TreeAnalyticsView {
+        String getId();
+
+        double getLat();
+
+        double getLng();
+
+        String getCategory();
+
+        String getScientificName();
+
+        boolean getVerified();
+
+        Double getHeight();
+
+        Double getTrunkWidth();
+
+        Double getCanopySpread();
+    }
+}
@@ -0,0 +1,51 @@
+package com.krishhortus.repository;
+
+import com.krishhortus.model.Tree;
+
+import java.util.Comparator;
+
+/**
+ * Orderings supported by tree list queries
+ *
+ * Each ordering is backed by a composite index ending in {@code id}, which
+ * makes it usable for keyset (cursor) pagination.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public enum TreeSort {
+
+    /** Most recently updated first: {@code (updated_at DESC, id DESC)} */
+    UPDATED_AT,
+
+    /** Spatially clustered: {@code (h3_index ASC, id ASC)} */
+    H3_INDEX;
+
+    private static final Comparator<Tree> NEWEST_FIRST =
+        Comparator.comparing(Tree::getUpdatedAt).thenComparing(Tree::getId).reversed();
+    private static final Comparator<Tree> BY_H3_INDEX =
+        Comparator.comparing(Tree::getH3Index).thenComparing(Tree::getId);
+
+    /**
+     * @return The same ordering in memory, for merging the results of
+     *         several queries
+     */
+    public Comparator<Tree> comparator() {
+        return this == UPDATED_AT ? NEWEST_FIRST : BY_H3_INDEX;
+    }
+
+    /**
+     * @param value Request parameter value ({@code updatedAt} or {@code h3Index})
+     * @return Matching sort
+     * @throws IllegalArgumentException for unknown values
+     */
+    public static TreeSort fromParameter(String value) {
+        if (value == null || value.equals("updatedAt")) {
+            return UPDATED_AT;
+        }
+        if (value.equals("h3Index")) {
+            return H3_INDEX;
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + value + " (use updatedAt or h3Index)");
+    }
+}
@@ -0,0 +1,29 @@
+package com.krishhortus.repository;
+
+import com.krishhortus.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Data access layer for {@link User} accounts
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Repository
+public interface UserRepository extends JpaRepository<User, String> {
+
+    /**
+     * @param email Lower-cased email address
+     * @return The account registered with the email, if any
+     */
+    Optional<User> findByEmail(String email);
+
+    /**
+     * @param email Lower-cased email address
+     * @return Whether an account is registered with the email
+     */
+    boolean existsByEmail(String email);
+}
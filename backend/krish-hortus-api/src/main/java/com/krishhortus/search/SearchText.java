@@ -0,0 +1,165 @@
+package com.krishhortus.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Text normalization and edit distances for the tree search index
+ *
+ * Names are folded to lower case, accents are removed from Latin letters,
+ * and the text is split into terms at every character that is not a
+ * letter, digit or combining mark. So "Pīpal", "PIPAL" and "pipal" all
+ * index as {@code pipal} and "Ficus religiosa" as {@code ficus} and
+ * {@code religiosa}. Vowel signs of Indic scripts are kept, so local names
+ * such as "पीपल" stay one term.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+final class SearchText {
+
+    /** Longest term kept; longer runs of letters are cut */
+    static final int MAX_TERM_LENGTH = 32;
+
+    /** End of the Latin Extended blocks, whose accents are removed */
+    private static final char LATIN_END = '\u0250';
+
+    private SearchText() {
+    }
+
+    /**
+     * @param text Free text, may be null
+     * @return Distinct normalized terms in order of appearance
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>(4);
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && isWordChar(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String term = folded.substring(start, Math.min(i, start + MAX_TERM_LENGTH));
+                if (!terms.contains(term)) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * @return Whether the term consists of letters only, the terms that get
+     *         fuzzy matching; ids and numbers are matched exactly or by prefix
+     */
+    static boolean isAlphabetic(String term) {
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (!Character.isLetter(c) && !isMark(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Edit distance allowing insertions, deletions, substitutions and
+     * transpositions of adjacent characters, each costing one
+     *
+     * @param query Query term
+     * @param term Indexed term
+     * @param maxEdits Largest distance of interest
+     * @param prefix Whether to measure against the closest prefix of {@code term}
+     *               rather than the whole term
+     * @return Distance, or {@code maxEdits + 1} if it exceeds {@code maxEdits}
+     */
+    static int distance(String query, String term, int maxEdits, boolean prefix) {
+        int m = query.length();
+        int n = term.length();
+        if (!prefix && Math.abs(m - n) > maxEdits) {
+            return maxEdits + 1;
+        }
+        if (prefix && n < m - maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] twoBack = new int[n + 1];
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= m; i++) {
+            current[0] = i;
+            int rowMin = i;
+            char q = query.charAt(i - 1);
+            for (int j = 1; j <= n; j++) {
+                char t = term.charAt(j - 1);
+                int cost = q == t ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && q == term.charAt(j - 2) && query.charAt(i - 2) == t) {
+                    value = Math.min(value, twoBack[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] recycled = twoBack;
+            twoBack = previous;
+            previous = current;
+            current = recycled;
+        }
+        int result;
+        if (prefix) {
+            result = Integer.MAX_VALUE;
+            for (int j = 0; j <= n; j++) {
+                result = Math.min(result, previous[j]);
+            }
+        } else {
+            result = previous[n];
+        }
+        return Math.min(result, maxEdits + 1);
+    }
+
+    private static String fold(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        boolean ascii = true;
+        for (int i = 0; i < lower.length() && ascii; i++) {
+            ascii = lower.charAt(i) < 128;
+        }
+        if (ascii) {
+            return lower;
+        }
+        String decomposed = Normalizer.normalize(lower, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        char base = 0;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (!isMark(c)) {
+                base = c;
+            } else if (base < LATIN_END) {
+                // Accent on a Latin letter
+                continue;
+            }
+            folded.append(c);
+        }
+        return Normalizer.normalize(folded, Normalizer.Form.NFC);
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || isMark(c);
+    }
+
+    private static boolean isMark(char c) {
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+}
@@ -0,0 +1,611 @@
+package com.krishhortus.search;
+
+import com.krishhortus.util.LongObjectHashMap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * In-memory full-text index over tree names
+ *
+ * Indexes the terms of each tree's name, scientific name and local name
+ * (see {@link SearchText}) and answers type-ahead queries with typos:
+ * - Terms are kept in a sorted dictionary, so every term starting with a
+ *   query word is found by one range lookup
+ * - Alphabetic terms are also listed under their trigrams. Terms sharing
+ *   enough trigrams with a query word are candidates for a fuzzy match
+ *   and are confirmed by a bounded edit distance (1 edit for words of up
+ *   to 5 letters, 2 beyond), against the whole term or, for partly typed
+ *   words, its closest prefix
+ * - Each term lists the trees containing it
+ *
+ * Every query word must match (AND). A tree scores the sum, over the query
+ * words, of its best matching term: exact above prefix above fuzzy, closer
+ * and longer matches higher. The best {@code limit} trees are collected
+ * starting from the query word with the fewest trees, in descending term
+ * score, stopping as soon as no remaining tree can rank higher; a query
+ * thus touches about {@code limit} trees when a word matches many.
+ * Results can be restricted to a range of H3 cells.
+ *
+ * Reads take a shared lock and never touch persistence; writes are applied
+ * by {@code TreeService} on create, update and delete.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class TreeSearchIndex {
+
+    /** Query words considered; further words are ignored */
+    static final int MAX_QUERY_WORDS = 8;
+    /** Dictionary terms a word may expand to by prefix */
+    static final int MAX_PREFIX_EXPANSIONS = 512;
+    /** Trees examined per query before the result is cut short */
+    static final int MAX_SCANNED_TREES = 250_000;
+
+    private static final double EXACT_SCORE = 3.0;
+    private static final double PREFIX_SCORE = 2.0;
+    private static final double FUZZY_SCORE = 1.5;
+    private static final double FUZZY_PREFIX_SCORE = 0.75;
+    private static final char PAD = '$';
+
+    private final NavigableMap<String, Term> terms = new TreeMap<>();
+    private final List<Term> fuzzyTerms = new ArrayList<>();
+    private final LongObjectHashMap<IntList> trigrams = new LongObjectHashMap<>(1 << 12);
+    private final Map<String, Integer> slots = new HashMap<>();
+    private final IntList freeSlots = new IntList();
+    private String[] ids = new String[1024];
+    private long[] cells = new long[1024];
+    private Term[][] termsOfSlot = new Term[1024][];
+    /** Per slot, the position of the slot in the postings of each of its terms */
+    private int[][] positionsOfSlot = new int[1024][];
+    private int slotCount;
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * Index a tree or replace its indexed names
+     *
+     * @param id Tree identifier
+     * @param h3Index Stored H3 address of the tree
+     * @param names Names to index (null entries are skipped)
+     */
+    public void put(String id, String h3Index, String... names) {
+        List<String> words = new ArrayList<>();
+        for (String name : names) {
+            for (String word : SearchText.terms(name)) {
+                if (!words.contains(word)) {
+                    words.add(word);
+                }
+            }
+        }
+        long cell = h3Index != null ? Long.parseUnsignedLong(h3Index, 16) : 0L;
+
+        long stamp = lock.writeLock();
+        try {
+            Integer existing = slots.get(id);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                cells[slot] = cell;
+                if (hasTerms(slot, words)) {
+                    // Most updates leave the names alone
+                    return;
+                }
+                unindex(slot);
+            } else {
+                slot = freeSlots.size() > 0 ? freeSlots.removeLast() : slotCount++;
+                ensureSlotCapacity(slot + 1);
+                slots.put(id, slot);
+                ids[slot] = id;
+            }
+            Term[] indexed = new Term[words.size()];
+            int[] positions = new int[words.size()];
+            for (int i = 0; i < indexed.length; i++) {
+                indexed[i] = termFor(words.get(i));
+                positions[i] = indexed[i].add(slot);
+            }
+            termsOfSlot[slot] = indexed;
+            positionsOfSlot[slot] = positions;
+            cells[slot] = cell;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove a tree from the index (no-op if it is not indexed)
+     *
+     * @param id Tree identifier
+     */
+    public void remove(String id) {
+        long stamp = lock.writeLock();
+        try {
+            Integer slot = slots.remove(id);
+            if (slot == null) {
+                return;
+            }
+            unindex(slot);
+            termsOfSlot[slot] = null;
+            positionsOfSlot[slot] = null;
+            ids[slot] = null;
+            freeSlots.add(slot);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Drop all trees and terms
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            terms.clear();
+            fuzzyTerms.clear();
+            trigrams.clear();
+            slots.clear();
+            freeSlots.clear();
+            Arrays.fill(ids, 0, slotCount, null);
+            Arrays.fill(termsOfSlot, 0, slotCount, null);
+            Arrays.fill(positionsOfSlot, 0, slotCount, null);
+            slotCount = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return Number of indexed trees
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return slots.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return Number of distinct indexed terms
+     */
+    public int termCount() {
+        long stamp = lock.readLock();
+        try {
+            return terms.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Find the trees best matching a query
+     *
+     * @param query Free text; every word must match a name term
+     * @param minCell Smallest stored H3 index to include, or null for no cell restriction
+     * @param maxCell Largest stored H3 index to include (with {@code minCell})
+     * @param limit Maximum number of hits
+     * @return Hits, best first
+     * @throws IllegalArgumentException if the query has no letters or digits
+     */
+    public SearchHits search(String query, Long minCell, Long maxCell, int limit) {
+        List<String> words = SearchText.terms(query);
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("Query must contain a letter or digit");
+        }
+        if (words.size() > MAX_QUERY_WORDS) {
+            words = words.subList(0, MAX_QUERY_WORDS);
+        }
+
+        long stamp = lock.readLock();
+        try {
+            WordMatches[] matches = new WordMatches[words.size()];
+            int driver = 0;
+            for (int w = 0; w < matches.length; w++) {
+                matches[w] = match(words.get(w));
+                if (matches[w].isEmpty()) {
+                    return new SearchHits(List.of(), false);
+                }
+                if (matches[w].trees < matches[driver].trees) {
+                    driver = w;
+                }
+            }
+            return collect(matches, driver, minCell, maxCell, limit);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private SearchHits collect(WordMatches[] matches, int driver, Long minCell, Long maxCell, int limit) {
+        double otherBest = 0;
+        for (int w = 0; w < matches.length; w++) {
+            if (w != driver) {
+                otherBest += matches[w].bestScore();
+            }
+        }
+
+        WordMatches driving = matches[driver];
+        TopHits top = new TopHits(limit);
+        BitSet seen = driving.size() > 1 ? new BitSet(slotCount) : null;
+        int scanned = 0;
+        boolean stoppedEarly = false;
+        terms:
+        for (int t = 0; t < driving.size(); t++) {
+            double bound = driving.scores[t] + otherBest;
+            if (top.isFull() && top.minScore() >= bound) {
+                // No tree of this or any later term can rank higher
+                stoppedEarly = true;
+                break;
+            }
+            Term term = driving.terms[t];
+            for (int p = 0; p < term.size; p++) {
+                int slot = term.postings[p];
+                if (seen != null) {
+                    if (seen.get(slot)) {
+                        continue;
+                    }
+                    seen.set(slot);
+                }
+                if (++scanned > MAX_SCANNED_TREES) {
+                    stoppedEarly = true;
+                    break terms;
+                }
+                if (minCell != null && (Long.compareUnsigned(cells[slot], minCell) < 0
+                        || Long.compareUnsigned(cells[slot], maxCell) > 0)) {
+                    continue;
+                }
+                double score = driving.scores[t];
+                for (int w = 0; w < matches.length && score > 0; w++) {
+                    if (w != driver) {
+                        double best = matches[w].bestScoreOf(termsOfSlot[slot]);
+                        score = best > 0 ? score + best : 0;
+                    }
+                }
+                if (score > 0) {
+                    top.offer(slot, score);
+                    if (top.isFull() && top.minScore() >= bound) {
+                        // The remaining trees of this term can at best tie, and ties keep earlier hits
+                        stoppedEarly = true;
+                        break terms;
+                    }
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(top.size);
+        for (int i = 0; i < top.size; i++) {
+            hits.add(new Hit(ids[top.slots[i]], top.scores[i]));
+        }
+        return new SearchHits(hits, stoppedEarly || top.matched > limit);
+    }
+
+    /**
+     * Collect the dictionary terms matching one query word with their scores
+     */
+    private WordMatches match(String word) {
+        Map<Term, Double> scored = new HashMap<>();
+        Term exact = terms.get(word);
+        if (exact != null && exact.size > 0) {
+            scored.put(exact, EXACT_SCORE);
+        }
+        int expansions = 0;
+        for (Term term : terms.subMap(word, false, word + Character.MAX_VALUE, false).values()) {
+            if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            if (term.size > 0) {
+                scored.put(term, PREFIX_SCORE + (double) word.length() / term.text.length());
+            }
+        }
+
+        int maxEdits = word.length() < 3 ? 0 : word.length() <= 5 ? 1 : 2;
+        if (maxEdits > 0 && SearchText.isAlphabetic(word)) {
+            int[] shared = countSharedTrigrams(word);
+            // An edit changes at most three trigrams; a prefix match may also miss the final one
+            int minShared = Math.max(1, word.length() - 1 - 3 * maxEdits);
+            for (int f = 0; f < shared.length; f++) {
+                if (shared[f] < minShared) {
+                    continue;
+                }
+                Term term = fuzzyTerms.get(f);
+                if (term.size == 0 || scored.containsKey(term)) {
+                    continue;
+                }
+                int distance = SearchText.distance(word, term.text, maxEdits, false);
+                if (distance <= maxEdits) {
+                    scored.put(term, FUZZY_SCORE - 0.5 * distance);
+                    continue;
+                }
+                if (word.length() >= 4) {
+                    distance = SearchText.distance(word, term.text, maxEdits, true);
+                    if (distance <= maxEdits) {
+                        scored.put(term, FUZZY_PREFIX_SCORE - 0.25 * distance);
+                    }
+                }
+            }
+        }
+        return new WordMatches(scored);
+    }
+
+    private int[] countSharedTrigrams(String word) {
+        int[] shared = new int[fuzzyTerms.size()];
+        long[] keys = trigramsOf(word);
+        for (int i = 0; i < keys.length; i++) {
+            boolean repeated = false;
+            for (int j = 0; j < i && !repeated; j++) {
+                repeated = keys[j] == keys[i];
+            }
+            IntList list = repeated ? null : trigrams.get(keys[i]);
+            if (list != null) {
+                for (int k = 0; k < list.size(); k++) {
+                    shared[list.get(k)]++;
+                }
+            }
+        }
+        return shared;
+    }
+
+    private boolean hasTerms(int slot, List<String> words) {
+        Term[] current = termsOfSlot[slot];
+        if (current.length != words.size()) {
+            return false;
+        }
+        for (int i = 0; i < current.length; i++) {
+            if (!current[i].text.equals(words.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drop a slot from the postings of its terms in constant time per term
+     */
+    private void unindex(int slot) {
+        Term[] slotTerms = termsOfSlot[slot];
+        int[] positions = positionsOfSlot[slot];
+        for (int i = 0; i < slotTerms.length; i++) {
+            Term term = slotTerms[i];
+            int moved = term.removeAt(positions[i]);
+            if (moved != slot) {
+                // The last posting took the removed one's place
+                Term[] movedTerms = termsOfSlot[moved];
+                for (int k = 0; k < movedTerms.length; k++) {
+                    if (movedTerms[k] == term) {
+                        positionsOfSlot[moved][k] = positions[i];
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private Term termFor(String text) {
+        Term term = terms.get(text);
+        if (term == null) {
+            term = new Term(text);
+            terms.put(text, term);
+            if (SearchText.isAlphabetic(text)) {
+                int fuzzyId = fuzzyTerms.size();
+                fuzzyTerms.add(term);
+                long[] keys = trigramsOf(text);
+                for (int i = 0; i < keys.length; i++) {
+                    IntList list = trigrams.get(keys[i]);
+                    if (list == null) {
+                        list = new IntList();
+                        trigrams.put(keys[i], list);
+                    }
+                    if (list.size() == 0 || list.get(list.size() - 1) != fuzzyId) {
+                        list.add(fuzzyId);
+                    }
+                }
+            }
+        }
+        return term;
+    }
+
+    /**
+     * Trigrams of the word padded with one boundary character on each side
+     */
+    private static long[] trigramsOf(String word) {
+        String padded = PAD + word + PAD;
+        long[] keys = new long[padded.length() - 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2);
+        }
+        return keys;
+    }
+
+    private void ensureSlotCapacity(int capacity) {
+        if (capacity > ids.length) {
+            int grown = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, grown);
+            cells = Arrays.copyOf(cells, grown);
+            termsOfSlot = Arrays.copyOf(termsOfSlot, grown);
+            positionsOfSlot = Arrays.copyOf(positionsOfSlot, grown);
+        }
+    }
+
+    /**
+     * A matching tree
+     *
+     * @param id Tree identifier
+     * @param score Relevance; higher is better
+     */
+    public record Hit(String id, double score) {
+    }
+
+    /**
+     * Result of a search
+     *
+     * @param hits Best matching trees, best first
+     * @param hasMore Whether more trees may match than were returned
+     */
+    public record SearchHits(List<Hit> hits, boolean hasMore) {
+    }
+
+    /**
+     * A dictionary term and the slots of the trees containing it
+     */
+    private static final class Term {
+        final String text;
+        int[] postings = new int[2];
+        int size;
+
+        Term(String text) {
+            this.text = text;
+        }
+
+        /**
+         * @return Position of the new posting
+         */
+        int add(int slot) {
+            if (size == postings.length) {
+                postings = Arrays.copyOf(postings, size * 2);
+            }
+            postings[size] = slot;
+            return size++;
+        }
+
+        /**
+         * Remove the posting at a position by moving the last one into its place
+         *
+         * @return Slot of the moved posting (the removed slot if it was last)
+         */
+        int removeAt(int position) {
+            int moved = postings[--size];
+            postings[position] = moved;
+            return moved;
+        }
+    }
+
+    /**
+     * Terms matching one query word, best score first
+     */
+    private static final class WordMatches {
+        final Term[] terms;
+        final double[] scores;
+        final long trees;
+
+        WordMatches(Map<Term, Double> scored) {
+            List<Map.Entry<Term, Double>> entries = new ArrayList<>(scored.entrySet());
+            entries.sort(Map.Entry.<Term, Double>comparingByValue().reversed()
+                .thenComparing(entry -> entry.getKey().text));
+            terms = new Term[entries.size()];
+            scores = new double[entries.size()];
+            long total = 0;
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = entries.get(i).getKey();
+                scores[i] = entries.get(i).getValue();
+                total += terms[i].size;
+            }
+            trees = total;
+        }
+
+        int size() {
+            return terms.length;
+        }
+
+        boolean isEmpty() {
+            return terms.length == 0;
+        }
+
+        double bestScore() {
+            return scores[0];
+        }
+
+        /**
+         * @return Score of the best of the given terms matching this word, or 0
+         */
+        double bestScoreOf(Term[] treeTerms) {
+            double best = 0;
+            for (Term treeTerm : treeTerms) {
+                for (int i = 0; i < terms.length && scores[i] > best; i++) {
+                    if (terms[i] == treeTerm) {
+                        best = scores[i];
+                        break;
+                    }
+                }
+            }
+            return best;
+        }
+    }
+
+    /**
+     * Best hits so far, kept sorted by descending score; ties keep the
+     * earlier hit ahead
+     */
+    private static final class TopHits {
+        final int[] slots;
+        final double[] scores;
+        int size;
+        long matched;
+
+        TopHits(int limit) {
+            slots = new int[limit];
+            scores = new double[limit];
+        }
+
+        boolean isFull() {
+            return size == slots.length;
+        }
+
+        double minScore() {
+            return scores[size - 1];
+        }
+
+        void offer(int slot, double score) {
+            matched++;
+            if (isFull() && score <= minScore()) {
+                return;
+            }
+            int position = isFull() ? size - 1 : size++;
+            while (position > 0 && scores[position - 1] < score) {
+                slots[position] = slots[position - 1];
+                scores[position] = scores[position - 1];
+                position--;
+            }
+            slots[position] = slot;
+            scores[position] = score;
+        }
+    }
+
+    /**
+     * Growable list of primitive ints
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int removeLast() {
+            return values[--size];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
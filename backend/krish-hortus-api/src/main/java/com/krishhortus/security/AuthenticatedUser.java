@@ -0,0 +1,42 @@
+package com.krishhortus.security;
+
+import com.krishhortus.dto.UserResponse;
+
+import java.time.Instant;
+
+/**
+ * User identity carried by a verified access token
+ *
+ * Set as the principal of authenticated requests, so controllers can read
+ * the caller with {@code @AuthenticationPrincipal} without a user lookup.
+ *
+ * @param id User id (token subject)
+ * @param email Email address
+ * @param name Display name
+ * @param role Role name, e.g. {@code USER} or {@code ADMIN}
+ * @param verified Whether the account is verified
+ * @param createdAt When the account was created
+ * @param expiresAt When the token expires
+ * @param tokenId Id of the token ({@code jti})
+ * @param familyId Id of the login session the token belongs to
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record AuthenticatedUser(
+        String id,
+        String email,
+        String name,
+        String role,
+        boolean verified,
+        Instant createdAt,
+        Instant expiresAt,
+        String tokenId,
+        String familyId) {
+
+    /**
+     * @return API representation of the user
+     */
+    public UserResponse toUserResponse() {
+        return new UserResponse(id, email, name, role, verified, createdAt, null);
+    }
+}
@@ -0,0 +1,133 @@
+package com.krishhortus.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krishhortus.config.RequestLoggingFilter;
+import com.krishhortus.dto.ApiResponse;
+import com.krishhortus.exception.InvalidTokenException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Authenticates requests carrying a bearer access token
+ *
+ * Runs ahead of the authorization rules in the security filter chain:
+ * - A request without a token passes through unauthenticated; protected
+ *   endpoints then answer 401
+ * - A request with a valid token gets an {@link AuthenticatedUser}
+ *   principal and a {@code ROLE_<role>} authority
+ * - A request with an invalid, expired or revoked token is answered 401
+ *   right away on a protected endpoint; revocation is checked on every
+ *   request, also for tokens answered from the verification cache
+ * - On an open endpoint such a token is ignored and the request continues
+ *   unauthenticated, so a client still sending its expired access token
+ *   can log in again or refresh it
+ *
+ * The user id of an authenticated request is added to the logging context.
+ *
+ * Browsers cannot set headers on {@code EventSource} connections, so the
+ * change stream also accepts the token as {@code access_token} query
+ * parameter.
+ *
+ * Not a Spring bean on purpose: Boot would otherwise register it a second
+ * time as a plain servlet filter.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String STREAM_PATH = "/api/trees/stream";
+    private static final String TOKEN_PARAMETER = "access_token";
+
+    private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
+    private final ObjectMapper objectMapper;
+    private final RequestMatcher protectedPaths;
+
+    /**
+     * @param protectedPaths Endpoints that require authentication; only
+     *                       these reject an invalid token
+     */
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   TokenRevocationService tokenRevocationService,
+                                   ObjectMapper objectMapper,
+                                   RequestMatcher protectedPaths) {
+        this.jwtService = jwtService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.objectMapper = objectMapper;
+        this.protectedPaths = protectedPaths;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = resolveToken(request);
+        if (token == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AuthenticatedUser user;
+        try {
+            user = jwtService.verifyAccessToken(token);
+            if (tokenRevocationService.isRevoked(user)) {
+                throw new InvalidTokenException("Token has been revoked");
+            }
+        } catch (InvalidTokenException e) {
+            if (!protectedPaths.matches(request)) {
+                SecurityContextHolder.clearContext();
+                chain.doFilter(request, response);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(e.getMessage()));
+            return;
+        }
+
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(user, null,
+            List.of(new SimpleGrantedAuthority("ROLE_" + user.role().toUpperCase(Locale.ROOT)))));
+        SecurityContextHolder.setContext(context);
+        MDC.put(RequestLoggingFilter.USER_ID, user.id());
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            SecurityContextHolder.clearContext();
+            // On failure RequestLoggingFilter removes it after the container has logged the error
+            if (completed) {
+                MDC.remove(RequestLoggingFilter.USER_ID);
+            }
+        }
+    }
+
+    private static String resolveToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return header.substring(BEARER_PREFIX.length()).trim();
+        }
+        if (STREAM_PATH.equals(request.getRequestURI())) {
+            return request.getParameter(TOKEN_PARAMETER);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,253 @@
+package com.krishhortus.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.krishhortus.dto.AuthResponse;
+import com.krishhortus.dto.UserResponse;
+import com.krishhortus.exception.InvalidTokenException;
+import com.krishhortus.metrics.TreeMetrics;
+import com.krishhortus.metrics.TreeMetrics.Stage;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Serializer;
+import io.jsonwebtoken.jackson.io.JacksonDeserializer;
+import io.jsonwebtoken.jackson.io.JacksonSerializer;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.WeakKeyException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stateless JWT issue and verification
+ *
+ * Access and refresh tokens are HS256 signed JWTs carrying the user's id,
+ * email, name, role and account details, so authenticated requests never
+ * need a user lookup. The signing key, parser and JSON serializer are built
+ * once at startup.
+ *
+ * Verified access tokens are cached by the SHA-256 of the token:
+ * - Repeat requests from the same session skip base64 decoding, JSON
+ *   parsing and the signature check
+ * - Each entry expires exactly when its token does, so a cached token is
+ *   never accepted after its {@code exp}
+ * - The cache is bounded in size; its hit rate is published as
+ *   {@code cache.gets} tagged {@code cache=tokens}
+ *
+ * Refresh tokens are always verified in full and never cached. All tokens
+ * of one login session share a family id, which is what
+ * {@link TokenRevocationService} revokes on logout.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class JwtService {
+
+    private static final String TYPE_CLAIM = "typ";
+    private static final String FAMILY_CLAIM = "fam";
+    private static final String ACCESS_TYPE = "access";
+    private static final String REFRESH_TYPE = "refresh";
+
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Serializer<Map<String, ?>> serializer;
+    private final Duration accessTokenTtl;
+    private final Duration refreshTokenTtl;
+    private final Cache<TokenKey, AuthenticatedUser> verifiedTokens;
+    private final MessageDigest sha256;
+    private final TreeMetrics treeMetrics;
+
+    public JwtService(@Value("${krishhortus.security.jwt.secret}") String secret,
+                      @Value("${krishhortus.security.jwt.expiration:86400000}") long expirationMillis,
+                      @Value("${krishhortus.security.jwt.refresh-expiration:2592000000}") long refreshExpirationMillis,
+                      @Value("${krishhortus.security.jwt.verified-cache-size:100000}") long verifiedCacheSize,
+                      TreeMetrics treeMetrics,
+                      MeterRegistry meterRegistry) {
+        try {
+            this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (WeakKeyException e) {
+            throw new IllegalStateException("krishhortus.security.jwt.secret must be at least 32 bytes long", e);
+        }
+        // Explicit JSON (de)serializers; otherwise every token built looks one up again
+        this.serializer = new JacksonSerializer<>();
+        this.parser = Jwts.parserBuilder()
+            .setSigningKey(signingKey)
+            .deserializeJsonWith(new JacksonDeserializer<>())
+            .build();
+        this.accessTokenTtl = Duration.ofMillis(expirationMillis);
+        this.refreshTokenTtl = Duration.ofMillis(refreshExpirationMillis);
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(verifiedCacheSize)
+            .expireAfter(new UntilTokenExpiry())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "tokens");
+        try {
+            this.sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        this.treeMetrics = treeMetrics;
+    }
+
+    /**
+     * Issue the access and refresh token pair of a new login session
+     *
+     * @param user User to authenticate
+     * @return Tokens together with the user
+     */
+    public AuthResponse issueTokens(UserResponse user) {
+        return issueTokens(user, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Issue a new access and refresh token pair
+     *
+     * @param user User to authenticate
+     * @param familyId Login session the tokens belong to
+     * @return Tokens together with the user
+     */
+    public AuthResponse issueTokens(UserResponse user, String familyId) {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        String accessToken = sign(user, familyId, ACCESS_TYPE, now, accessTokenTtl);
+        String refreshToken = sign(user, familyId, REFRESH_TYPE, now, refreshTokenTtl);
+        treeMetrics.record(Stage.AUTH_TOKEN_ISSUE, start);
+        return new AuthResponse(user, accessToken, refreshToken, accessTokenTtl.toSeconds());
+    }
+
+    /**
+     * Verify an access token, answering repeat tokens from the cache
+     *
+     * @param token Compact JWT from the Authorization header
+     * @return User carried by the token
+     * @throws InvalidTokenException if the token is not a valid, unexpired access token
+     */
+    public AuthenticatedUser verifyAccessToken(String token) {
+        long start = System.nanoTime();
+        TokenKey key = keyOf(token);
+        AuthenticatedUser user = verifiedTokens.getIfPresent(key);
+        if (user == null) {
+            user = toUser(parse(token, ACCESS_TYPE));
+            verifiedTokens.put(key, user);
+        }
+        treeMetrics.record(Stage.AUTH_TOKEN_VERIFY, start);
+        return user;
+    }
+
+    /**
+     * Verify a refresh token; always checks the signature
+     *
+     * @param token Compact JWT issued as refresh token
+     * @return User carried by the token, with the refresh token's expiry
+     * @throws InvalidTokenException if the token is not a valid, unexpired refresh token
+     */
+    public AuthenticatedUser verifyRefreshToken(String token) {
+        return toUser(parse(token, REFRESH_TYPE));
+    }
+
+    private String sign(UserResponse user, String familyId, String type, Instant now, Duration ttl) {
+        return Jwts.builder()
+            .setId(UUID.randomUUID().toString())
+            .setSubject(user.id())
+            .claim(TYPE_CLAIM, type)
+            .claim(FAMILY_CLAIM, familyId)
+            .claim("email", user.email())
+            .claim("name", user.name())
+            .claim("role", user.role())
+            .claim("verified", user.isVerified())
+            .claim("createdAt", user.createdAt() != null ? user.createdAt().getEpochSecond() : null)
+            .setIssuedAt(Date.from(now))
+            .setExpiration(Date.from(now.plus(ttl)))
+            .signWith(signingKey)
+            .serializeToJsonWith(serializer)
+            .compact();
+    }
+
+    private Claims parse(String token, String expectedType) {
+        if (token == null || token.isBlank()) {
+            throw new InvalidTokenException("Missing token");
+        }
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (ExpiredJwtException e) {
+            throw new InvalidTokenException("Token has expired");
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidTokenException("Invalid token");
+        }
+        if (!expectedType.equals(claims.get(TYPE_CLAIM, String.class))) {
+            throw new InvalidTokenException("Expected " + expectedType + " token");
+        }
+        return claims;
+    }
+
+    private static AuthenticatedUser toUser(Claims claims) {
+        Number createdAt = claims.get("createdAt", Number.class);
+        return new AuthenticatedUser(
+            claims.getSubject(),
+            claims.get("email", String.class),
+            claims.get("name", String.class),
+            claims.get("role", String.class),
+            Boolean.TRUE.equals(claims.get("verified", Boolean.class)),
+            createdAt != null ? Instant.ofEpochSecond(createdAt.longValue()) : null,
+            claims.getExpiration().toInstant(),
+            claims.getId(),
+            claims.get(FAMILY_CLAIM, String.class));
+    }
+
+    /**
+     * First 128 bits of the token's SHA-256; the cache never holds the token itself
+     */
+    private TokenKey keyOf(String token) {
+        MessageDigest digest;
+        try {
+            digest = (MessageDigest) sha256.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("SHA-256 digest cannot be cloned", e);
+        }
+        ByteBuffer hash = ByteBuffer.wrap(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        return new TokenKey(hash.getLong(), hash.getLong());
+    }
+
+    private record TokenKey(long high, long low) {
+    }
+
+    /**
+     * Expires each verified token entry at the token's own expiry
+     */
+    private static final class UntilTokenExpiry implements Expiry<TokenKey, AuthenticatedUser> {
+
+        @Override
+        public long expireAfterCreate(TokenKey key, AuthenticatedUser user, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), user.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenKey key, AuthenticatedUser user, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, user, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenKey key, AuthenticatedUser user, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
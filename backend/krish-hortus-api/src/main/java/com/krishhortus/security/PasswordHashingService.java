@@ -0,0 +1,152 @@
+package com.krishhortus.security;
+
+import com.krishhortus.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * BCrypt password hashing on a dedicated, bounded pool
+ *
+ * Hashing is by design the most CPU-expensive operation of the API. To keep
+ * a burst of logins from starving the tree endpoints:
+ * - Hashes run on a fixed number of threads (by default half the cores),
+ *   so they never use more than that many cores
+ * - Waiting hashes are limited by a queue; when it is full the request is
+ *   rejected at once with 503 and {@code Retry-After} instead of piling up
+ * - Callers get a future, so request threads are released while waiting
+ *
+ * Verifying against an unknown account still runs a full hash, so response
+ * times do not reveal which emails are registered.
+ *
+ * Published metrics: {@code krishhortus.password.hash} (time per hash,
+ * tagged {@code operation=hash|verify}), {@code krishhortus.password.queue.wait},
+ * {@code krishhortus.password.queue.depth}, {@code krishhortus.password.active}
+ * and {@code krishhortus.password.rejected}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class PasswordHashingService {
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration retryAfter;
+    private final String unknownAccountHash;
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Timer queueWaitTimer;
+    private final Counter rejected;
+
+    public PasswordHashingService(@Value("${krishhortus.security.password.bcrypt-strength:10}") int strength,
+                                  @Value("${krishhortus.security.password.threads:0}") int threads,
+                                  @Value("${krishhortus.security.password.queue-capacity:32}") int queueCapacity,
+                                  @Value("${krishhortus.security.password.retry-after:2s}") Duration retryAfter,
+                                  MeterRegistry meterRegistry) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        if (threads <= 0) {
+            threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfter = retryAfter;
+        this.unknownAccountHash = encoder.encode(UUID.randomUUID().toString());
+
+        this.hashTimer = hashTimer(meterRegistry, "hash");
+        this.verifyTimer = hashTimer(meterRegistry, "verify");
+        this.queueWaitTimer = Timer.builder("krishhortus.password.queue.wait")
+            .description("Time a password hash waited for a hashing thread")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejected = Counter.builder("krishhortus.password.rejected")
+            .description("Password hashes rejected because the hashing queue was full")
+            .register(meterRegistry);
+        Gauge.builder("krishhortus.password.queue.depth", executor, pool -> pool.getQueue().size())
+            .description("Password hashes waiting for a hashing thread")
+            .register(meterRegistry);
+        Gauge.builder("krishhortus.password.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Password hashes in progress")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Hash a new password
+     *
+     * @param rawPassword Password as entered
+     * @return Future of the BCrypt hash
+     * @throws ServiceUnavailableException if the hashing queue is full
+     */
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(hashTimer, () -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Check a password against a stored hash
+     *
+     * @param rawPassword Password as entered
+     * @param passwordHash Stored hash, or null if the account does not exist
+     * @return Future of whether the password matches; always false without a hash
+     * @throws ServiceUnavailableException if the hashing queue is full
+     */
+    public CompletableFuture<Boolean> matches(String rawPassword, String passwordHash) {
+        return submit(verifyTimer, () -> {
+            // Same cost for unknown accounts, so timing does not reveal them
+            boolean matches = encoder.matches(rawPassword, passwordHash != null ? passwordHash : unknownAccountHash);
+            return matches && passwordHash != null;
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> work) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                queueWaitTimer.record(start - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return work.get();
+                } finally {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many sign-ins in progress, please retry shortly", retryAfter);
+        }
+    }
+
+    private static Timer hashTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("krishhortus.password.hash")
+            .description("Time spent computing one password hash")
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+    }
+}
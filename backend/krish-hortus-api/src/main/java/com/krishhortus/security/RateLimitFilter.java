@@ -0,0 +1,111 @@
+package com.krishhortus.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krishhortus.dto.ApiResponse;
+import com.krishhortus.security.RateLimiter.EndpointClass;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the {@link RateLimiter} limits to tree and auth endpoints
+ *
+ * Runs in the security filter chain right after
+ * {@link JwtAuthenticationFilter}, so the caller is known:
+ * - Register, login, refresh and logout are limited per IP address
+ * - Other tree and auth endpoints are limited per authenticated user, or
+ *   per IP address for requests without a valid token
+ * - A request over its limit is answered 429 with {@code Retry-After} in
+ *   whole seconds, before any body is read or handler runs
+ *
+ * CORS preflight requests and other paths are not limited.
+ *
+ * Not a Spring bean on purpose, like {@link JwtAuthenticationFilter}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String TREES_PATH = "/api/trees";
+    private static final String AUTH_PATH = "/api/auth";
+    private static final String PROFILE_PATH = "/api/auth/profile";
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        if (endpointClass == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String client = endpointClass == EndpointClass.AUTH ? request.getRemoteAddr() : clientOf(request);
+        long waitNanos = rateLimiter.tryAcquire(endpointClass, client);
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Too many requests, please retry later"));
+    }
+
+    /**
+     * @return Endpoint class of the request, or null if it is not limited
+     */
+    private static EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if (HttpMethod.OPTIONS.matches(method)) {
+            return null;
+        }
+        if (isUnder(path, AUTH_PATH)) {
+            return path.equals(PROFILE_PATH) ? EndpointClass.READ : EndpointClass.AUTH;
+        }
+        if (!isUnder(path, TREES_PATH)) {
+            return null;
+        }
+        if (!HttpMethod.GET.matches(method)) {
+            return EndpointClass.WRITE;
+        }
+        String rest = path.substring(TREES_PATH.length());
+        if (rest.equals("/nearby") || rest.equals("/search") || rest.equals("/export")
+                || isUnder(rest, "/clusters")) {
+            return EndpointClass.GEO;
+        }
+        return EndpointClass.READ;
+    }
+
+    private static boolean isUnder(String path, String prefix) {
+        return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+    }
+
+    private static String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.id();
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,220 @@
+package com.krishhortus.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket rate limits per client and endpoint class
+ *
+ * Every client, a user id or an IP address, has one bucket per
+ * {@link EndpointClass}. A bucket holds up to {@code capacity} tokens,
+ * refills at {@code per-second} tokens a second, and each request takes a
+ * token. Buckets are kept as a single "theoretical arrival time" (the
+ * generic cell rate algorithm), so:
+ * - Taking a token is one compare-and-set on an {@link AtomicLong}, with no
+ *   lock and no allocation once the client's bucket exists
+ * - A bucket whose arrival time has passed is full and holds no state;
+ *   such idle buckets are removed periodically, and early when a class
+ *   has more than {@code max-clients} buckets
+ * - If a class still has more than {@code max-clients} buckets after that,
+ *   new clients share one overflow bucket until the next sweep
+ *
+ * A request racing with the removal of its idle bucket may go uncounted,
+ * which errs on the side of letting it through.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class RateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final String OVERFLOW_KEY = "";
+
+    /**
+     * Groups of endpoints sharing a limit, with their default capacity and
+     * refill rate per client
+     */
+    public enum EndpointClass {
+        /** Register, login, refresh and logout, per IP address */
+        AUTH(20, 1),
+        /** Nearby, cluster, search and export queries */
+        GEO(30, 10),
+        /** Tree creation, updates, deletion, verification and batch ingest */
+        WRITE(60, 20),
+        /** Other tree and profile reads */
+        READ(120, 60);
+
+        private final int defaultCapacity;
+        private final double defaultPerSecond;
+
+        EndpointClass(int defaultCapacity, double defaultPerSecond) {
+            this.defaultCapacity = defaultCapacity;
+            this.defaultPerSecond = defaultPerSecond;
+        }
+
+        /**
+         * @return Name in configuration and metrics
+         */
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Buckets and settings of one endpoint class
+     */
+    private static final class Limit {
+        final long intervalNanos;
+        final long burstNanos;
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final LongAdder rejected = new LongAdder();
+
+        Limit(int capacity, double perSecond) {
+            if (capacity < 1 || !(perSecond > 0)) {
+                throw new IllegalArgumentException("Rate limit capacity and per-second rate must be positive");
+            }
+            this.intervalNanos = Math.max(1, Math.round(1_000_000_000d / perSecond));
+            this.burstNanos = intervalNanos * capacity;
+        }
+    }
+
+    private final Map<EndpointClass, Limit> limits = new EnumMap<>(EndpointClass.class);
+    private final int maxClients;
+    private final Duration sweepInterval;
+    private final ScheduledExecutorService maintenance;
+    private final AtomicBoolean sweepRequested = new AtomicBoolean();
+
+    public RateLimiter(Environment environment,
+                       @Value("${krishhortus.rate-limit.max-clients:100000}") int maxClients,
+                       @Value("${krishhortus.rate-limit.sweep-interval:1m}") Duration sweepInterval) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "krishhortus.rate-limit." + endpointClass.key() + ".";
+            limits.put(endpointClass, new Limit(
+                environment.getProperty(prefix + "capacity", Integer.class, endpointClass.defaultCapacity),
+                environment.getProperty(prefix + "per-second", Double.class, endpointClass.defaultPerSecond)));
+        }
+        this.maxClients = maxClients;
+        this.sweepInterval = sweepInterval;
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void initialize() {
+        long interval = sweepInterval.toMillis();
+        maintenance.scheduleWithFixedDelay(this::sweep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenance.shutdownNow();
+    }
+
+    /**
+     * Take a token from a client's bucket
+     *
+     * @param endpointClass Endpoint class of the request
+     * @param client User id or IP address
+     * @return 0 if the request may proceed, otherwise nanoseconds until a
+     *         token will be available
+     */
+    public long tryAcquire(EndpointClass endpointClass, String client) {
+        Limit limit = limits.get(endpointClass);
+        AtomicLong bucket = limit.buckets.get(client);
+        if (bucket == null) {
+            bucket = newBucket(limit, client);
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + limit.intervalNanos;
+            long wait = next - now - limit.burstNanos;
+            if (wait > 0) {
+                limit.rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return Clients with a bucket in the class
+     */
+    public int clients(EndpointClass endpointClass) {
+        return limits.get(endpointClass).buckets.size();
+    }
+
+    /**
+     * @return Requests of the class rejected since startup
+     */
+    public long rejected(EndpointClass endpointClass) {
+        return limits.get(endpointClass).rejected.sum();
+    }
+
+    private AtomicLong newBucket(Limit limit, String client) {
+        if (limit.buckets.size() >= maxClients) {
+            requestSweep();
+            return limit.buckets.computeIfAbsent(OVERFLOW_KEY, key -> new AtomicLong(System.nanoTime()));
+        }
+        // Starts full: an arrival time in the past is a bucket with all tokens
+        return limit.buckets.computeIfAbsent(client, key -> new AtomicLong(System.nanoTime()));
+    }
+
+    private void requestSweep() {
+        if (sweepRequested.compareAndSet(false, true)) {
+            try {
+                maintenance.execute(this::sweep);
+            } catch (RejectedExecutionException e) {
+                sweepRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Remove full buckets, which are the same as no bucket
+     */
+    private void sweep() {
+        sweepRequested.set(false);
+        try {
+            int removed = 0;
+            for (Limit limit : limits.values()) {
+                long now = System.nanoTime();
+                for (Map.Entry<String, AtomicLong> entry : limit.buckets.entrySet()) {
+                    if (entry.getValue().get() - now <= 0 && limit.buckets.remove(entry.getKey(), entry.getValue())) {
+                        removed++;
+                    }
+                }
+            }
+            if (removed > 0) {
+                log.debug("Removed {} idle rate limit buckets", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rate limit bucket sweep failed", e);
+        }
+    }
+}
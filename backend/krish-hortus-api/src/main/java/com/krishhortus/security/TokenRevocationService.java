@@ -0,0 +1,218 @@
+package com.krishhortus.security;
+
+import com.krishhortus.exception.InvalidTokenException;
+import com.krishhortus.model.RevokedToken;
+import com.krishhortus.repository.RevokedTokenRepository;
+import com.krishhortus.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Revocation of tokens and login sessions without a lookup per request
+ *
+ * Revoked ids are stored in {@code revoked_tokens} and mirrored into an
+ * in-memory Bloom filter:
+ * - Checking an id that was never revoked, which is almost every request,
+ *   costs a constant-time filter lookup and no database access
+ * - Only when the filter reports a possible hit is the store queried, so
+ *   false positives cost one indexed lookup and never a wrong answer
+ * - The filter is rebuilt periodically from the store after expired
+ *   revocations are purged, and early if it fills up beyond its capacity
+ *
+ * Every token carries the id of its login session (token family). Logout
+ * revokes the family, which ends all access and refresh tokens of the
+ * session; access tokens are therefore checked by family. Refresh tokens
+ * are single use: refreshing revokes the presented token, and presenting
+ * it again is treated as theft and revokes the whole family.
+ *
+ * Other instances learn about revocations at their next rebuild.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    /**
+     * Why an id was revoked
+     */
+    public enum Reason {
+        /** Session ended by the user */
+        LOGOUT,
+        /** Refresh token exchanged for a new one */
+        ROTATED,
+        /** Refresh token presented after it was exchanged */
+        REUSED
+    }
+
+    private final RevokedTokenRepository repository;
+    private final long minimumCapacity;
+    private final double falsePositiveRate;
+    private final Duration familyLifetime;
+    private final Duration rebuildInterval;
+    private final ScheduledExecutorService maintenance;
+    private final AtomicBoolean rebuildRequested = new AtomicBoolean();
+    private final AtomicLong addedSinceRebuild = new AtomicLong();
+    private final LongAdder storeLookups = new LongAdder();
+    private volatile BloomFilter filter;
+    private volatile long filterCapacity;
+    private volatile long activeAtRebuild;
+    // Filter being populated by a rebuild; revocations made meanwhile go into both
+    private volatile BloomFilter rebuilding;
+
+    public TokenRevocationService(RevokedTokenRepository repository,
+                                  @Value("${krishhortus.security.revocation.expected-revocations:100000}") long minimumCapacity,
+                                  @Value("${krishhortus.security.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  @Value("${krishhortus.security.revocation.rebuild-interval:10m}") Duration rebuildInterval,
+                                  @Value("${krishhortus.security.jwt.refresh-expiration:2592000000}") long refreshExpirationMillis) {
+        this.repository = repository;
+        this.minimumCapacity = minimumCapacity;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildInterval = rebuildInterval;
+        // No token of a family outlives the last refresh token issued for it
+        this.familyLifetime = Duration.ofMillis(refreshExpirationMillis);
+        this.maintenance = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @PostConstruct
+    public void initialize() {
+        rebuild();
+        long interval = rebuildInterval.toMillis();
+        maintenance.scheduleWithFixedDelay(this::rebuild, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenance.shutdownNow();
+    }
+
+    /**
+     * @param user User and session of a verified access token
+     * @return Whether the token's session has been revoked
+     */
+    public boolean isRevoked(AuthenticatedUser user) {
+        return isRevoked(user.familyId());
+    }
+
+    /**
+     * @param id Token or family id
+     * @return Whether the id has been revoked and the revocation has not expired
+     */
+    public boolean isRevoked(String id) {
+        if (id == null || !filter.mightContain(id)) {
+            return false;
+        }
+        storeLookups.increment();
+        return repository.isRevoked(id, Instant.now());
+    }
+
+    /**
+     * End the session a token belongs to
+     *
+     * @param user User and session of a verified token
+     */
+    public void revokeSession(AuthenticatedUser user) {
+        revoke(user.familyId(), Instant.now().plus(familyLifetime), Reason.LOGOUT);
+    }
+
+    /**
+     * Accept a refresh token exactly once
+     *
+     * @param user User and session of a verified refresh token
+     * @throws InvalidTokenException if the session was revoked or the token was already used
+     */
+    public void consumeRefreshToken(AuthenticatedUser user) {
+        if (isRevoked(user.familyId())) {
+            throw new InvalidTokenException("Session has been revoked");
+        }
+        // The primary key makes the first use win, also under concurrent refreshes
+        if (!revoke(user.tokenId(), user.expiresAt(), Reason.ROTATED)) {
+            revoke(user.familyId(), Instant.now().plus(familyLifetime), Reason.REUSED);
+            throw new InvalidTokenException("Refresh token was already used; session has been revoked");
+        }
+    }
+
+    /**
+     * @return Revocations in force at the last rebuild plus those added since
+     */
+    public long activeRevocations() {
+        return activeAtRebuild + addedSinceRebuild.get();
+    }
+
+    /**
+     * @return Number of checks the filter could not answer alone
+     */
+    public long storeLookups() {
+        return storeLookups.sum();
+    }
+
+    private boolean revoke(String id, Instant expiresAt, Reason reason) {
+        if (id == null) {
+            throw new InvalidTokenException("Token has no id");
+        }
+        boolean inserted = repository.insert(new RevokedToken(id, expiresAt, Instant.now(), reason.name()));
+        // Rebuilding filter first: it is swapped in before being cleared, so
+        // whichever filter is live afterwards has seen the id
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.add(id);
+        }
+        filter.add(id);
+        if (inserted && addedSinceRebuild.incrementAndGet() > filterCapacity - activeAtRebuild
+                && rebuildRequested.compareAndSet(false, true)) {
+            // Past the sized capacity the false positive rate climbs; resize early
+            try {
+                maintenance.execute(this::rebuild);
+            } catch (RejectedExecutionException e) {
+                rebuildRequested.set(false);
+            }
+        }
+        return inserted;
+    }
+
+    /**
+     * Purge expired revocations and rebuild the filter from the store
+     */
+    private synchronized void rebuild() {
+        try {
+            Instant now = Instant.now();
+            repository.deleteExpired(now);
+            long active = repository.countActive(now);
+            long capacity = Math.max(minimumCapacity, active * 2);
+            BloomFilter next = new BloomFilter(capacity, falsePositiveRate);
+            // Published before reading the store: a revocation either commits
+            // before the read below or also lands in the new filter
+            rebuilding = next;
+            addedSinceRebuild.set(0);
+            repository.forEachActive(now, next::add);
+            filterCapacity = capacity;
+            activeAtRebuild = active;
+            filter = next;
+            rebuilding = null;
+        } catch (RuntimeException e) {
+            rebuilding = null;
+            if (filter == null) {
+                throw e;
+            }
+            log.warn("Rebuilding the token revocation filter failed", e);
+        } finally {
+            rebuildRequested.set(false);
+        }
+    }
+}
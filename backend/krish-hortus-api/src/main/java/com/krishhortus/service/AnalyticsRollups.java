@@ -0,0 +1,622 @@
+package com.krishhortus.service;
+
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.model.Tree;
+import com.krishhortus.util.LongObjectHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Incrementally maintained tree statistics per region and per category
+ *
+ * Backs the analytics dashboards, which would otherwise group every tree on
+ * each request. For every occupied H3 cell at the configured resolutions
+ * ({@code krishhortus.analytics.resolutions}), for every category and for
+ * all trees together this keeps:
+ * - The tree count and the verified tree count
+ * - Sum and count of height, trunk width and canopy spread, for the means
+ * - Trees per species and the running sum of {@code n ln n} over them, so
+ *   the Shannon diversity index never needs a pass over the species
+ *
+ * A write adjusts one aggregate per resolution, its category and the total;
+ * reading the statistics of a cell takes constant time.
+ *
+ * {@link #rebuild(Iterator, ForkJoinPool)} recomputes everything from the
+ * stored trees in parallel while writes continue.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class AnalyticsRollups {
+
+    private static final String UNKNOWN_CATEGORY = "UNKNOWN";
+    // Trees aggregated by one rebuild task before it splits
+    private static final int REBUILD_SPLIT_THRESHOLD = 1_000;
+
+    private final H3Service h3Service;
+    private final int[] resolutions;
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary species = new Dictionary();
+    private final StampedLock lock = new StampedLock();
+    private State state;
+    // Writes made while a rebuild runs, replayed onto its result; null values are deletions
+    private Map<String, Contribution> pendingWrites;
+
+    public AnalyticsRollups(H3Service h3Service,
+                            @Value("${krishhortus.analytics.resolutions:3,5,7}") int[] resolutions) {
+        if (resolutions.length == 0) {
+            throw new IllegalArgumentException("At least one analytics resolution is required");
+        }
+        for (int resolution : resolutions) {
+            if (resolution < 0 || resolution > 15) {
+                throw new IllegalArgumentException("Invalid analytics resolution: " + resolution);
+            }
+        }
+        this.h3Service = h3Service;
+        this.resolutions = Arrays.stream(resolutions).sorted().distinct().toArray();
+        this.state = new State();
+    }
+
+    /**
+     * @return Resolutions with rollups in ascending order (coarse to fine)
+     */
+    public int[] getResolutions() {
+        return resolutions.clone();
+    }
+
+    /**
+     * @param resolution H3 resolution
+     * @return Whether rollups are kept at the resolution
+     */
+    public boolean hasResolution(int resolution) {
+        return levelOf(resolution) >= 0;
+    }
+
+    /**
+     * Add a tree to the rollups or replace its previous state
+     *
+     * @param tree Current state of the tree
+     */
+    public void put(Observation tree) {
+        // Native H3 work happens outside the lock
+        Contribution contribution = contributionOf(tree);
+
+        long stamp = lock.writeLock();
+        try {
+            state.put(tree.id(), contribution);
+            if (pendingWrites != null) {
+                pendingWrites.put(tree.id(), contribution);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove a tree from the rollups (no-op if it is not present)
+     *
+     * @param id Tree identifier
+     */
+    public void remove(String id) {
+        long stamp = lock.writeLock();
+        try {
+            state.remove(id);
+            if (pendingWrites != null) {
+                pendingWrites.put(id, null);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Recompute every rollup from scratch
+     *
+     * Each slice is handed to the pool as soon as it is read and aggregated
+     * there by recursively split tasks; the partial rollups are then merged
+     * pairwise, also on the pool. Writes made meanwhile update the current
+     * rollups as usual and are replayed onto the rebuilt ones before those
+     * replace them, so a write is kept whether or not the slices saw it.
+     *
+     * @param slices Every stored tree, in slices with distinct ids
+     * @param pool Pool to aggregate on
+     * @return Number of trees in the rebuilt rollups
+     */
+    public synchronized int rebuild(Iterator<List<Observation>> slices, ForkJoinPool pool) {
+        long stamp = lock.writeLock();
+        try {
+            pendingWrites = new HashMap<>();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+
+        try {
+            List<ForkJoinTask<State>> parts = new ArrayList<>();
+            while (slices.hasNext()) {
+                List<Observation> slice = slices.next();
+                if (!slice.isEmpty()) {
+                    parts.add(pool.submit(new AggregateTask(slice, 0, slice.size())));
+                }
+            }
+            State rebuilt = parts.isEmpty() ? new State() : pool.invoke(new MergeTask(parts, 0, parts.size()));
+
+            stamp = lock.writeLock();
+            try {
+                pendingWrites.forEach((id, contribution) -> {
+                    if (contribution != null) {
+                        rebuilt.put(id, contribution);
+                    } else {
+                        rebuilt.remove(id);
+                    }
+                });
+                state = rebuilt;
+                return rebuilt.contributions.size();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        } finally {
+            stamp = lock.writeLock();
+            try {
+                pendingWrites = null;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Read the statistics of the given cells
+     *
+     * @param cells Cells at a single resolution with rollups
+     * @param resolution Resolution of the cells
+     * @return Statistics per occupied cell; empty cells are omitted
+     */
+    public List<CellStats> lookup(List<Long> cells, int resolution) {
+        int level = requireLevel(resolution);
+        List<CellStats> result = new ArrayList<>();
+
+        long stamp = lock.readLock();
+        try {
+            LongObjectHashMap<Aggregate> aggregates = state.levels[level];
+            for (int i = 0, n = cells.size(); i < n; i++) {
+                long cell = cells.get(i);
+                Aggregate aggregate = aggregates.get(cell);
+                if (aggregate != null) {
+                    result.add(new CellStats(h3Service.toAddress(cell), resolution, aggregate.stats()));
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return result;
+    }
+
+    /**
+     * Read the statistics of every occupied cell at a resolution
+     *
+     * @param resolution Resolution with rollups
+     * @return Statistics per occupied cell, in no particular order
+     */
+    public List<CellStats> occupied(int resolution) {
+        int level = requireLevel(resolution);
+        List<CellStats> result = new ArrayList<>();
+
+        long stamp = lock.readLock();
+        try {
+            state.levels[level].forEach((cell, aggregate) ->
+                result.add(new CellStats(h3Service.toAddress(cell), resolution, aggregate.stats())));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return result;
+    }
+
+    /**
+     * @return Statistics over all trees
+     */
+    public Stats total() {
+        long stamp = lock.readLock();
+        try {
+            return state.total.stats();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Read the statistics of every category
+     *
+     * @param topSpecies Most common species to list per category
+     * @return Statistics per category with trees, in no particular order
+     */
+    public List<CategoryStats> byCategory(int topSpecies) {
+        List<CategoryStats> result = new ArrayList<>();
+
+        long stamp = lock.readLock();
+        try {
+            state.byCategory.forEach((category, aggregate) ->
+                result.add(new CategoryStats(categories.nameOf(category.intValue()), aggregate.stats(),
+                    aggregate.topSpecies(topSpecies, species))));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+        return result;
+    }
+
+    private Contribution contributionOf(Observation tree) {
+        long[] cells = new long[resolutions.length];
+        int finest = resolutions.length - 1;
+        cells[finest] = h3Service.cellFor(tree.lat(), tree.lng(), resolutions[finest]);
+        for (int i = 0; i < finest; i++) {
+            cells[i] = h3Service.parent(cells[finest], resolutions[i]);
+        }
+
+        String category = tree.category() != null ? tree.category() : UNKNOWN_CATEGORY;
+        String scientificName = tree.scientificName() != null ? tree.scientificName().trim() : "";
+        int speciesId = scientificName.isEmpty() ? 0
+            : species.idOf(scientificName.toLowerCase(Locale.ROOT), scientificName);
+        return new Contribution(cells, categories.idOf(category, category), speciesId, tree.verified(),
+            valueOf(tree.height()), valueOf(tree.trunkWidth()), valueOf(tree.canopySpread()));
+    }
+
+    private static double valueOf(Double measurement) {
+        return measurement != null ? measurement : Double.NaN;
+    }
+
+    private int levelOf(int resolution) {
+        return Arrays.binarySearch(resolutions, resolution);
+    }
+
+    private int requireLevel(int resolution) {
+        int level = levelOf(resolution);
+        if (level < 0) {
+            throw new IllegalArgumentException("No analytics at resolution " + resolution
+                + " (available: " + Arrays.toString(resolutions) + ")");
+        }
+        return level;
+    }
+
+    /**
+     * Tree attributes the rollups aggregate
+     *
+     * @param id Tree identifier
+     * @param lat Latitude in degrees
+     * @param lng Longitude in degrees
+     * @param category Tree category (may be null)
+     * @param scientificName Scientific name (may be null)
+     * @param verified Whether the tree is verified
+     * @param height Height in meters (may be null)
+     * @param trunkWidth Trunk width (may be null)
+     * @param canopySpread Canopy spread (may be null)
+     */
+    public record Observation(String id, double lat, double lng, String category, String scientificName,
+                              boolean verified, Double height, Double trunkWidth, Double canopySpread) {
+
+        public static Observation of(Tree tree) {
+            return new Observation(tree.getId(), tree.getLat(), tree.getLng(), tree.getCategory(),
+                tree.getScientificName(), tree.isVerified(), tree.getHeight(), tree.getTrunkWidth(),
+                tree.getCanopySpread());
+        }
+    }
+
+    /**
+     * Statistics of a group of trees
+     *
+     * @param count Number of trees
+     * @param verified Number of verified trees
+     * @param verifiedRatio Share of verified trees (0 for no trees)
+     * @param meanHeight Mean height of the trees with a height, or null if none has one
+     * @param meanTrunkWidth Mean trunk width, or null if no tree has one
+     * @param meanCanopySpread Mean canopy spread, or null if no tree has one
+     * @param speciesCount Number of distinct species
+     * @param shannonDiversity Shannon diversity index over the species (natural log)
+     */
+    public record Stats(int count, int verified, double verifiedRatio, Double meanHeight, Double meanTrunkWidth,
+                        Double meanCanopySpread, int speciesCount, double shannonDiversity) {
+    }
+
+    /**
+     * Statistics of one H3 cell
+     *
+     * @param h3Index H3 cell address
+     * @param resolution Resolution of the cell
+     * @param stats Statistics of the trees in the cell
+     */
+    public record CellStats(String h3Index, int resolution, Stats stats) {
+    }
+
+    /**
+     * Statistics of one category
+     *
+     * @param category Category name
+     * @param stats Statistics of the trees in the category
+     * @param topSpecies Most common species, most trees first
+     */
+    public record CategoryStats(String category, Stats stats, List<SpeciesCount> topSpecies) {
+    }
+
+    /**
+     * @param scientificName Scientific name as first recorded
+     * @param count Number of trees of the species
+     */
+    public record SpeciesCount(String scientificName, int count) {
+    }
+
+    /**
+     * What a single tree contributed to the rollups, kept so it can be
+     * subtracted again on update or delete; missing measurements are NaN
+     * and species 0 means none
+     */
+    private record Contribution(long[] cells, int category, int species, boolean verified,
+                                double height, double trunkWidth, double canopySpread) {
+    }
+
+    /**
+     * Aggregates of all trees at one point in time
+     */
+    private final class State {
+        @SuppressWarnings("unchecked")
+        final LongObjectHashMap<Aggregate>[] levels = new LongObjectHashMap[resolutions.length];
+        final LongObjectHashMap<Aggregate> byCategory = new LongObjectHashMap<>();
+        final Aggregate total = new Aggregate();
+        final Map<String, Contribution> contributions = new HashMap<>();
+
+        State() {
+            for (int i = 0; i < levels.length; i++) {
+                levels[i] = new LongObjectHashMap<>(1 << 8);
+            }
+        }
+
+        void put(String id, Contribution contribution) {
+            Contribution previous = contributions.put(id, contribution);
+            if (previous != null) {
+                apply(previous, -1);
+            }
+            apply(contribution, 1);
+        }
+
+        void remove(String id) {
+            Contribution previous = contributions.remove(id);
+            if (previous != null) {
+                apply(previous, -1);
+            }
+        }
+
+        /**
+         * Add the aggregates of another state holding different trees
+         */
+        void merge(State other) {
+            for (int i = 0; i < levels.length; i++) {
+                LongObjectHashMap<Aggregate> level = levels[i];
+                other.levels[i].forEach((cell, aggregate) -> aggregateOf(level, cell).merge(aggregate));
+            }
+            other.byCategory.forEach((category, aggregate) -> aggregateOf(byCategory, category).merge(aggregate));
+            total.merge(other.total);
+            contributions.putAll(other.contributions);
+        }
+
+        private void apply(Contribution contribution, int delta) {
+            for (int i = 0; i < levels.length; i++) {
+                add(levels[i], contribution.cells()[i], contribution, delta);
+            }
+            add(byCategory, contribution.category(), contribution, delta);
+            total.add(contribution, delta);
+        }
+
+        private static void add(LongObjectHashMap<Aggregate> aggregates, long key, Contribution contribution,
+                                int delta) {
+            Aggregate aggregate = aggregateOf(aggregates, key);
+            aggregate.add(contribution, delta);
+            if (aggregate.count == 0) {
+                aggregates.remove(key);
+            }
+        }
+
+        private static Aggregate aggregateOf(LongObjectHashMap<Aggregate> aggregates, long key) {
+            Aggregate aggregate = aggregates.get(key);
+            if (aggregate == null) {
+                aggregate = new Aggregate();
+                aggregates.put(key, aggregate);
+            }
+            return aggregate;
+        }
+    }
+
+    private static final class Aggregate {
+        int count;
+        int verified;
+        double heightSum;
+        int heightCount;
+        double trunkWidthSum;
+        int trunkWidthCount;
+        double canopySpreadSum;
+        int canopySpreadCount;
+        // Trees per species id, the trees with a species and the sum of n ln n over species
+        final LongObjectHashMap<int[]> speciesCounts = new LongObjectHashMap<>(8);
+        int speciesTrees;
+        double speciesNLogN;
+
+        void add(Contribution contribution, int delta) {
+            count += delta;
+            if (contribution.verified()) {
+                verified += delta;
+            }
+            if (!Double.isNaN(contribution.height())) {
+                heightSum += delta * contribution.height();
+                heightCount += delta;
+            }
+            if (!Double.isNaN(contribution.trunkWidth())) {
+                trunkWidthSum += delta * contribution.trunkWidth();
+                trunkWidthCount += delta;
+            }
+            if (!Double.isNaN(contribution.canopySpread())) {
+                canopySpreadSum += delta * contribution.canopySpread();
+                canopySpreadCount += delta;
+            }
+            if (contribution.species() != 0) {
+                addSpecies(contribution.species(), delta);
+            }
+        }
+
+        void merge(Aggregate other) {
+            count += other.count;
+            verified += other.verified;
+            heightSum += other.heightSum;
+            heightCount += other.heightCount;
+            trunkWidthSum += other.trunkWidthSum;
+            trunkWidthCount += other.trunkWidthCount;
+            canopySpreadSum += other.canopySpreadSum;
+            canopySpreadCount += other.canopySpreadCount;
+            other.speciesCounts.forEach((id, trees) -> addSpecies(id, trees[0]));
+        }
+
+        private void addSpecies(long id, int delta) {
+            int[] trees = speciesCounts.get(id);
+            int before = trees != null ? trees[0] : 0;
+            int after = before + delta;
+            speciesNLogN += nLogN(after) - nLogN(before);
+            speciesTrees += delta;
+            if (after == 0) {
+                speciesCounts.remove(id);
+            } else if (trees == null) {
+                speciesCounts.put(id, new int[] {after});
+            } else {
+                trees[0] = after;
+            }
+        }
+
+        Stats stats() {
+            // H = ln N - (sum of n ln n) / N; clamped against rounding drift
+            double diversity = speciesTrees > 0
+                ? Math.max(0, Math.log(speciesTrees) - speciesNLogN / speciesTrees) : 0;
+            return new Stats(count, verified, count > 0 ? (double) verified / count : 0,
+                mean(heightSum, heightCount), mean(trunkWidthSum, trunkWidthCount),
+                mean(canopySpreadSum, canopySpreadCount), speciesCounts.size(), diversity);
+        }
+
+        List<SpeciesCount> topSpecies(int limit, Dictionary names) {
+            List<SpeciesCount> all = new ArrayList<>(speciesCounts.size());
+            speciesCounts.forEach((id, trees) -> all.add(new SpeciesCount(names.nameOf(id.intValue()), trees[0])));
+            all.sort(Comparator.comparingInt(SpeciesCount::count).reversed()
+                .thenComparing(SpeciesCount::scientificName));
+            return all.size() > limit ? new ArrayList<>(all.subList(0, limit)) : all;
+        }
+
+        private static Double mean(double sum, int count) {
+            return count > 0 ? sum / count : null;
+        }
+
+        private static double nLogN(int n) {
+            return n > 0 ? n * Math.log(n) : 0;
+        }
+    }
+
+    /**
+     * Dense ids for category and species names, shared by the current
+     * rollups and concurrent rebuild tasks; ids are never reused and start
+     * at 1, as {@link LongObjectHashMap} reserves key 0
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final List<String> names = new CopyOnWriteArrayList<>();
+
+        int idOf(String key, String name) {
+            Integer id = ids.get(key);
+            if (id != null) {
+                return id;
+            }
+            synchronized (this) {
+                return ids.computeIfAbsent(key, k -> {
+                    names.add(name);
+                    return names.size();
+                });
+            }
+        }
+
+        String nameOf(int id) {
+            return names.get(id - 1);
+        }
+    }
+
+    /**
+     * Aggregates a range of a slice, splitting it while it is large
+     *
+     * State is qualified in the tasks because from Java 21 they also
+     * inherit the unrelated {@code Future.State}.
+     */
+    private final class AggregateTask extends RecursiveTask<AnalyticsRollups.State> {
+        private final List<Observation> trees;
+        private final int from;
+        private final int to;
+
+        AggregateTask(List<Observation> trees, int from, int to) {
+            this.trees = trees;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected AnalyticsRollups.State compute() {
+            if (to - from > REBUILD_SPLIT_THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                AggregateTask left = new AggregateTask(trees, from, middle);
+                left.fork();
+                AnalyticsRollups.State right = new AggregateTask(trees, middle, to).compute();
+                AnalyticsRollups.State merged = left.join();
+                merged.merge(right);
+                return merged;
+            }
+            AnalyticsRollups.State part = new AnalyticsRollups.State();
+            for (int i = from; i < to; i++) {
+                Observation tree = trees.get(i);
+                part.put(tree.id(), contributionOf(tree));
+            }
+            return part;
+        }
+    }
+
+    /**
+     * Merges the results of slice tasks pairwise
+     */
+    private static final class MergeTask extends RecursiveTask<AnalyticsRollups.State> {
+        private final List<ForkJoinTask<AnalyticsRollups.State>> parts;
+        private final int from;
+        private final int to;
+
+        MergeTask(List<ForkJoinTask<AnalyticsRollups.State>> parts, int from, int to) {
+            this.parts = parts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected AnalyticsRollups.State compute() {
+            if (to - from == 1) {
+                return parts.get(from).join();
+            }
+            int middle = (from + to) >>> 1;
+            MergeTask left = new MergeTask(parts, from, middle);
+            left.fork();
+            AnalyticsRollups.State right = new MergeTask(parts, middle, to).compute();
+            AnalyticsRollups.State merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+    }
+}
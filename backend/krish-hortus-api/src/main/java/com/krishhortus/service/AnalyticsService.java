@@ -0,0 +1,262 @@
+package com.krishhortus.service;
+
+import com.krishhortus.geo.BoundingBox;
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.repository.TreeRepository;
+import com.krishhortus.repository.TreeRepository.TreeAnalyticsView;
+import com.krishhortus.service.AnalyticsRollups.CategoryStats;
+import com.krishhortus.service.AnalyticsRollups.CellStats;
+import com.krishhortus.service.AnalyticsRollups.Observation;
+import com.krishhortus.service.AnalyticsRollups.Stats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regional and species analytics for the dashboards
+ *
+ * Answers from the {@link AnalyticsRollups}, which {@link TreeService}
+ * updates on every write, so no request scans or groups trees:
+ * - Regional: statistics per H3 cell, for given cells, the cells covering
+ *   a bounding box, or every occupied cell, most trees first
+ * - Species: statistics per category with its most common species
+ *
+ * The rollups are rebuilt from the stored trees at startup and then
+ * periodically ({@code krishhortus.analytics.rebuild-interval}), which also
+ * clears rounding drift of the running sums. A rebuild reads the trees in
+ * keyset-ordered slices and aggregates them on a fork-join pool of
+ * {@code krishhortus.analytics.rebuild-parallelism} threads while reading
+ * continues.
+ *
+ * Published metrics: {@code krishhortus.analytics.rebuild} (time per rebuild).
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class AnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsService.class);
+
+    private static final int LOAD_BATCH = 10_000;
+    private static final int MAX_CELLS = 1_000;
+    private static final int MAX_TOP_SPECIES = 100;
+
+    private final TreeRepository treeRepository;
+    private final AnalyticsRollups analyticsRollups;
+    private final H3Service h3Service;
+    private final Duration rebuildInterval;
+    private final int maxCoverCells;
+    private final ForkJoinPool rebuildPool;
+    private final ScheduledExecutorService maintenance;
+    private final Timer rebuildTimer;
+
+    public AnalyticsService(TreeRepository treeRepository,
+                            AnalyticsRollups analyticsRollups,
+                            H3Service h3Service,
+                            @Value("${krishhortus.analytics.rebuild-interval:6h}") Duration rebuildInterval,
+                            @Value("${krishhortus.analytics.rebuild-parallelism:0}") int rebuildParallelism,
+                            @Value("${krishhortus.h3.cluster-max-cells:2000}") int maxCoverCells,
+                            MeterRegistry meterRegistry) {
+        this.treeRepository = treeRepository;
+        this.analyticsRollups = analyticsRollups;
+        this.h3Service = h3Service;
+        this.rebuildInterval = rebuildInterval;
+        this.maxCoverCells = maxCoverCells;
+        this.rebuildPool = new ForkJoinPool(rebuildParallelism > 0
+            ? rebuildParallelism : Runtime.getRuntime().availableProcessors());
+        this.maintenance = Executors.newSingleThreadScheduledExecutor();
+        this.rebuildTimer = Timer.builder("krishhortus.analytics.rebuild")
+            .description("Time to rebuild the analytics rollups from the stored trees")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void initialize() {
+        rebuild();
+        long interval = rebuildInterval.toMillis();
+        maintenance.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Rebuilding the analytics rollups failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        maintenance.shutdownNow();
+        rebuildPool.shutdownNow();
+    }
+
+    /**
+     * Recompute the analytics rollups from the stored trees
+     *
+     * @return Number of trees aggregated
+     */
+    public int rebuild() {
+        long start = System.nanoTime();
+        int trees = analyticsRollups.rebuild(new SliceIterator(), rebuildPool);
+        rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        log.info("Analytics rollups rebuilt with {} trees in {} ms", trees,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return trees;
+    }
+
+    /**
+     * Get statistics per H3 cell
+     *
+     * @param resolution Resolution of the cells; null for the coarsest, or the
+     *                   resolution of {@code cells} when those are given
+     * @param box Optional bounding box whose covering cells are returned
+     * @param cells Optional H3 cells to return, all at one resolution
+     * @param limit Maximum number of cells to return
+     * @return Occupied cells, most trees first
+     */
+    public RegionalResult regional(Integer resolution, BoundingBox box, List<String> cells, int limit) {
+        if (limit <= 0 || limit > MAX_CELLS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_CELLS);
+        }
+        if (box != null && cells != null) {
+            throw new IllegalArgumentException("Give either bbox or cells, not both");
+        }
+
+        List<Long> ids = null;
+        if (cells != null) {
+            if (cells.isEmpty()) {
+                throw new IllegalArgumentException("At least one cell is required");
+            }
+            ids = new ArrayList<>(cells.size());
+            for (String cell : cells) {
+                ids.add(h3Service.toCell(cell.trim()));
+            }
+        }
+        int level = resolution != null ? resolution
+            : ids != null ? h3Service.resolutionOf(ids.get(0)) : analyticsRollups.getResolutions()[0];
+        if (!analyticsRollups.hasResolution(level)) {
+            throw new IllegalArgumentException("No analytics at resolution " + level
+                + " (available: " + Arrays.toString(analyticsRollups.getResolutions()) + ")");
+        }
+
+        List<CellStats> stats;
+        if (ids != null) {
+            for (long id : ids) {
+                if (h3Service.resolutionOf(id) != level) {
+                    throw new IllegalArgumentException("All cells must have resolution " + level);
+                }
+            }
+            stats = analyticsRollups.lookup(ids, level);
+        } else if (box != null) {
+            if (box.areaSquareMeters() / h3Service.cellAreaSquareMeters(level) > maxCoverCells) {
+                throw new IllegalArgumentException("Bounding box covers too many cells at resolution " + level
+                    + "; use a coarser resolution");
+            }
+            // Buffer by one edge so cells straddling the box border are included
+            BoundingBox covered = box.expand(h3Service.edgeLengthMeters(level));
+            stats = analyticsRollups.lookup(h3Service.cover(covered, level), level);
+        } else {
+            stats = analyticsRollups.occupied(level);
+        }
+
+        int occupied = stats.size();
+        stats.sort(Comparator.comparingInt((CellStats cell) -> cell.stats().count()).reversed()
+            .thenComparing(CellStats::h3Index));
+        if (stats.size() > limit) {
+            stats = stats.subList(0, limit);
+        }
+        return new RegionalResult(level, occupied, stats);
+    }
+
+    /**
+     * Get statistics per category
+     *
+     * @param category Optional category to restrict the result to
+     * @param topSpecies Most common species to list per category
+     * @return Statistics of all trees and per category, most trees first
+     */
+    public SpeciesResult species(String category, int topSpecies) {
+        if (topSpecies < 0 || topSpecies > MAX_TOP_SPECIES) {
+            throw new IllegalArgumentException("Top species must be between 0 and " + MAX_TOP_SPECIES);
+        }
+        Stats total = analyticsRollups.total();
+        List<CategoryStats> categories = new ArrayList<>();
+        for (CategoryStats stats : analyticsRollups.byCategory(topSpecies)) {
+            if (category == null || stats.category().equalsIgnoreCase(category)) {
+                categories.add(stats);
+            }
+        }
+        categories.sort(Comparator.comparingInt((CategoryStats stats) -> stats.stats().count()).reversed()
+            .thenComparing(CategoryStats::category));
+        return new SpeciesResult(total, categories);
+    }
+
+    /**
+     * Statistics per cell
+     *
+     * @param resolution H3 resolution of the cells
+     * @param occupiedCells Number of occupied cells matching the request before the limit
+     * @param cells Occupied cells, most trees first
+     */
+    public record RegionalResult(int resolution, int occupiedCells, List<CellStats> cells) {
+    }
+
+    /**
+     * Statistics per category
+     *
+     * @param total Statistics of all trees
+     * @param categories Statistics per category, most trees first
+     */
+    public record SpeciesResult(Stats total, List<CategoryStats> categories) {
+    }
+
+    /**
+     * Reads every tree in keyset-ordered slices, one query per slice
+     */
+    private final class SliceIterator implements Iterator<List<Observation>> {
+        private String afterId = "";
+        private boolean exhausted;
+
+        @Override
+        public boolean hasNext() {
+            return !exhausted;
+        }
+
+        @Override
+        public List<Observation> next() {
+            if (exhausted) {
+                throw new NoSuchElementException();
+            }
+            List<TreeAnalyticsView> slice = treeRepository.findAnalyticsAfter(afterId, PageRequest.of(0, LOAD_BATCH));
+            List<Observation> trees = new ArrayList<>(slice.size());
+            for (TreeAnalyticsView view : slice) {
+                trees.add(new Observation(view.getId(), view.getLat(), view.getLng(), view.getCategory(),
+                    view.getScientificName(), view.getVerified(), view.getHeight(), view.getTrunkWidth(),
+                    view.getCanopySpread()));
+            }
+            if (!slice.isEmpty()) {
+                afterId = slice.get(slice.size() - 1).getId();
+            }
+            exhausted = slice.size() < LOAD_BATCH;
+            return trees;
+        }
+    }
+}
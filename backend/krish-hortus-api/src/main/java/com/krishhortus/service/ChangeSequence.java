@@ -0,0 +1,97 @@
+package com.krishhortus.service;
+
+import com.krishhortus.repository.TreeChangeRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.TreeSet;
+
+/**
+ * Monotonic change sequence for tree writes
+ *
+ * Every create, update, verify and delete takes the next sequence number
+ * before it is written. Numbers are handed out in order but writes commit
+ * in any order, so a reader must not see sequence {@code n} before every
+ * smaller number has either committed or failed. Writers therefore
+ * register their numbers while in flight and {@link #stableSequence()}
+ * reports a position that is final:
+ * - It is below every write still in flight
+ * - It never exceeds the highest committed number, so it survives a
+ *   restart even if the last numbers handed out were never stored
+ *
+ * Clients resume from the stable sequence on their next sync and miss
+ * nothing. Like the spatial index this assumes a single application
+ * instance writes the store.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class ChangeSequence {
+
+    private final TreeChangeRepository treeChangeRepository;
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    private long last;
+    private long maxCommitted;
+
+    public ChangeSequence(TreeChangeRepository treeChangeRepository) {
+        this.treeChangeRepository = treeChangeRepository;
+    }
+
+    /**
+     * Continue numbering after the highest sequence in the store
+     *
+     * Called once the schema is available, before the first write.
+     */
+    public synchronized void reset() {
+        inFlight.clear();
+        last = treeChangeRepository.maxSequence();
+        maxCommitted = last;
+    }
+
+    /**
+     * Reserve the next sequence number for a write
+     *
+     * @return The reserved sequence number; release it with {@link #end(long)}
+     */
+    public long begin() {
+        return begin(1);
+    }
+
+    /**
+     * Reserve a contiguous block of sequence numbers for a batch write
+     *
+     * @param count Number of sequence numbers to reserve
+     * @return First number of the block; release the block with {@link #end(long)}
+     */
+    public synchronized long begin(int count) {
+        long first = last + 1;
+        last += count;
+        inFlight.add(first);
+        return first;
+    }
+
+    /**
+     * Record that a write stamped with the given number has committed
+     *
+     * @param seq Committed sequence number
+     */
+    public synchronized void committed(long seq) {
+        maxCommitted = Math.max(maxCommitted, seq);
+    }
+
+    /**
+     * Release a reservation once its write has committed or failed
+     *
+     * @param first Number returned by {@link #begin()} or {@link #begin(int)}
+     */
+    public synchronized void end(long first) {
+        inFlight.remove(first);
+    }
+
+    /**
+     * @return Highest sequence number up to which every change is committed and visible
+     */
+    public synchronized long stableSequence() {
+        return inFlight.isEmpty() ? maxCommitted : Math.min(maxCommitted, inFlight.first() - 1);
+    }
+}
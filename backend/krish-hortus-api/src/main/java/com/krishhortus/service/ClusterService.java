@@ -0,0 +1,94 @@
+package com.krishhortus.service;
+
+import com.krishhortus.geo.BoundingBox;
+import com.krishhortus.geo.ClusterRollups;
+import com.krishhortus.geo.ClusterRollups.ClusterCell;
+import com.krishhortus.geo.H3Service;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Map clustering service
+ *
+ * Translates a map viewport (bounding box and zoom level) into an H3
+ * resolution and reads the precomputed {@link ClusterRollups} for the cells
+ * covering it. The resolution is chosen so the number of cells stays roughly
+ * constant per viewport, which keeps response size and latency independent
+ * of the number of trees in view.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class ClusterService {
+
+    private final H3Service h3Service;
+    private final ClusterRollups clusterRollups;
+    private final int maxCells;
+
+    public ClusterService(H3Service h3Service,
+                          ClusterRollups clusterRollups,
+                          @Value("${krishhortus.h3.cluster-max-cells:2000}") int maxCells) {
+        this.h3Service = h3Service;
+        this.clusterRollups = clusterRollups;
+        this.maxCells = maxCells;
+    }
+
+    /**
+     * Get tree clusters for a map viewport
+     *
+     * @param box Visible bounding box
+     * @param zoom Web map zoom level (0-22)
+     * @return Clusters at the chosen resolution
+     */
+    public ClusterResult getClusters(BoundingBox box, int zoom) {
+        if (zoom < 0 || zoom > 22) {
+            throw new IllegalArgumentException("Zoom must be between 0 and 22");
+        }
+
+        // Step to coarser cells if the viewport would need too many of them
+        int resolution = resolutionForZoom(zoom);
+        double area = box.areaSquareMeters();
+        while (resolution > clusterRollups.getMinResolution()
+            && area / h3Service.cellAreaSquareMeters(resolution) > maxCells) {
+            resolution--;
+        }
+
+        // Buffer by one edge so cells straddling the viewport border are included
+        BoundingBox covered = box.expand(h3Service.edgeLengthMeters(resolution));
+        List<ClusterCell> clusters = clusterRollups.lookup(h3Service.cover(covered, resolution), resolution);
+
+        int total = 0;
+        for (ClusterCell cluster : clusters) {
+            total += cluster.count();
+        }
+        return new ClusterResult(resolution, total, clusters);
+    }
+
+    /**
+     * Map a web map zoom level to an H3 resolution
+     *
+     * Each zoom level halves the tile width while each H3 resolution shrinks
+     * cell edges by about 2.6x, so roughly every second zoom step moves to the
+     * next resolution. Clamped to the configured rollup range.
+     *
+     * @param zoom Web map zoom level
+     * @return H3 resolution
+     */
+    int resolutionForZoom(int zoom) {
+        int resolution = zoom / 2 + 1;
+        return Math.max(clusterRollups.getMinResolution(), Math.min(clusterRollups.getMaxResolution(), resolution));
+    }
+
+    /**
+     * Clusters for a viewport
+     *
+     * @param resolution H3 resolution of the returned cells
+     * @param totalCount Sum of the cluster counts
+     * @param clusters Occupied cells with their rollups
+     */
+    public record ClusterResult(int resolution, int totalCount, List<ClusterCell> clusters) {
+    }
+}
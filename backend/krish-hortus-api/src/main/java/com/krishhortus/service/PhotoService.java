@@ -0,0 +1,118 @@
+package com.krishhortus.service;
+
+import com.krishhortus.metrics.TreeMetrics;
+import com.krishhortus.metrics.TreeMetrics.Operation;
+import com.krishhortus.metrics.TreeMetrics.Stage;
+import com.krishhortus.model.PhotoSlot;
+import com.krishhortus.model.Tree;
+import com.krishhortus.storage.PhotoStore;
+import com.krishhortus.storage.PhotoStore.StoredPhoto;
+import com.krishhortus.storage.PhotoVariantService;
+import com.krishhortus.util.MultipartReader;
+import com.krishhortus.util.MultipartReader.Part;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Tree photo uploads
+ *
+ * Reads a multipart upload part by part while it arrives, stores each photo
+ * in the {@link PhotoStore} and links the photos to the slots of a tree in
+ * one tree write, so caches, delta sync and the live feed see a single
+ * update. The tree is looked up before the first photo is stored, so an
+ * upload for an unknown tree is rejected without writing anything. Resized
+ * variants are generated in the background by {@link PhotoVariantService}
+ * once the photos are linked.
+ *
+ * Expected form fields, in this order:
+ * - {@code treeId}, unless given as query parameter
+ * - One file per slot to fill, named after the slot ({@code tree},
+ *   {@code leaves}, {@code bark}, {@code fruit}, {@code flower})
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class PhotoService {
+
+    private static final String TREE_ID_FIELD = "treeId";
+    private static final int MAX_TREE_ID_LENGTH = 64;
+
+    private final PhotoStore photoStore;
+    private final PhotoVariantService photoVariantService;
+    private final TreeService treeService;
+    private final TreeMetrics treeMetrics;
+
+    public PhotoService(PhotoStore photoStore, PhotoVariantService photoVariantService, TreeService treeService,
+                        TreeMetrics treeMetrics) {
+        this.photoStore = photoStore;
+        this.photoVariantService = photoVariantService;
+        this.treeService = treeService;
+        this.treeMetrics = treeMetrics;
+    }
+
+    /**
+     * Store the photos of a multipart upload and link them to a tree
+     *
+     * @param body Request body
+     * @param contentType Request content type, carrying the multipart boundary
+     * @param treeId Tree identifier from the query string, or null if sent as form field
+     * @return The updated tree
+     * @throws IOException if reading the upload or writing a photo fails
+     */
+    public Tree upload(InputStream body, String contentType, String treeId) throws IOException {
+        MultipartReader reader = new MultipartReader(body, MultipartReader.boundaryOf(contentType));
+        Map<PhotoSlot, String> photos = new EnumMap<>(PhotoSlot.class);
+        boolean treeChecked = false;
+
+        long start = System.nanoTime();
+        Part part;
+        while ((part = reader.next()) != null) {
+            if (part.name().equals(TREE_ID_FIELD) && !part.isFile()) {
+                String value = part.readText(MAX_TREE_ID_LENGTH).trim();
+                if (treeId != null && !treeId.equals(value)) {
+                    throw new IllegalArgumentException("treeId form field does not match the treeId parameter");
+                }
+                treeId = value;
+                continue;
+            }
+
+            PhotoSlot slot = PhotoSlot.fromFieldName(part.name());
+            if (slot == null || !part.isFile()) {
+                throw new IllegalArgumentException("Unexpected upload field: " + part.name()
+                    + " (expected treeId or a photo named tree, leaves, bark, fruit or flower)");
+            }
+            if (treeId == null) {
+                throw new IllegalArgumentException("treeId must be sent before the photos");
+            }
+            if (!treeChecked) {
+                // Throws for unknown trees before anything is stored
+                treeService.getById(treeId);
+                treeChecked = true;
+            }
+            if (photos.containsKey(slot)) {
+                throw new IllegalArgumentException("More than one photo for slot " + slot.fieldName());
+            }
+
+            StoredPhoto photo = photoStore.store(part);
+            photos.put(slot, photo.id());
+        }
+        if (photos.isEmpty()) {
+            throw new IllegalArgumentException("No photos uploaded");
+        }
+        start = treeMetrics.record(Stage.PHOTO_UPLOAD_STORE, start);
+
+        Tree tree = treeService.attachPhotos(treeId, photos);
+        treeMetrics.record(Stage.PHOTO_UPLOAD_LINK, start);
+        treeMetrics.recordResultSize(Operation.PHOTO_UPLOAD, photos.size());
+
+        for (String photoId : photos.values()) {
+            photoVariantService.schedule(photoId);
+        }
+        return tree;
+    }
+}
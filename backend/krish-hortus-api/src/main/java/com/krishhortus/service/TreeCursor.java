@@ -0,0 +1,67 @@
+package com.krishhortus.service;
+
+import com.krishhortus.repository.TreeSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination token for tree lists
+ *
+ * Encodes the sort, the sort key and the id of the last row of a page. The
+ * token is URL-safe Base64 so clients can pass it back verbatim in the
+ * {@code after} parameter without interpreting it.
+ *
+ * @param sort Ordering the cursor belongs to
+ * @param key Sort key of the last row (ISO instant or H3 address)
+ * @param id Id of the last row
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public record TreeCursor(TreeSort sort, String key, String id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * @return Encoded token
+     */
+    public String encode() {
+        String raw = (sort == TreeSort.UPDATED_AT ? "u" : "h") + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param token Token produced by {@link #encode()}
+     * @return Decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static TreeCursor decode(String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int first = raw.indexOf(SEPARATOR);
+        int last = raw.lastIndexOf(SEPARATOR);
+        if (first != 1 || last <= first) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        TreeSort sort = switch (raw.charAt(0)) {
+            case 'u' -> TreeSort.UPDATED_AT;
+            case 'h' -> TreeSort.H3_INDEX;
+            default -> throw new IllegalArgumentException("Invalid cursor");
+        };
+        String key = raw.substring(first + 1, last);
+        if (sort == TreeSort.UPDATED_AT) {
+            try {
+                Instant.parse(key);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        return new TreeCursor(sort, key, raw.substring(last + 1));
+    }
+}
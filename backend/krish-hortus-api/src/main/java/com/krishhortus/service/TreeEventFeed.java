@@ -0,0 +1,477 @@
+package com.krishhortus.service;
+
+import com.krishhortus.dto.TreeJsonWriter;
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.service.TreeService.TreeChange;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live tree change feed over Server-Sent Events
+ *
+ * Clients subscribe to a set of H3 cells at any resolution up to the stored
+ * one and receive created, updated, verified and deleted events for trees
+ * inside them. Fan-out never blocks the writing request:
+ * - Subscribers are registered per cell; an event looks up only the parent
+ *   cells of the tree at resolutions that currently have subscribers
+ * - Each event is serialized once and queued on every matching subscriber
+ * - Each subscriber has a bounded buffer keyed by tree id, so repeated
+ *   changes to a tree coalesce into the latest one
+ * - A subscriber whose buffer overflows loses its buffered events and is
+ *   sent a {@code resync} event instead, telling it to catch up through
+ *   {@code GET /api/trees/changes}
+ * - Events are written by a small sender pool; idle connections hold no
+ *   thread thanks to async servlet request handling
+ * - A subscriber whose write has not returned after {@code send-timeout}
+ *   (a client that stopped reading) is disconnected: it gets no further
+ *   events, and the pool gets a replacement thread, up to
+ *   {@code max-stalled-sends}, until the blocked write fails
+ *
+ * Every event carries its change sequence number as SSE id. The first
+ * event of a connection is {@code ready} with the current stable sequence,
+ * from which a reconnecting client can delta-sync what it missed. Events
+ * of one tree may arrive out of order under concurrent writes, so clients
+ * should keep the state with the highest sequence number.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class TreeEventFeed {
+
+    /** Key of control events in a subscriber buffer; never a tree id */
+    private static final String CONTROL_KEY = "";
+
+    private final H3Service h3Service;
+    private final TreeJsonWriter treeJsonWriter;
+    private final ChangeSequence changeSequence;
+    private final int bufferSize;
+    private final int maxCells;
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int senderThreads;
+    private final int maxStalledSends;
+    /** Sender threads added for writes blocked by disconnected subscribers; guarded by the sender pool */
+    private int stalledSends;
+    private final LongAdder evicted = new LongAdder();
+    private final ConcurrentHashMap<Long, Set<Subscriber>> subscribersByCell = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray cellsPerResolution = new AtomicIntegerArray(16);
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor sender;
+    private final ScheduledExecutorService heartbeat;
+
+    public TreeEventFeed(H3Service h3Service,
+                         TreeJsonWriter treeJsonWriter,
+                         ChangeSequence changeSequence,
+                         @Value("${krishhortus.stream.buffer-size:256}") int bufferSize,
+                         @Value("${krishhortus.stream.max-cells:500}") int maxCells,
+                         @Value("${krishhortus.stream.timeout:30m}") Duration timeout,
+                         @Value("${krishhortus.stream.heartbeat-interval:30s}") Duration heartbeatInterval,
+                         @Value("${krishhortus.stream.sender-threads:4}") int senderThreads,
+                         @Value("${krishhortus.stream.send-timeout:10s}") Duration sendTimeout,
+                         @Value("${krishhortus.stream.max-stalled-sends:64}") int maxStalledSends) {
+        this.h3Service = h3Service;
+        this.treeJsonWriter = treeJsonWriter;
+        this.changeSequence = changeSequence;
+        this.bufferSize = bufferSize;
+        this.maxCells = maxCells;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.senderThreads = senderThreads;
+        this.maxStalledSends = maxStalledSends;
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>());
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor();
+        long interval = heartbeatInterval.toMillis();
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, interval, interval, TimeUnit.MILLISECONDS);
+        long checkInterval = Math.max(100, Math.min(1000, sendTimeout.toMillis() / 4));
+        heartbeat.scheduleAtFixedRate(this::evictStalled, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+        sender.shutdown();
+    }
+
+    /**
+     * Open a feed for a set of cells
+     *
+     * @param cellAddresses H3 cells to watch, at any resolution up to the stored one
+     * @return Emitter to return from the request handler
+     * @throws IllegalArgumentException if no cell, too many cells or an invalid cell is given
+     */
+    public SseEmitter subscribe(List<String> cellAddresses) {
+        if (cellAddresses == null || cellAddresses.isEmpty()) {
+            throw new IllegalArgumentException("At least one H3 cell is required");
+        }
+        if (cellAddresses.size() > maxCells) {
+            throw new IllegalArgumentException("At most " + maxCells + " cells can be watched per connection");
+        }
+        long[] cells = cellAddresses.stream()
+            .mapToLong(address -> h3Service.toCell(address.trim()))
+            .distinct()
+            .toArray();
+        for (long cell : cells) {
+            if (h3Service.resolutionOf(cell) > h3Service.getDefaultResolution()) {
+                throw new IllegalArgumentException("H3 cell resolution exceeds the stored resolution "
+                    + h3Service.getDefaultResolution());
+            }
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, cells);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> unregister(subscriber));
+
+        // Register before reading the stable sequence so nothing after it is missed
+        register(subscriber);
+        long stable = changeSequence.stableSequence();
+        subscriber.offer(new Event("ready", stable, CONTROL_KEY, "{\"seq\":" + stable + "}"));
+        return emitter;
+    }
+
+    /**
+     * Announce a change to the subscribers of the affected cells
+     *
+     * @param type Kind of change
+     * @param change The change, with the tree state unless it was deleted
+     * @param h3Index Stored H3 index of the tree
+     * @param previousH3Index H3 index before the change if the tree moved, otherwise null
+     */
+    public void publish(EventType type, TreeChange change, String h3Index, String previousH3Index) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<Subscriber> targets = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectSubscribers(h3Index, targets);
+        if (previousH3Index != null && !previousH3Index.equals(h3Index)) {
+            collectSubscribers(previousH3Index, targets);
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        Event event = new Event(type.eventName(), change.seq(), change.id(), treeJsonWriter.change(change));
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * @return Number of open feed connections
+     */
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * @return Subscribers disconnected because a write to them stalled
+     */
+    public long evictedCount() {
+        return evicted.sum();
+    }
+
+    private void collectSubscribers(String h3Index, Set<Subscriber> targets) {
+        if (h3Index == null) {
+            return;
+        }
+        long cell = h3Service.toCell(h3Index);
+        int resolution = h3Service.resolutionOf(cell);
+        for (int res = 0; res <= resolution; res++) {
+            if (cellsPerResolution.get(res) == 0) {
+                continue;
+            }
+            Set<Subscriber> watching = subscribersByCell.get(res == resolution ? cell : h3Service.parent(cell, res));
+            if (watching != null) {
+                targets.addAll(watching);
+            }
+        }
+    }
+
+    private void register(Subscriber subscriber) {
+        subscribers.add(subscriber);
+        for (long cell : subscriber.cells) {
+            subscribersByCell.compute(cell, (key, watching) -> {
+                Set<Subscriber> set = watching != null ? watching : ConcurrentHashMap.newKeySet();
+                set.add(subscriber);
+                return set;
+            });
+            cellsPerResolution.incrementAndGet(h3Service.resolutionOf(cell));
+        }
+    }
+
+    private void unregister(Subscriber subscriber) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        for (long cell : subscriber.cells) {
+            subscribersByCell.computeIfPresent(cell, (key, watching) -> {
+                watching.remove(subscriber);
+                return watching.isEmpty() ? null : watching;
+            });
+            cellsPerResolution.decrementAndGet(h3Service.resolutionOf(cell));
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.requestHeartbeat();
+        }
+    }
+
+    private void evictStalled() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.evictIfStalled(now);
+        }
+    }
+
+    /**
+     * Add a sender thread in place of one blocked by a disconnected
+     * subscriber
+     *
+     * @return Whether a thread was added; false once {@code max-stalled-sends} are added
+     */
+    private boolean addSenderThread() {
+        synchronized (sender) {
+            if (stalledSends >= maxStalledSends) {
+                return false;
+            }
+            stalledSends++;
+            // Maximum first: the core size must never exceed it
+            sender.setMaximumPoolSize(senderThreads + stalledSends);
+            sender.setCorePoolSize(senderThreads + stalledSends);
+            return true;
+        }
+    }
+
+    /**
+     * Give back a thread added by {@link #addSenderThread()} once its blocked write returned
+     */
+    private void removeSenderThread() {
+        synchronized (sender) {
+            stalledSends--;
+            sender.setCorePoolSize(senderThreads + stalledSends);
+            sender.setMaximumPoolSize(senderThreads + stalledSends);
+        }
+    }
+
+    /**
+     * Kinds of tree change events
+     */
+    public enum EventType {
+        CREATED,
+        UPDATED,
+        VERIFIED,
+        DELETED;
+
+        String eventName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private record Event(String name, long seq, String treeId, String data) {
+    }
+
+    /**
+     * One feed connection with its bounded, coalescing event buffer
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final long[] cells;
+        // Guarded by this; insertion order is delivery order
+        private final LinkedHashMap<String, Event> pending = new LinkedHashMap<>();
+        private boolean overflowed;
+        private boolean heartbeatDue;
+        private boolean scheduled;
+        private boolean closed;
+        /** Start of the write in progress, or 0 */
+        private long sendingSince;
+        private boolean stalled;
+        private boolean replaced;
+
+        Subscriber(SseEmitter emitter, long[] cells) {
+            this.emitter = emitter;
+            this.cells = cells;
+        }
+
+        void offer(Event event) {
+            synchronized (this) {
+                if (closed || overflowed) {
+                    return;
+                }
+                Event queued = pending.get(event.treeId());
+                if (queued != null) {
+                    if (queued.seq() > event.seq()) {
+                        return;
+                    }
+                    pending.remove(event.treeId());
+                } else if (pending.size() >= bufferSize) {
+                    // Slow consumer: drop the backlog and ask the client to resync
+                    pending.clear();
+                    overflowed = true;
+                    scheduleLocked();
+                    return;
+                }
+                pending.put(event.treeId(), event);
+                scheduleLocked();
+            }
+        }
+
+        void requestHeartbeat() {
+            synchronized (this) {
+                if (!closed) {
+                    heartbeatDue = true;
+                    scheduleLocked();
+                }
+            }
+        }
+
+        /**
+         * Disconnect the subscriber if its current write has taken longer
+         * than the send timeout
+         *
+         * The blocked write keeps its thread until it fails; the emitter is
+         * completed from that thread, since completing it here would wait
+         * for the write as well.
+         */
+        void evictIfStalled(long now) {
+            synchronized (this) {
+                if (closed || sendingSince == 0 || now - sendingSince < sendTimeoutNanos) {
+                    return;
+                }
+                closed = true;
+                stalled = true;
+                pending.clear();
+                replaced = addSenderThread();
+            }
+            unregister(this);
+            evicted.increment();
+        }
+
+        void close() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                pending.clear();
+            }
+            unregister(this);
+            try {
+                emitter.complete();
+            } catch (IllegalStateException ignored) {
+                // Already completed by the container
+            }
+        }
+
+        private void scheduleLocked() {
+            if (!scheduled) {
+                scheduled = true;
+                try {
+                    sender.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled = false;
+                }
+            }
+        }
+
+        /**
+         * Write one batch of buffered events, then yield the sender thread
+         */
+        private void drain() {
+            List<Event> batch;
+            boolean resync;
+            boolean sendHeartbeat;
+            synchronized (this) {
+                if (closed || (pending.isEmpty() && !overflowed && !heartbeatDue)) {
+                    scheduled = false;
+                    return;
+                }
+                batch = new ArrayList<>(pending.values());
+                pending.clear();
+                resync = overflowed;
+                overflowed = false;
+                sendHeartbeat = heartbeatDue && batch.isEmpty() && !resync;
+                heartbeatDue = false;
+                // Never 0 while sending
+                sendingSince = System.nanoTime() | 1;
+            }
+
+            boolean failed = false;
+            try {
+                if (resync) {
+                    emitter.send(SseEmitter.event().name("resync").data("{\"reason\":\"buffer-overflow\"}"));
+                }
+                for (Event event : batch) {
+                    emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.seq()))
+                        .name(event.name())
+                        .data(event.data()));
+                }
+                if (sendHeartbeat) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                failed = true;
+            }
+
+            boolean evictedWhileSending;
+            boolean wasReplaced;
+            synchronized (this) {
+                sendingSince = 0;
+                evictedWhileSending = stalled;
+                wasReplaced = replaced;
+            }
+            if (evictedWhileSending) {
+                if (wasReplaced) {
+                    removeSenderThread();
+                }
+                try {
+                    emitter.complete();
+                } catch (IllegalStateException ignored) {
+                    // Already completed by the container
+                }
+                return;
+            }
+            if (failed) {
+                close();
+                return;
+            }
+
+            synchronized (this) {
+                scheduled = false;
+                if (!closed && (!pending.isEmpty() || overflowed || heartbeatDue)) {
+                    scheduleLocked();
+                }
+            }
+        }
+    }
+}
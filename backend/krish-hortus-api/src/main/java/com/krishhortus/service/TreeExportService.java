@@ -0,0 +1,332 @@
+package com.krishhortus.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krishhortus.exception.ServiceUnavailableException;
+import com.krishhortus.export.TreeExportFormat;
+import com.krishhortus.export.TreeExportWriter;
+import com.krishhortus.geo.BoundingBox;
+import com.krishhortus.repository.TreeFilter;
+import com.krishhortus.repository.TreeQueryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming export of the tree registry (GET /api/trees/export)
+ *
+ * Rows go from a database cursor through a {@link TreeExportWriter} into
+ * the response as they are read; nothing is collected, so memory per
+ * export is a fetch window, a 64 KB output chunk and the gzip state,
+ * whether it holds ten trees or millions:
+ * - Exports run on their own small pool of low-priority threads
+ *   ({@code krishhortus.export.threads}), each holding one database
+ *   connection for the duration, so bulk downloads take at most that many
+ *   connections and cores from interactive requests
+ * - A few more exports may wait for a thread
+ *   ({@code krishhortus.export.max-queued}); beyond that requests are
+ *   answered 503 with {@code Retry-After}
+ * - Optionally paced to {@code krishhortus.export.max-rows-per-second}
+ *   per export
+ * - The format's header is sent before the query runs and the first rows
+ *   right after, so downloads start at once
+ * - Compressed on the fly with gzip at the fastest level when the client
+ *   accepts it
+ * - Stopped, and the query cancelled, when the client disconnects or the
+ *   export exceeds {@code krishhortus.export.timeout}
+ *
+ * Published metrics: {@code krishhortus.export.duration} (per format),
+ * {@code krishhortus.export.rows}, {@code krishhortus.export.active} and
+ * {@code krishhortus.export.rejected}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class TreeExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TreeExportService.class);
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int FIRST_FLUSH_ROWS = 100;
+    private static final int PACING_BATCH = 256;
+
+    private final TreeQueryRepository treeQueryRepository;
+    private final JsonFactory jsonFactory;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+    private final long timeoutMillis;
+    private final int maxRowsPerSecond;
+    private final Duration retryAfter;
+    private final Map<TreeExportFormat, Timer> durationTimers = new EnumMap<>(TreeExportFormat.class);
+    private final Counter rowCounter;
+    private final Counter rejected;
+
+    public TreeExportService(TreeQueryRepository treeQueryRepository,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${krishhortus.export.threads:2}") int threads,
+                             @Value("${krishhortus.export.max-queued:4}") int maxQueued,
+                             @Value("${krishhortus.export.max-rows-per-second:0}") int maxRowsPerSecond,
+                             @Value("${krishhortus.export.timeout:30m}") Duration timeout,
+                             @Value("${krishhortus.export.retry-after:30s}") Duration retryAfter,
+                             MeterRegistry meterRegistry) {
+        this.treeQueryRepository = treeQueryRepository;
+        this.jsonFactory = objectMapper.getFactory();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.slots = new Semaphore(threads + maxQueued);
+        this.timeoutMillis = timeout.toMillis();
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.retryAfter = retryAfter;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, maxQueued)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "tree-export-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        for (TreeExportFormat format : TreeExportFormat.values()) {
+            durationTimers.put(format, Timer.builder("krishhortus.export.duration")
+                .description("Time to stream an export")
+                .tag("format", format.extension())
+                .register(meterRegistry));
+        }
+        this.rowCounter = Counter.builder("krishhortus.export.rows")
+            .description("Trees written by exports")
+            .register(meterRegistry);
+        this.rejected = Counter.builder("krishhortus.export.rejected")
+            .description("Exports refused because too many were in progress")
+            .register(meterRegistry);
+        Gauge.builder("krishhortus.export.active", executor, ThreadPoolExecutor::getActiveCount)
+            .description("Exports being streamed")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start streaming an export
+     *
+     * Returns at once; the export is written to the returned emitter by the
+     * export pool.
+     *
+     * @param filter Filter criteria
+     * @param box Optional bounding box the trees must lie in
+     * @param format Output format
+     * @param gzip Whether to gzip the output (the caller sets {@code Content-Encoding})
+     * @return Emitter receiving the export
+     * @throws ServiceUnavailableException if too many exports are in progress
+     */
+    public ResponseBodyEmitter export(TreeFilter filter, BoundingBox box, TreeExportFormat format, boolean gzip) {
+        if (!slots.tryAcquire()) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many exports in progress, please retry later", retryAfter);
+        }
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMillis);
+        ExportTask task = new ExportTask(filter, box, format, gzip, emitter, MDC.getCopyOfContextMap());
+        emitter.onTimeout(task::cancel);
+        emitter.onError(e -> task.cancel());
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many exports in progress, please retry later", retryAfter);
+        }
+        return emitter;
+    }
+
+    /**
+     * One export, from query to completed response
+     */
+    private final class ExportTask implements Runnable {
+        private final TreeFilter filter;
+        private final BoundingBox box;
+        private final TreeExportFormat format;
+        private final boolean gzip;
+        private final ResponseBodyEmitter emitter;
+        private final Map<String, String> context;
+        private volatile boolean cancelled;
+        private long rows;
+        private long startNanos;
+
+        ExportTask(TreeFilter filter, BoundingBox box, TreeExportFormat format, boolean gzip,
+                   ResponseBodyEmitter emitter, Map<String, String> context) {
+            this.filter = filter;
+            this.box = box;
+            this.format = format;
+            this.gzip = gzip;
+            this.emitter = emitter;
+            this.context = context;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public void run() {
+            if (context != null) {
+                MDC.setContextMap(context);
+            }
+            startNanos = System.nanoTime();
+            try {
+                stream();
+                emitter.complete();
+                log.info("Exported {} trees as {} in {} ms", rows, format.extension(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            } catch (Exception e) {
+                if (cancelled || e instanceof UncheckedIOException || e.getCause() instanceof IOException) {
+                    log.info("Export as {} stopped after {} trees: {}", format.extension(), rows, e.toString());
+                } else {
+                    log.warn("Export as {} failed after {} trees", format.extension(), rows, e);
+                }
+                emitter.completeWithError(e);
+            } finally {
+                durationTimers.get(format).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                rowCounter.increment(rows);
+                slots.release();
+                MDC.clear();
+            }
+        }
+
+        private void stream() throws IOException {
+            EmitterOutputStream chunks = new EmitterOutputStream(emitter, format.mediaType());
+            GZIPOutputStream compressed = gzip ? new FastGzipOutputStream(chunks) : null;
+            OutputStream out = compressed != null ? compressed : chunks;
+
+            TreeExportWriter writer = format.newWriter(out, jsonFactory);
+            writer.begin();
+            writer.flush();
+            readOnlyTransaction.executeWithoutResult(status -> treeQueryRepository.stream(filter, box, tree -> {
+                if (cancelled) {
+                    throw new CancellationException("Export cancelled");
+                }
+                try {
+                    writer.write(tree);
+                    if (++rows == FIRST_FLUSH_ROWS) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (maxRowsPerSecond > 0 && rows % PACING_BATCH == 0) {
+                    pace();
+                }
+            }));
+            writer.end();
+            if (compressed != null) {
+                compressed.finish();
+            }
+            chunks.flush();
+        }
+
+        private void pace() {
+            long due = startNanos + rows * 1_000_000_000L / maxRowsPerSecond;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+        }
+    }
+
+    /**
+     * gzip at the fastest level; {@link #flush()} sends what was compressed so far
+     */
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 8192, true);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+
+    /**
+     * Collects output into chunks of {@link #CHUNK_SIZE} and sends each as
+     * one write to the emitter
+     */
+    private static final class EmitterOutputStream extends OutputStream {
+        private final ResponseBodyEmitter emitter;
+        private final MediaType mediaType;
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+        private int size;
+
+        EmitterOutputStream(ResponseBodyEmitter emitter, MediaType mediaType) {
+            this.emitter = emitter;
+            this.mediaType = mediaType;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (size == buffer.length) {
+                send();
+            }
+            buffer[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (size == buffer.length) {
+                    send();
+                }
+                int count = Math.min(length, buffer.length - size);
+                System.arraycopy(bytes, offset, buffer, size, count);
+                size += count;
+                offset += count;
+                length -= count;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (size > 0) {
+                send();
+            }
+        }
+
+        private void send() throws IOException {
+            // The emitter may hold on to the array until the response is ready
+            emitter.send(Arrays.copyOf(buffer, size), mediaType);
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.krishhortus.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.krishhortus.ai.IdentificationBatcher;
+import com.krishhortus.ai.PerceptualHash;
+import com.krishhortus.ai.SimilarImageIndex;
+import com.krishhortus.ai.TreeIdentification;
+import com.krishhortus.ai.TreeIdentifier;
+import com.krishhortus.exception.PayloadTooLargeException;
+import com.krishhortus.exception.UnsupportedMediaTypeException;
+import com.krishhortus.storage.ImageType;
+import com.krishhortus.util.MultipartReader;
+import com.krishhortus.util.MultipartReader.Part;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tree identification from photos with result caching
+ *
+ * Every photo passes through these steps, each of which can answer without
+ * calling the identification backend:
+ * - Exact cache: results are cached by the SHA-256 of the photo, so a repeat
+ *   scan of the same file is answered at once
+ * - Similar cache: results are also indexed by the perceptual hash of the
+ *   photo, so a second shot of the same tree taken moments later reuses the
+ *   first answer
+ * - Coalescing: concurrent requests for the same photo share one pending
+ *   identification
+ * - Otherwise the photo is queued with the {@link IdentificationBatcher},
+ *   which sends photos to the backend in batches
+ *
+ * Published metrics: {@code krishhortus.ai.identify} tagged with the step
+ * that answered ({@code source=exact|similar|coalesced|identified}), plus
+ * the {@code cache=identifications} cache meters.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class TreeIdentificationService {
+
+    private static final String IMAGE_FIELD = "image";
+    private static final int READ_CHUNK = 64 * 1024;
+
+    private final IdentificationBatcher batcher;
+    private final Cache<String, TreeIdentification> identificationCache;
+    private final SimilarImageIndex similarImages;
+    private final int similarityThreshold;
+    private final long maxImageSize;
+    private final Map<String, CompletableFuture<TreeIdentification>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Source, Counter> answered = new EnumMap<>(Source.class);
+
+    public TreeIdentificationService(IdentificationBatcher batcher,
+                                     Cache<String, TreeIdentification> identificationCache,
+                                     @Value("${krishhortus.ai.cache.similar-entries:4096}") int similarEntries,
+                                     @Value("${krishhortus.ai.cache.similarity-threshold:6}") int similarityThreshold,
+                                     @Value("${krishhortus.ai.max-image-size:10MB}") DataSize maxImageSize,
+                                     MeterRegistry meterRegistry) {
+        this.batcher = batcher;
+        this.identificationCache = identificationCache;
+        this.similarImages = new SimilarImageIndex(similarEntries);
+        this.similarityThreshold = similarityThreshold;
+        this.maxImageSize = maxImageSize.toBytes();
+
+        for (Source source : Source.values()) {
+            answered.put(source, Counter.builder("krishhortus.ai.identify")
+                .description("Identification requests by the step that answered them")
+                .tag("source", source.tag())
+                .register(meterRegistry));
+        }
+        Gauge.builder("krishhortus.ai.similar.entries", similarImages, SimilarImageIndex::size)
+            .description("Identifications indexed by perceptual hash")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Identify the tree in an uploaded photo
+     *
+     * Expects {@code multipart/form-data} with the photo in a file field
+     * named {@code image}. The upload is read on the calling thread; the
+     * identification may complete later.
+     *
+     * @param body Request body
+     * @param contentType Request content type, carrying the multipart boundary
+     * @return Future of the identification and how it was answered
+     * @throws IOException if reading the upload fails
+     * @throws com.krishhortus.exception.ServiceUnavailableException if the identification queue is full
+     */
+    public CompletableFuture<Identification> identify(InputStream body, String contentType) throws IOException {
+        TreeIdentifier.Image image = readImage(body, contentType);
+
+        TreeIdentification cached = identificationCache.getIfPresent(image.contentHash());
+        if (cached != null) {
+            return answer(Source.EXACT, cached);
+        }
+
+        Long perceptualHash = perceptualHashOf(image);
+        if (perceptualHash != null) {
+            TreeIdentification similar = similarImages.findSimilar(perceptualHash, similarityThreshold);
+            if (similar != null) {
+                identificationCache.put(image.contentHash(), similar);
+                return answer(Source.SIMILAR, similar);
+            }
+        }
+
+        boolean[] submitted = new boolean[1];
+        CompletableFuture<TreeIdentification> pending = inFlight.computeIfAbsent(image.contentHash(), hash -> {
+            submitted[0] = true;
+            return batcher.submit(image);
+        });
+        if (submitted[0]) {
+            pending.whenComplete((result, failure) -> {
+                if (result != null) {
+                    // Cached before leaving the in-flight map, so no request falls in between
+                    identificationCache.put(image.contentHash(), result);
+                    if (perceptualHash != null) {
+                        similarImages.add(perceptualHash, result);
+                    }
+                }
+                inFlight.remove(image.contentHash(), pending);
+            });
+        }
+        Source source = submitted[0] ? Source.IDENTIFIED : Source.COALESCED;
+        answered.get(source).increment();
+        return pending.thenApply(result -> new Identification(result, source));
+    }
+
+    private CompletableFuture<Identification> answer(Source source, TreeIdentification result) {
+        answered.get(source).increment();
+        return CompletableFuture.completedFuture(new Identification(result, source));
+    }
+
+    private TreeIdentifier.Image readImage(InputStream body, String contentType) throws IOException {
+        MultipartReader reader = new MultipartReader(body, MultipartReader.boundaryOf(contentType));
+        Part part;
+        while ((part = reader.next()) != null) {
+            if (part.name().equals(IMAGE_FIELD) && part.isFile()) {
+                return readImage(part);
+            }
+        }
+        throw new IllegalArgumentException("No photo uploaded (expected a file field named image)");
+    }
+
+    private TreeIdentifier.Image readImage(Part part) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream(READ_CHUNK);
+        ByteBuffer chunk = ByteBuffer.allocate(READ_CHUNK);
+        while (part.read(chunk) >= 0) {
+            if (content.size() + chunk.position() > maxImageSize) {
+                throw new PayloadTooLargeException("Photo exceeds the maximum size of " + maxImageSize + " bytes");
+            }
+            digest.update(chunk.array(), 0, chunk.position());
+            content.write(chunk.array(), 0, chunk.position());
+            chunk.clear();
+        }
+
+        byte[] bytes = content.toByteArray();
+        ImageType type = ImageType.detect(bytes, Math.min(bytes.length, ImageType.SIGNATURE_LENGTH));
+        if (type == null) {
+            throw new UnsupportedMediaTypeException("Photos must be JPEG, PNG, GIF or WebP images");
+        }
+        return new TreeIdentifier.Image(bytes, type, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    private static Long perceptualHashOf(TreeIdentifier.Image image) {
+        try {
+            return PerceptualHash.of(image.content());
+        } catch (IOException | RuntimeException e) {
+            // Undecodable photos are still identified, just not matched by similarity
+            return null;
+        }
+    }
+
+    /**
+     * How an identification request was answered
+     */
+    public enum Source {
+        /** Same photo identified before */
+        EXACT,
+        /** Near-identical photo identified before */
+        SIMILAR,
+        /** Same photo being identified for another request */
+        COALESCED,
+        /** Identified by the backend */
+        IDENTIFIED;
+
+        private final String tag = name().toLowerCase(Locale.ROOT);
+
+        /**
+         * @return Lowercase name used in metrics and headers
+         */
+        public String tag() {
+            return tag;
+        }
+    }
+
+    /**
+     * Identification result with the step that produced it
+     *
+     * @param result Identification
+     * @param source How the request was answered
+     */
+    public record Identification(TreeIdentification result, Source source) {
+    }
+}
@@ -0,0 +1,319 @@
+package com.krishhortus.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krishhortus.dto.TreeRequest;
+import com.krishhortus.metrics.TreeMetrics;
+import com.krishhortus.metrics.TreeMetrics.Operation;
+import com.krishhortus.metrics.TreeMetrics.Stage;
+import com.krishhortus.model.Tree;
+import com.krishhortus.repository.TreeBatchRepository;
+import com.uber.h3core.exceptions.H3Exception;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk tree ingest for offline survey uploads
+ *
+ * Processes a streamed JSON array or NDJSON body in three overlapping stages:
+ * 1. Parse: items are read incrementally as JSON trees into bounded chunks,
+ *    so the upload is never held in memory as a whole
+ * 2. Prepare: each chunk is bound to tree requests, validated and its H3
+ *    indexes are computed in parallel on a dedicated fork-join pool
+ * 3. Persist: chunks are written as JDBC batches, one transaction per chunk,
+ *    on a writer pool while the next chunk is being parsed; each chunk takes
+ *    a block of change sequence numbers just before it is written
+ *
+ * Failures are reported per item: an item that is well-formed JSON but
+ * does not bind or validate, e.g. a string latitude, is rejected on its own
+ * and the upload goes on; only malformed JSON stops parsing. A chunk whose
+ * batch insert fails is retried row by row so only the offending items are
+ * rejected; chunks that were already committed are never rolled back.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class TreeIngestService {
+
+    private final ObjectMapper objectMapper;
+    private final TreeService treeService;
+    private final TreeBatchRepository treeBatchRepository;
+    private final ChangeSequence changeSequence;
+    private final TreeMetrics treeMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxItems;
+    private final ForkJoinPool preparePool;
+    private final ThreadPoolExecutor writerPool;
+
+    public TreeIngestService(ObjectMapper objectMapper,
+                             TreeService treeService,
+                             TreeBatchRepository treeBatchRepository,
+                             ChangeSequence changeSequence,
+                             TreeMetrics treeMetrics,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${krishhortus.ingest.chunk-size:1000}") int chunkSize,
+                             @Value("${krishhortus.ingest.max-items:200000}") int maxItems,
+                             @Value("${krishhortus.ingest.writer-threads:2}") int writerThreads) {
+        this.objectMapper = objectMapper;
+        this.treeService = treeService;
+        this.treeBatchRepository = treeBatchRepository;
+        this.changeSequence = changeSequence;
+        this.treeMetrics = treeMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxItems = maxItems;
+        this.preparePool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        // Bounded queue with caller-runs: concurrent uploads throttle themselves
+        // instead of queueing unbounded chunks in memory
+        this.writerPool = new ThreadPoolExecutor(writerThreads, writerThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(writerThreads * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        preparePool.shutdown();
+        writerPool.shutdown();
+    }
+
+    /**
+     * @return Number of chunks waiting for a writer thread
+     */
+    public int queuedChunks() {
+        return writerPool.getQueue().size();
+    }
+
+    /**
+     * Ingest trees from a request body
+     *
+     * @param body JSON array or newline-delimited JSON objects
+     * @param taggedBy Identifier of the uploading user
+     * @return Per-item results in input order
+     * @throws IOException if the body cannot be read
+     */
+    public IngestResult ingest(InputStream body, String taggedBy) throws IOException {
+        Instant now = Instant.now();
+        List<Chunk> chunks = new ArrayList<>();
+        Future<?> pendingWrite = null;
+        String parseError = null;
+        int received = 0;
+
+        // A reader-managed parser unwraps a top-level array and otherwise reads
+        // whitespace separated root values, which covers NDJSON
+        try (MappingIterator<JsonNode> items = objectMapper.readerFor(JsonNode.class).readValues(body)) {
+            List<JsonNode> requests = new ArrayList<>(chunkSize);
+            boolean more = true;
+            while (more) {
+                try {
+                    more = items.hasNextValue();
+                    if (more) {
+                        if (received >= maxItems) {
+                            parseError = "Upload exceeds the limit of " + maxItems + " trees";
+                            more = false;
+                        } else {
+                            requests.add(items.nextValue());
+                            received++;
+                        }
+                    }
+                } catch (JsonProcessingException e) {
+                    parseError = "Malformed JSON at item " + received + ": " + e.getOriginalMessage();
+                    more = false;
+                }
+
+                if (requests.size() == chunkSize || (!more && !requests.isEmpty())) {
+                    Chunk chunk = prepare(received - requests.size(), requests, taggedBy, now);
+                    chunks.add(chunk);
+                    requests = new ArrayList<>(chunkSize);
+                    // Keep at most one chunk in flight per upload
+                    Future<?> previousWrite = pendingWrite;
+                    pendingWrite = null;
+                    await(previousWrite);
+                    pendingWrite = writerPool.submit(() -> persist(chunk));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Let the write finish, but report the failure that stopped the upload
+            try {
+                await(pendingWrite);
+            } catch (RuntimeException writeFailure) {
+                e.addSuppressed(writeFailure);
+            }
+            throw e;
+        }
+        await(pendingWrite);
+
+        List<ItemResult> results = new ArrayList<>(received);
+        int created = 0;
+        for (Chunk chunk : chunks) {
+            for (ItemResult result : chunk.results) {
+                results.add(result);
+                if (result.id() != null) {
+                    created++;
+                }
+            }
+        }
+        treeMetrics.recordResultSize(Operation.INGEST, received);
+        return new IngestResult(received, created, received - created, parseError, results);
+    }
+
+    /**
+     * Bind and validate a chunk and compute its H3 indexes in parallel
+     */
+    private Chunk prepare(int firstIndex, List<JsonNode> requests, String taggedBy, Instant now) {
+        long start = System.nanoTime();
+        Chunk chunk = new Chunk(firstIndex, requests.size());
+        preparePool.submit(() -> IntStream.range(0, requests.size()).parallel().forEach(i -> {
+            try {
+                TreeRequest request = objectMapper.treeToValue(requests.get(i), TreeRequest.class);
+                if (request == null) {
+                    throw new IllegalArgumentException("Item must be a JSON object");
+                }
+                Tree tree = request.toNewTree();
+                tree.setTaggedBy(taggedBy);
+                treeService.prepareNew(tree, now);
+                chunk.trees[i] = tree;
+            } catch (JsonProcessingException e) {
+                chunk.results[i] = new ItemResult(firstIndex + i, null, "Invalid item: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                chunk.results[i] = new ItemResult(firstIndex + i, null, e.getMessage());
+            } catch (H3Exception e) {
+                chunk.results[i] = new ItemResult(firstIndex + i, null,
+                    "Invalid location: " + H3Exception.codeToMessage(e.getCode()));
+            }
+        })).join();
+        treeMetrics.record(Stage.INGEST_PREPARE, start);
+        return chunk;
+    }
+
+    /**
+     * Write the valid trees of a chunk, falling back to row-by-row inserts
+     * to isolate failures if the batch is rejected
+     */
+    private void persist(Chunk chunk) {
+        List<Tree> valid = new ArrayList<>(chunk.trees.length);
+        for (Tree tree : chunk.trees) {
+            if (tree != null) {
+                valid.add(tree);
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<Tree> created = new ArrayList<>(valid.size());
+        long firstSeq = changeSequence.begin(valid.size());
+        try {
+            for (int i = 0; i < valid.size(); i++) {
+                valid.get(i).setChangeSeq(firstSeq + i);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> treeBatchRepository.insertAll(valid));
+                created.addAll(valid);
+            } catch (DataAccessException batchFailure) {
+                for (int i = 0; i < chunk.trees.length; i++) {
+                    Tree tree = chunk.trees[i];
+                    if (tree == null) {
+                        continue;
+                    }
+                    try {
+                        treeBatchRepository.insert(tree);
+                        created.add(tree);
+                    } catch (DataAccessException e) {
+                        chunk.trees[i] = null;
+                        chunk.results[i] = new ItemResult(chunk.firstIndex + i, null,
+                            "Could not store tree: " + e.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            if (!created.isEmpty()) {
+                // Created trees keep input order, so the last one has the highest number
+                changeSequence.committed(created.get(created.size() - 1).getChangeSeq());
+            }
+        } finally {
+            changeSequence.end(firstSeq);
+        }
+
+        for (int i = 0; i < chunk.trees.length; i++) {
+            if (chunk.trees[i] != null) {
+                chunk.results[i] = new ItemResult(chunk.firstIndex + i, chunk.trees[i].getId(), null);
+            }
+        }
+        treeService.indexTrees(created);
+        treeMetrics.record(Stage.INGEST_PERSIST, start);
+    }
+
+    private static void await(Future<?> future) {
+        if (future == null) {
+            return;
+        }
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while storing trees", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Storing trees failed", e.getCause());
+        }
+    }
+
+    /**
+     * Items of one chunk; slot {@code i} holds either a prepared tree or a failure
+     */
+    private static final class Chunk {
+        final int firstIndex;
+        final Tree[] trees;
+        final ItemResult[] results;
+
+        Chunk(int firstIndex, int size) {
+            this.firstIndex = firstIndex;
+            this.trees = new Tree[size];
+            this.results = new ItemResult[size];
+        }
+    }
+
+    /**
+     * Outcome of a batch upload
+     *
+     * @param received Number of items read from the body
+     * @param created Number of trees stored
+     * @param failed Number of items rejected
+     * @param parseError Why reading stopped early, or null if the whole body was read
+     * @param results One result per received item, in input order
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record IngestResult(int received, int created, int failed, String parseError, List<ItemResult> results) {
+    }
+
+    /**
+     * Outcome of a single uploaded item
+     *
+     * @param index Zero-based position in the upload
+     * @param id Id of the created tree, or null if rejected
+     * @param error Rejection reason, or null if created
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ItemResult(int index, String id, String error) {
+    }
+}
@@ -0,0 +1,862 @@
+package com.krishhortus.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.krishhortus.exception.ResourceNotFoundException;
+import com.krishhortus.geo.ClusterRollups;
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.geo.PartitionedTreeIndex;
+import com.krishhortus.geo.PartitionedTreeIndex.NearbyQuery;
+import com.krishhortus.geo.PartitionedTreeIndex.Route;
+import com.krishhortus.geo.TreeSpatialIndex.NearbyHit;
+import com.krishhortus.metrics.TreeMetrics;
+import com.krishhortus.metrics.TreeMetrics.Operation;
+import com.krishhortus.metrics.TreeMetrics.Stage;
+import com.krishhortus.model.PhotoSlot;
+import com.krishhortus.model.Tree;
+import com.krishhortus.model.TreeMove;
+import com.krishhortus.model.TreeTombstone;
+import com.krishhortus.repository.TreeChangeRepository;
+import com.krishhortus.repository.TreeFilter;
+import com.krishhortus.repository.TreeQueryRepository;
+import com.krishhortus.repository.TreeRepository;
+import com.krishhortus.repository.TreeRepository.TreeLocationView;
+import com.krishhortus.repository.TreeSort;
+import com.krishhortus.search.TreeSearchIndex;
+import com.krishhortus.search.TreeSearchIndex.Hit;
+import com.krishhortus.search.TreeSearchIndex.SearchHits;
+import com.krishhortus.service.TreeEventFeed.EventType;
+import com.krishhortus.util.SortedMerge;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tree business logic for Krish Hortus API
+ *
+ * Owns every write to the tree store and keeps the in-memory
+ * {@link PartitionedTreeIndex}, {@link ClusterRollups} and
+ * {@link AnalyticsRollups} and the {@link TreeSearchIndex} in sync with it:
+ * - Computes the H3 index of a tree whenever its location is set
+ * - Updates the spatial index and rollups after each successful create,
+ *   update, verification and delete
+ * - Answers nearby queries from the index and fetches only the final hits
+ * - Answers name searches from the search index and fetches only the
+ *   returned trees
+ * - Pushes list filters and pagination down to {@link TreeQueryRepository};
+ *   with several partitions a location filtered list is queried per
+ *   partition cell overlapping the circle and the pages are merged
+ * - Stamps every write with a {@link ChangeSequence} number and leaves a
+ *   tombstone for each delete, so clients can sync only what changed
+ * - Announces every committed change on the live {@link TreeEventFeed}
+ * - Serves single-tree reads from a bounded cache and invalidates the
+ *   entry of every tree it writes
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class TreeService {
+
+    private static final Logger log = LoggerFactory.getLogger(TreeService.class);
+
+    private static final int INDEX_LOAD_BATCH = 10_000;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_NEARBY_RESULTS = 500;
+    /** Deepest offset page served across partitions, which fetch every row before it from each cell */
+    private static final int MAX_PARTITIONED_OFFSET = 10_000;
+    private static final int MAX_CHANGES = 5_000;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final TreeRepository treeRepository;
+    private final TreeQueryRepository treeQueryRepository;
+    private final H3Service h3Service;
+    private final PartitionedTreeIndex spatialIndex;
+    private final ClusterRollups clusterRollups;
+    private final AnalyticsRollups analyticsRollups;
+    private final TreeSearchIndex searchIndex;
+    private final ChangeSequence changeSequence;
+    private final TreeChangeRepository treeChangeRepository;
+    private final TreeEventFeed treeEventFeed;
+    private final Cache<String, Tree> treeCache;
+    /** Bumped before every cache invalidation; see {@link #cacheLoaded(Map, long)} */
+    private final AtomicLong cacheGeneration = new AtomicLong();
+    private final TreeMetrics treeMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final double maxNearbyRadius;
+
+    public TreeService(TreeRepository treeRepository,
+                       TreeQueryRepository treeQueryRepository,
+                       H3Service h3Service,
+                       PartitionedTreeIndex spatialIndex,
+                       ClusterRollups clusterRollups,
+                       AnalyticsRollups analyticsRollups,
+                       TreeSearchIndex searchIndex,
+                       ChangeSequence changeSequence,
+                       TreeChangeRepository treeChangeRepository,
+                       TreeEventFeed treeEventFeed,
+                       Cache<String, Tree> treeCache,
+                       TreeMetrics treeMetrics,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${krishhortus.h3.max-nearby-radius:50000}") double maxNearbyRadius) {
+        this.treeRepository = treeRepository;
+        this.treeQueryRepository = treeQueryRepository;
+        this.h3Service = h3Service;
+        this.spatialIndex = spatialIndex;
+        this.clusterRollups = clusterRollups;
+        this.analyticsRollups = analyticsRollups;
+        this.searchIndex = searchIndex;
+        this.changeSequence = changeSequence;
+        this.treeChangeRepository = treeChangeRepository;
+        this.treeEventFeed = treeEventFeed;
+        this.treeCache = treeCache;
+        this.treeMetrics = treeMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxNearbyRadius = maxNearbyRadius;
+    }
+
+    /**
+     * Load every stored tree location into the spatial index and rollups,
+     * and every tree's names into the search index
+     *
+     * Reads lightweight projections in keyset-ordered slices so startup memory
+     * stays bounded regardless of the number of trees. Also resumes the
+     * change sequence after the highest stored number.
+     */
+    @PostConstruct
+    public void rebuildIndex() {
+        changeSequence.reset();
+        log.debug("Building H3 spatial index...");
+        spatialIndex.clear();
+        clusterRollups.clear();
+        searchIndex.clear();
+        String afterId = "";
+        List<TreeLocationView> slice;
+        do {
+            slice = treeRepository.findLocationsAfter(afterId, PageRequest.of(0, INDEX_LOAD_BATCH));
+            for (TreeLocationView view : slice) {
+                spatialIndex.put(view.getId(), view.getH3Index(), view.getLat(), view.getLng());
+                clusterRollups.put(view.getId(), view.getLat(), view.getLng(), view.getCategory());
+                searchIndex.put(view.getId(), view.getH3Index(),
+                    view.getName(), view.getScientificName(), view.getLocalName());
+            }
+            if (!slice.isEmpty()) {
+                afterId = slice.get(slice.size() - 1).getId();
+            }
+        } while (slice.size() == INDEX_LOAD_BATCH);
+        log.info("H3 spatial index ready with {} trees", spatialIndex.size());
+        log.info("Search index ready with {} trees and {} terms", searchIndex.size(), searchIndex.termCount());
+    }
+
+    /**
+     * Build list filter criteria from request parameters
+     *
+     * @param category Optional exact category
+     * @param species Optional scientific name prefix (case-insensitive)
+     * @param lat Optional latitude of the location filter
+     * @param lng Optional longitude of the location filter
+     * @param radius Optional radius in meters of the location filter
+     * @param h3Index Optional H3 cell; matches trees inside it at any coarser resolution
+     * @param verified Optional verification status
+     * @return Validated filter
+     */
+    public TreeFilter buildFilter(String category, String species, Double lat, Double lng, Double radius,
+                                  String h3Index, Boolean verified) {
+        if (lat != null || lng != null || radius != null) {
+            if (lat == null || lng == null || radius == null) {
+                throw new IllegalArgumentException("lat, lng and radius must be given together");
+            }
+            validateCoordinates(lat, lng);
+            if (!(radius > 0 && radius <= maxNearbyRadius)) {
+                throw new IllegalArgumentException("Radius must be between 0 and " + maxNearbyRadius + " meters");
+            }
+        }
+
+        String[] h3Range = h3Index != null ? storedIndexRange(h3Index) : new String[2];
+        String speciesPrefix = species != null && !species.isBlank()
+            ? species.trim().toLowerCase(Locale.ROOT) : null;
+        return new TreeFilter(category, speciesPrefix, lat, lng, radius, h3Range[0], h3Range[1], verified);
+    }
+
+    /**
+     * Fetch one page of trees
+     *
+     * With a cursor the page continues right after the cursor's row (keyset
+     * mode) and {@code page} is ignored; otherwise {@code page} selects an
+     * offset. One extra row is read to decide whether a next cursor exists.
+     *
+     * @param filter Filter criteria
+     * @param sort Ordering
+     * @param after Optional cursor token from a previous page
+     * @param page Zero-based page number for offset mode
+     * @param size Page size
+     * @param countMode Whether and how to count all matching trees
+     * @return The page
+     */
+    public TreePage findTrees(TreeFilter filter, TreeSort sort, String after, int page, int size, CountMode countMode) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative");
+        }
+
+        TreeCursor cursor = after != null ? TreeCursor.decode(after) : null;
+        if (cursor != null && cursor.sort() != sort) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort");
+        }
+
+        long start = System.nanoTime();
+        List<TreeFilter> partitionFilters = partitionFilters(filter);
+        if (partitionFilters != null && cursor == null && (long) page * size > MAX_PARTITIONED_OFFSET) {
+            throw new IllegalArgumentException("Pages deeper than " + MAX_PARTITIONED_OFFSET
+                + " trees around a location need a cursor; pass the previous page's nextCursor as after");
+        }
+        List<Tree> trees = partitionFilters == null
+            ? treeQueryRepository.find(filter, sort,
+                cursor != null ? cursor.key() : null,
+                cursor != null ? cursor.id() : null,
+                (long) page * size, size + 1)
+            : findPartitioned(partitionFilters, sort, cursor, (long) page * size, size + 1);
+        start = treeMetrics.record(Stage.LIST_DB_FETCH, start);
+
+        String nextCursor = null;
+        if (trees.size() > size) {
+            trees = trees.subList(0, size);
+            Tree last = trees.get(size - 1);
+            String key = sort == TreeSort.UPDATED_AT ? last.getUpdatedAt().toString() : last.getH3Index();
+            nextCursor = new TreeCursor(sort, key, last.getId()).encode();
+        }
+
+        Long total = null;
+        if (countMode != CountMode.NONE) {
+            total = 0L;
+            // Partition cells do not overlap, so their counts add up
+            for (TreeFilter countFilter : partitionFilters != null ? partitionFilters : List.of(filter)) {
+                total += countMode == CountMode.EXACT
+                    ? treeQueryRepository.count(countFilter)
+                    : treeQueryRepository.estimateCount(countFilter);
+            }
+        }
+        if (total != null) {
+            treeMetrics.record(Stage.LIST_COUNT, start);
+        }
+        treeMetrics.recordResultSize(Operation.LIST, trees.size());
+        return new TreePage(trees, nextCursor, total, countMode == CountMode.ESTIMATED);
+    }
+
+    /**
+     * Read a tree through the tree cache
+     *
+     * The returned instance is shared with other readers and must not be
+     * modified; use {@link #loadForUpdate(String)} to change a tree.
+     *
+     * @param id Tree identifier
+     * @return The tree
+     * @throws ResourceNotFoundException if no tree has the given id
+     */
+    public Tree getById(String id) {
+        Tree tree = treeCache.getIfPresent(id);
+        if (tree != null) {
+            return tree;
+        }
+        long generation = cacheGeneration.get();
+        // Misses are not cached, so a tree created later is found right away
+        tree = treeRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Tree not found: " + id));
+        cacheLoaded(Map.of(id, tree), generation);
+        return tree;
+    }
+
+    /**
+     * Load a private copy of a tree from the store, bypassing the cache
+     *
+     * @param id Tree identifier
+     * @return The tree, safe to modify and pass to {@link #update(Tree)}
+     * @throws ResourceNotFoundException if no tree has the given id
+     */
+    public Tree loadForUpdate(String id) {
+        return treeRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Tree not found: " + id));
+    }
+
+    /**
+     * Register a new tree
+     *
+     * Assigns id and timestamps, computes the H3 index and adds the tree to
+     * the spatial index and cluster rollups once it has been persisted.
+     *
+     * @param tree Tree populated with the submitted data
+     * @return The persisted tree
+     */
+    public Tree create(Tree tree) {
+        long start = System.nanoTime();
+        prepareNew(tree, Instant.now());
+        start = treeMetrics.record(Stage.CREATE_H3, start);
+
+        Tree saved = saveWithSequence(tree);
+        start = treeMetrics.record(Stage.CREATE_DB_WRITE, start);
+        indexTree(saved);
+        publish(EventType.CREATED, saved, null);
+        treeMetrics.record(Stage.CREATE_INDEX_UPDATE, start);
+        return saved;
+    }
+
+    /**
+     * Assign id, timestamps and H3 index to a tree that is about to be inserted
+     *
+     * Safe to call concurrently for different trees; used by the batch
+     * ingest pipeline, which persists trees itself and assigns their change
+     * sequence numbers when it writes them.
+     *
+     * @param tree Unsaved tree
+     * @param now Creation timestamp
+     * @throws IllegalArgumentException if the tree has invalid coordinates
+     */
+    public void prepareNew(Tree tree, Instant now) {
+        assignH3Index(tree);
+        tree.setId(UUID.randomUUID().toString());
+        tree.markNew();
+        if (tree.getTaggedAt() == null) {
+            tree.setTaggedAt(now);
+        }
+        tree.setCreatedAt(now);
+        tree.setUpdatedAt(now);
+        tree.deriveSpeciesKey();
+    }
+
+    /**
+     * Add trees created outside this service to the spatial index and
+     * rollups and announce them on the change feed
+     *
+     * @param trees Persisted trees
+     */
+    public void indexTrees(List<Tree> trees) {
+        for (Tree tree : trees) {
+            indexTree(tree);
+            publish(EventType.CREATED, tree, null);
+        }
+    }
+
+    /**
+     * Persist changes made to an existing tree
+     *
+     * Recomputes the H3 index and moves the tree inside the spatial index and
+     * cluster rollups in case its location or category changed. A tree that
+     * changes H3 index leaves a move record, so delta sync of the cell it
+     * left can drop it.
+     *
+     * @param tree Modified tree previously loaded with {@link #loadForUpdate(String)}
+     * @return The persisted tree
+     */
+    public Tree update(Tree tree) {
+        String previousH3Index = tree.getH3Index();
+        long start = System.nanoTime();
+        tree.setUpdatedAt(Instant.now());
+        assignH3Index(tree);
+        start = treeMetrics.record(Stage.UPDATE_H3, start);
+
+        TreeMove move = null;
+        if (previousH3Index != null && !previousH3Index.equals(tree.getH3Index())) {
+            move = new TreeMove();
+            move.setTreeId(tree.getId());
+            move.setFromH3Index(previousH3Index);
+            move.setMovedAt(tree.getUpdatedAt());
+        }
+        Tree saved = saveWithSequence(tree, move);
+        start = treeMetrics.record(Stage.UPDATE_DB_WRITE, start);
+        indexTree(saved);
+        publish(EventType.UPDATED, saved, previousH3Index);
+        treeMetrics.record(Stage.UPDATE_INDEX_UPDATE, start);
+        return saved;
+    }
+
+    /**
+     * Delete a tree and drop it from the spatial index and rollups
+     *
+     * The row is replaced by a tombstone in the same transaction so delta
+     * sync clients learn about the deletion.
+     *
+     * @param id Tree identifier
+     * @throws ResourceNotFoundException if no tree has the given id
+     */
+    public void delete(String id) {
+        Tree tree = loadForUpdate(id);
+        TreeTombstone tombstone = new TreeTombstone();
+        tombstone.setTreeId(id);
+        tombstone.setH3Index(tree.getH3Index());
+        tombstone.setDeletedAt(Instant.now());
+
+        long seq = changeSequence.begin();
+        try {
+            tombstone.setChangeSeq(seq);
+            transactionTemplate.executeWithoutResult(status -> {
+                treeRepository.delete(tree);
+                treeChangeRepository.insertTombstone(tombstone);
+            });
+            changeSequence.committed(seq);
+        } finally {
+            changeSequence.end(seq);
+            invalidateCached(id);
+        }
+        spatialIndex.remove(id);
+        clusterRollups.remove(id);
+        analyticsRollups.remove(id);
+        searchIndex.remove(id);
+        treeEventFeed.publish(EventType.DELETED, new TreeChange(seq, id, null), tree.getH3Index(), null);
+    }
+
+    /**
+     * Mark a tree as verified
+     *
+     * @param id Tree identifier
+     * @param verifiedBy Identifier of the verifying user
+     * @return The verified tree
+     */
+    public Tree verify(String id, String verifiedBy) {
+        Tree tree = loadForUpdate(id);
+        Instant now = Instant.now();
+        tree.setVerified(true);
+        tree.setVerifiedBy(verifiedBy);
+        tree.setVerifiedAt(now);
+        tree.setUpdatedAt(now);
+        Tree saved = saveWithSequence(tree);
+        analyticsRollups.put(AnalyticsRollups.Observation.of(saved));
+        publish(EventType.VERIFIED, saved, null);
+        return saved;
+    }
+
+    /**
+     * Put stored photos into slots of a tree
+     *
+     * @param id Tree identifier
+     * @param photos Photo ids by slot; slots not mentioned are left unchanged
+     * @return The updated tree
+     * @throws ResourceNotFoundException if no tree has the given id
+     */
+    public Tree attachPhotos(String id, Map<PhotoSlot, String> photos) {
+        Tree tree = loadForUpdate(id);
+        photos.forEach(tree::setPhoto);
+        tree.setUpdatedAt(Instant.now());
+        Tree saved = saveWithSequence(tree);
+        publish(EventType.UPDATED, saved, null);
+        return saved;
+    }
+
+    /**
+     * Fetch the changes made after a sync position
+     *
+     * Returns the latest state of every tree written after {@code since} and
+     * a tombstone for every tree deleted after it, merged in sequence order.
+     * A tree changed several times appears once. Restricted to a cell, a
+     * tree that moved out of the cell and is still outside it is returned
+     * as deleted. Only committed changes up to the
+     * {@link ChangeSequence#stableSequence() stable sequence} are returned,
+     * so resuming from {@code nextSince} never skips a change.
+     *
+     * @param since Sequence number the client has synced up to (0 for everything)
+     * @param cell Optional H3 cell restricting the changes to trees inside it
+     * @param limit Maximum number of changes to return
+     * @return Changes in ascending sequence order
+     */
+    public ChangeSet findChanges(long since, String cell, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("Sync position must not be negative");
+        }
+        if (limit <= 0 || limit > MAX_CHANGES) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_CHANGES);
+        }
+        String[] h3Range = cell != null ? storedIndexRange(cell) : new String[2];
+        long upTo = changeSequence.stableSequence();
+        if (since > upTo) {
+            throw new IllegalArgumentException("Sync position " + since + " is ahead of the server; perform a full sync");
+        }
+
+        long start = System.nanoTime();
+        List<Tree> trees = treeChangeRepository.findChangedTrees(since, upTo, h3Range[0], h3Range[1], limit + 1);
+        List<TreeTombstone> tombstones = treeChangeRepository.findTombstones(since, upTo, h3Range[0], h3Range[1], limit + 1);
+        List<TreeMove> movesOut = cell != null
+            ? treeChangeRepository.findMovesOut(since, upTo, h3Range[0], h3Range[1], limit + 1)
+            : List.of();
+        treeMetrics.record(Stage.CHANGES_DB_FETCH, start);
+
+        List<TreeChange> updated = new ArrayList<>(trees.size());
+        for (Tree tree : trees) {
+            updated.add(new TreeChange(tree.getChangeSeq(), tree.getId(), tree));
+        }
+        List<TreeChange> removed = new ArrayList<>(tombstones.size());
+        for (TreeTombstone tombstone : tombstones) {
+            removed.add(new TreeChange(tombstone.getChangeSeq(), tombstone.getTreeId(), null));
+        }
+        List<TreeChange> left = new ArrayList<>(movesOut.size());
+        for (TreeMove move : movesOut) {
+            left.add(new TreeChange(move.getChangeSeq(), move.getTreeId(), null));
+        }
+        // Every list is in sequence order and sequence numbers are unique across them
+        List<TreeChange> changes = SortedMerge.topN(List.of(updated, removed, left),
+            Comparator.comparingLong(TreeChange::seq), TreeChange::seq, limit + 1);
+
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        long nextSince = hasMore ? changes.get(changes.size() - 1).seq() : upTo;
+        treeMetrics.recordResultSize(Operation.CHANGES, changes.size());
+        return new ChangeSet(since, nextSince, hasMore, changes);
+    }
+
+    /**
+     * Find the trees closest to a point
+     *
+     * Candidates come from the spatial index; only the final {@code limit}
+     * hits are loaded from the store, in distance order.
+     *
+     * @param lat Latitude of the search center
+     * @param lng Longitude of the search center
+     * @param radius Search radius in meters
+     * @param limit Maximum number of trees to return
+     * @return Hits with their trees, ordered by ascending distance
+     */
+    public List<NearbyTree> findNearby(double lat, double lng, double radius, int limit) {
+        validateCoordinates(lat, lng);
+        if (!(radius > 0 && radius <= maxNearbyRadius)) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + maxNearbyRadius + " meters");
+        }
+        if (limit <= 0 || limit > MAX_NEARBY_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_NEARBY_RESULTS);
+        }
+
+        long start = System.nanoTime();
+        NearbyQuery query = spatialIndex.plan(lat, lng, radius);
+        start = treeMetrics.record(Stage.NEARBY_H3, start);
+        List<NearbyHit> hits = spatialIndex.nearby(query, limit);
+        start = treeMetrics.record(Stage.NEARBY_INDEX_LOOKUP, start);
+        if (hits.isEmpty()) {
+            treeMetrics.recordResultSize(Operation.NEARBY, 0);
+            return List.of();
+        }
+
+        List<String> ids = new ArrayList<>(hits.size());
+        for (NearbyHit hit : hits) {
+            ids.add(hit.id());
+        }
+        Map<String, Tree> treesById = new HashMap<>();
+        for (Tree tree : treeRepository.findAllById(ids)) {
+            treesById.put(tree.getId(), tree);
+        }
+        treeMetrics.record(Stage.NEARBY_DB_FETCH, start);
+
+        List<NearbyTree> result = new ArrayList<>(hits.size());
+        for (NearbyHit hit : hits) {
+            Tree tree = treesById.get(hit.id());
+            // Skip trees deleted between the index lookup and the fetch
+            if (tree != null) {
+                result.add(new NearbyTree(tree, hit.distanceMeters()));
+            }
+        }
+        treeMetrics.recordResultSize(Operation.NEARBY, result.size());
+        return result;
+    }
+
+    /**
+     * Find trees by name, scientific name or local name
+     *
+     * Matches from the search index tolerate typos and partly typed words;
+     * only the returned trees are loaded, through the tree cache.
+     *
+     * @param query Free text; every word must match
+     * @param cell Optional H3 cell restricting the results to trees inside it
+     * @param limit Maximum number of trees to return
+     * @return Matching trees, most relevant first
+     */
+    public SearchResult search(String query, String cell, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit <= 0 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        Long minCell = null;
+        Long maxCell = null;
+        if (cell != null) {
+            long[] range = storedCellRange(cell);
+            minCell = range[0];
+            maxCell = range[1];
+        }
+
+        long start = System.nanoTime();
+        SearchHits hits = searchIndex.search(query, minCell, maxCell, limit);
+        start = treeMetrics.record(Stage.SEARCH_INDEX_LOOKUP, start);
+        if (hits.hits().isEmpty()) {
+            treeMetrics.recordResultSize(Operation.SEARCH, 0);
+            return new SearchResult(query, List.of(), hits.hasMore());
+        }
+
+        List<String> ids = new ArrayList<>(hits.hits().size());
+        for (Hit hit : hits.hits()) {
+            ids.add(hit.id());
+        }
+        Map<String, Tree> treesById = new HashMap<>(treeCache.getAllPresent(ids));
+        if (treesById.size() < ids.size()) {
+            long generation = cacheGeneration.get();
+            Map<String, Tree> loaded = new HashMap<>();
+            for (Tree tree : treeRepository.findAllById(ids)) {
+                loaded.putIfAbsent(tree.getId(), tree);
+            }
+            cacheLoaded(loaded, generation);
+            loaded.forEach(treesById::putIfAbsent);
+        }
+        treeMetrics.record(Stage.SEARCH_DB_FETCH, start);
+
+        List<Tree> trees = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Tree tree = treesById.get(id);
+            // Skip trees deleted between the index lookup and the fetch
+            if (tree != null) {
+                trees.add(tree);
+            }
+        }
+        treeMetrics.recordResultSize(Operation.SEARCH, trees.size());
+        return new SearchResult(query, trees, hits.hasMore());
+    }
+
+    private void publish(EventType type, Tree tree, String previousH3Index) {
+        treeEventFeed.publish(type, new TreeChange(tree.getChangeSeq(), tree.getId(), tree),
+            tree.getH3Index(), previousH3Index);
+    }
+
+    private Tree saveWithSequence(Tree tree) {
+        return saveWithSequence(tree, null);
+    }
+
+    /**
+     * @param move Move record written in the same transaction under the same sequence number, or null
+     */
+    private Tree saveWithSequence(Tree tree, TreeMove move) {
+        long seq = changeSequence.begin();
+        try {
+            tree.setChangeSeq(seq);
+            Tree saved;
+            if (move == null) {
+                saved = treeRepository.save(tree);
+            } else {
+                move.setChangeSeq(seq);
+                saved = transactionTemplate.execute(status -> {
+                    Tree written = treeRepository.save(tree);
+                    treeChangeRepository.insertMove(move);
+                    return written;
+                });
+            }
+            changeSequence.committed(seq);
+            return saved;
+        } finally {
+            changeSequence.end(seq);
+            // After the commit, so a concurrent read cannot re-cache the old state
+            invalidateCached(tree.getId());
+        }
+    }
+
+    /**
+     * Cache trees read from the store, unless a write invalidated any cache
+     * entry since {@code generation} was read before the store was
+     *
+     * Loading happens outside the cache so no lock is held across a
+     * database call, which would pin the carrier of a virtual thread. The
+     * generation check keeps a read that raced a write from caching the
+     * state the write replaced.
+     */
+    private void cacheLoaded(Map<String, Tree> loaded, long generation) {
+        for (Map.Entry<String, Tree> entry : loaded.entrySet()) {
+            treeCache.asMap().compute(entry.getKey(), (id, cached) ->
+                cached == null && cacheGeneration.get() == generation ? entry.getValue() : cached);
+        }
+    }
+
+    private void invalidateCached(String id) {
+        cacheGeneration.incrementAndGet();
+        treeCache.invalidate(id);
+    }
+
+    /**
+     * Split a location filter into one filter per partition cell the circle
+     * overlaps, each narrowed to the stored H3 indexes inside the cell
+     *
+     * @return Filters of the partition cells, or null to run the filter as
+     *         a single query (one partition, or no location filter)
+     */
+    private List<TreeFilter> partitionFilters(TreeFilter filter) {
+        if (spatialIndex.partitionCount() == 1 || !filter.hasLocation()) {
+            return null;
+        }
+        List<TreeFilter> filters = new ArrayList<>();
+        for (Route route : spatialIndex.route(filter.lat(), filter.lng(), filter.radius())) {
+            long[] range = h3Service.descendantRange(route.cell(), h3Service.getDefaultResolution());
+            String min = h3Service.toAddress(range[0]);
+            String max = h3Service.toAddress(range[1]);
+            if (filter.h3Min() != null) {
+                min = filter.h3Min().compareTo(min) > 0 ? filter.h3Min() : min;
+                max = filter.h3Max().compareTo(max) < 0 ? filter.h3Max() : max;
+                if (min.compareTo(max) > 0) {
+                    continue;
+                }
+            }
+            filters.add(new TreeFilter(filter.category(), filter.speciesPrefix(), filter.lat(), filter.lng(),
+                filter.radius(), min, max, filter.verified()));
+        }
+        return filters;
+    }
+
+    /**
+     * Fetch a page from every partition cell and merge them in sort order
+     *
+     * Keyset pages continue after the cursor in every cell. An offset page
+     * needs the first {@code offset + limit} rows of each cell, so offsets
+     * are limited to {@value #MAX_PARTITIONED_OFFSET}.
+     */
+    private List<Tree> findPartitioned(List<TreeFilter> filters, TreeSort sort, TreeCursor cursor,
+                                       long offset, int limit) {
+        long skip = cursor != null ? 0 : offset;
+        int fetch = (int) Math.min(skip + limit, Integer.MAX_VALUE);
+        List<List<Tree>> pages = new ArrayList<>(filters.size());
+        for (TreeFilter partitionFilter : filters) {
+            pages.add(treeQueryRepository.find(partitionFilter, sort,
+                cursor != null ? cursor.key() : null,
+                cursor != null ? cursor.id() : null,
+                0, fetch));
+        }
+        List<Tree> merged = SortedMerge.topN(pages, sort.comparator(), Tree::getId, fetch);
+        return skip >= merged.size() ? List.of() : merged.subList((int) skip, merged.size());
+    }
+
+    /**
+     * Map an H3 cell of any resolution up to the stored one onto the range
+     * of stored H3 indexes inside it
+     */
+    private String[] storedIndexRange(String h3Index) {
+        long[] range = storedCellRange(h3Index);
+        return new String[] {h3Service.toAddress(range[0]), h3Service.toAddress(range[1])};
+    }
+
+    private long[] storedCellRange(String h3Index) {
+        long cell = h3Service.toCell(h3Index);
+        if (h3Service.resolutionOf(cell) > h3Service.getDefaultResolution()) {
+            throw new IllegalArgumentException("H3 index resolution exceeds the stored resolution "
+                + h3Service.getDefaultResolution());
+        }
+        return h3Service.descendantRange(cell, h3Service.getDefaultResolution());
+    }
+
+    private void indexTree(Tree tree) {
+        spatialIndex.put(tree.getId(), tree.getH3Index(), tree.getLat(), tree.getLng());
+        clusterRollups.put(tree.getId(), tree.getLat(), tree.getLng(), tree.getCategory());
+        analyticsRollups.put(AnalyticsRollups.Observation.of(tree));
+        searchIndex.put(tree.getId(), tree.getH3Index(), tree.getName(), tree.getScientificName(), tree.getLocalName());
+    }
+
+    private void assignH3Index(Tree tree) {
+        validateCoordinates(tree.getLat(), tree.getLng());
+        tree.setH3Index(h3Service.toAddress(h3Service.cellFor(tree.getLat(), tree.getLng())));
+    }
+
+    private static void validateCoordinates(double lat, double lng) {
+        // Comparisons are false for NaN, which H3 rejects with an unchecked exception
+        if (!Double.isFinite(lat) || !Double.isFinite(lng) || lat < -90 || lat > 90 || lng < -180 || lng > 180) {
+            throw new IllegalArgumentException("Invalid coordinates: " + lat + ", " + lng);
+        }
+    }
+
+    /**
+     * How the total number of matching trees is computed for a list page
+     */
+    public enum CountMode {
+        EXACT,
+        ESTIMATED,
+        NONE;
+
+        /**
+         * @param value Request parameter value (exact, estimated or none)
+         * @return Matching count mode
+         * @throws IllegalArgumentException for unknown values
+         */
+        public static CountMode fromParameter(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported count mode: " + value + " (use exact, estimated or none)");
+            }
+        }
+    }
+
+    /**
+     * One page of a tree list
+     *
+     * @param trees Trees on this page
+     * @param nextCursor Token for the next page, or null on the last page
+     * @param totalElements Number of matching trees, or null when not counted
+     * @param countEstimated Whether {@code totalElements} is a planner estimate
+     */
+    public record TreePage(List<Tree> trees, String nextCursor, Long totalElements, boolean countEstimated) {
+    }
+
+    /**
+     * Trees found by a name search
+     *
+     * @param query The query as given
+     * @param trees Matching trees, most relevant first
+     * @param hasMore Whether more trees may match than were returned
+     */
+    public record SearchResult(String query, List<Tree> trees, boolean hasMore) {
+    }
+
+    /**
+     * A tree returned by a nearby query together with its distance
+     *
+     * @param tree The tree
+     * @param distanceMeters Great-circle distance from the query point
+     */
+    public record NearbyTree(Tree tree, double distanceMeters) {
+    }
+
+    /**
+     * A single entry of a delta sync response
+     *
+     * @param seq Change sequence number
+     * @param id Tree identifier
+     * @param tree Current state of the tree, or null if it was deleted or left the synced cell
+     */
+    public record TreeChange(long seq, String id, Tree tree) {
+
+        public boolean isDeleted() {
+            return tree == null;
+        }
+    }
+
+    /**
+     * Changes returned by a delta sync
+     *
+     * @param since Sync position the changes follow
+     * @param nextSince Position to pass as {@code since} on the next sync
+     * @param hasMore Whether further changes are available right away
+     * @param changes Changes in ascending sequence order
+     */
+    public record ChangeSet(long since, long nextSince, boolean hasMore, List<TreeChange> changes) {
+    }
+}
@@ -0,0 +1,115 @@
+package com.krishhortus.service;
+
+import com.krishhortus.exception.AuthenticationFailedException;
+import com.krishhortus.model.User;
+import com.krishhortus.repository.UserRepository;
+import com.krishhortus.security.PasswordHashingService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Business logic for user accounts
+ *
+ * Registration and login validate their input and look up the account on
+ * the calling thread, then hand the password to
+ * {@link PasswordHashingService}; the returned futures complete on the
+ * hashing pool.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Service
+public class UserService {
+
+    private static final int MIN_PASSWORD_LENGTH = 8;
+    /** BCrypt only uses the first 72 bytes of a password */
+    private static final int MAX_PASSWORD_BYTES = 72;
+    private static final String DEFAULT_ROLE = "USER";
+
+    private final UserRepository userRepository;
+    private final PasswordHashingService passwordHashingService;
+
+    public UserService(UserRepository userRepository, PasswordHashingService passwordHashingService) {
+        this.userRepository = userRepository;
+        this.passwordHashingService = passwordHashingService;
+    }
+
+    /**
+     * Create an account
+     *
+     * @param email Email address, unique across accounts
+     * @param password Password of 8 to 72 bytes
+     * @param name Display name
+     * @return Future of the stored account
+     * @throws IllegalArgumentException if the input is invalid or the email is taken
+     */
+    public CompletableFuture<User> register(String email, String password, String name) {
+        String normalizedEmail = normalizeEmail(email);
+        if (normalizedEmail == null || normalizedEmail.indexOf('@') < 1) {
+            throw new IllegalArgumentException("A valid email address is required");
+        }
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        if (password == null || password.length() < MIN_PASSWORD_LENGTH) {
+            throw new IllegalArgumentException("Password must be at least " + MIN_PASSWORD_LENGTH + " characters long");
+        }
+        if (password.getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES) {
+            throw new IllegalArgumentException("Password must not be longer than " + MAX_PASSWORD_BYTES + " bytes");
+        }
+        // Checked before hashing so taken emails do not cost a hash
+        if (userRepository.existsByEmail(normalizedEmail)) {
+            throw new IllegalArgumentException("An account with this email already exists");
+        }
+
+        return passwordHashingService.hash(password).thenApply(passwordHash -> {
+            User user = new User();
+            user.setId(UUID.randomUUID().toString());
+            user.setEmail(normalizedEmail);
+            user.setName(name.trim());
+            user.setPasswordHash(passwordHash);
+            user.setRole(DEFAULT_ROLE);
+            user.setVerified(false);
+            user.setCreatedAt(Instant.now());
+            try {
+                return userRepository.save(user);
+            } catch (DataIntegrityViolationException e) {
+                // Registered concurrently with the same email
+                throw new IllegalArgumentException("An account with this email already exists");
+            }
+        });
+    }
+
+    /**
+     * Check login credentials
+     *
+     * @param email Email address of the account
+     * @param password Password as entered
+     * @return Future of the account; fails with {@link AuthenticationFailedException} on wrong credentials
+     */
+    public CompletableFuture<User> authenticate(String email, String password) {
+        String normalizedEmail = normalizeEmail(email);
+        if (normalizedEmail == null || password == null) {
+            throw new AuthenticationFailedException("Invalid email or password");
+        }
+        Optional<User> user = userRepository.findByEmail(normalizedEmail);
+        return passwordHashingService.matches(password, user.map(User::getPasswordHash).orElse(null))
+            .thenApply(matches -> {
+                if (!matches) {
+                    throw new AuthenticationFailedException("Invalid email or password");
+                }
+                return user.get();
+            });
+    }
+
+    private static String normalizeEmail(String email) {
+        return email != null ? email.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
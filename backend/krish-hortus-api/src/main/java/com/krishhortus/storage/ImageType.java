@@ -0,0 +1,106 @@
+package com.krishhortus.storage;
+
+/**
+ * Image formats accepted for tree photos, recognized by their leading bytes
+ *
+ * The type a client declares for an upload is not trusted; the format is
+ * taken from the file signature instead, which needs at most the first
+ * {@link #SIGNATURE_LENGTH} bytes of the file.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public enum ImageType {
+    JPEG("image/jpeg", "jpg"),
+    PNG("image/png", "png"),
+    GIF("image/gif", "gif"),
+    WEBP("image/webp", "webp");
+
+    /** Bytes needed to recognize every supported format */
+    public static final int SIGNATURE_LENGTH = 12;
+
+    private final String mimeType;
+    private final String extension;
+
+    ImageType(String mimeType, String extension) {
+        this.mimeType = mimeType;
+        this.extension = extension;
+    }
+
+    /**
+     * @return MIME type served for the format
+     */
+    public String mimeType() {
+        return mimeType;
+    }
+
+    /**
+     * @return File extension used in photo ids
+     */
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Recognize the format of a file from its first bytes
+     *
+     * @param head First bytes of the file
+     * @param length Number of valid bytes in {@code head}
+     * @return Detected format, or null if it is not a supported image
+     */
+    public static ImageType detect(byte[] head, int length) {
+        if (startsWith(head, length, 0xFF, 0xD8, 0xFF)) {
+            return JPEG;
+        }
+        if (startsWith(head, length, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return PNG;
+        }
+        if (startsWith(head, length, 'G', 'I', 'F', '8') && length >= 6
+                && (head[4] == '7' || head[4] == '9') && head[5] == 'a') {
+            return GIF;
+        }
+        if (startsWith(head, length, 'R', 'I', 'F', 'F') && length >= 12
+                && head[8] == 'W' && head[9] == 'E' && head[10] == 'B' && head[11] == 'P') {
+            return WEBP;
+        }
+        return null;
+    }
+
+    /**
+     * @param mimeType MIME type, e.g. from configuration
+     * @return Matching format, or null if it is not supported
+     */
+    public static ImageType fromMimeType(String mimeType) {
+        for (ImageType type : values()) {
+            if (type.mimeType.equalsIgnoreCase(mimeType.trim())) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param extension File extension of a photo id
+     * @return Matching format, or null if it is not supported
+     */
+    public static ImageType fromExtension(String extension) {
+        for (ImageType type : values()) {
+            if (type.extension.equals(extension)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] head, int length, int... signature) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if ((head[i] & 0xFF) != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,304 @@
+package com.krishhortus.storage;
+
+import com.krishhortus.exception.PayloadTooLargeException;
+import com.krishhortus.exception.ResourceNotFoundException;
+import com.krishhortus.exception.UnsupportedMediaTypeException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed photo storage on the local file system
+ *
+ * A photo is identified by the SHA-256 of its content plus the extension of
+ * its detected format, e.g. {@code 9f86d08...0a08.jpg}, and stored once no
+ * matter how many trees use it:
+ * - Uploads are written to a temporary file with
+ *   {@link FileChannel#transferFrom}, straight from the request channel
+ * - The format is checked against the file signature as soon as the first
+ *   bytes arrive, and the size limit while the file is written, so a bad
+ *   upload is aborted without reading the rest of it
+ * - The hash is computed on the same pass; a photo whose id already exists
+ *   is discarded instead of stored twice
+ * - Complete files are moved into place atomically under
+ *   {@code <upload-dir>/<first two hex digits>/}, so a reader never sees a
+ *   partial photo
+ *
+ * Photos never change once stored. Photos no tree refers to anymore, e.g.
+ * after a slot was replaced, are kept.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class PhotoStore {
+
+    private static final Pattern PHOTO_ID = Pattern.compile("[0-9a-f]{64}\\.[a-z]{3,4}");
+    private static final long TRANSFER_CHUNK = 1 << 20;
+
+    private final Path root;
+    private final Path incoming;
+    private final long maxSize;
+    private final Set<ImageType> allowedTypes;
+    private final Counter stored;
+    private final Counter deduplicated;
+    private final DistributionSummary photoSize;
+
+    public PhotoStore(@Value("${krishhortus.file.upload-dir:uploads/}") String uploadDir,
+                      @Value("${krishhortus.file.max-size:10MB}") DataSize maxSize,
+                      @Value("${krishhortus.file.allowed-types:image/jpeg,image/png,image/gif}") String[] allowedTypes,
+                      MeterRegistry meterRegistry) throws IOException {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.incoming = root.resolve(".incoming");
+        this.maxSize = maxSize.toBytes();
+        this.allowedTypes = EnumSet.noneOf(ImageType.class);
+        for (String mimeType : allowedTypes) {
+            ImageType type = ImageType.fromMimeType(mimeType);
+            if (type == null) {
+                throw new IllegalArgumentException("Unsupported photo type in krishhortus.file.allowed-types: " + mimeType);
+            }
+            this.allowedTypes.add(type);
+        }
+
+        Files.createDirectories(incoming);
+        // Uploads interrupted by a shutdown leave their temporary files behind
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(incoming)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+
+        Counter.Builder storedCounter = Counter.builder("krishhortus.photo.uploads")
+            .description("Uploaded photos by whether their content was already stored");
+        this.stored = storedCounter.tag("result", "stored").register(meterRegistry);
+        this.deduplicated = storedCounter.tag("result", "duplicate").register(meterRegistry);
+        this.photoSize = DistributionSummary.builder("krishhortus.photo.size")
+            .description("Size of uploaded photos")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Store a photo read from a channel
+     *
+     * @param source Photo content, read until its end
+     * @return The stored photo
+     * @throws IOException if reading the upload or writing the file fails
+     * @throws UnsupportedMediaTypeException if the content is not an accepted image format
+     * @throws PayloadTooLargeException if the content exceeds the size limit
+     * @throws IllegalArgumentException if the content is empty
+     */
+    public StoredPhoto store(ReadableByteChannel source) throws IOException {
+        Path temp = createTempFile("upload-");
+        try {
+            InspectingChannel upload = new InspectingChannel(source);
+            try (FileChannel file = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = file.transferFrom(upload, position, TRANSFER_CHUNK)) > 0) {
+                    position += transferred;
+                }
+                upload.finish();
+                // A tree must never refer to a photo lost in a crash
+                file.force(false);
+            }
+
+            String photoId = HexFormat.of().formatHex(upload.digest.digest()) + "." + upload.type.extension();
+            Path target = pathOf(photoId);
+            photoSize.record(upload.size);
+            if (Files.exists(target)) {
+                deduplicated.increment();
+                return new StoredPhoto(photoId, upload.type, upload.size, true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Stored by a concurrent upload of the same content
+                deduplicated.increment();
+                return new StoredPhoto(photoId, upload.type, upload.size, true);
+            }
+            stored.increment();
+            return new StoredPhoto(photoId, upload.type, upload.size, false);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Locate a stored photo
+     *
+     * @param photoId Photo id
+     * @return Path of the photo file
+     * @throws ResourceNotFoundException if the id is malformed or no such photo is stored
+     */
+    public Path locate(String photoId) {
+        if (!isValidId(photoId)) {
+            throw new ResourceNotFoundException("Photo not found: " + photoId);
+        }
+        Path path = pathOf(photoId);
+        if (!Files.isRegularFile(path)) {
+            throw new ResourceNotFoundException("Photo not found: " + photoId);
+        }
+        return path;
+    }
+
+    /**
+     * @param photoId Photo id
+     * @return Whether the id is well formed and names a supported format
+     */
+    public static boolean isValidId(String photoId) {
+        return photoId != null && PHOTO_ID.matcher(photoId).matches() && typeOf(photoId) != null;
+    }
+
+    /**
+     * @param photoId Well-formed photo id
+     * @return Image format of the photo
+     */
+    public static ImageType typeOf(String photoId) {
+        return ImageType.fromExtension(photoId.substring(photoId.indexOf('.') + 1));
+    }
+
+    private Path pathOf(String photoId) {
+        return root.resolve(photoId.substring(0, 2)).resolve(photoId);
+    }
+
+    /**
+     * @return Storage root directory
+     */
+    Path root() {
+        return root;
+    }
+
+    /**
+     * Create a temporary file on the storage file system, from which it can
+     * be moved into place atomically
+     *
+     * @param prefix File name prefix
+     * @return Path of the new empty file
+     * @throws IOException if the file cannot be created
+     */
+    Path createTempFile(String prefix) throws IOException {
+        return Files.createTempFile(incoming, prefix, ".tmp");
+    }
+
+    private String allowedTypeNames() {
+        StringJoiner names = new StringJoiner(", ");
+        for (ImageType type : allowedTypes) {
+            names.add(type.name());
+        }
+        return names.toString();
+    }
+
+    /**
+     * Passes an upload through while checking its format and size and
+     * hashing its content
+     */
+    private final class InspectingChannel implements ReadableByteChannel {
+
+        private final ReadableByteChannel source;
+        private final MessageDigest digest;
+        private final byte[] head = new byte[ImageType.SIGNATURE_LENGTH];
+        private int headLength;
+        private ImageType type;
+        private long size;
+
+        InspectingChannel(ReadableByteChannel source) {
+            this.source = source;
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            int start = dst.position();
+            int n = source.read(dst);
+            if (n <= 0) {
+                return n;
+            }
+            size += n;
+            if (size > maxSize) {
+                throw new PayloadTooLargeException("Photo exceeds the maximum size of " + maxSize + " bytes");
+            }
+
+            ByteBuffer chunk = dst.duplicate();
+            chunk.limit(start + n).position(start);
+            if (type == null) {
+                int take = Math.min(head.length - headLength, n);
+                chunk.duplicate().get(head, headLength, take);
+                headLength += take;
+                if (headLength == head.length) {
+                    detectType();
+                }
+            }
+            digest.update(chunk);
+            return n;
+        }
+
+        /**
+         * Check the format of uploads shorter than the signature length
+         */
+        void finish() {
+            if (size == 0) {
+                throw new IllegalArgumentException("Photo is empty");
+            }
+            if (type == null) {
+                detectType();
+            }
+        }
+
+        private void detectType() {
+            ImageType detected = ImageType.detect(head, headLength);
+            if (detected == null || !allowedTypes.contains(detected)) {
+                throw new UnsupportedMediaTypeException("Photos must be one of: " + allowedTypeNames());
+            }
+            type = detected;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return source.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+
+    /**
+     * A photo in the store
+     *
+     * @param id Photo id
+     * @param type Detected image format
+     * @param size Size in bytes
+     * @param deduplicated Whether the same content was already stored
+     */
+    public record StoredPhoto(String id, ImageType type, long size, boolean deduplicated) {
+    }
+}
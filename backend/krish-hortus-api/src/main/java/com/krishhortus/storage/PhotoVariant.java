@@ -0,0 +1,60 @@
+package com.krishhortus.storage;
+
+import java.util.Locale;
+
+/**
+ * Downscaled renditions of a stored photo
+ *
+ * Each variant fits the photo into a square of {@link #maxDimension()}
+ * pixels, keeping its aspect ratio. Photos already smaller than a variant
+ * are never upscaled; the variant is then the original itself.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public enum PhotoVariant {
+    /** Map markers and popups */
+    THUMB(160),
+    /** Tree cards and lists */
+    SMALL(480),
+    /** Detail views on phones */
+    MEDIUM(1024);
+
+    private final int maxDimension;
+    private final String parameter = name().toLowerCase(Locale.ROOT);
+
+    PhotoVariant(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    /**
+     * @return Longest side in pixels
+     */
+    public int maxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * @return Value of the {@code size} parameter selecting the variant
+     */
+    public String parameter() {
+        return parameter;
+    }
+
+    /**
+     * @param value Request parameter value (thumb, small, medium or original)
+     * @return Matching variant, or null for the original photo
+     * @throws IllegalArgumentException for unknown values
+     */
+    public static PhotoVariant fromParameter(String value) {
+        if (value == null || value.equalsIgnoreCase("original")) {
+            return null;
+        }
+        for (PhotoVariant variant : values()) {
+            if (variant.parameter.equalsIgnoreCase(value)) {
+                return variant;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported photo size: " + value + " (use thumb, small, medium or original)");
+    }
+}
@@ -0,0 +1,255 @@
+package com.krishhortus.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background generation of downscaled photo variants
+ *
+ * Every stored photo gets one file per {@link PhotoVariant}, kept next to
+ * the originals under {@code <upload-dir>/variants/<size>/} and named after
+ * the content hash of the original, so a variant is generated once per
+ * distinct photo and never changes afterwards:
+ * - Generation runs on a small pool of low-priority threads (by default
+ *   one), so resizing never competes with request threads for more than
+ *   that many cores
+ * - Waiting photos are limited by a queue; when it is full new work is
+ *   dropped rather than queued without bound. Nothing is lost: a request
+ *   for a missing variant schedules it again and receives the original
+ * - A photo queued or in progress is not scheduled twice
+ * - All variants of a photo are produced from a single decode, each one
+ *   scaled down from the next larger one
+ * - Photos already smaller than a variant, and formats the JDK cannot
+ *   decode (WebP), get a hard link to the original instead
+ *
+ * Variants are JPEG, or PNG for images with transparency.
+ *
+ * Published metrics: {@code krishhortus.photo.variants.generate} (time per
+ * photo), {@code krishhortus.photo.variants.queue.depth},
+ * {@code krishhortus.photo.variants.rejected} and
+ * {@code krishhortus.photo.variants.failed}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@Component
+public class PhotoVariantService {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoVariantService.class);
+
+    private static final ImageType[] VARIANT_TYPES = ImageType.values();
+
+    private final PhotoStore photoStore;
+    private final Path variantRoot;
+    private final float jpegQuality;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+    private final Timer generateTimer;
+    private final Counter rejected;
+    private final Counter failed;
+
+    public PhotoVariantService(PhotoStore photoStore,
+                               @Value("${krishhortus.file.variants.threads:1}") int threads,
+                               @Value("${krishhortus.file.variants.queue-capacity:256}") int queueCapacity,
+                               @Value("${krishhortus.file.variants.jpeg-quality:0.8}") float jpegQuality,
+                               MeterRegistry meterRegistry) {
+        this.photoStore = photoStore;
+        this.variantRoot = photoStore.root().resolve("variants");
+        this.jpegQuality = jpegQuality;
+        // Decoded images are held in memory; no temporary files needed
+        ImageIO.setUseCache(false);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "photo-variants-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        this.generateTimer = Timer.builder("krishhortus.photo.variants.generate")
+            .description("Time to generate all variants of a photo")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejected = Counter.builder("krishhortus.photo.variants.rejected")
+            .description("Variant generations dropped because the queue was full")
+            .register(meterRegistry);
+        this.failed = Counter.builder("krishhortus.photo.variants.failed")
+            .description("Variant generations that failed")
+            .register(meterRegistry);
+        Gauge.builder("krishhortus.photo.variants.queue.depth", executor, pool -> pool.getQueue().size())
+            .description("Photos waiting for variant generation")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Generate the missing variants of a photo in the background
+     *
+     * Returns at once. Does nothing if the photo is already scheduled;
+     * drops the work if the queue is full.
+     *
+     * @param photoId Id of a stored photo
+     */
+    public void schedule(String photoId) {
+        if (!scheduled.add(photoId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generateTimer.record(() -> generate(photoId));
+                } finally {
+                    scheduled.remove(photoId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            scheduled.remove(photoId);
+            rejected.increment();
+        }
+    }
+
+    /**
+     * Locate a generated variant
+     *
+     * @param photoId Id of a stored photo
+     * @param variant Variant to look up
+     * @return Path of the variant file, or null if it was not generated yet
+     */
+    public Path locate(String photoId, PhotoVariant variant) {
+        Path directory = directoryOf(photoId, variant);
+        String hash = photoId.substring(0, photoId.indexOf('.'));
+        for (ImageType type : VARIANT_TYPES) {
+            Path path = directory.resolve(hash + "." + type.extension());
+            if (Files.isRegularFile(path)) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    private void generate(String photoId) {
+        try {
+            EnumSet<PhotoVariant> missing = EnumSet.noneOf(PhotoVariant.class);
+            for (PhotoVariant variant : PhotoVariant.values()) {
+                if (locate(photoId, variant) == null) {
+                    missing.add(variant);
+                }
+            }
+            if (missing.isEmpty()) {
+                return;
+            }
+
+            Path original = photoStore.locate(photoId);
+            int largest = 0;
+            for (PhotoVariant variant : missing) {
+                largest = Math.max(largest, variant.maxDimension());
+            }
+            ImageResizer.Decoded decoded = ImageResizer.read(original, largest);
+            if (decoded == null) {
+                // No decoder for the format: serve the original for every size
+                for (PhotoVariant variant : missing) {
+                    link(photoId, variant, original);
+                }
+                return;
+            }
+
+            int orientation = PhotoStore.typeOf(photoId) == ImageType.JPEG
+                ? ImageResizer.exifOrientation(original) : 1;
+            BufferedImage previous = decoded.image();
+            boolean upright = false;
+            // Largest first, so each variant is scaled from the next larger one
+            PhotoVariant[] variants = missing.toArray(new PhotoVariant[0]);
+            for (int i = variants.length - 1; i >= 0; i--) {
+                PhotoVariant variant = variants[i];
+                if (decoded.sourceMaxDimension() <= variant.maxDimension()) {
+                    link(photoId, variant, original);
+                    continue;
+                }
+                BufferedImage scaled = ImageResizer.scale(previous, variant.maxDimension());
+                if (!upright) {
+                    scaled = ImageResizer.orient(scaled, orientation);
+                    upright = true;
+                }
+                write(photoId, variant, scaled);
+                previous = scaled;
+            }
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Photo variant generation failed for {}", photoId, e);
+        }
+    }
+
+    private void write(String photoId, PhotoVariant variant, BufferedImage image) throws IOException {
+        Path temp = photoStore.createTempFile("variant-");
+        try {
+            ImageType type = ImageResizer.write(image, temp, jpegQuality);
+            moveIntoPlace(temp, fileOf(photoId, variant, type));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void link(String photoId, PhotoVariant variant, Path original) throws IOException {
+        Path temp = photoStore.createTempFile("variant-");
+        Files.delete(temp);
+        try {
+            try {
+                Files.createLink(temp, original);
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(original, temp);
+            }
+            moveIntoPlace(temp, fileOf(photoId, variant, PhotoStore.typeOf(photoId)));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Variants of the same photo are identical
+        }
+    }
+
+    private Path fileOf(String photoId, PhotoVariant variant, ImageType type) {
+        String hash = photoId.substring(0, photoId.indexOf('.'));
+        return directoryOf(photoId, variant).resolve(hash + "." + type.extension());
+    }
+
+    private Path directoryOf(String photoId, PhotoVariant variant) {
+        return variantRoot.resolve(variant.parameter()).resolve(photoId.substring(0, 2));
+    }
+}
@@ -0,0 +1,420 @@
+package com.krishhortus.util;
+
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Streaming reader for {@code multipart/form-data} request bodies
+ *
+ * Hands out the parts of a request one after the other while the body is
+ * still arriving, so uploads never have to be held in memory or spooled to
+ * a temporary file by the servlet container first:
+ * - All parts are read through one fixed 64 KB buffer
+ * - The body of the current part is a {@link ReadableByteChannel} that
+ *   ends at the next boundary; it can be fed straight into
+ *   {@link java.nio.channels.FileChannel#transferFrom}
+ * - Calling {@link #next()} skips whatever is left of the current part
+ *
+ * Each byte is scanned for the boundary once. Malformed bodies are
+ * reported as {@link IllegalArgumentException}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public class MultipartReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_SIZE = 8 * 1024;
+    private static final int MAX_BOUNDARY_LENGTH = 70;
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int pos;
+    private int limit;
+
+    // Body of the current part: bytes [pos, bodyEnd) can be handed out
+    private int bodyEnd;
+    private int scanFrom;
+    private boolean delimiterAtBodyEnd;
+    private boolean bodyDone;
+
+    private Part current;
+    private boolean started;
+    private boolean finished;
+
+    /**
+     * @param in Request body
+     * @param boundary Boundary parameter of the request content type
+     */
+    public MultipartReader(InputStream in, String boundary) {
+        if (boundary == null || boundary.isEmpty() || boundary.length() > MAX_BOUNDARY_LENGTH) {
+            throw new IllegalArgumentException("Invalid multipart boundary");
+        }
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        // The first boundary is not preceded by a line break; pretend it is
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        limit = 2;
+    }
+
+    /**
+     * Extract the boundary from a request content type
+     *
+     * @param contentType Content type header value
+     * @return Boundary parameter
+     * @throws IllegalArgumentException if the content type is not multipart/form-data with a boundary
+     */
+    public static String boundaryOf(String contentType) {
+        MediaType mediaType;
+        try {
+            mediaType = contentType != null ? MediaType.parseMediaType(contentType) : null;
+        } catch (IllegalArgumentException e) {
+            mediaType = null;
+        }
+        if (mediaType == null || !MediaType.MULTIPART_FORM_DATA.includes(mediaType)) {
+            throw new IllegalArgumentException("Request must be multipart/form-data");
+        }
+        String boundary = mediaType.getParameter("boundary");
+        if (boundary != null && boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+            boundary = boundary.substring(1, boundary.length() - 1);
+        }
+        if (boundary == null || boundary.isEmpty()) {
+            throw new IllegalArgumentException("Multipart request without boundary");
+        }
+        return boundary;
+    }
+
+    /**
+     * Advance to the next part
+     *
+     * @return The next part, or null after the last one
+     * @throws IOException if reading the request body fails
+     */
+    public Part next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (!started) {
+            // Skip the preamble in front of the first boundary
+            started = true;
+            startBody();
+        }
+        drainBody();
+        current = null;
+
+        if (!ensure(2)) {
+            throw malformed("Multipart body ended after a boundary");
+        }
+        if (buffer[pos] == '-' && buffer[pos + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        // Transport padding may follow the boundary before its line break
+        while (ensure(1) && (buffer[pos] == ' ' || buffer[pos] == '\t')) {
+            pos++;
+        }
+        if (!ensure(2) || buffer[pos] != '\r' || buffer[pos + 1] != '\n') {
+            throw malformed("Malformed multipart boundary line");
+        }
+        pos += 2;
+
+        current = readHeaders();
+        startBody();
+        return current;
+    }
+
+    private Part readHeaders() throws IOException {
+        String name = null;
+        String filename = null;
+        String contentType = null;
+        int headerBytes = 0;
+        while (true) {
+            int lineEnd = indexOfLineEnd();
+            while (lineEnd < 0) {
+                if (limit - pos > MAX_HEADER_SIZE || !fill()) {
+                    throw malformed("Malformed or oversized multipart part headers");
+                }
+                lineEnd = indexOfLineEnd();
+            }
+            headerBytes += lineEnd - pos + 2;
+            if (headerBytes > MAX_HEADER_SIZE) {
+                throw malformed("Oversized multipart part headers");
+            }
+            String line = new String(buffer, pos, lineEnd - pos, StandardCharsets.UTF_8);
+            pos = lineEnd + 2;
+            if (line.isEmpty()) {
+                break;
+            }
+
+            int colon = line.indexOf(':');
+            if (colon <= 0) {
+                throw malformed("Malformed multipart part header");
+            }
+            String headerName = line.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = line.substring(colon + 1).trim();
+            if (headerName.equals("content-disposition")) {
+                name = parameter(value, "name");
+                filename = parameter(value, "filename");
+            } else if (headerName.equals("content-type")) {
+                contentType = value;
+            }
+        }
+        if (name == null) {
+            throw malformed("Multipart part without a field name");
+        }
+        return new Part(name, filename, contentType);
+    }
+
+    private int indexOfLineEnd() {
+        for (int i = pos; i < limit - 1; i++) {
+            if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read a parameter of a {@code Content-Disposition} header value, e.g.
+     * {@code name} of {@code form-data; name="tree"; filename="a.jpg"}
+     */
+    private static String parameter(String headerValue, String parameterName) {
+        int i = headerValue.indexOf(';');
+        while (i >= 0 && i < headerValue.length()) {
+            int start = i + 1;
+            while (start < headerValue.length() && headerValue.charAt(start) == ' ') {
+                start++;
+            }
+            int equals = headerValue.indexOf('=', start);
+            if (equals < 0) {
+                return null;
+            }
+            String key = headerValue.substring(start, equals).trim();
+            String value;
+            int next;
+            if (equals + 1 < headerValue.length() && headerValue.charAt(equals + 1) == '"') {
+                StringBuilder quoted = new StringBuilder();
+                int j = equals + 2;
+                while (j < headerValue.length() && headerValue.charAt(j) != '"') {
+                    char c = headerValue.charAt(j);
+                    if (c == '\\' && j + 1 < headerValue.length()) {
+                        c = headerValue.charAt(++j);
+                    }
+                    quoted.append(c);
+                    j++;
+                }
+                value = quoted.toString();
+                next = headerValue.indexOf(';', j);
+            } else {
+                next = headerValue.indexOf(';', equals);
+                value = headerValue.substring(equals + 1, next < 0 ? headerValue.length() : next).trim();
+            }
+            if (key.equalsIgnoreCase(parameterName)) {
+                return value;
+            }
+            i = next;
+        }
+        return null;
+    }
+
+    private void startBody() {
+        bodyDone = false;
+        scanFrom = pos;
+        locateDelimiter();
+    }
+
+    /**
+     * Find how far the body of the current part extends into the buffer
+     *
+     * The last {@code delimiter.length - 1} bytes are held back unless a
+     * full delimiter was found, since they may be its beginning.
+     */
+    private void locateDelimiter() {
+        int last = limit - delimiter.length;
+        byte first = delimiter[0];
+        outer:
+        for (int i = scanFrom; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < delimiter.length; j++) {
+                if (buffer[i + j] != delimiter[j]) {
+                    continue outer;
+                }
+            }
+            bodyEnd = i;
+            scanFrom = i;
+            delimiterAtBodyEnd = true;
+            return;
+        }
+        bodyEnd = Math.max(scanFrom, last + 1);
+        scanFrom = bodyEnd;
+        delimiterAtBodyEnd = false;
+    }
+
+    private int readBody(ByteBuffer dst) throws IOException {
+        if (bodyDone) {
+            return -1;
+        }
+        while (pos == bodyEnd) {
+            if (delimiterAtBodyEnd) {
+                pos += delimiter.length;
+                bodyDone = true;
+                return -1;
+            }
+            if (!fill()) {
+                throw malformed("Multipart body ended inside a part");
+            }
+            locateDelimiter();
+        }
+        int n = Math.min(bodyEnd - pos, dst.remaining());
+        dst.put(buffer, pos, n);
+        pos += n;
+        return n;
+    }
+
+    private void drainBody() throws IOException {
+        while (!bodyDone) {
+            pos = bodyEnd;
+            if (delimiterAtBodyEnd) {
+                pos += delimiter.length;
+                bodyDone = true;
+            } else if (!fill()) {
+                throw malformed("Multipart body ended inside a part");
+            } else {
+                locateDelimiter();
+            }
+        }
+    }
+
+    private boolean ensure(int bytes) throws IOException {
+        while (limit - pos < bytes) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Move unread bytes to the front of the buffer and read more
+     *
+     * @return false at the end of the request body
+     */
+    private boolean fill() throws IOException {
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+            bodyEnd -= pos;
+            scanFrom -= pos;
+            pos = 0;
+        }
+        int n = in.read(buffer, limit, buffer.length - limit);
+        if (n < 0) {
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    private static IllegalArgumentException malformed(String message) {
+        return new IllegalArgumentException(message);
+    }
+
+    /**
+     * One part of a multipart body
+     *
+     * Readable only until {@link MultipartReader#next()} is called again.
+     * Closing the channel has no effect; the rest of the part is skipped
+     * by the next call to {@code next()}.
+     */
+    public final class Part implements ReadableByteChannel {
+
+        private final String name;
+        private final String filename;
+        private final String contentType;
+
+        private Part(String name, String filename, String contentType) {
+            this.name = name;
+            this.filename = filename;
+            this.contentType = contentType;
+        }
+
+        /**
+         * @return Form field name
+         */
+        public String name() {
+            return name;
+        }
+
+        /**
+         * @return File name sent by the client, or null for plain form fields
+         */
+        public String filename() {
+            return filename;
+        }
+
+        /**
+         * @return Content type declared by the client, or null
+         */
+        public String contentType() {
+            return contentType;
+        }
+
+        /**
+         * @return Whether the part is a file rather than a plain form field
+         */
+        public boolean isFile() {
+            return filename != null;
+        }
+
+        /**
+         * Read the whole part as UTF-8 text
+         *
+         * @param maxBytes Maximum accepted length
+         * @return Part content
+         * @throws IOException if reading the request body fails
+         * @throws IllegalArgumentException if the part is longer than {@code maxBytes}
+         */
+        public String readText(int maxBytes) throws IOException {
+            ByteArrayOutputStream text = new ByteArrayOutputStream();
+            ByteBuffer chunk = ByteBuffer.allocate(256);
+            while (read(chunk) >= 0) {
+                if (text.size() + chunk.position() > maxBytes) {
+                    throw new IllegalArgumentException("Form field " + name + " is too long");
+                }
+                text.write(chunk.array(), 0, chunk.position());
+                chunk.clear();
+            }
+            return text.toString(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (current != this) {
+                return -1;
+            }
+            return readBody(dst);
+        }
+
+        @Override
+        public boolean isOpen() {
+            // Stays open at the end of the body, which read() reports as -1
+            return current == this;
+        }
+
+        @Override
+        public void close() {
+            // The reader owns the request body
+        }
+    }
+}
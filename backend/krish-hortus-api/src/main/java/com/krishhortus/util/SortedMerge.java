@@ -0,0 +1,84 @@
+package com.krishhortus.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * K-way merge of sorted lists into their first {@code n} elements
+ *
+ * Keeps one cursor per list in a heap ordered by the cursors' current
+ * elements, so taking the next element costs {@code O(log k)} for
+ * {@code k} lists and no list is read further than the merged result
+ * needs. Elements with a key that was already taken are skipped, which
+ * drops the copies a source may briefly hold while data moves between
+ * sources.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public final class SortedMerge {
+
+    private SortedMerge() {
+    }
+
+    /**
+     * Merge sorted lists
+     *
+     * @param sources Lists, each sorted by {@code order}
+     * @param order Order of every source and of the result
+     * @param key Identity of an element; later elements with a taken key are skipped
+     * @param limit Maximum number of elements
+     * @param <T> Element type
+     * @param <K> Key type
+     * @return The first {@code limit} distinct elements of all sources in order
+     */
+    public static <T, K> List<T> topN(List<? extends List<T>> sources, Comparator<? super T> order,
+                                      Function<? super T, K> key, int limit) {
+        if (sources.size() == 1) {
+            List<T> only = sources.get(0);
+            return new ArrayList<>(only.size() > limit ? only.subList(0, limit) : only);
+        }
+        PriorityQueue<Cursor<T>> heap = new PriorityQueue<>(Math.max(1, sources.size()),
+            (a, b) -> order.compare(a.current(), b.current()));
+        for (List<T> source : sources) {
+            if (!source.isEmpty()) {
+                heap.add(new Cursor<>(source));
+            }
+        }
+        List<T> merged = new ArrayList<>(Math.min(limit, 64));
+        Set<K> taken = new HashSet<>();
+        while (merged.size() < limit && !heap.isEmpty()) {
+            Cursor<T> cursor = heap.poll();
+            T element = cursor.current();
+            if (taken.add(key.apply(element))) {
+                merged.add(element);
+            }
+            if (cursor.advance()) {
+                heap.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    private static final class Cursor<T> {
+        private final List<T> source;
+        private int position;
+
+        Cursor(List<T> source) {
+            this.source = source;
+        }
+
+        T current() {
+            return source.get(position);
+        }
+
+        boolean advance() {
+            return ++position < source.size();
+        }
+    }
+}
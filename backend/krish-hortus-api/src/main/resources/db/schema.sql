@@ -0,0 +1,83 @@
+-- Krish Hortus API - Database Schema
+-- Run at startup by the fast-startup profile (spring.sql.init), which has
+-- Hibernate validate the schema against the entities instead of generating
+-- it. Keep in sync with the @Table/@Index mappings in com.krishhortus.model.
+
+create table if not exists revoked_tokens (
+    expires_at timestamp(6) with time zone not null,
+    revoked_at timestamp(6) with time zone not null,
+    reason varchar(16) not null,
+    token_id varchar(36) not null,
+    primary key (token_id)
+);
+
+create table if not exists tree_tombstones (
+    change_seq bigint not null,
+    deleted_at timestamp(6) with time zone not null,
+    h3_index varchar(16),
+    tree_id varchar(36) not null,
+    primary key (tree_id)
+);
+
+create table if not exists tree_moves (
+    change_seq bigint not null,
+    moved_at timestamp(6) with time zone not null,
+    from_h3_index varchar(16) not null,
+    tree_id varchar(36) not null,
+    primary key (change_seq)
+);
+
+create table if not exists trees (
+    ai_generated boolean not null,
+    canopy_spread float(53),
+    height float(53),
+    lat float(53) not null,
+    lng float(53) not null,
+    trunk_width float(53),
+    verified boolean not null,
+    change_seq bigint not null,
+    created_at timestamp(6) with time zone not null,
+    tagged_at timestamp(6) with time zone,
+    updated_at timestamp(6) with time zone not null,
+    verified_at timestamp(6) with time zone,
+    h3_index varchar(16),
+    category varchar(32),
+    id varchar(36) not null,
+    photo_bark varchar(72),
+    photo_flower varchar(72),
+    photo_fruit varchar(72),
+    photo_leaves varchar(72),
+    photo_tree varchar(72),
+    address varchar(255),
+    local_name varchar(255),
+    name varchar(255) not null,
+    scientific_name varchar(255),
+    species_key varchar(255),
+    tagged_by varchar(255),
+    verified_by varchar(255),
+    primary key (id)
+);
+
+create table if not exists users (
+    verified boolean not null,
+    created_at timestamp(6) with time zone not null,
+    role varchar(16) not null,
+    id varchar(36) not null,
+    password_hash varchar(60) not null,
+    email varchar(255) not null,
+    name varchar(255) not null,
+    profile_picture varchar(255),
+    primary key (id),
+    constraint uk_users_email unique (email)
+);
+
+create index if not exists idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+create index if not exists idx_tree_tombstones_change_seq on tree_tombstones (change_seq);
+create index if not exists idx_tree_moves_from_h3_index on tree_moves (from_h3_index);
+create index if not exists idx_trees_updated_at_id on trees (updated_at, id);
+create index if not exists idx_trees_h3_index_id on trees (h3_index, id);
+create index if not exists idx_trees_category_updated_at_id on trees (category, updated_at, id);
+create index if not exists idx_trees_verified_updated_at_id on trees (verified, updated_at, id);
+create index if not exists idx_trees_species_key_id on trees (species_key, id);
+create index if not exists idx_trees_lat_lng on trees (lat, lng);
+create index if not exists idx_trees_change_seq on trees (change_seq);
@@ -0,0 +1,116 @@
+package com.krishhortus.config;
+
+import com.krishhortus.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the load shedding of {@link ConnectionAdmission}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class ConnectionAdmissionTest {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(2);
+
+    private DataSource pool;
+    private Connection pooled;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        pool = mock(DataSource.class);
+        pooled = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(pooled);
+    }
+
+    @Test
+    void rejectsAtOnceWhenTheWaitingQueueIsFull() throws SQLException {
+        ConnectionAdmission admission = new ConnectionAdmission(pool, 2, 0, Duration.ofSeconds(10), RETRY_AFTER);
+        admission.getConnection();
+        admission.getConnection();
+
+        long start = System.nanoTime();
+        ServiceUnavailableException e = assertThrows(ServiceUnavailableException.class, admission::getConnection);
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5), "rejection waited for the timeout");
+        assertEquals(RETRY_AFTER, e.getRetryAfter());
+        assertEquals(2, admission.getActive());
+        assertEquals(0, admission.getWaiting());
+        assertEquals(1, admission.getRejected());
+        verify(pool, times(2)).getConnection();
+    }
+
+    @Test
+    void rejectsWaitersAfterTheTimeout() throws SQLException {
+        ConnectionAdmission admission = new ConnectionAdmission(pool, 1, 10, Duration.ofMillis(50), RETRY_AFTER);
+        admission.getConnection();
+
+        assertThrows(ServiceUnavailableException.class, admission::getConnection);
+
+        assertEquals(0, admission.getWaiting());
+        assertEquals(1, admission.getRejected());
+    }
+
+    @Test
+    void admitsAWaiterWhenAConnectionIsClosed() throws Exception {
+        ConnectionAdmission admission = new ConnectionAdmission(pool, 1, 10, Duration.ofSeconds(10), RETRY_AFTER);
+        Connection held = admission.getConnection();
+
+        CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return admission.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (admission.getWaiting() == 0) {
+            Thread.onSpinWait();
+        }
+        held.close();
+
+        assertNotNull(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(1, admission.getActive());
+        assertEquals(0, admission.getRejected());
+        verify(pooled).close();
+    }
+
+    @Test
+    void returnsThePermitOnceWhenClosedTwice() throws SQLException {
+        ConnectionAdmission admission = new ConnectionAdmission(pool, 2, 0, Duration.ofSeconds(10), RETRY_AFTER);
+        Connection connection = admission.getConnection();
+        admission.getConnection();
+
+        connection.close();
+        connection.close();
+
+        assertEquals(1, admission.getActive());
+    }
+
+    @Test
+    void returnsThePermitWhenThePoolFails() throws SQLException {
+        when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConnectionAdmission admission = new ConnectionAdmission(pool, 1, 0, Duration.ofSeconds(10), RETRY_AFTER);
+
+        assertThrows(SQLException.class, admission::getConnection);
+
+        assertEquals(0, admission.getActive());
+        assertEquals(0, admission.getRejected());
+    }
+}
@@ -0,0 +1,100 @@
+package com.krishhortus.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for {@link RequestLoggingFilter}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class RequestLoggingFilterTest {
+
+    private final RequestLoggingFilter filter = new RequestLoggingFilter();
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void setsTheRequestIdWhileTheRequestIsHandled() throws ServletException, IOException {
+        MockHttpServletRequest request = request("client-id-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> seen = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> seen.set(MDC.get(RequestLoggingFilter.REQUEST_ID)));
+
+        assertEquals("client-id-1", seen.get());
+        assertEquals("client-id-1", response.getHeader("X-Request-Id"));
+        assertNull(MDC.get(RequestLoggingFilter.REQUEST_ID));
+    }
+
+    @Test
+    void keepsTheIdsUntilTheErrorDispatchEnds() throws ServletException, IOException {
+        MockHttpServletRequest request = request("client-id-2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request, response, (req, res) -> {
+            MDC.put(RequestLoggingFilter.USER_ID, "user-1");
+            throw new IllegalStateException("boom");
+        }));
+        // The container logs the exception here
+        assertEquals("client-id-2", MDC.get(RequestLoggingFilter.REQUEST_ID));
+
+        request.setDispatcherType(DispatcherType.ERROR);
+        AtomicReference<String> seen = new AtomicReference<>();
+        filter.doFilter(request, response, (req, res) -> seen.set(MDC.get(RequestLoggingFilter.REQUEST_ID)));
+
+        assertEquals("client-id-2", seen.get());
+        assertNull(MDC.get(RequestLoggingFilter.REQUEST_ID));
+        assertNull(MDC.get(RequestLoggingFilter.USER_ID));
+    }
+
+    @Test
+    void dropsIdsLeftByAFailedRequestWithoutErrorDispatch() throws ServletException, IOException {
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(request("client-id-3"),
+            new MockHttpServletResponse(), (req, res) -> {
+                MDC.put(RequestLoggingFilter.USER_ID, "user-1");
+                throw new IllegalStateException("boom");
+            }));
+
+        AtomicReference<String> user = new AtomicReference<>("unset");
+        filter.doFilter(request(null), new MockHttpServletResponse(),
+            (req, res) -> user.set(MDC.get(RequestLoggingFilter.USER_ID)));
+
+        assertNull(user.get());
+        assertNull(MDC.get(RequestLoggingFilter.REQUEST_ID));
+    }
+
+    @Test
+    void replacesUnusableClientIds() throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request("bad id\n"), response, new MockFilterChain());
+
+        assertEquals(16, response.getHeader("X-Request-Id").length());
+    }
+
+    private static MockHttpServletRequest request(String requestId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/trees");
+        if (requestId != null) {
+            request.addHeader("X-Request-Id", requestId);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,108 @@
+package com.krishhortus.controller;
+
+import com.krishhortus.dto.TreeJsonWriter;
+import com.krishhortus.metrics.TreeMetrics;
+import com.krishhortus.model.Tree;
+import com.krishhortus.service.TreeEventFeed;
+import com.krishhortus.service.TreeExportService;
+import com.krishhortus.service.TreeIngestService;
+import com.krishhortus.service.TreeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Unit tests for the conditional reads of {@link TreeController}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class TreeControllerTest {
+
+    private static final String ID = "tree-1";
+
+    private TreeService treeService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        treeService = mock(TreeService.class);
+        TreeController controller = new TreeController(treeService, mock(TreeIngestService.class),
+            mock(TreeJsonWriter.class), mock(TreeEventFeed.class), mock(TreeExportService.class),
+            new TreeMetrics(new SimpleMeterRegistry()));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void returnsTheTreeWithAnETag() throws Exception {
+        when(treeService.getById(ID)).thenReturn(tree(Instant.parse("2026-03-01T10:00:00.123Z")));
+
+        String eTag = mockMvc.perform(get("/api/trees/{id}", ID))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andExpect(jsonPath("$.data.id").value(ID))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotNull(eTag);
+    }
+
+    @Test
+    void answersAMatchingIfNoneMatchWithNotModified() throws Exception {
+        when(treeService.getById(ID)).thenReturn(tree(Instant.parse("2026-03-01T10:00:00.123Z")));
+        String eTag = mockMvc.perform(get("/api/trees/{id}", ID))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/trees/{id}", ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag))
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    void servesTheTreeAgainOnceItChanged() throws Exception {
+        when(treeService.getById(ID)).thenReturn(tree(Instant.parse("2026-03-01T10:00:00.123Z")));
+        String eTag = mockMvc.perform(get("/api/trees/{id}", ID))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // An update within the same second still changes the ETag
+        when(treeService.getById(ID)).thenReturn(tree(Instant.parse("2026-03-01T10:00:00.456Z")));
+        String changed = mockMvc.perform(get("/api/trees/{id}", ID).header(HttpHeaders.IF_NONE_MATCH, eTag))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.id").value(ID))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotEquals(eTag, changed);
+        mockMvc.perform(get("/api/trees/{id}", ID).header(HttpHeaders.IF_NONE_MATCH, changed))
+            .andExpect(status().isNotModified());
+        assertEquals(changed, mockMvc.perform(get("/api/trees/{id}", ID))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    private static Tree tree(Instant updatedAt) {
+        Tree tree = new Tree();
+        tree.setId(ID);
+        tree.setName("Village Neem");
+        tree.setLat(18.52);
+        tree.setLng(73.85);
+        tree.setH3Index("8f608850a52cd1b");
+        tree.setCreatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        tree.setUpdatedAt(updatedAt);
+        return tree;
+    }
+}
@@ -0,0 +1,64 @@
+package com.krishhortus.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.krishhortus.model.PhotoSlot;
+import com.krishhortus.model.Tree;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for {@link TreeJsonWriter}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class TreeJsonWriterTest {
+
+    // Configured like the application's mapper, which writes dates as ISO strings
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+
+    @Test
+    void writesTheSameJsonAsTheResponseRecord() throws IOException {
+        Tree tree = tree();
+
+        assertEquals(objectMapper.writeValueAsString(TreeResponse.from(tree)), write(tree, Double.NaN));
+        assertEquals(objectMapper.writeValueAsString(TreeResponse.from(tree, 42.5)), write(tree, 42.5));
+    }
+
+    private String write(Tree tree, double distance) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            TreeJsonWriter.writeTree(gen, tree, distance);
+        }
+        return out.toString();
+    }
+
+    private static Tree tree() {
+        Tree tree = new Tree();
+        tree.setId("tree-1");
+        tree.setName("Village Neem");
+        tree.setScientificName("Azadirachta indica");
+        tree.setCategory("native");
+        tree.setLat(18.52);
+        tree.setLng(73.85);
+        tree.setH3Index("8f608850a52cd1b");
+        tree.setHeight(12.0);
+        tree.setTaggedBy("user-1");
+        tree.setTaggedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        tree.setAiGenerated(true);
+        tree.setPhoto(PhotoSlot.values()[0], "photo-1");
+        tree.setCreatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        tree.setUpdatedAt(Instant.parse("2026-01-02T00:00:00.123Z"));
+        return tree;
+    }
+}
@@ -0,0 +1,180 @@
+package com.krishhortus.geo;
+
+import com.krishhortus.geo.PartitionedTreeIndex.Route;
+import com.krishhortus.geo.TreeSpatialIndex.NearbyHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the splitting and routing of {@link PartitionedTreeIndex}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class PartitionedTreeIndexTest {
+
+    private static final int[] INDEX_RESOLUTIONS = {5, 7, 9, 11};
+    private static final int TREES = 20_000;
+    private static final double CENTER_LAT = 18.52;
+    private static final double CENTER_LNG = 73.85;
+
+    private final H3Service h3Service = new H3Service(15);
+    private PartitionedTreeIndex single;
+    private PartitionedTreeIndex partitioned;
+    private double[] queries;
+
+    @BeforeEach
+    void setUp() {
+        single = index(1, Integer.MAX_VALUE);
+        partitioned = index(4, TREES / 8);
+        Random random = new Random(7);
+        for (int i = 0; i < TREES; i++) {
+            // Dense around the center, so its partition cell becomes hot
+            double spread = i % 4 == 0 ? 3.0 : 0.3;
+            double lat = CENTER_LAT + (random.nextDouble() - 0.5) * spread;
+            double lng = CENTER_LNG + (random.nextDouble() - 0.5) * spread;
+            String h3Index = h3Service.toAddress(h3Service.cellFor(lat, lng));
+            single.put("tree-" + i, h3Index, lat, lng);
+            partitioned.put("tree-" + i, h3Index, lat, lng);
+        }
+        queries = new double[2 * 64];
+        for (int q = 0; q < 64; q++) {
+            queries[2 * q] = CENTER_LAT + (random.nextDouble() - 0.5) * 2;
+            queries[2 * q + 1] = CENTER_LNG + (random.nextDouble() - 0.5) * 2;
+        }
+    }
+
+    @Test
+    void splitsHotCellsWithoutLosingOrDuplicatingTrees() {
+        partitioned.rebalance();
+        partitioned.rebalance();
+
+        assertTrue(partitioned.splitCount() >= 2, "splits " + partitioned.splitCount());
+        assertEquals(TREES, partitioned.size());
+        int held = 0;
+        for (int i = 0; i < partitioned.partitionCount(); i++) {
+            held += partitioned.partitionSize(i);
+            assertTrue(partitioned.partitionSize(i) > 0, "partition " + i + " is empty");
+        }
+        assertEquals(TREES, held);
+        assertSameAsSingleIndex();
+    }
+
+    @Test
+    void routesToTheOwnersOfTheCoveredPartitionCells() {
+        partitioned.rebalance();
+        PartitionMap map = partitioned.getPartitionMap();
+
+        List<Route> routes = partitioned.route(CENTER_LAT, CENTER_LNG, 20_000);
+        Set<Long> cells = new HashSet<>();
+        for (Route route : routes) {
+            assertTrue(cells.add(route.cell()), "duplicate route");
+            assertEquals(route.cell(), map.partitionCellOf(route.cell()));
+            assertEquals(map.ownerOf(route.cell()), route.partition());
+        }
+        assertTrue(cells.contains(map.partitionCellOf(h3Service.cellFor(CENTER_LAT, CENTER_LNG))));
+    }
+
+    @Test
+    void placesTreesByTheirStoredIndex() {
+        // A point whose stored cell descends from another coarse cell than the one containing the point
+        Random random = new Random(11);
+        PartitionMap map = partitioned.getPartitionMap();
+        double lat = 0;
+        double lng = 0;
+        long stored = 0;
+        int storedOwner = 0;
+        for (int attempt = 0; attempt < 1_000_000; attempt++) {
+            lat = CENTER_LAT + (random.nextDouble() - 0.5) * 10;
+            lng = CENTER_LNG + (random.nextDouble() - 0.5) * 10;
+            stored = h3Service.cellFor(lat, lng);
+            storedOwner = map.ownerOf(map.partitionCellOf(h3Service.parent(stored, 5)));
+            if (storedOwner != map.ownerOf(map.partitionCellOf(h3Service.cellFor(lat, lng, 5)))) {
+                break;
+            }
+        }
+        assertNotEquals(map.ownerOf(map.partitionCellOf(h3Service.cellFor(lat, lng, 5))), storedOwner);
+
+        PartitionedTreeIndex index = index(4, Integer.MAX_VALUE);
+        index.put("edge", h3Service.toAddress(stored), lat, lng);
+
+        assertEquals(1, index.partitionSize(storedOwner));
+    }
+
+    @Test
+    void answersReadsConsistentlyDuringSplits() throws InterruptedException {
+        List<List<String>> expected = new ArrayList<>();
+        for (int q = 0; q < queries.length / 2; q++) {
+            expected.add(ids(single.nearby(queries[2 * q], queries[2 * q + 1], 5_000, 50)));
+        }
+
+        AtomicBoolean splitting = new AtomicBoolean(true);
+        AtomicReference<String> failure = new AtomicReference<>();
+        AtomicInteger reads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(4);
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            int offset = r;
+            Thread reader = new Thread(() -> {
+                started.countDown();
+                for (int i = offset; splitting.get() && failure.get() == null; i++) {
+                    int q = i % expected.size();
+                    List<String> hits = ids(partitioned.nearby(queries[2 * q], queries[2 * q + 1], 5_000, 50));
+                    if (!hits.equals(expected.get(q))) {
+                        failure.compareAndSet(null, "query " + q + " returned " + hits.size() + " hits, expected "
+                            + expected.get(q).size());
+                    }
+                    reads.incrementAndGet();
+                }
+            });
+            reader.start();
+            readers.add(reader);
+        }
+        started.await();
+        // Children of a split cell can be hot themselves
+        partitioned.rebalance();
+        partitioned.rebalance();
+        partitioned.rebalance();
+        splitting.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        assertTrue(reads.get() > 0);
+        assertTrue(partitioned.splitCount() >= 2);
+        assertSameAsSingleIndex();
+    }
+
+    private void assertSameAsSingleIndex() {
+        for (int q = 0; q < queries.length / 2; q++) {
+            assertEquals(ids(single.nearby(queries[2 * q], queries[2 * q + 1], 5_000, 50)),
+                ids(partitioned.nearby(queries[2 * q], queries[2 * q + 1], 5_000, 50)), "query " + q);
+        }
+    }
+
+    private PartitionedTreeIndex index(int partitions, int splitThreshold) {
+        return new PartitionedTreeIndex(h3Service, INDEX_RESOLUTIONS, partitions, 3, 5, splitThreshold,
+            Duration.ofMinutes(1));
+    }
+
+    private static List<String> ids(List<NearbyHit> hits) {
+        return hits.stream().map(NearbyHit::id).toList();
+    }
+}
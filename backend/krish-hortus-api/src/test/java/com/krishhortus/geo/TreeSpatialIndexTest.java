@@ -0,0 +1,121 @@
+package com.krishhortus.geo;
+
+import com.krishhortus.geo.TreeSpatialIndex.NearbyHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the ring expansion and bounded heap of {@link TreeSpatialIndex}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class TreeSpatialIndexTest {
+
+    private static final int[] RESOLUTIONS = {5, 7, 9, 11};
+    private static final double CENTER_LAT = 18.52;
+    private static final double CENTER_LNG = 73.85;
+
+    private final H3Service h3Service = new H3Service(15);
+    private TreeSpatialIndex index;
+    private List<double[]> trees;
+
+    @BeforeEach
+    void setUp() {
+        index = new TreeSpatialIndex(h3Service, RESOLUTIONS);
+        trees = new ArrayList<>();
+        Random random = new Random(5);
+        for (int i = 0; i < 5_000; i++) {
+            // Clusters of a few hundred meters inside an area of about 100 km
+            double spread = i % 2 == 0 ? 0.005 : 1.0;
+            double lat = CENTER_LAT + (random.nextDouble() - 0.5) * spread;
+            double lng = CENTER_LNG + (random.nextDouble() - 0.5) * spread;
+            index.put("tree-" + i, lat, lng);
+            trees.add(new double[] {lat, lng});
+        }
+    }
+
+    @Test
+    void picksTheFinestLevelCoveringTheRadiusWithinMaxRings() {
+        for (double radius : new double[] {1, 40, 100, 700, 2_000, 8_000}) {
+            int level = index.pickLevel(radius);
+            int resolution = RESOLUTIONS[level];
+            assertTrue(index.ringsFor(radius, resolution) <= TreeSpatialIndex.MAX_RINGS, "radius " + radius);
+            if (level < RESOLUTIONS.length - 1) {
+                assertTrue(index.ringsFor(radius, RESOLUTIONS[level + 1]) > TreeSpatialIndex.MAX_RINGS,
+                    "radius " + radius + " could use a finer level");
+            }
+        }
+        assertEquals(RESOLUTIONS.length - 1, index.pickLevel(1));
+    }
+
+    @Test
+    void fallsBackToTheCoarsestLevelForLargeRadii() {
+        assertEquals(0, index.pickLevel(200_000));
+        // The coarsest level then walks as many rings as the radius needs
+        assertTrue(index.ringsFor(200_000, RESOLUTIONS[0]) > TreeSpatialIndex.MAX_RINGS);
+    }
+
+    @Test
+    void findsEveryTreeWithinTheRadiusAtEveryLevel() {
+        Random random = new Random(9);
+        for (double radius : new double[] {30, 150, 900, 5_000, 40_000}) {
+            for (int q = 0; q < 20; q++) {
+                double lat = CENTER_LAT + (random.nextDouble() - 0.5) * 0.8;
+                double lng = CENTER_LNG + (random.nextDouble() - 0.5) * 0.8;
+                List<NearbyHit> expected = bruteForce(lat, lng, radius, Integer.MAX_VALUE);
+
+                assertEquals(ids(expected), ids(index.nearby(lat, lng, radius, trees.size())),
+                    "radius " + radius);
+            }
+        }
+    }
+
+    @Test
+    void keepsOnlyTheClosestHitsSortedByDistance() {
+        List<NearbyHit> hits = index.nearby(CENTER_LAT, CENTER_LNG, 5_000, 25);
+
+        assertEquals(ids(bruteForce(CENTER_LAT, CENTER_LNG, 5_000, 25)), ids(hits));
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).distanceMeters() <= hits.get(i).distanceMeters());
+        }
+        assertEquals(List.of(), index.nearby(CENTER_LAT, CENTER_LNG, 5_000, 0));
+    }
+
+    @Test
+    void followsMovesAndRemovals() {
+        index.put("tree-0", CENTER_LAT + 5, CENTER_LNG);
+        index.remove("tree-1");
+
+        List<String> near = ids(index.nearby(CENTER_LAT, CENTER_LNG, 50_000, trees.size()));
+        assertFalse(near.contains("tree-0"));
+        assertFalse(near.contains("tree-1"));
+        assertEquals(List.of("tree-0"), ids(index.nearby(CENTER_LAT + 5, CENTER_LNG, 100, 10)));
+        assertEquals(trees.size() - 1, index.size());
+    }
+
+    private List<NearbyHit> bruteForce(double lat, double lng, double radius, int limit) {
+        List<NearbyHit> hits = new ArrayList<>();
+        for (int i = 0; i < trees.size(); i++) {
+            double distance = GeoMath.haversineMeters(lat, lng, trees.get(i)[0], trees.get(i)[1]);
+            if (distance <= radius) {
+                hits.add(new NearbyHit("tree-" + i, distance));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(NearbyHit::distanceMeters));
+        return hits.subList(0, Math.min(limit, hits.size()));
+    }
+
+    private static List<String> ids(List<NearbyHit> hits) {
+        return hits.stream().map(NearbyHit::id).toList();
+    }
+}
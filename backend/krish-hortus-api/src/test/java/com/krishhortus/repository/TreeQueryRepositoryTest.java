@@ -0,0 +1,32 @@
+package com.krishhortus.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for the species prefix range of {@link TreeQueryRepository}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class TreeQueryRepositoryTest {
+
+    @Test
+    void incrementsLastCharacterForUpperBound() {
+        assertArrayEquals(new String[] {"quercus", "quercut"}, TreeQueryRepository.prefixRange("quercus"));
+        assertArrayEquals(new String[] {"quercus r", "quercus s"}, TreeQueryRepository.prefixRange("quercus r"));
+    }
+
+    @Test
+    void cutsTrailingPunctuationThatCollationsMayIgnore() {
+        assertArrayEquals(new String[] {"quercus sp", "quercus sq"}, TreeQueryRepository.prefixRange("quercus sp."));
+        assertArrayEquals(new String[] {"ficus", "ficut"}, TreeQueryRepository.prefixRange("ficus _%"));
+    }
+
+    @Test
+    void hasNoRangeWithoutLetterOrDigit() {
+        assertNull(TreeQueryRepository.prefixRange("%_"));
+    }
+}
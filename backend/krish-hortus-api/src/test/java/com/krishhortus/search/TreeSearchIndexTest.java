@@ -0,0 +1,104 @@
+package com.krishhortus.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the typo matching of {@link TreeSearchIndex}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class TreeSearchIndexTest {
+
+    private TreeSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TreeSearchIndex();
+        index.put("neem", null, "Village Neem", "Azadirachta indica", "Kadunimb");
+        index.put("pipal", null, "Temple Pipal", "Ficus religiosa", "पीपल");
+        index.put("tamarind", null, "Old Tamarind", "Tamarindus indica", "Chinch");
+        index.put("eucalyptus", null, "Roadside Eucalyptus", "Eucalyptus globulus", null);
+    }
+
+    @Test
+    void matchesShortWordsWithinOneEdit() {
+        assertEquals(List.of("neem"), ids("neam"));
+        // Adjacent transposition counts as one edit
+        assertEquals(List.of("pipal"), ids("pipla"));
+    }
+
+    @Test
+    void rejectsShortWordsTwoEditsAway() {
+        assertEquals(List.of(), ids("naam"));
+    }
+
+    @Test
+    void matchesLongerWordsWithinTwoEdits() {
+        assertEquals(List.of("eucalyptus"), ids("eucalptos"));
+        assertEquals(List.of("pipal"), ids("religoisa"));
+        assertEquals(List.of(), ids("eucxlptos"));
+    }
+
+    @Test
+    void matchesPartlyTypedWordsWithATypo() {
+        assertEquals(List.of("eucalyptus"), ids("eucalp"));
+        assertEquals(List.of("tamarind"), ids("tamr"));
+    }
+
+    @Test
+    void doesNotFuzzMatchWordsUnderThreeLetters() {
+        // Prefix only: "ne" must not reach "pipal" or "tamarind" by an edit
+        assertEquals(List.of("neem"), ids("ne"));
+        assertEquals(List.of(), ids("nx"));
+    }
+
+    @Test
+    void ranksExactAbovePrefixAboveFuzzy() {
+        index.put("neemrana", null, "Neemrana Grove");
+        index.put("nem", null, "Nem");
+
+        assertEquals(List.of("neem", "neemrana", "nem"), ids("neem"));
+    }
+
+    @Test
+    void requiresEveryWordToMatch() {
+        assertEquals(List.of("neem", "tamarind"), ids("indika"));
+        assertEquals(List.of("tamarind"), ids("indika tamrind"));
+        assertEquals(List.of(), ids("indika pipal"));
+    }
+
+    @Test
+    void forgetsRemovedAndRenamedTrees() {
+        index.remove("neem");
+        index.put("pipal", null, "Temple Banyan");
+
+        assertEquals(List.of(), ids("neam"));
+        assertEquals(List.of(), ids("pipla"));
+        assertEquals(List.of("pipal"), ids("banyam"));
+    }
+
+    @Test
+    void rejectsQueriesWithoutLettersOrDigits() {
+        assertThrows(IllegalArgumentException.class, () -> index.search("--", null, null, 10));
+    }
+
+    @Test
+    void reportsMoreHitsThanTheLimit() {
+        TreeSearchIndex.SearchHits hits = index.search("indica", null, null, 1);
+
+        assertEquals(1, hits.hits().size());
+        assertTrue(hits.hasMore());
+    }
+
+    private List<String> ids(String query) {
+        return index.search(query, null, null, 10).hits().stream().map(TreeSearchIndex.Hit::id).toList();
+    }
+}
@@ -0,0 +1,94 @@
+package com.krishhortus.security;
+
+import com.krishhortus.security.RateLimiter.EndpointClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the buckets of {@link RateLimiter}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private RateLimiter limiter;
+
+    @AfterEach
+    void tearDown() {
+        if (limiter != null) {
+            limiter.shutdown();
+        }
+    }
+
+    @Test
+    void allowsABurstOfCapacityThenRejects() {
+        // One token a thousand seconds: nothing refills during the test
+        limiter = limiter(5, 0.001);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire(EndpointClass.GEO, "client"));
+        }
+        long wait = limiter.tryAcquire(EndpointClass.GEO, "client");
+
+        assertTrue(wait > 900 * SECOND && wait <= 1000 * SECOND, "wait " + wait);
+        assertEquals(1, limiter.rejected(EndpointClass.GEO));
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() throws InterruptedException {
+        // One token every 100 ms
+        limiter = limiter(2, 10);
+        assertEquals(0, limiter.tryAcquire(EndpointClass.GEO, "client"));
+        assertEquals(0, limiter.tryAcquire(EndpointClass.GEO, "client"));
+
+        long wait = limiter.tryAcquire(EndpointClass.GEO, "client");
+        assertTrue(wait > 0 && wait <= SECOND / 10, "wait " + wait);
+
+        TimeUnit.NANOSECONDS.sleep(wait);
+        assertEquals(0, limiter.tryAcquire(EndpointClass.GEO, "client"));
+        assertTrue(limiter.tryAcquire(EndpointClass.GEO, "client") > 0);
+    }
+
+    @Test
+    void neverRefillsBeyondCapacity() throws InterruptedException {
+        limiter = limiter(2, 10);
+        assertEquals(0, limiter.tryAcquire(EndpointClass.GEO, "client"));
+
+        // Ten intervals idle refill the bucket to its capacity of two only
+        Thread.sleep(1000);
+        assertEquals(0, limiter.tryAcquire(EndpointClass.GEO, "client"));
+        assertEquals(0, limiter.tryAcquire(EndpointClass.GEO, "client"));
+        assertTrue(limiter.tryAcquire(EndpointClass.GEO, "client") > 0);
+    }
+
+    @Test
+    void keepsSeparateBucketsPerClientAndClass() {
+        limiter = limiter(1, 0.001);
+
+        assertEquals(0, limiter.tryAcquire(EndpointClass.GEO, "a"));
+        assertTrue(limiter.tryAcquire(EndpointClass.GEO, "a") > 0);
+        assertEquals(0, limiter.tryAcquire(EndpointClass.GEO, "b"));
+        assertEquals(0, limiter.tryAcquire(EndpointClass.READ, "a"));
+        assertEquals(2, limiter.clients(EndpointClass.GEO));
+    }
+
+    private static RateLimiter limiter(int capacity, double perSecond) {
+        MockEnvironment environment = new MockEnvironment();
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = "krishhortus.rate-limit." + endpointClass.key() + ".";
+            environment.setProperty(prefix + "capacity", Integer.toString(capacity));
+            environment.setProperty(prefix + "per-second", Double.toString(perSecond));
+        }
+        return new RateLimiter(environment, 100_000, Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,92 @@
+package com.krishhortus.security;
+
+import com.krishhortus.exception.InvalidTokenException;
+import com.krishhortus.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link TokenRevocationService}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class TokenRevocationServiceTest {
+
+    private RevokedTokenRepository repository;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RevokedTokenRepository.class);
+        when(repository.insert(any())).thenReturn(true);
+        // A low rate makes a false positive among the probes below practically impossible
+        service = new TokenRevocationService(repository, 10_000, 1e-9, Duration.ofHours(1),
+            Duration.ofDays(30).toMillis());
+        service.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void skipsTheStoreForIdsThatWereNeverRevoked() {
+        for (int i = 0; i < 100; i++) {
+            service.revokeSession(user(UUID.randomUUID().toString()));
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertFalse(service.isRevoked(UUID.randomUUID().toString()));
+        }
+
+        assertEquals(0, service.storeLookups());
+        verify(repository, never()).isRevoked(anyString(), any());
+    }
+
+    @Test
+    void confirmsPossibleHitsWithTheStore() {
+        String family = UUID.randomUUID().toString();
+        service.revokeSession(user(family));
+        when(repository.isRevoked(eq(family), any())).thenReturn(true);
+
+        assertTrue(service.isRevoked(family));
+        assertEquals(1, service.storeLookups());
+    }
+
+    @Test
+    void revokesTheSessionWhenARefreshTokenIsReused() {
+        AuthenticatedUser refresh = user(UUID.randomUUID().toString());
+        service.consumeRefreshToken(refresh);
+        // Primary key conflict: the token was already consumed
+        when(repository.insert(any())).thenReturn(false);
+
+        assertThrows(InvalidTokenException.class, () -> service.consumeRefreshToken(refresh));
+        when(repository.isRevoked(eq(refresh.familyId()), any())).thenReturn(true);
+        assertTrue(service.isRevoked(refresh));
+    }
+
+    private static AuthenticatedUser user(String familyId) {
+        Instant now = Instant.now();
+        return new AuthenticatedUser("user-1", "user@example.com", "User", "USER", true, now,
+            now.plus(Duration.ofDays(30)), UUID.randomUUID().toString(), familyId);
+    }
+}
@@ -0,0 +1,85 @@
+package com.krishhortus.service;
+
+import com.krishhortus.repository.TreeChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ChangeSequence}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class ChangeSequenceTest {
+
+    private ChangeSequence sequence;
+
+    @BeforeEach
+    void setUp() {
+        TreeChangeRepository repository = mock(TreeChangeRepository.class);
+        when(repository.maxSequence()).thenReturn(100L);
+        sequence = new ChangeSequence(repository);
+        sequence.reset();
+    }
+
+    @Test
+    void continuesAfterTheStoredMaximum() {
+        assertEquals(101, sequence.begin());
+        assertEquals(102, sequence.begin(5));
+        assertEquals(107, sequence.begin());
+        assertEquals(100, sequence.stableSequence());
+    }
+
+    @Test
+    void staysBelowAnEarlierWriteStillInFlight() {
+        long slow = sequence.begin();
+        long fast = sequence.begin();
+        sequence.committed(fast);
+        sequence.end(fast);
+
+        assertEquals(100, sequence.stableSequence());
+
+        sequence.committed(slow);
+        sequence.end(slow);
+        assertEquals(fast, sequence.stableSequence());
+    }
+
+    @Test
+    void staysBelowABatchInFlight() {
+        long single = sequence.begin();
+        long batch = sequence.begin(10);
+        sequence.committed(single);
+        sequence.end(single);
+
+        assertEquals(single, sequence.stableSequence());
+
+        sequence.committed(batch + 9);
+        sequence.end(batch);
+        assertEquals(batch + 9, sequence.stableSequence());
+    }
+
+    @Test
+    void neverPassesTheHighestCommittedNumber() {
+        long committed = sequence.begin();
+        long failed = sequence.begin();
+        sequence.committed(committed);
+        sequence.end(committed);
+        // A failed write releases its number without committing it
+        sequence.end(failed);
+
+        assertEquals(committed, sequence.stableSequence());
+    }
+
+    @Test
+    void forgetsInFlightWritesOnReset() {
+        sequence.begin();
+        sequence.reset();
+
+        assertEquals(100, sequence.stableSequence());
+        assertEquals(101, sequence.begin());
+    }
+}
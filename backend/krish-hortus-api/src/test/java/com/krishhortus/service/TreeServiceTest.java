@@ -0,0 +1,125 @@
+package com.krishhortus.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.krishhortus.geo.ClusterRollups;
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.geo.PartitionedTreeIndex;
+import com.krishhortus.metrics.TreeMetrics;
+import com.krishhortus.model.Tree;
+import com.krishhortus.repository.TreeChangeRepository;
+import com.krishhortus.repository.TreeQueryRepository;
+import com.krishhortus.repository.TreeRepository;
+import com.krishhortus.search.TreeSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the tree cache of {@link TreeService}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class TreeServiceTest {
+
+    private static final String ID = "tree-1";
+
+    private TreeRepository treeRepository;
+    private Cache<String, Tree> treeCache;
+    private TreeService service;
+
+    @BeforeEach
+    void setUp() {
+        treeRepository = mock(TreeRepository.class);
+        when(treeRepository.save(any(Tree.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TreeChangeRepository treeChangeRepository = mock(TreeChangeRepository.class);
+        ChangeSequence changeSequence = new ChangeSequence(treeChangeRepository);
+        changeSequence.reset();
+        treeCache = Caffeine.newBuilder().maximumSize(100).build();
+        service = new TreeService(treeRepository, mock(TreeQueryRepository.class), new H3Service(15),
+            mock(PartitionedTreeIndex.class), mock(ClusterRollups.class), mock(AnalyticsRollups.class),
+            mock(TreeSearchIndex.class), changeSequence, treeChangeRepository, mock(TreeEventFeed.class),
+            treeCache, new TreeMetrics(new SimpleMeterRegistry()), mock(PlatformTransactionManager.class), 50_000);
+    }
+
+    @Test
+    void servesRepeatedReadsFromTheCache() {
+        Tree stored = tree("Old Neem");
+        when(treeRepository.findById(ID)).thenReturn(Optional.of(stored));
+
+        assertSame(stored, service.getById(ID));
+        assertSame(stored, service.getById(ID));
+
+        verify(treeRepository, times(1)).findById(ID);
+    }
+
+    @Test
+    void rereadsATreeAfterItWasWritten() {
+        when(treeRepository.findById(ID)).thenReturn(Optional.of(tree("Old Neem")));
+        service.getById(ID);
+
+        Tree renamed = tree("Village Neem");
+        service.update(renamed);
+        when(treeRepository.findById(ID)).thenReturn(Optional.of(renamed));
+
+        assertEquals("Village Neem", service.getById(ID).getName());
+    }
+
+    @Test
+    void doesNotCacheAReadThatRacedAWrite() {
+        Tree stale = tree("Old Neem");
+        Tree renamed = tree("Village Neem");
+        when(treeRepository.findById(ID)).thenAnswer(invocation -> {
+            // The update commits after this read saw the store and before it fills the cache
+            service.update(renamed);
+            return Optional.of(stale);
+        });
+
+        assertSame(stale, service.getById(ID));
+
+        assertNull(treeCache.getIfPresent(ID));
+    }
+
+    @Test
+    void cachesAgainOnceNoWriteIntervenes() {
+        Tree stale = tree("Old Neem");
+        when(treeRepository.findById(ID)).thenAnswer(invocation -> {
+            service.update(tree("Village Neem"));
+            return Optional.of(stale);
+        });
+        service.getById(ID);
+
+        Tree current = tree("Village Neem");
+        // Stubbed without calling the racing answer again
+        doReturn(Optional.of(current)).when(treeRepository).findById(ID);
+
+        assertSame(current, service.getById(ID));
+        assertSame(current, treeCache.getIfPresent(ID));
+    }
+
+    private static Tree tree(String name) {
+        Tree tree = new Tree();
+        tree.setId(ID);
+        tree.setName(name);
+        tree.setLat(18.52);
+        tree.setLng(73.85);
+        tree.setCreatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        tree.setUpdatedAt(Instant.parse("2026-01-01T00:00:00Z"));
+        return tree;
+    }
+}
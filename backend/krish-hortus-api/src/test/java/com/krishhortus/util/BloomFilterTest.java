@@ -0,0 +1,94 @@
+package com.krishhortus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link BloomFilter}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class BloomFilterTest {
+
+    private static final int CAPACITY = 100_000;
+    private static final double TARGET_RATE = 0.001;
+
+    @Test
+    void neverReportsAnAddedKeyAbsent() {
+        BloomFilter filter = new BloomFilter(CAPACITY, TARGET_RATE);
+        String[] keys = new String[CAPACITY];
+        for (int i = 0; i < CAPACITY; i++) {
+            keys[i] = UUID.randomUUID().toString();
+            filter.add(keys[i]);
+        }
+
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key), key);
+        }
+    }
+
+    @Test
+    void keepsFalsePositiveRateNearTargetAtCapacity() {
+        BloomFilter filter = new BloomFilter(CAPACITY, TARGET_RATE);
+        for (int i = 0; i < CAPACITY; i++) {
+            filter.add("added-" + i);
+        }
+
+        int probes = 1_000_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("absent-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        double rate = (double) falsePositives / probes;
+        assertTrue(rate <= TARGET_RATE * 1.5, "false positive rate " + rate);
+        // Not oversized either: the rate stays within an order of magnitude of the target
+        assertTrue(rate >= TARGET_RATE / 10, "false positive rate " + rate);
+    }
+
+    @Test
+    void reportsEveryKeyAbsentWhenEmpty() {
+        BloomFilter filter = new BloomFilter(CAPACITY, TARGET_RATE);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(filter.mightContain("key-" + i));
+        }
+    }
+
+    @Test
+    void handlesKeysOfEveryTailLength() {
+        // MurmurHash3 processes 16-byte blocks; cover every tail length and multibyte characters
+        BloomFilter filter = new BloomFilter(1_000, TARGET_RATE);
+        StringBuilder key = new StringBuilder();
+        for (int length = 0; length < 40; length++) {
+            filter.add(key.toString());
+            assertTrue(filter.mightContain(key.toString()), "length " + length);
+            key.append(length % 3 == 0 ? 'ä' : 'x');
+        }
+    }
+
+    @Test
+    void sizesForTheRequestedCapacity() {
+        BloomFilter filter = new BloomFilter(CAPACITY, TARGET_RATE);
+
+        // m = -n ln(p / 2) / (ln 2)^2, rounded up to whole 512-bit blocks
+        long expectedBits = (long) Math.ceil(-CAPACITY * Math.log(TARGET_RATE / 2) / (Math.log(2) * Math.log(2)));
+        assertEquals((expectedBits + 511) / 512 * 512, filter.bitSize());
+        assertEquals(11, filter.hashCount());
+    }
+
+    @Test
+    void rejectsInvalidFalsePositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(CAPACITY, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(CAPACITY, 1));
+    }
+}
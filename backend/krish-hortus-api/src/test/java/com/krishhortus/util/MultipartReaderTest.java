@@ -0,0 +1,327 @@
+package com.krishhortus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for {@link MultipartReader}
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+class MultipartReaderTest {
+
+    private static final String BOUNDARY = "----hortusBoundary7MA4YWxk";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Test
+    void readsFieldsAndFiles() throws IOException {
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"tree\"\r\n"
+            + "\r\n"
+            + "{\"name\":\"Neem\"}\r\n"
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"photo\"; filename=\"bark.jpg\"\r\n"
+            + "Content-Type: image/jpeg\r\n"
+            + "\r\n"
+            + "JPEGDATA\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+        MultipartReader reader = reader(body);
+
+        MultipartReader.Part tree = reader.next();
+        assertEquals("tree", tree.name());
+        assertFalse(tree.isFile());
+        assertEquals("{\"name\":\"Neem\"}", tree.readText(1024));
+
+        MultipartReader.Part photo = reader.next();
+        assertEquals("photo", photo.name());
+        assertEquals("bark.jpg", photo.filename());
+        assertEquals("image/jpeg", photo.contentType());
+        assertEquals("JPEGDATA", new String(readAll(photo), StandardCharsets.UTF_8));
+
+        assertNull(reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void findsDelimiterSplitAcrossBufferRefill() throws IOException {
+        // The buffer starts with two bytes of its own, so the first read ends
+        // at the 64 KB mark; move the delimiter across it byte by byte
+        String headers = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"photo\"; filename=\"a.bin\"\r\n"
+            + "\r\n";
+        int delimiterLength = BOUNDARY.length() + 4;
+        int firstRead = BUFFER_SIZE - 2;
+        for (int shift = -delimiterLength - 1; shift <= 1; shift++) {
+            byte[] content = content(firstRead - headers.length() + shift);
+            byte[] body = concat(headers.getBytes(StandardCharsets.ISO_8859_1), content,
+                ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            MultipartReader reader = new MultipartReader(new ByteArrayInputStream(body), BOUNDARY);
+
+            MultipartReader.Part part = reader.next();
+            assertArrayEquals(content, readAll(part), "shift " + shift);
+            assertNull(reader.next(), "shift " + shift);
+        }
+    }
+
+    @Test
+    void findsDelimiterDeliveredOneByteAtATime() throws IOException {
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"note\"\r\n"
+            + "\r\n"
+            + "first line\r\n--not the boundary\r\n"
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"other\"\r\n"
+            + "\r\n"
+            + "second\r\n"
+            + "--" + BOUNDARY + "--";
+        MultipartReader reader = new MultipartReader(
+            new TrickleInputStream(body.getBytes(StandardCharsets.UTF_8)), BOUNDARY);
+
+        assertEquals("first line\r\n--not the boundary", reader.next().readText(1024));
+        assertEquals("second", reader.next().readText(1024));
+        assertNull(reader.next());
+    }
+
+    @Test
+    void keepsContentThatStartsLikeTheDelimiter() throws IOException {
+        String lookalike = "\r\n--" + BOUNDARY.substring(0, BOUNDARY.length() - 1) + "X";
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"note\"\r\n"
+            + "\r\n"
+            + lookalike + "\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+        MultipartReader reader = reader(body);
+
+        assertEquals(lookalike, reader.next().readText(1024));
+        assertNull(reader.next());
+    }
+
+    @Test
+    void skipsPreambleBeforeFirstBoundary() throws IOException {
+        String body = "This is a multi-part message in MIME format.\r\n"
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"tree\"\r\n"
+            + "\r\n"
+            + "value\r\n"
+            + "--" + BOUNDARY + "--\r\n"
+            + "epilogue that is ignored";
+        MultipartReader reader = reader(body);
+
+        MultipartReader.Part part = reader.next();
+        assertEquals("tree", part.name());
+        assertEquals("value", part.readText(1024));
+        assertNull(reader.next());
+    }
+
+    @Test
+    void acceptsTransportPaddingAfterBoundary() throws IOException {
+        String body = "--" + BOUNDARY + " \t \r\n"
+            + "Content-Disposition: form-data; name=\"first\"\r\n"
+            + "\r\n"
+            + "1\r\n"
+            + "--" + BOUNDARY + "\t\r\n"
+            + "Content-Disposition: form-data; name=\"second\"\r\n"
+            + "\r\n"
+            + "2\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+        MultipartReader reader = reader(body);
+
+        assertEquals("1", reader.next().readText(16));
+        assertEquals("2", reader.next().readText(16));
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsOtherTextAfterBoundary() throws IOException {
+        String body = "--" + BOUNDARY + "junk\r\n"
+            + "Content-Disposition: form-data; name=\"tree\"\r\n"
+            + "\r\n"
+            + "value\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+        MultipartReader reader = reader(body);
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+
+    @Test
+    void skipsUnreadRestOfPart() throws IOException {
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"photo\"; filename=\"big.bin\"\r\n"
+            + "\r\n"
+            + "x".repeat(3 * BUFFER_SIZE) + "\r\n"
+            + "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"tree\"\r\n"
+            + "\r\n"
+            + "after\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+        MultipartReader reader = reader(body);
+
+        MultipartReader.Part photo = reader.next();
+        photo.read(ByteBuffer.allocate(10));
+        MultipartReader.Part tree = reader.next();
+
+        assertEquals(-1, photo.read(ByteBuffer.allocate(10)));
+        assertEquals("after", tree.readText(16));
+    }
+
+    @Test
+    void rejectsBodyWithoutClosingDashes() throws IOException {
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"tree\"\r\n"
+            + "\r\n"
+            + "value\r\n"
+            + "--" + BOUNDARY;
+        MultipartReader reader = reader(body);
+
+        assertEquals("value", reader.next().readText(16));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::next);
+        assertTrue(e.getMessage().contains("ended after a boundary"), e.getMessage());
+    }
+
+    @Test
+    void rejectsBodyThatEndsInsidePart() throws IOException {
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"photo\"; filename=\"a.jpg\"\r\n"
+            + "\r\n"
+            + "truncated upload";
+        MultipartReader reader = reader(body);
+
+        MultipartReader.Part part = reader.next();
+        assertNotNull(part);
+        assertThrows(IllegalArgumentException.class, () -> readAll(part));
+    }
+
+    @Test
+    void rejectsOversizedPartHeaders() {
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"tree\"\r\n"
+            + "X-Padding: " + "a".repeat(16 * 1024) + "\r\n"
+            + "\r\n"
+            + "value\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+        MultipartReader reader = reader(body);
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+
+    @Test
+    void rejectsManyHeadersAddingUpToOversize() {
+        StringBuilder headers = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            headers.append("X-Header-").append(i).append(": ").append("v".repeat(60)).append("\r\n");
+        }
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"tree\"\r\n"
+            + headers
+            + "\r\n"
+            + "value\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+        MultipartReader reader = reader(body);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::next);
+        assertTrue(e.getMessage().contains("Oversized"), e.getMessage());
+    }
+
+    @Test
+    void rejectsPartWithoutFieldName() {
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Type: text/plain\r\n"
+            + "\r\n"
+            + "value\r\n"
+            + "--" + BOUNDARY + "--\r\n";
+        MultipartReader reader = reader(body);
+
+        assertThrows(IllegalArgumentException.class, reader::next);
+    }
+
+    @Test
+    void extractsBoundaryFromContentType() {
+        assertEquals(BOUNDARY, MultipartReader.boundaryOf("multipart/form-data; boundary=" + BOUNDARY));
+        assertEquals("quoted boundary", MultipartReader.boundaryOf("multipart/form-data; boundary=\"quoted boundary\""));
+        assertThrows(IllegalArgumentException.class, () -> MultipartReader.boundaryOf("application/json"));
+        assertThrows(IllegalArgumentException.class, () -> MultipartReader.boundaryOf("multipart/form-data"));
+        assertThrows(IllegalArgumentException.class, () -> MultipartReader.boundaryOf(null));
+    }
+
+    private static MultipartReader reader(String body) {
+        return new MultipartReader(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BOUNDARY);
+    }
+
+    private static byte[] readAll(MultipartReader.Part part) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer chunk = ByteBuffer.allocate(8192);
+        while (part.read(chunk) >= 0) {
+            out.write(chunk.array(), 0, chunk.position());
+            chunk.clear();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) ('a' + i % 26);
+        }
+        return content;
+    }
+
+    private static byte[] concat(byte[]... arrays) {
+        int length = 0;
+        for (byte[] array : arrays) {
+            length += array.length;
+        }
+        byte[] result = Arrays.copyOf(arrays[0], length);
+        int offset = arrays[0].length;
+        for (int i = 1; i < arrays.length; i++) {
+            System.arraycopy(arrays[i], 0, result, offset, arrays[i].length);
+            offset += arrays[i].length;
+        }
+        return result;
+    }
+
+    /**
+     * Returns one byte per read, like a slow client
+     */
+    private static final class TrickleInputStream extends InputStream {
+        private final byte[] data;
+        private int position;
+
+        TrickleInputStream(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public int read() {
+            return position < data.length ? data[position++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int next = read();
+            if (next < 0) {
+                return -1;
+            }
+            b[off] = (byte) next;
+            return 1;
+        }
+    }
+}
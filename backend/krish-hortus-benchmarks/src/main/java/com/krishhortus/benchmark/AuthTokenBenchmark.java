@@ -0,0 +1,96 @@
+package com.krishhortus.benchmark;
+
+import com.krishhortus.dto.AuthResponse;
+import com.krishhortus.dto.UserResponse;
+import com.krishhortus.metrics.TreeMetrics;
+import com.krishhortus.security.AuthenticatedUser;
+import com.krishhortus.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token issue and verification through {@link JwtService}
+ *
+ * Measures throughput of:
+ * - Issuing an access and refresh token pair, the per-login cost
+ * - Full verification with signature check, the cost of a token the
+ *   service has not seen yet (measured on the refresh token, which takes
+ *   the same parse and signature path but is never cached)
+ * - Cached verification, the cost of every further request of a session
+ *
+ * The {@code AllCores} variants run on one thread per available processor;
+ * divide their score by the processor count for throughput per core.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class AuthTokenBenchmark {
+
+    /** Development secret from application.yml */
+    private static final String SECRET = "krishhortus-secret-key-change-in-production";
+    private static final long EXPIRATION_MILLIS = 86_400_000L;
+    private static final long REFRESH_EXPIRATION_MILLIS = 2_592_000_000L;
+
+    private JwtService jwtService;
+    private UserResponse user;
+    private String accessToken;
+    private String refreshToken;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        jwtService = new JwtService(SECRET, EXPIRATION_MILLIS, REFRESH_EXPIRATION_MILLIS, 100_000,
+            new TreeMetrics(registry), registry);
+        user = new UserResponse("user-123", "user@example.com", "user", "USER", true, Instant.now(), null);
+        AuthResponse tokens = jwtService.issueTokens(user);
+        accessToken = tokens.token();
+        refreshToken = tokens.refreshToken();
+        jwtService.verifyAccessToken(accessToken);
+    }
+
+    @Benchmark
+    public AuthResponse issueTokens() {
+        return jwtService.issueTokens(user);
+    }
+
+    @Benchmark
+    public AuthenticatedUser verifyFullSignature() {
+        return jwtService.verifyRefreshToken(refreshToken);
+    }
+
+    @Benchmark
+    public AuthenticatedUser verifyCached() {
+        return jwtService.verifyAccessToken(accessToken);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public AuthenticatedUser verifyFullSignatureAllCores() {
+        return jwtService.verifyRefreshToken(refreshToken);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public AuthenticatedUser verifyCachedAllCores() {
+        return jwtService.verifyAccessToken(accessToken);
+    }
+}
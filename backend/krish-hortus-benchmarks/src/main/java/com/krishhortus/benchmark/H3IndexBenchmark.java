@@ -0,0 +1,86 @@
+package com.krishhortus.benchmark;
+
+import com.krishhortus.geo.H3Service;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * H3 index computation on the create and update paths
+ *
+ * Every created or moved tree gets its stored H3 address computed; list
+ * filters by cell need a descendant range and the cluster rollups walk the
+ * parent chain.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class H3IndexBenchmark {
+
+    private static final int POINTS = 4096;
+
+    private H3Service h3Service;
+    private double[] points;
+    private long[] cells;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        h3Service = new H3Service(15);
+        points = SyntheticTrees.points(POINTS, SyntheticTrees.SEED);
+        cells = new long[POINTS];
+        for (int i = 0; i < POINTS; i++) {
+            cells[i] = h3Service.cellFor(points[2 * i], points[2 * i + 1]);
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (POINTS - 1);
+        return next;
+    }
+
+    /** Stored H3 address of a new or moved tree, as done by TreeService */
+    @Benchmark
+    public String storedAddress() {
+        int i = nextIndex();
+        return h3Service.toAddress(h3Service.cellFor(points[2 * i], points[2 * i + 1]));
+    }
+
+    @Benchmark
+    public long cellFor() {
+        int i = nextIndex();
+        return h3Service.cellFor(points[2 * i], points[2 * i + 1]);
+    }
+
+    /** Parent cells over the cluster rollup resolution band */
+    @Benchmark
+    public long parentChain() {
+        long cell = cells[nextIndex()];
+        long acc = 0;
+        for (int res = 2; res <= 10; res++) {
+            acc ^= h3Service.parent(cell, res);
+        }
+        return acc;
+    }
+
+    /** Stored index range of a resolution 7 cell, as used by the list filter */
+    @Benchmark
+    public long[] descendantRange() {
+        return h3Service.descendantRange(h3Service.parent(cells[nextIndex()], 7), 15);
+    }
+}
@@ -0,0 +1,118 @@
+package com.krishhortus.benchmark;
+
+import com.krishhortus.geo.GeoMath;
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.geo.TreeSpatialIndex;
+import com.krishhortus.geo.TreeSpatialIndex.NearbyHit;
+import com.krishhortus.model.Tree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearby query candidate generation and filtering
+ *
+ * Compares the H3 cell index behind {@code GET /api/trees/nearby} with a
+ * linear haversine scan over all trees, the approach it replaced. Also
+ * measures moving a tree inside the index, which every update pays.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class NearbyBenchmark {
+
+    private static final int QUERIES = 1024;
+    private static final int LIMIT = 50;
+
+    @Param({"1000", "100000", "1000000"})
+    public int treeCount;
+
+    @Param({"100", "1000", "10000"})
+    public double radius;
+
+    private TreeSpatialIndex index;
+    private String[] ids;
+    private double[] lats;
+    private double[] lngs;
+    private double[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        H3Service h3Service = new H3Service(15);
+        index = new TreeSpatialIndex(h3Service, new int[] {5, 7, 9, 11});
+        List<Tree> trees = SyntheticTrees.generate(treeCount, SyntheticTrees.SEED, h3Service);
+        ids = new String[treeCount];
+        lats = new double[treeCount];
+        lngs = new double[treeCount];
+        for (int i = 0; i < treeCount; i++) {
+            Tree tree = trees.get(i);
+            ids[i] = tree.getId();
+            lats[i] = tree.getLat();
+            lngs[i] = tree.getLng();
+            index.put(ids[i], lats[i], lngs[i]);
+        }
+        queries = SyntheticTrees.points(QUERIES, SyntheticTrees.SEED + 1);
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public List<NearbyHit> cellIndex() {
+        int q = nextQuery();
+        return index.nearby(queries[2 * q], queries[2 * q + 1], radius, LIMIT);
+    }
+
+    /** Baseline: haversine over every tree, keeping the closest {@code LIMIT} */
+    @Benchmark
+    public PriorityQueue<double[]> linearScan() {
+        int q = nextQuery();
+        double lat = queries[2 * q];
+        double lng = queries[2 * q + 1];
+        PriorityQueue<double[]> nearest = new PriorityQueue<>(LIMIT + 1, (a, b) -> Double.compare(b[0], a[0]));
+        for (int i = 0; i < lats.length; i++) {
+            double distance = GeoMath.haversineMeters(lat, lng, lats[i], lngs[i]);
+            if (distance <= radius && (nearest.size() < LIMIT || distance < nearest.peek()[0])) {
+                nearest.add(new double[] {distance, i});
+                if (nearest.size() > LIMIT) {
+                    nearest.poll();
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Moving a tree, as on every location update; one operation moves a
+     * tree away and back so the index stays identical across iterations
+     */
+    @Benchmark
+    public void moveTree() {
+        int q = nextQuery();
+        int tree = (q * 7919) % ids.length;
+        index.put(ids[tree], queries[2 * q], queries[2 * q + 1]);
+        index.put(ids[tree], lats[tree], lngs[tree]);
+    }
+}
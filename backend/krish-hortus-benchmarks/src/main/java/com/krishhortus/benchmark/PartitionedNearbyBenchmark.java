@@ -0,0 +1,115 @@
+package com.krishhortus.benchmark;
+
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.geo.PartitionedTreeIndex;
+import com.krishhortus.geo.TreeSpatialIndex.NearbyHit;
+import com.krishhortus.model.Tree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearby queries routed across partitions of the tree index
+ *
+ * Compares one partition, which calls the cell index directly, with
+ * several in-process partitions, which add the partition cover, the
+ * per-partition queries and the k-way merge. The partitioned index is
+ * rebalanced after loading with a split threshold of an eighth of the
+ * trees, so queries also route through split partition cells.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class PartitionedNearbyBenchmark {
+
+    private static final int QUERIES = 1024;
+    private static final int LIMIT = 50;
+
+    @Param({"100000", "1000000"})
+    public int treeCount;
+
+    @Param({"1000", "10000"})
+    public double radius;
+
+    @Param({"1", "4"})
+    public int partitions;
+
+    private PartitionedTreeIndex index;
+    private String[] ids;
+    private String[] h3Indexes;
+    private double[] lats;
+    private double[] lngs;
+    private double[] queries;
+    private String[] queryH3Indexes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        H3Service h3Service = new H3Service(15);
+        index = new PartitionedTreeIndex(h3Service, new int[] {5, 7, 9, 11}, partitions, 3, 5,
+            Math.max(1, treeCount / 8), Duration.ofMinutes(1));
+        List<Tree> trees = SyntheticTrees.generate(treeCount, SyntheticTrees.SEED, h3Service);
+        ids = new String[treeCount];
+        h3Indexes = new String[treeCount];
+        lats = new double[treeCount];
+        lngs = new double[treeCount];
+        for (int i = 0; i < treeCount; i++) {
+            Tree tree = trees.get(i);
+            ids[i] = tree.getId();
+            h3Indexes[i] = tree.getH3Index();
+            lats[i] = tree.getLat();
+            lngs[i] = tree.getLng();
+            index.put(ids[i], h3Indexes[i], lats[i], lngs[i]);
+        }
+        // Two rounds: children of a split cell can be hot themselves
+        index.rebalance();
+        index.rebalance();
+        queries = SyntheticTrees.points(QUERIES, SyntheticTrees.SEED + 1);
+        queryH3Indexes = new String[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            queryH3Indexes[q] = h3Service.toAddress(h3Service.cellFor(queries[2 * q], queries[2 * q + 1]));
+        }
+    }
+
+    private int nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return next;
+    }
+
+    @Benchmark
+    public List<NearbyHit> routedNearby() {
+        int q = nextQuery();
+        return index.nearby(queries[2 * q], queries[2 * q + 1], radius, LIMIT);
+    }
+
+    /**
+     * Moving a tree, which may cross partitions; one operation moves a tree
+     * away and back so the index stays identical across iterations
+     */
+    @Benchmark
+    public void moveTree() {
+        int q = nextQuery();
+        int tree = (q * 7919) % ids.length;
+        index.put(ids[tree], queryH3Indexes[q], queries[2 * q], queries[2 * q + 1]);
+        index.put(ids[tree], h3Indexes[tree], lats[tree], lngs[tree]);
+    }
+}
@@ -0,0 +1,98 @@
+package com.krishhortus.benchmark;
+
+import com.krishhortus.security.RateLimiter;
+import com.krishhortus.security.RateLimiter.EndpointClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket checks of {@link RateLimiter}, the per-request cost of rate
+ * limiting
+ *
+ * Measures the time of:
+ * - A request that is let through, for one client and spread over
+ *   {@code clientCount} clients (the READ class is configured with a rate
+ *   no client can reach)
+ * - A request that is rejected (the AUTH class is configured with one
+ *   token and a refill rate far below the request rate)
+ * - One client hammered from every available processor, the worst case
+ *   for the compare-and-set on its bucket
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class RateLimiterBenchmark {
+
+    @Param({"1000", "100000"})
+    public int clientCount;
+
+    private RateLimiter rateLimiter;
+    private String[] clients;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+            "krishhortus.rate-limit.read.capacity", 1_000_000_000,
+            "krishhortus.rate-limit.read.per-second", 1_000_000_000d,
+            "krishhortus.rate-limit.auth.capacity", 1,
+            "krishhortus.rate-limit.auth.per-second", 0.001)));
+        rateLimiter = new RateLimiter(environment, clientCount, Duration.ofMinutes(1));
+        clients = new String[clientCount];
+        for (int i = 0; i < clientCount; i++) {
+            clients[i] = "user-" + i;
+            rateLimiter.tryAcquire(EndpointClass.READ, clients[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        rateLimiter.shutdown();
+    }
+
+    @Benchmark
+    public long oneClient() {
+        return rateLimiter.tryAcquire(EndpointClass.READ, "user-0");
+    }
+
+    @Benchmark
+    public long manyClients() {
+        next = next + 1 == clientCount ? 0 : next + 1;
+        return rateLimiter.tryAcquire(EndpointClass.READ, clients[next]);
+    }
+
+    @Benchmark
+    public long rejected() {
+        return rateLimiter.tryAcquire(EndpointClass.AUTH, "198.51.100.7");
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public long oneClientAllCores() {
+        return rateLimiter.tryAcquire(EndpointClass.READ, "user-0");
+    }
+}
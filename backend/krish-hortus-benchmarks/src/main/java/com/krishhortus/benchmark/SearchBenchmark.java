@@ -0,0 +1,117 @@
+package com.krishhortus.benchmark;
+
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.model.Tree;
+import com.krishhortus.search.TreeSearchIndex;
+import com.krishhortus.search.TreeSearchIndex.SearchHits;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name search against the in-memory search index
+ *
+ * Runs the kinds of query {@code GET /api/trees/search} receives: whole
+ * words, partly typed words, misspellings, several words and queries
+ * limited to an H3 cell. The synthetic names share the word "tree", so
+ * {@link #commonWord()} is the worst case of a word matching every tree.
+ * Also measures renaming a tree in the index.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class SearchBenchmark {
+
+    private static final int LIMIT = 20;
+
+    private static final String[] EXACT = {"azadirachta", "religiosa", "tectona", "cumini", "arjuna", "fistula"};
+    private static final String[] PREFIX = {"azad", "mang", "tama", "pong", "delo", "terminal"};
+    private static final String[] TYPO = {"azadiracta", "mangfera", "tamarindis", "ficsu", "dalbergai", "casia"};
+    private static final String[] MULTI_WORD = {"ficus relig", "mangifera ind", "terminalia arjun", "cassia fist"};
+
+    @Param({"1000", "100000", "1000000"})
+    public int treeCount;
+
+    private TreeSearchIndex index;
+    private List<Tree> trees;
+    private long[] cellRange;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        H3Service h3Service = new H3Service(15);
+        index = new TreeSearchIndex();
+        trees = SyntheticTrees.generate(treeCount, SyntheticTrees.SEED, h3Service);
+        for (Tree tree : trees) {
+            index.put(tree.getId(), tree.getH3Index(), tree.getName(), tree.getScientificName(), tree.getLocalName());
+        }
+        long cell = h3Service.cellFor(SyntheticTrees.CENTER_LAT, SyntheticTrees.CENTER_LNG, 7);
+        cellRange = h3Service.descendantRange(cell, h3Service.getDefaultResolution());
+    }
+
+    private String nextOf(String[] queries) {
+        next++;
+        return queries[next % queries.length];
+    }
+
+    @Benchmark
+    public SearchHits exactWord() {
+        return index.search(nextOf(EXACT), null, null, LIMIT);
+    }
+
+    @Benchmark
+    public SearchHits prefix() {
+        return index.search(nextOf(PREFIX), null, null, LIMIT);
+    }
+
+    @Benchmark
+    public SearchHits misspelled() {
+        return index.search(nextOf(TYPO), null, null, LIMIT);
+    }
+
+    @Benchmark
+    public SearchHits multiWord() {
+        return index.search(nextOf(MULTI_WORD), null, null, LIMIT);
+    }
+
+    /** A species word restricted to one resolution 7 cell (about 5 km²) */
+    @Benchmark
+    public SearchHits inCell() {
+        return index.search(nextOf(EXACT), cellRange[0], cellRange[1], LIMIT);
+    }
+
+    @Benchmark
+    public SearchHits commonWord() {
+        return index.search("tree", null, null, LIMIT);
+    }
+
+    /**
+     * Renaming a tree, as on an update that changes its species; one
+     * operation renames a tree and back so the index stays identical
+     * across iterations
+     */
+    @Benchmark
+    public void renameTree() {
+        Tree tree = trees.get(Math.floorMod(++next * 7919, trees.size()));
+        index.put(tree.getId(), tree.getH3Index(), tree.getName(), "Ficus racemosa", tree.getLocalName());
+        index.put(tree.getId(), tree.getH3Index(), tree.getName(), tree.getScientificName(), tree.getLocalName());
+    }
+}
@@ -0,0 +1,107 @@
+package com.krishhortus.benchmark;
+
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.model.Tree;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Deterministic synthetic tree data for benchmarks
+ *
+ * Trees are scattered over a survey region around Aurangabad, Maharashtra,
+ * with a realistic mix of categories and species. The same seed always
+ * produces the same trees, so runs are comparable across machines and
+ * commits.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public final class SyntheticTrees {
+
+    /** Seed used by all benchmarks unless stated otherwise */
+    public static final long SEED = 20240601L;
+
+    /** Center of the synthetic survey region */
+    public static final double CENTER_LAT = 19.7515;
+    public static final double CENTER_LNG = 75.7139;
+
+    /** Half-width of the survey region in degrees (about 110 km) */
+    public static final double SPREAD_DEGREES = 1.0;
+
+    static final String[] CATEGORIES = {"farm", "community", "nursery"};
+
+    static final String[] SPECIES = {
+        "Azadirachta indica", "Ficus benghalensis", "Ficus religiosa", "Mangifera indica",
+        "Tectona grandis", "Dalbergia sissoo", "Syzygium cumini", "Tamarindus indica",
+        "Pongamia pinnata", "Terminalia arjuna", "Delonix regia", "Cassia fistula"
+    };
+
+    private SyntheticTrees() {
+    }
+
+    /**
+     * Generate fully prepared trees, as they would be stored
+     *
+     * @param count Number of trees
+     * @param seed Random seed
+     * @param h3Service Service used to compute the stored H3 index
+     * @return Trees with ids, timestamps, H3 index and change sequence set
+     */
+    public static List<Tree> generate(int count, long seed, H3Service h3Service) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Instant base = Instant.parse("2024-01-01T00:00:00Z");
+        List<Tree> trees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int species = random.nextInt(SPECIES.length);
+            Tree tree = new Tree();
+            tree.setId(new UUID(random.nextLong(), random.nextLong()).toString());
+            tree.setName("Tree " + i);
+            tree.setScientificName(SPECIES[species]);
+            tree.setLocalName(i % 3 == 0 ? "Local " + species : null);
+            tree.setCategory(CATEGORIES[random.nextInt(CATEGORIES.length)]);
+            tree.setLat(CENTER_LAT + (random.nextDouble() * 2 - 1) * SPREAD_DEGREES);
+            tree.setLng(CENTER_LNG + (random.nextDouble() * 2 - 1) * SPREAD_DEGREES);
+            tree.setH3Index(h3Service.toAddress(h3Service.cellFor(tree.getLat(), tree.getLng())));
+            tree.setAddress(i % 2 == 0 ? "Village " + random.nextInt(500) + ", Maharashtra" : null);
+            tree.setHeight(random.nextInt(4) == 0 ? null : 2 + random.nextDouble() * 25);
+            tree.setTrunkWidth(random.nextInt(4) == 0 ? null : 0.1 + random.nextDouble() * 2);
+            tree.setCanopySpread(random.nextInt(4) == 0 ? null : 1 + random.nextDouble() * 20);
+            tree.setTaggedBy("user-" + random.nextInt(1000));
+            Instant created = base.plusSeconds(random.nextInt(30_000_000));
+            tree.setTaggedAt(created);
+            tree.setCreatedAt(created);
+            tree.setUpdatedAt(created.plusSeconds(random.nextInt(1_000_000)));
+            tree.setAiGenerated(random.nextInt(5) == 0);
+            if (random.nextInt(3) == 0) {
+                tree.setVerified(true);
+                tree.setVerifiedBy("admin-" + random.nextInt(10));
+                tree.setVerifiedAt(tree.getUpdatedAt());
+            }
+            tree.setChangeSeq(i + 1L);
+            tree.deriveSpeciesKey();
+            trees.add(tree);
+        }
+        return trees;
+    }
+
+    /**
+     * Generate query points inside the survey region
+     *
+     * @param count Number of points
+     * @param seed Random seed
+     * @return Interleaved latitude/longitude pairs
+     */
+    public static double[] points(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] points = new double[count * 2];
+        for (int i = 0; i < count; i++) {
+            points[2 * i] = CENTER_LAT + (random.nextDouble() * 2 - 1) * SPREAD_DEGREES;
+            points[2 * i + 1] = CENTER_LNG + (random.nextDouble() * 2 - 1) * SPREAD_DEGREES;
+        }
+        return points;
+    }
+}
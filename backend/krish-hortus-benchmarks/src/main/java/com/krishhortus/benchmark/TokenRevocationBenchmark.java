@@ -0,0 +1,161 @@
+package com.krishhortus.benchmark;
+
+import com.krishhortus.model.RevokedToken;
+import com.krishhortus.repository.RevokedTokenRepository;
+import com.krishhortus.security.TokenRevocationService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Revocation checks of {@code TokenRevocationService} at growing numbers of revoked tokens
+ *
+ * The service runs with its production settings (capacity of at least
+ * 100k, 0.1% false positive rate) on a store that holds the revoked ids in
+ * memory and answers lookups without a database. Checking ids that were
+ * never revoked is the path of every authenticated request; comparing its
+ * time at 10k revocations with 1M and 5M shows whether it stays constant
+ * time. Each result also reports, as secondary results:
+ * - {@code checks}: revocation checks made in the iteration
+ * - {@code storeLookups}: checks the filter could not answer, so their
+ *   share of {@code checks} is the false positive rate for unrevoked ids
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TokenRevocationBenchmark {
+
+    private static final int PROBES = 1 << 16;
+
+    @Param({"10000", "1000000", "5000000"})
+    public int revokedCount;
+
+    private InMemoryRevocations store;
+    private TokenRevocationService service;
+    private String[] revoked;
+    private String[] unrevoked;
+    private int next;
+
+    /**
+     * Counters JMH reports next to the check time
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Lookups {
+        public long checks;
+        public long storeLookups;
+
+        @Setup(Level.Iteration)
+        public void reset(TokenRevocationBenchmark benchmark) {
+            checks = 0;
+            storeLookups = 0;
+            benchmark.store.lookups = this;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String[] ids = new String[revokedCount];
+        for (int i = 0; i < revokedCount; i++) {
+            ids[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+        }
+        revoked = new String[Math.min(PROBES, revokedCount)];
+        System.arraycopy(ids, 0, revoked, 0, revoked.length);
+        unrevoked = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            unrevoked[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+        }
+
+        store = new InMemoryRevocations(ids);
+        service = new TokenRevocationService(store, 100_000, 0.001, Duration.ofHours(1),
+            Duration.ofDays(30).toMillis());
+        // Builds the filter from the store, as at application startup
+        service.initialize();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public boolean checkUnrevoked(Lookups lookups) {
+        next = (next + 1) & (PROBES - 1);
+        lookups.checks++;
+        return service.isRevoked(unrevoked[next]);
+    }
+
+    @Benchmark
+    public boolean checkRevoked(Lookups lookups) {
+        next = (next + 1) % revoked.length;
+        lookups.checks++;
+        return service.isRevoked(revoked[next]);
+    }
+
+    /**
+     * Revocation store over a fixed set of ids; every lookup is counted and reports a revocation
+     */
+    static final class InMemoryRevocations extends RevokedTokenRepository {
+        private final String[] ids;
+        Lookups lookups;
+
+        InMemoryRevocations(String[] ids) {
+            super(null);
+            this.ids = ids;
+        }
+
+        @Override
+        public boolean insert(RevokedToken token) {
+            throw new UnsupportedOperationException("The benchmark store is read-only");
+        }
+
+        @Override
+        public boolean isRevoked(String tokenId, Instant now) {
+            lookups.storeLookups++;
+            // Stands in for an indexed primary key lookup; the filter decides how often it runs
+            return true;
+        }
+
+        @Override
+        public long countActive(Instant now) {
+            return ids.length;
+        }
+
+        @Override
+        public void forEachActive(Instant now, Consumer<String> consumer) {
+            for (String id : ids) {
+                consumer.accept(id);
+            }
+        }
+
+        @Override
+        public int deleteExpired(Instant now) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.krishhortus.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.krishhortus.dto.ApiResponse;
+import com.krishhortus.dto.TreeJsonWriter;
+import com.krishhortus.dto.TreeResponse;
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.model.Tree;
+import com.krishhortus.service.TreeService.TreePage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of tree list payloads
+ *
+ * Compares three ways of writing the same list response:
+ * - {@code streamingWriter}: {@link TreeJsonWriter}, used by the list and
+ *   nearby endpoints
+ * - {@code recordDtos}: {@link TreeResponse} records serialized by Jackson,
+ *   used for single-tree responses
+ * - {@code mapBaseline}: nested {@code HashMap}s per tree, as the controller
+ *   built them before the DTOs were introduced
+ *
+ * Output goes to a counting sink, so the numbers cover serialization only.
+ * Run with the GC profiler to compare allocation per operation.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class TreeJsonBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int treeCount;
+
+    private ObjectMapper objectMapper;
+    private TreeJsonWriter treeJsonWriter;
+    private List<Tree> trees;
+    private TreePage page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Same settings as the ObjectMapper Spring Boot configures for the API
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        treeJsonWriter = new TreeJsonWriter(objectMapper);
+        trees = SyntheticTrees.generate(treeCount, SyntheticTrees.SEED, new H3Service(15));
+        page = new TreePage(trees, null, (long) treeCount, false);
+    }
+
+    @Benchmark
+    public long streamingWriter() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        treeJsonWriter.page("Trees retrieved successfully", page, 0, treeCount, null).writeTo(out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long recordDtos() throws IOException {
+        List<TreeResponse> responses = new ArrayList<>(trees.size());
+        for (Tree tree : trees) {
+            responses.add(TreeResponse.from(tree));
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("trees", responses);
+        data.put("totalElements", (long) treeCount);
+        data.put("totalPages", 1L);
+        data.put("currentPage", 0);
+        data.put("pageSize", treeCount);
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, ApiResponse.ok("Trees retrieved successfully", data));
+        return out.count;
+    }
+
+    @Benchmark
+    public long mapBaseline() throws IOException {
+        List<Map<String, Object>> maps = new ArrayList<>();
+        for (Tree tree : trees) {
+            maps.add(toTreeMap(tree));
+        }
+        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> data = new HashMap<>();
+        data.put("trees", maps);
+        data.put("totalElements", (long) treeCount);
+        data.put("totalPages", 1L);
+        data.put("currentPage", 0);
+        data.put("pageSize", treeCount);
+        response.put("success", true);
+        response.put("message", "Trees retrieved successfully");
+        response.put("data", data);
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, response);
+        return out.count;
+    }
+
+    /** Copy of the former TreeController helper, kept as the baseline */
+    private static Map<String, Object> toTreeMap(Tree tree) {
+        Map<String, Object> map = new HashMap<>();
+        Map<String, Object> location = new HashMap<>();
+        Map<String, Object> measurements = new HashMap<>();
+
+        map.put("id", tree.getId());
+        map.put("name", tree.getName());
+        map.put("scientificName", tree.getScientificName());
+        map.put("localName", tree.getLocalName());
+        map.put("category", tree.getCategory());
+
+        location.put("lat", tree.getLat());
+        location.put("lng", tree.getLng());
+        location.put("h3Index", tree.getH3Index());
+        location.put("address", tree.getAddress());
+        map.put("location", location);
+
+        measurements.put("height", tree.getHeight());
+        measurements.put("trunkWidth", tree.getTrunkWidth());
+        measurements.put("canopySpread", tree.getCanopySpread());
+        map.put("measurements", measurements);
+
+        map.put("taggedBy", tree.getTaggedBy());
+        map.put("taggedAt", toIsoString(tree.getTaggedAt()));
+        map.put("isAIGenerated", tree.isAiGenerated());
+        map.put("isVerified", tree.isVerified());
+        map.put("verifiedBy", tree.getVerifiedBy());
+        map.put("verifiedAt", toIsoString(tree.getVerifiedAt()));
+        map.put("createdAt", toIsoString(tree.getCreatedAt()));
+        map.put("updatedAt", toIsoString(tree.getUpdatedAt()));
+        map.put("photos", new ArrayList<>());
+        return map;
+    }
+
+    private static String toIsoString(Instant instant) {
+        return instant != null ? instant.toString() : null;
+    }
+
+    /**
+     * Sink that only counts bytes, so the JIT cannot drop the writes
+     */
+    static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.krishhortus.benchmark;
+
+import com.krishhortus.Application;
+import com.krishhortus.geo.H3Service;
+import com.krishhortus.model.Tree;
+import com.krishhortus.repository.TreeBatchRepository;
+import com.krishhortus.repository.TreeFilter;
+import com.krishhortus.repository.TreeSort;
+import com.krishhortus.service.TreeCursor;
+import com.krishhortus.service.TreeService;
+import com.krishhortus.service.TreeService.CountMode;
+import com.krishhortus.service.TreeService.TreePage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List filtering and pagination behind {@code GET /api/trees}
+ *
+ * Starts the application context without a web server on an in-memory H2
+ * database, so the schema and indexes are exactly the ones Hibernate
+ * generates, and loads synthetic trees through the batch insert path.
+ * Absolute numbers are H2's; the relative cost of offset against keyset
+ * paging and of each filter carries over to PostgreSQL.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class TreeListBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int INSERT_BATCH = 5_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int treeCount;
+
+    private ConfigurableApplicationContext context;
+    private TreeService treeService;
+    private TreeFilter noFilter;
+    private TreeFilter categoryFilter;
+    private TreeFilter speciesFilter;
+    private TreeFilter cellFilter;
+    private TreeFilter radiusFilter;
+    private int middlePage;
+    private String middleCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+            .web(WebApplicationType.NONE)
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "logging.level.com.krishhortus=WARN",
+                "krishhortus.sample-data.enabled=false")
+            .run();
+        treeService = context.getBean(TreeService.class);
+        H3Service h3Service = context.getBean(H3Service.class);
+        TreeBatchRepository batchRepository = context.getBean(TreeBatchRepository.class);
+
+        List<Tree> trees = SyntheticTrees.generate(treeCount, SyntheticTrees.SEED, h3Service);
+        for (int from = 0; from < trees.size(); from += INSERT_BATCH) {
+            batchRepository.insertAll(trees.subList(from, Math.min(from + INSERT_BATCH, trees.size())));
+        }
+
+        String centerCell = h3Service.toAddress(h3Service.cellFor(SyntheticTrees.CENTER_LAT, SyntheticTrees.CENTER_LNG, 7));
+        noFilter = treeService.buildFilter(null, null, null, null, null, null, null);
+        categoryFilter = treeService.buildFilter("farm", null, null, null, null, null, null);
+        speciesFilter = treeService.buildFilter(null, "ficus", null, null, null, null, null);
+        cellFilter = treeService.buildFilter(null, null, null, null, null, centerCell, null);
+        radiusFilter = treeService.buildFilter(null, null,
+            SyntheticTrees.CENTER_LAT, SyntheticTrees.CENTER_LNG, 2_000.0, null, null);
+
+        // The row in the middle of the default ordering, reached both by offset and by cursor
+        List<Tree> ordered = new ArrayList<>(trees);
+        ordered.sort(Comparator.comparing(Tree::getUpdatedAt).thenComparing(Tree::getId).reversed());
+        middlePage = treeCount / PAGE_SIZE / 2;
+        Tree beforeMiddle = ordered.get(middlePage * PAGE_SIZE - 1);
+        middleCursor = new TreeCursor(TreeSort.UPDATED_AT, beforeMiddle.getUpdatedAt().toString(),
+            beforeMiddle.getId()).encode();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TreePage firstPage() {
+        return treeService.findTrees(noFilter, TreeSort.UPDATED_AT, null, 0, PAGE_SIZE, CountMode.NONE);
+    }
+
+    @Benchmark
+    public TreePage firstPageWithExactCount() {
+        return treeService.findTrees(noFilter, TreeSort.UPDATED_AT, null, 0, PAGE_SIZE, CountMode.EXACT);
+    }
+
+    @Benchmark
+    public TreePage middlePageByOffset() {
+        return treeService.findTrees(noFilter, TreeSort.UPDATED_AT, null, middlePage, PAGE_SIZE, CountMode.NONE);
+    }
+
+    @Benchmark
+    public TreePage middlePageByCursor() {
+        return treeService.findTrees(noFilter, TreeSort.UPDATED_AT, middleCursor, 0, PAGE_SIZE, CountMode.NONE);
+    }
+
+    @Benchmark
+    public TreePage categoryFilter() {
+        return treeService.findTrees(categoryFilter, TreeSort.UPDATED_AT, null, 0, PAGE_SIZE, CountMode.NONE);
+    }
+
+    @Benchmark
+    public TreePage speciesPrefixFilter() {
+        return treeService.findTrees(speciesFilter, TreeSort.UPDATED_AT, null, 0, PAGE_SIZE, CountMode.NONE);
+    }
+
+    @Benchmark
+    public TreePage h3CellFilter() {
+        return treeService.findTrees(cellFilter, TreeSort.H3_INDEX, null, 0, PAGE_SIZE, CountMode.NONE);
+    }
+
+    @Benchmark
+    public TreePage radiusFilter() {
+        return treeService.findTrees(radiusFilter, TreeSort.UPDATED_AT, null, 0, PAGE_SIZE, CountMode.NONE);
+    }
+}
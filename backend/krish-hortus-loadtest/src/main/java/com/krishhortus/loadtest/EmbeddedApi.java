@@ -0,0 +1,74 @@
+package com.krishhortus.loadtest;
+
+import com.krishhortus.Application;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The API booted inside the load test JVM
+ *
+ * Runs with the {@code loadtest} profile (application-loadtest.yml of this
+ * module) after the profiles given on the command line, {@code prod} by
+ * default, and listens on a free port. With {@code postgres-mode} the
+ * database is H2 in PostgreSQL compatibility mode, a stand-in for a local
+ * PostgreSQL without a container.
+ *
+ * The load generator shares the CPUs of the API; for numbers that will be
+ * compared with production, run the API separately and pass {@code --target}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+final class EmbeddedApi implements AutoCloseable {
+
+    private static final String PROFILES_OPTION = "--spring.profiles.active=";
+    private static final String POSTGRES_MODE_URL =
+        "jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+    private final ConfigurableApplicationContext context;
+    private final URI baseUri;
+
+    private EmbeddedApi(ConfigurableApplicationContext context) {
+        this.context = context;
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        this.baseUri = URI.create("http://localhost:" + port);
+    }
+
+    /**
+     * Boot the API and wait until it accepts requests
+     *
+     * @param options Load test options
+     * @return Running API
+     */
+    static EmbeddedApi start(LoadTestOptions options) {
+        String profiles = "prod";
+        List<String> args = new ArrayList<>();
+        for (String arg : options.apiArguments) {
+            if (arg.startsWith(PROFILES_OPTION)) {
+                profiles = arg.substring(PROFILES_OPTION.length());
+            } else {
+                args.add(arg);
+            }
+        }
+        // Last, so the loadtest settings win over the other profiles
+        args.add(PROFILES_OPTION + profiles + ",loadtest");
+        if (options.database.equals("postgres-mode")) {
+            args.add("--spring.datasource.url=" + POSTGRES_MODE_URL);
+        }
+        return new EmbeddedApi(SpringApplication.run(Application.class, args.toArray(String[]::new)));
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
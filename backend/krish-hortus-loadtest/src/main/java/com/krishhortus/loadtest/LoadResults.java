@@ -0,0 +1,190 @@
+package com.krishhortus.loadtest;
+
+import com.krishhortus.loadtest.LoadTestOptions.Slo;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of the measured period, and their SLO report
+ *
+ * Latencies are kept per operation in HdrHistograms with microsecond
+ * resolution and three significant digits, so high percentiles are exact
+ * to 0.1% however long the run. Every sent request counts in its
+ * operation's histogram, failed or not, because a fast error is no better
+ * for the user than a slow answer. A request fails when it has no 2xx or
+ * 304 response: an error status, a timeout or connection error, or an
+ * arrival that was not sent because too many requests were outstanding
+ * (which has no latency and only counts as failed).
+ *
+ * Thread-safe; responses are recorded from the HTTP client's threads.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+final class LoadResults {
+
+    /** Status recorded for a request that got no response */
+    static final int NO_RESPONSE = 0;
+    /** Status recorded for an arrival that was not sent */
+    static final int NOT_SENT = -1;
+
+    private static final class OperationResults {
+        final Histogram latencyMicros = new ConcurrentHistogram(3);
+        final LongAdder requests = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final Map<Integer, LongAdder> failures = new ConcurrentHashMap<>();
+    }
+
+    private final Map<Operation, OperationResults> operations = new EnumMap<>(Operation.class);
+    private final Histogram lagMicros = new Histogram(3);
+
+    LoadResults() {
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new OperationResults());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, int status) {
+        OperationResults results = operations.get(operation);
+        results.requests.increment();
+        results.latencyMicros.recordValue(Math.max(1, latencyNanos / 1000));
+        if (status / 100 != 2 && status != 304) {
+            results.failed.increment();
+            results.failures.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+    }
+
+    void recordNotSent(Operation operation) {
+        OperationResults results = operations.get(operation);
+        results.requests.increment();
+        results.failed.increment();
+        results.failures.computeIfAbsent(NOT_SENT, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Record how late the generator sent a request; called from the
+     * generator thread only
+     */
+    void recordLag(long lagNanos) {
+        lagMicros.recordValue(Math.max(1, lagNanos / 1000));
+    }
+
+    /**
+     * Print the report and check the SLOs
+     *
+     * @param options Options of the run, with the SLOs
+     * @param out Report destination
+     * @return Whether every SLO was met
+     */
+    boolean report(LoadTestOptions options, PrintStream out) {
+        long total = 0;
+        long failed = 0;
+        out.printf(Locale.ROOT, "%nOffered %.1f requests/s for %d s after %d s of warm-up%n",
+            options.rate, options.duration.toSeconds(), options.warmup.toSeconds());
+        out.printf(Locale.ROOT, "%n%-10s %9s %7s %9s %9s %9s %9s %9s   (ms)%n",
+            "Operation", "Requests", "Failed", "p50", "p90", "p99", "p99.9", "max");
+        for (Map.Entry<Operation, OperationResults> entry : operations.entrySet()) {
+            OperationResults results = entry.getValue();
+            long count = results.requests.sum();
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            failed += results.failed.sum();
+            Histogram latency = results.latencyMicros;
+            out.printf(Locale.ROOT, "%-10s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", entry.getKey().key(), count,
+                results.failed.sum(), millis(latency, 50), millis(latency, 90), millis(latency, 99),
+                millis(latency, 99.9), latency.getMaxValue() / 1000.0);
+        }
+        out.printf(Locale.ROOT, "%nCompleted %.1f requests/s; generator lag p99 %.1f ms, max %.1f ms%n",
+            total / (double) options.duration.toSeconds(), millis(lagMicros, 99), lagMicros.getMaxValue() / 1000.0);
+        printFailures(out);
+
+        boolean passed = true;
+        out.printf("%nSLOs%n");
+        for (Slo slo : options.slos) {
+            Histogram latency = operations.get(slo.operation()).latencyMicros;
+            String name = String.format(Locale.ROOT, "%s p%s", slo.operation().key(), trim(slo.percentile()));
+            if (latency.getTotalCount() == 0) {
+                out.printf("  SKIP  %s: no requests%n", name);
+                continue;
+            }
+            double actual = millis(latency, slo.percentile());
+            boolean met = actual <= slo.limit().toNanos() / 1_000_000.0;
+            passed &= met;
+            out.printf(Locale.ROOT, "  %s  %s %.1f ms %s %d ms%n", met ? "PASS" : "FAIL", name, actual,
+                met ? "<=" : ">", slo.limit().toMillis());
+        }
+        double errorRate = total == 0 ? 0 : failed / (double) total;
+        boolean errorsMet = total > 0 && errorRate <= options.maxErrorRate;
+        passed &= errorsMet;
+        out.printf(Locale.ROOT, "  %s  failed %.3f%% %s %.3f%%%n", errorsMet ? "PASS" : "FAIL", errorRate * 100,
+            errorsMet ? "<=" : ">", options.maxErrorRate * 100);
+        out.printf("%nResult: %s%n", passed ? "PASS" : "FAIL");
+        return passed;
+    }
+
+    /**
+     * Write one percentile distribution per operation, for the HdrHistogram plotter
+     *
+     * @param directory Target directory, created if missing
+     * @throws IOException if a file cannot be written
+     */
+    void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, OperationResults> entry : operations.entrySet()) {
+            Histogram latency = entry.getValue().latencyMicros;
+            if (latency.getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey().key() + ".hgrm")))) {
+                latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private void printFailures(PrintStream out) {
+        boolean header = false;
+        for (Map.Entry<Operation, OperationResults> entry : operations.entrySet()) {
+            Map<Integer, LongAdder> failures = new TreeMap<>(entry.getValue().failures);
+            if (failures.isEmpty()) {
+                continue;
+            }
+            StringJoiner line = new StringJoiner(", ", "  " + entry.getKey().key() + ": ", "");
+            failures.forEach((status, count) -> line.add(describe(status) + " x" + count.sum()));
+            if (!header) {
+                out.printf("%nFailures%n");
+                header = true;
+            }
+            out.println(line);
+        }
+    }
+
+    private static String describe(int status) {
+        return switch (status) {
+            case NOT_SENT -> "not sent";
+            case NO_RESPONSE -> "no response";
+            default -> Integer.toString(status);
+        };
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static String trim(double percentile) {
+        return percentile == Math.rint(percentile) ? Long.toString((long) percentile) : Double.toString(percentile);
+    }
+}
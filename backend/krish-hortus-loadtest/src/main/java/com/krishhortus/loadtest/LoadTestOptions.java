@@ -0,0 +1,168 @@
+package com.krishhortus.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of the load test
+ *
+ * Options are given as {@code --name=value}; every option has a default,
+ * so a bare run seeds and measures a local embedded API:
+ * - {@code target}: base URL of a running API; without it the API is
+ *   booted in-process on embedded H2
+ * - {@code database}: {@code h2} (default) or {@code postgres-mode}, H2
+ *   emulating PostgreSQL, for the embedded API
+ * - {@code trees}, {@code users}: synthetic trees uploaded and users
+ *   registered before the run
+ * - {@code rate}: mean request arrivals per second, {@code warmup} and
+ *   {@code duration}: unreported and reported run time
+ * - {@code mix}: relative weights of the operations, e.g.
+ *   {@code nearby=40,detail=30}
+ * - {@code slo}: latency objectives, e.g. {@code nearby.p99=250ms,detail.p99.9=200ms},
+ *   added to or replacing the defaults; {@code max-error-rate}: highest
+ *   share of failed requests
+ * - {@code timeout}, {@code max-in-flight}: per-request timeout and the
+ *   most requests awaiting a response
+ * - {@code seed}: random seed of data and workload
+ * - {@code histogram-dir}: directory for one percentile distribution file
+ *   ({@code .hgrm}) per operation
+ *
+ * Any other option is passed on to the embedded API, e.g.
+ * {@code --spring.profiles.active=prod,virtual-threads}.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public final class LoadTestOptions {
+
+    /**
+     * Latency objective of one operation
+     *
+     * @param operation Operation held to the objective
+     * @param percentile Percentile, e.g. 99.9
+     * @param limit Highest acceptable latency at that percentile
+     */
+    public record Slo(Operation operation, double percentile, Duration limit) {
+    }
+
+    private static final String DEFAULT_MIX = "nearby=40,list=15,detail=30,create=8,verify=5,login=2";
+    private static final String DEFAULT_SLOS =
+        "nearby.p99=250ms,list.p99=500ms,detail.p99=100ms,create.p99=500ms,verify.p99=500ms,login.p99=1s";
+
+    URI target;
+    String database = "h2";
+    int trees = 1_000_000;
+    int users = 20;
+    double rate = 200;
+    Duration warmup = Duration.ofSeconds(30);
+    Duration duration = Duration.ofMinutes(2);
+    final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+    final List<Slo> slos = new ArrayList<>();
+    double maxErrorRate = 0.001;
+    Duration timeout = Duration.ofSeconds(10);
+    int maxInFlight = 2000;
+    long seed = 20240601L;
+    Path histogramDir;
+    final List<String> apiArguments = new ArrayList<>();
+
+    private LoadTestOptions() {
+    }
+
+    /**
+     * Parse the command line
+     *
+     * @param args Command line arguments
+     * @return Options with defaults for everything not given
+     * @throws IllegalArgumentException if an argument is malformed or out of range
+     */
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        options.parseMix(DEFAULT_MIX);
+        options.parseSlos(DEFAULT_SLOS);
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, equals);
+            String value = arg.substring(equals + 1);
+            switch (name) {
+                case "target" -> options.target = URI.create(value.endsWith("/") ? value.substring(0, value.length() - 1) : value);
+                case "database" -> options.database = value;
+                case "trees" -> options.trees = Integer.parseInt(value);
+                case "users" -> options.users = Integer.parseInt(value);
+                case "rate" -> options.rate = Double.parseDouble(value);
+                case "warmup" -> options.warmup = DurationStyle.detectAndParse(value);
+                case "duration" -> options.duration = DurationStyle.detectAndParse(value);
+                case "mix" -> options.parseMix(value);
+                case "slo" -> options.parseSlos(value);
+                case "max-error-rate" -> options.maxErrorRate = Double.parseDouble(value);
+                case "timeout" -> options.timeout = DurationStyle.detectAndParse(value);
+                case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+                case "seed" -> options.seed = Long.parseLong(value);
+                case "histogram-dir" -> options.histogramDir = Path.of(value);
+                default -> options.apiArguments.add(arg);
+            }
+        }
+        options.validate();
+        return options;
+    }
+
+    private void parseMix(String value) {
+        mix.clear();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight in mix, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weights must not be negative: " + entry);
+            }
+            mix.put(Operation.fromKey(parts[0]), weight);
+        }
+    }
+
+    /**
+     * Add objectives; one given for an operation and percentile that
+     * already has one replaces it
+     */
+    private void parseSlos(String value) {
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split("=");
+            int dot = parts[0].indexOf(".p");
+            if (parts.length != 2 || dot < 0) {
+                throw new IllegalArgumentException("Expected operation.pNN=duration in slo, got: " + entry);
+            }
+            Operation operation = Operation.fromKey(parts[0].substring(0, dot));
+            double percentile = Double.parseDouble(parts[0].substring(dot + 2));
+            if (!(percentile > 0 && percentile <= 100)) {
+                throw new IllegalArgumentException("SLO percentile must be in (0, 100]: " + entry);
+            }
+            slos.removeIf(slo -> slo.operation() == operation && slo.percentile() == percentile);
+            slos.add(new Slo(operation, percentile, DurationStyle.detectAndParse(parts[1].trim())));
+        }
+    }
+
+    private void validate() {
+        if (trees < 0 || users < 1 || !(rate > 0) || maxInFlight < 1) {
+            throw new IllegalArgumentException("trees must not be negative; users, rate and max-in-flight must be positive");
+        }
+        if (warmup.isNegative() || duration.isZero() || duration.isNegative() || timeout.isZero() || timeout.isNegative()) {
+            throw new IllegalArgumentException("duration and timeout must be positive, warmup must not be negative");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("At least one operation needs a positive mix weight");
+        }
+        if (!database.equals("h2") && !database.equals("postgres-mode")) {
+            throw new IllegalArgumentException("database must be h2 or postgres-mode");
+        }
+    }
+}
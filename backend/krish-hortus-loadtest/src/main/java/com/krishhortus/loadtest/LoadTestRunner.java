@@ -0,0 +1,77 @@
+package com.krishhortus.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.krishhortus.loadtest.Seeder.TestData;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+
+/**
+ * Entry point of the load test jar
+ *
+ * A run has four steps:
+ * - Boot the API in-process, unless {@code --target} points at a running one
+ * - Register the test users and upload the synthetic trees
+ * - Apply the open-model workload for the warm-up and the measured period
+ * - Print per-operation latency percentiles and the SLO verdict
+ *
+ * The exit code is 0 when every SLO is met, 1 when one is missed and 2
+ * when the run could not be set up, so the jar can gate a build.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public final class LoadTestRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestRunner.class);
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid options: " + e.getMessage());
+            System.err.println("See LoadTestOptions or backend/README.md for the available options");
+            System.exit(2);
+            return;
+        }
+        System.exit(run(options));
+    }
+
+    private static int run(LoadTestOptions options) throws InterruptedException {
+        EmbeddedApi api = null;
+        try {
+            URI baseUri = options.target;
+            if (baseUri == null) {
+                api = EmbeddedApi.start(options);
+                baseUri = api.baseUri();
+            }
+            log.info("Load testing {}", baseUri);
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout)
+                .build();
+            TestData data = new Seeder(client, new ObjectMapper(), baseUri, options).seed();
+
+            LoadResults results = new OpenLoadGenerator(client, new Workload(baseUri, data, options), options).run();
+            boolean passed = results.report(options, System.out);
+            if (options.histogramDir != null) {
+                results.writeHistograms(options.histogramDir);
+            }
+            return passed ? 0 : 1;
+        } catch (IOException e) {
+            log.error("Load test setup failed: {}", e.getMessage());
+            return 2;
+        } finally {
+            if (api != null) {
+                api.close();
+            }
+        }
+    }
+}
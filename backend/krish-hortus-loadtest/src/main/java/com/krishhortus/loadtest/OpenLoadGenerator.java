@@ -0,0 +1,105 @@
+package com.krishhortus.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests arrive on a schedule, not after responses
+ *
+ * Arrivals form a Poisson process at the {@code rate} option, like many
+ * independent users, and are sent asynchronously whether or not earlier
+ * requests have been answered. A slow server therefore meets the same
+ * arrival rate instead of slowing the load down, and each latency is
+ * measured from the request's scheduled arrival, not from when it was
+ * sent, so a stall of the generator itself is counted against the server
+ * rather than hidden (no coordinated omission).
+ *
+ * Requests scheduled during the warm-up are sent but not recorded. At most
+ * {@code max-in-flight} requests await a response; arrivals beyond that
+ * are not sent and count as failed.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+final class OpenLoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenLoadGenerator.class);
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final LoadTestOptions options;
+
+    OpenLoadGenerator(HttpClient client, Workload workload, LoadTestOptions options) {
+        this.client = client;
+        this.workload = workload;
+        this.options = options;
+    }
+
+    /**
+     * Run the warm-up and the measured period, then wait for outstanding responses
+     *
+     * @return Results of the measured period
+     * @throws InterruptedException if interrupted while running
+     */
+    LoadResults run() throws InterruptedException {
+        LoadResults results = new LoadResults();
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        SplittableRandom arrivals = new SplittableRandom(options.seed + 2);
+        double meanIntervalNanos = 1_000_000_000d / options.rate;
+
+        long start = System.nanoTime();
+        long measureFrom = start + options.warmup.toNanos();
+        long end = measureFrom + options.duration.toNanos();
+        log.info("Warming up for {} s at {} requests/s", options.warmup.toSeconds(), options.rate);
+        boolean measuring = false;
+        long scheduled = start;
+        while (scheduled - end < 0) {
+            long now = System.nanoTime();
+            while (scheduled - now > 0) {
+                LockSupport.parkNanos(scheduled - now);
+                now = System.nanoTime();
+            }
+            boolean measured = scheduled - measureFrom >= 0;
+            if (measured && !measuring) {
+                measuring = true;
+                log.info("Measuring for {} s", options.duration.toSeconds());
+            }
+            if (measured) {
+                results.recordLag(now - scheduled);
+            }
+            Operation operation = workload.nextOperation();
+            HttpRequest request = workload.request(operation);
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    results.recordNotSent(operation);
+                }
+            } else {
+                long arrival = scheduled;
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                    if (measured) {
+                        results.record(operation, System.nanoTime() - arrival,
+                            response == null ? LoadResults.NO_RESPONSE : response.statusCode());
+                    }
+                    inFlight.release();
+                });
+            }
+            // Exponential gaps between arrivals make a Poisson process
+            scheduled += (long) (-Math.log(1 - arrivals.nextDouble()) * meanIntervalNanos);
+        }
+
+        long drainMillis = options.timeout.toMillis() + 5_000;
+        if (!inFlight.tryAcquire(options.maxInFlight, drainMillis, TimeUnit.MILLISECONDS)) {
+            log.warn("{} requests still outstanding after {} ms", options.maxInFlight - inFlight.availablePermits(),
+                drainMillis);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,47 @@
+package com.krishhortus.loadtest;
+
+import java.util.Locale;
+
+/**
+ * Kinds of request in the load test workload
+ *
+ * Each operation is reported and held to its SLOs separately.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+public enum Operation {
+    /** Map pan: trees around the new map center, {@code GET /api/trees/nearby} */
+    NEARBY,
+    /** Map pan: list page of the visible area, {@code GET /api/trees?lat&lng&radius} */
+    LIST,
+    /** Tap on a map marker, {@code GET /api/trees/{id}} */
+    DETAIL,
+    /** Newly tagged tree, {@code POST /api/trees} */
+    CREATE,
+    /** Tree verification, {@code POST /api/trees/{id}/verify} */
+    VERIFY,
+    /** Password login, {@code POST /api/auth/login} */
+    LOGIN;
+
+    /**
+     * @return Name in options and reports
+     */
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param key Name in options, case-insensitive
+     * @return Matching operation
+     * @throws IllegalArgumentException if no operation has that name
+     */
+    public static Operation fromKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key().equalsIgnoreCase(key.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + key);
+    }
+}
@@ -0,0 +1,193 @@
+package com.krishhortus.loadtest;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Test users and trees created through the public API before a run
+ *
+ * Users are registered with unique emails, so runs can repeat against the
+ * same server. Trees are uploaded through the batch endpoint as NDJSON in
+ * uploads of up to 100,000 trees; the ids of up to 100,000 of them, spread
+ * evenly over the upload, are kept as targets for detail and verify
+ * requests. Without trees to upload, the ids are taken from the first
+ * pages of the tree list instead.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+final class Seeder {
+
+    private static final Logger log = LoggerFactory.getLogger(Seeder.class);
+
+    static final String PASSWORD = "loadtest-password";
+
+    private static final int UPLOAD_SIZE = 100_000;
+    private static final int ID_SAMPLE_SIZE = 100_000;
+    private static final int LIST_PAGE_SIZE = 100;
+    private static final int LIST_PAGES = 20;
+    private static final Duration SEED_TIMEOUT = Duration.ofMinutes(10);
+
+    /**
+     * Users and trees a run works with
+     *
+     * @param emails Emails of the registered users
+     * @param tokens Access tokens, in the order of {@code emails}
+     * @param treeIds Ids of existing trees
+     */
+    record TestData(String[] emails, String[] tokens, String[] treeIds) {
+    }
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final LoadTestOptions options;
+
+    Seeder(HttpClient client, ObjectMapper objectMapper, URI baseUri, LoadTestOptions options) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUri = baseUri;
+        this.options = options;
+    }
+
+    /**
+     * Register the users and upload the trees
+     *
+     * @return Test data of the run
+     * @throws IOException if the API cannot be reached or rejects a seeding request
+     * @throws InterruptedException if interrupted while waiting for the API
+     */
+    TestData seed() throws IOException, InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        String[] emails = new String[options.users];
+        String[] tokens = new String[options.users];
+        for (int i = 0; i < options.users; i++) {
+            emails[i] = "loadtest-" + runId + "-" + i + "@example.com";
+            JsonNode data = send(post("/api/auth/register", objectMapper.writeValueAsBytes(
+                Map.of("email", emails[i], "password", PASSWORD, "name", "Load Test " + i))));
+            tokens[i] = data.path("token").asText();
+        }
+        log.info("Registered {} users", options.users);
+
+        List<String> treeIds = options.trees > 0 ? uploadTrees(tokens[0]) : listTrees(tokens[0]);
+        if (treeIds.isEmpty()) {
+            throw new IOException("The API has no trees to request; run with --trees greater than 0");
+        }
+        return new TestData(emails, tokens, treeIds.toArray(String[]::new));
+    }
+
+    private List<String> uploadTrees(String token) throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(options.seed);
+        int stride = Math.max(1, (options.trees + ID_SAMPLE_SIZE - 1) / ID_SAMPLE_SIZE);
+        List<String> ids = new ArrayList<>(Math.min(options.trees, ID_SAMPLE_SIZE));
+        long started = System.nanoTime();
+        for (int first = 0; first < options.trees; first += UPLOAD_SIZE) {
+            int count = Math.min(UPLOAD_SIZE, options.trees - first);
+            JsonNode data = send(HttpRequest.newBuilder(baseUri.resolve("/api/trees/batch"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/x-ndjson")
+                .timeout(SEED_TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(ndjson(random, first, count)))
+                .build());
+            if (data.path("failed").asInt() > 0) {
+                throw new IOException("Batch upload rejected " + data.path("failed").asInt() + " trees");
+            }
+            for (JsonNode result : data.path("results")) {
+                if ((first + result.path("index").asInt()) % stride == 0) {
+                    ids.add(result.path("id").asText());
+                }
+            }
+            log.info("Uploaded {} of {} trees", first + count, options.trees);
+        }
+        log.info("Uploaded {} trees in {} s", options.trees, (System.nanoTime() - started) / 1_000_000_000);
+        return ids;
+    }
+
+    private byte[] ndjson(SplittableRandom random, int first, int count) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(count * 320);
+        double[] location = new double[2];
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            for (int i = first; i < first + count; i++) {
+                int species = random.nextInt(SyntheticLocations.SPECIES.length);
+                SyntheticLocations.next(random, location);
+                gen.writeStartObject();
+                gen.writeStringField("name", "Load Test Tree " + i);
+                gen.writeStringField("category", SyntheticLocations.CATEGORIES[random.nextInt(SyntheticLocations.CATEGORIES.length)]);
+                gen.writeStringField("scientificName", SyntheticLocations.SPECIES[species]);
+                gen.writeStringField("localName", SyntheticLocations.LOCAL_NAMES[species]);
+                gen.writeObjectFieldStart("location");
+                gen.writeNumberField("lat", location[0]);
+                gen.writeNumberField("lng", location[1]);
+                gen.writeEndObject();
+                gen.writeObjectFieldStart("measurements");
+                gen.writeNumberField("height", 2 + random.nextDouble() * 25);
+                gen.writeNumberField("trunkWidth", 0.1 + random.nextDouble() * 2);
+                gen.writeNumberField("canopySpread", 1 + random.nextDouble() * 20);
+                gen.writeEndObject();
+                gen.writeEndObject();
+                gen.writeRaw('\n');
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private List<String> listTrees(String token) throws IOException, InterruptedException {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page < LIST_PAGES; page++) {
+            String query = "/api/trees?count=none&size=" + LIST_PAGE_SIZE
+                + (cursor == null ? "" : "&after=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8));
+            JsonNode data = send(HttpRequest.newBuilder(baseUri.resolve(query))
+                .header("Authorization", "Bearer " + token)
+                .timeout(SEED_TIMEOUT)
+                .build());
+            for (JsonNode tree : data.path("trees")) {
+                ids.add(tree.path("id").asText());
+            }
+            cursor = data.path("nextCursor").textValue();
+            if (cursor == null) {
+                break;
+            }
+        }
+        log.info("Using {} existing trees", ids.size());
+        return ids;
+    }
+
+    private HttpRequest post(String path, byte[] body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .header("Content-Type", "application/json")
+            .timeout(SEED_TIMEOUT)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+            .build();
+    }
+
+    /**
+     * @return {@code data} of the response envelope
+     * @throws IOException if the response is not successful
+     */
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException(request.method() + " " + request.uri().getPath() + " answered "
+                + response.statusCode() + ": " + new String(response.body(), StandardCharsets.UTF_8));
+        }
+        return objectMapper.readTree(response.body()).path("data");
+    }
+}
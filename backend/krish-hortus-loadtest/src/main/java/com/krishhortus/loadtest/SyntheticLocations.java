@@ -0,0 +1,73 @@
+package com.krishhortus.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Realistic locations for synthetic trees and map views
+ *
+ * Trees and map views cluster around real Maharashtra coordinates: the
+ * survey site of the sample trees, the points the API's mock trees used
+ * and {@code SampleDataLoader} still seeds, and the cities the surveys
+ * cover. Positions are normally distributed around each center, so density
+ * falls off from the city core like real tagging activity, and map views
+ * land where the trees are.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+final class SyntheticLocations {
+
+    /** Centers as latitude/longitude pairs, with their share of trees */
+    private static final double[][] CITIES = {
+        {19.7515, 75.7139, 0.20},  // Sample tree survey site
+        {19.0760, 72.8777, 0.20},  // Mumbai
+        {18.5204, 73.8567, 0.20},  // Pune
+        {21.1458, 79.0882, 0.15},  // Nagpur
+        {19.8762, 75.3433, 0.15},  // Aurangabad
+        {19.9975, 73.7898, 0.10},  // Nashik
+    };
+
+    /** Standard deviation of positions around a city center, about 9 km */
+    private static final double SPREAD_DEGREES = 0.08;
+
+    static final String[] CATEGORIES = {"farm", "community", "nursery"};
+
+    static final String[] SPECIES = {
+        "Azadirachta indica", "Ficus benghalensis", "Ficus religiosa", "Mangifera indica",
+        "Tectona grandis", "Dalbergia sissoo", "Syzygium cumini", "Tamarindus indica",
+        "Pongamia pinnata", "Terminalia arjuna", "Delonix regia", "Cassia fistula"
+    };
+
+    static final String[] LOCAL_NAMES = {
+        "Neem", "Banyan", "Peepal", "Mango", "Teak", "Shisham",
+        "Jamun", "Imli", "Karanj", "Arjun", "Gulmohar", "Amaltas"
+    };
+
+    private SyntheticLocations() {
+    }
+
+    /**
+     * Draw a location
+     *
+     * @param random Random source
+     * @param target Array receiving latitude and longitude
+     */
+    static void next(SplittableRandom random, double[] target) {
+        double pick = random.nextDouble();
+        double[] city = CITIES[CITIES.length - 1];
+        for (double[] candidate : CITIES) {
+            pick -= candidate[2];
+            if (pick < 0) {
+                city = candidate;
+                break;
+            }
+        }
+        target[0] = city[0] + gaussian(random) * SPREAD_DEGREES;
+        target[1] = city[1] + gaussian(random) * SPREAD_DEGREES;
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian on Java 17
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+}
@@ -0,0 +1,126 @@
+package com.krishhortus.loadtest;
+
+import com.krishhortus.loadtest.Seeder.TestData;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Mixed request workload of map and survey users
+ *
+ * Picks an operation by the weights of the {@code mix} option and builds its
+ * request for a random test user:
+ * - Map pans ask for nearby trees and a list page around a point drawn
+ *   like the tree locations, with the radius of a city or district view
+ * - Detail and verify requests go to random seeded trees
+ * - Creates tag a new tree at a random location
+ * - Logins use a test user's password
+ *
+ * Not thread-safe; the load generator builds all requests on one thread.
+ *
+ * @author Krish Hortus Development Team
+ * @version 1.0.0
+ */
+final class Workload {
+
+    private static final int[] PAN_RADII = {500, 1000, 2000, 5000};
+
+    private final URI baseUri;
+    private final TestData data;
+    private final Duration timeout;
+    private final SplittableRandom random;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final double[] location = new double[2];
+    private long created;
+
+    Workload(URI baseUri, TestData data, LoadTestOptions options) {
+        this.baseUri = baseUri;
+        this.data = data;
+        this.timeout = options.timeout;
+        this.random = new SplittableRandom(options.seed + 1);
+        this.operations = options.mix.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * @return Next operation, drawn by the mix weights
+     */
+    Operation nextOperation() {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Mix weights exhausted");
+    }
+
+    /**
+     * @param operation Operation to request
+     * @return Request for a random user and target
+     */
+    HttpRequest request(Operation operation) {
+        int user = random.nextInt(data.tokens().length);
+        return switch (operation) {
+            case NEARBY -> {
+                SyntheticLocations.next(random, location);
+                yield get(user, String.format(Locale.ROOT, "/api/trees/nearby?lat=%.6f&lng=%.6f&radius=%d&limit=50",
+                    location[0], location[1], PAN_RADII[random.nextInt(PAN_RADII.length)]));
+            }
+            case LIST -> {
+                SyntheticLocations.next(random, location);
+                yield get(user, String.format(Locale.ROOT, "/api/trees?lat=%.6f&lng=%.6f&radius=%d&size=20",
+                    location[0], location[1], PAN_RADII[random.nextInt(PAN_RADII.length)]));
+            }
+            case DETAIL -> get(user, "/api/trees/" + randomTree());
+            case CREATE -> {
+                SyntheticLocations.next(random, location);
+                int species = random.nextInt(SyntheticLocations.SPECIES.length);
+                yield post(user, "/api/trees", String.format(Locale.ROOT,
+                    "{\"name\":\"Load Test New Tree %d\",\"category\":\"community\",\"scientificName\":\"%s\","
+                        + "\"localName\":\"%s\",\"location\":{\"lat\":%.6f,\"lng\":%.6f},"
+                        + "\"measurements\":{\"height\":%.1f}}",
+                    ++created, SyntheticLocations.SPECIES[species], SyntheticLocations.LOCAL_NAMES[species],
+                    location[0], location[1], 2 + random.nextDouble() * 25));
+            }
+            case VERIFY -> post(user, "/api/trees/" + randomTree() + "/verify", "");
+            case LOGIN -> HttpRequest.newBuilder(baseUri.resolve("/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .timeout(timeout)
+                .POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"email\":\"" + data.emails()[user] + "\",\"password\":\"" + Seeder.PASSWORD + "\"}",
+                    StandardCharsets.UTF_8))
+                .build();
+        };
+    }
+
+    private String randomTree() {
+        return data.treeIds()[random.nextInt(data.treeIds().length)];
+    }
+
+    private HttpRequest get(int user, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .header("Authorization", "Bearer " + data.tokens()[user])
+            .timeout(timeout)
+            .build();
+    }
+
+    private HttpRequest post(int user, String path, String body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+            .header("Authorization", "Bearer " + data.tokens()[user])
+            .header("Content-Type", "application/json")
+            .timeout(timeout)
+            .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+            .build();
+    }
+}
@@ -14,6 +14,9 @@ export const API_CONFIG = {
       BASE: '/trees',
       SEARCH: '/trees/search',
       NEARBY: '/trees/nearby',
+      CLUSTERS: '/trees/clusters',
+      CHANGES: '/trees/changes',
+      STREAM: '/trees/stream',
       CATEGORIES: '/trees/categories',
       VERIFY: '/trees/{id}/verify'
     },
@@ -1,4 +1,5 @@
 import { apiClient } from './apiClient';
+import { API_CONFIG } from '@/config/api';
 
 export interface TreeIdentificationResult {
   commonName: string;
@@ -26,6 +27,16 @@ class AIService {
   }
 
   async identifyTree(imageFile: File): Promise<TreeIdentificationResult> {
+    try {
+      // The server caches results, so repeat scans are answered at once
+      const formData = new FormData();
+      formData.append('image', imageFile);
+      const response = await apiClient.uploadFile<TreeIdentificationResult>(API_CONFIG.ENDPOINTS.AI.IDENTIFY, formData);
+      return response.data;
+    } catch (error) {
+      console.warn('Server identification unavailable, identifying in the browser:', error);
+    }
+
     try {
       console.log('Starting tree identification with Gemini API...');
       
@@ -33,6 +33,10 @@ class ApiClient {
     localStorage.setItem('krish_hortus_token', token);
   }
 
+  public getToken(): string | null {
+    return this.token;
+  }
+
   public clearToken() {
     this.token = null;
     localStorage.removeItem('krish_hortus_token');
@@ -44,12 +48,18 @@ class ApiClient {
   ): Promise<ApiResponse<T>> {
     const url = `${this.baseURL}${endpoint}`;
     
+    const headers: Record<string, string> = {
+      ...getAuthHeaders(this.token || undefined),
+      ...(options.headers as Record<string, string>),
+    };
+    if (options.body instanceof FormData) {
+      // The browser sets the multipart content type with its boundary
+      delete headers['Content-Type'];
+    }
+
     const config: RequestInit = {
       ...options,
-      headers: {
-        ...getAuthHeaders(this.token || undefined),
-        ...options.headers,
-      },
+      headers,
     };
 
     try {
@@ -15,14 +15,69 @@ export interface TreeSearchParams {
   verified?: boolean;
   page?: number;
   size?: number;
+  after?: string; // nextCursor from the previous page
+  sort?: 'updatedAt' | 'h3Index';
+  count?: 'exact' | 'estimated' | 'none';
 }
 
 export interface TreeResponse {
   trees: Tree[];
-  totalElements: number;
-  totalPages: number;
-  currentPage: number;
-  size: number;
+  totalElements?: number;
+  totalPages?: number;
+  countEstimated?: boolean;
+  currentPage?: number;
+  pageSize: number;
+  nextCursor: string | null;
+}
+
+export interface TreeClusterParams {
+  bounds: {
+    minLat: number;
+    minLng: number;
+    maxLat: number;
+    maxLng: number;
+  };
+  zoom: number;
+}
+
+export interface TreeCluster {
+  h3Index: string;
+  count: number;
+  centroid: { lat: number; lng: number };
+  categories: Record<string, number>;
+}
+
+export interface TreeClusterResponse {
+  resolution: number;
+  zoom: number;
+  totalCount: number;
+  clusters: TreeCluster[];
+}
+
+export interface TreeChange {
+  seq: number;
+  op: 'upsert' | 'delete';
+  id: string;
+  tree?: Tree;
+}
+
+export interface TreeChangesResponse {
+  since: number;
+  nextSince: number;
+  hasMore: boolean;
+  changes: TreeChange[];
+}
+
+export interface TreeNameSearchParams {
+  q: string;
+  cell?: string; // H3 cell restricting the results
+  limit?: number;
+}
+
+export interface TreeNameSearchResponse {
+  query: string;
+  trees: Tree[];
+  hasMore: boolean;
 }
 
 export interface NearbyTreesParams {
@@ -126,6 +181,74 @@ class TreeService {
     }
   }
 
+  async searchTrees(params: TreeNameSearchParams): Promise<TreeNameSearchResponse> {
+    try {
+      const queryParams = new URLSearchParams({ q: params.q });
+      if (params.cell) queryParams.append('cell', params.cell);
+      if (params.limit) queryParams.append('limit', params.limit.toString());
+
+      const response = await apiClient.get<TreeNameSearchResponse>(`${API_CONFIG.ENDPOINTS.TREES.SEARCH}?${queryParams}`);
+      return response.data;
+    } catch (error) {
+      console.error('Search trees error:', error);
+      throw new Error('Failed to search trees');
+    }
+  }
+
+  async getClusters(params: TreeClusterParams): Promise<TreeClusterResponse> {
+    try {
+      const { minLat, minLng, maxLat, maxLng } = params.bounds;
+      const queryParams = new URLSearchParams({
+        bbox: [minLng, minLat, maxLng, maxLat].join(','),
+        zoom: Math.round(params.zoom).toString()
+      });
+
+      const response = await apiClient.get<TreeClusterResponse>(`${API_CONFIG.ENDPOINTS.TREES.CLUSTERS}?${queryParams}`);
+      return response.data;
+    } catch (error) {
+      console.error('Get tree clusters error:', error);
+      throw new Error('Failed to fetch tree clusters');
+    }
+  }
+
+  async getChanges(since: number, cell?: string, limit?: number): Promise<TreeChangesResponse> {
+    try {
+      const queryParams = new URLSearchParams({ since: since.toString() });
+      if (cell) queryParams.append('cell', cell);
+      if (limit) queryParams.append('limit', limit.toString());
+
+      const response = await apiClient.get<TreeChangesResponse>(`${API_CONFIG.ENDPOINTS.TREES.CHANGES}?${queryParams}`);
+      return response.data;
+    } catch (error) {
+      console.error('Get tree changes error:', error);
+      throw new Error('Failed to fetch tree changes');
+    }
+  }
+
+  subscribeToChanges(
+    cells: string[],
+    onChange: (change: TreeChange, event: string) => void,
+    onResync?: () => void
+  ): EventSource {
+    const queryParams = new URLSearchParams({ cells: cells.join(',') });
+    // EventSource cannot send an Authorization header
+    const token = apiClient.getToken();
+    if (token) {
+      queryParams.set('access_token', token);
+    }
+    const source = new EventSource(`${API_CONFIG.BASE_URL}${API_CONFIG.ENDPOINTS.TREES.STREAM}?${queryParams}`);
+
+    ['created', 'updated', 'verified', 'deleted'].forEach((eventName) => {
+      source.addEventListener(eventName, (event) => {
+        onChange(JSON.parse((event as MessageEvent).data) as TreeChange, eventName);
+      });
+    });
+    // Events were dropped server-side; catch up through getChanges()
+    source.addEventListener('resync', () => onResync?.());
+
+    return source;
+  }
+
   async verifyTree(id: string): Promise<Tree> {
     try {
       const endpoint = API_CONFIG.ENDPOINTS.TREES.VERIFY.replace('{id}', id);
@@ -137,15 +260,18 @@ class TreeService {
     }
   }
 
-  async uploadTreePhotos(treeId: string, photos: File[]): Promise<string[]> {
+  async uploadTreePhotos(treeId: string, photos: TreeFormData['photos']): Promise<Tree['photos']> {
     try {
+      // The server streams the upload and needs treeId before the files
       const formData = new FormData();
-      photos.forEach((photo, index) => {
-        formData.append(`photo_${index}`, photo);
-      });
       formData.append('treeId', treeId);
+      Object.entries(photos).forEach(([slot, photo]) => {
+        if (photo) {
+          formData.append(slot, photo);
+        }
+      });
 
-      const response = await apiClient.uploadFile<string[]>(API_CONFIG.ENDPOINTS.UPLOAD.PHOTOS, formData);
+      const response = await apiClient.uploadFile<Tree['photos']>(API_CONFIG.ENDPOINTS.UPLOAD.PHOTOS, formData);
       return response.data;
     } catch (error) {
       console.error('Upload photos error:', error);